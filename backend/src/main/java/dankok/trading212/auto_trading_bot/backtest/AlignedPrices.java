@@ -0,0 +1,73 @@
+package dankok.trading212.auto_trading_bot.backtest;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+
+import java.util.List;
+
+/**
+ * Several coins' prices on one timeline of evenly spaced bars. The timeline covers only the span
+ * every coin has data for, and each coin's price at a bar is its last sample at or before it, so
+ * coins sampled at slightly different instants line up.
+ */
+public final class AlignedPrices {
+
+    private final long[] timestamps;
+    private final double[][] prices;
+
+    private AlignedPrices(long[] timestamps, double[][] prices) {
+        this.timestamps = timestamps;
+        this.prices = prices;
+    }
+
+    public static AlignedPrices align(List<PriceSeries> series, long stepMillis) {
+        if (stepMillis <= 0) {
+            throw new IllegalArgumentException("Step must be positive");
+        }
+        long start = Long.MIN_VALUE;
+        long end = Long.MAX_VALUE;
+        for (PriceSeries coin : series) {
+            if (coin.isEmpty()) {
+                return new AlignedPrices(new long[0], new double[series.size()][0]);
+            }
+            start = Math.max(start, coin.firstTimestamp());
+            end = Math.min(end, coin.lastTimestamp());
+        }
+        int bars = series.isEmpty() || start > end ? 0 : (int) ((end - start) / stepMillis) + 1;
+
+        long[] timestamps = new long[bars];
+        for (int bar = 0; bar < bars; bar++) {
+            timestamps[bar] = start + bar * stepMillis;
+        }
+        double[][] prices = new double[series.size()][bars];
+        for (int c = 0; c < series.size(); c++) {
+            PriceSeries coin = series.get(c);
+            int sample = 0;
+            for (int bar = 0; bar < bars; bar++) {
+                while (sample + 1 < coin.size() && coin.timestampAt(sample + 1) <= timestamps[bar]) {
+                    sample++;
+                }
+                prices[c][bar] = coin.priceAt(sample);
+            }
+        }
+        return new AlignedPrices(timestamps, prices);
+    }
+
+    public int bars() {
+        return timestamps.length;
+    }
+
+    public int coins() {
+        return prices.length;
+    }
+
+    public long[] timestamps() {
+        return timestamps;
+    }
+
+    /**
+     * The coin's price at every bar. The array is shared and must not be modified.
+     */
+    public double[] prices(int coin) {
+        return prices[coin];
+    }
+}
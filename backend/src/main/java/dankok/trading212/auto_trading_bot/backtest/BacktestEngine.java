@@ -0,0 +1,210 @@
+package dankok.trading212.auto_trading_bot.backtest;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.enums.TradeActionEnum;
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.jobs.JobProgress;
+
+/**
+ * Simulates one backtest run bar by bar in a single pass, keeping only the running cash and
+ * position. On {@code BUY} while flat it invests up to {@value #MAX_BUY_AMOUNT} of the balance
+ * (if at least {@value #MIN_BUY_BALANCE} is left), and on {@code SELL} it closes the whole
+ * position. Trades go to a {@link TradeLog}, so the loop allocates nothing; a streaming engine
+ * hands them to a {@link BacktestListener} instead and keeps none, so its memory does not grow
+ * with the number of trades.
+ */
+public final class BacktestEngine {
+
+    public static final double MIN_BUY_BALANCE = 10;
+    public static final double MAX_BUY_AMOUNT = 100;
+
+    // One trade per ten bars is far more than any built-in strategy makes
+    private static final int EXPECTED_BARS_PER_TRADE = 10;
+    // Bars between progress reports and cancellation checks of a run
+    private static final int PROGRESS_BARS = 4_096;
+
+    private final double initialBalance;
+    private final TradeLog trades;
+    private final BacktestListener listener;
+    private final int equityInterval;
+    private double balance;
+    private double holdings;
+    private double lastPrice = Double.NaN;
+    private double peakEquity;
+    private double maxDrawdown;
+    private int bars;
+    private int tradeCount;
+
+    public BacktestEngine(double initialBalance, int expectedBars) {
+        this(initialBalance, new TradeLog(expectedBars / EXPECTED_BARS_PER_TRADE + 1), null, 0);
+    }
+
+    /**
+     * An engine that reports every trade to {@code listener} instead of logging it, and its
+     * equity every {@code equityInterval} bars of a run plus at the run's last bar.
+     */
+    public BacktestEngine(double initialBalance, BacktestListener listener, int equityInterval) {
+        this(initialBalance, new TradeLog(0), listener, equityInterval);
+        if (equityInterval <= 0) {
+            throw new IllegalArgumentException("Equity interval must be positive");
+        }
+    }
+
+    private BacktestEngine(double initialBalance, TradeLog trades, BacktestListener listener, int equityInterval) {
+        this.initialBalance = initialBalance;
+        this.balance = initialBalance;
+        this.peakEquity = initialBalance;
+        this.trades = trades;
+        this.listener = listener;
+        this.equityInterval = equityInterval;
+    }
+
+    /**
+     * Runs bars {@code [from, series.size())}, where {@code signals[i]} is the strategy's signal
+     * at sample {@code i}.
+     */
+    public void run(PriceSeries series, TradingSignalEunum[] signals, int from) {
+        run(series, signals, from, JobProgress.NONE);
+    }
+
+    /**
+     * Same as {@link #run(PriceSeries, TradingSignalEunum[], int)}, advancing {@code progress} by
+     * one unit per bar and stopping with a {@link java.util.concurrent.CancellationException}
+     * once it is cancelled. Both are checked every few thousand bars.
+     */
+    public void run(PriceSeries series, TradingSignalEunum[] signals, int from, JobProgress progress) {
+        if (signals.length < series.size()) {
+            throw new IllegalArgumentException("Missing signals for " + (series.size() - signals.length) + " bars");
+        }
+        int size = series.size();
+        for (int start = from; start < size; start += PROGRESS_BARS) {
+            progress.checkCancelled();
+            int end = Math.min(size, start + PROGRESS_BARS);
+            for (int i = start; i < end; i++) {
+                onBar(i, series.priceAt(i), signals[i]);
+                reportEquity(i, from, size);
+            }
+            progress.advance(end - start);
+        }
+    }
+
+    /**
+     * Same as {@link #run(PriceSeries, TradingSignalEunum[], int)} over a bare price array, which
+     * is only read and may be shared between concurrent runs.
+     */
+    public void run(double[] prices, TradingSignalEunum[] signals, int from) {
+        if (signals.length < prices.length) {
+            throw new IllegalArgumentException("Missing signals for " + (prices.length - signals.length) + " bars");
+        }
+        for (int i = from; i < prices.length; i++) {
+            onBar(i, prices[i], signals[i]);
+            reportEquity(i, from, prices.length);
+        }
+    }
+
+    /**
+     * Applies {@code signal} at {@code price} and returns the trade it caused, or {@code null}.
+     */
+    public TradeActionEnum onBar(int bar, double price, TradingSignalEunum signal) {
+        bars++;
+        lastPrice = price;
+        TradeActionEnum action = null;
+        if (signal == TradingSignalEunum.BUY && holdings == 0 && balance >= MIN_BUY_BALANCE) {
+            double investAmount = Math.min(balance, MAX_BUY_AMOUNT);
+            holdings = investAmount / price;
+            balance -= investAmount;
+            trade(bar, TradeActionEnum.BUY, holdings, price, investAmount);
+            action = TradeActionEnum.BUY;
+        } else if (signal == TradingSignalEunum.SELL && holdings > 0) {
+            double saleValue = holdings * price;
+            balance += saleValue;
+            trade(bar, TradeActionEnum.SELL, holdings, price, saleValue);
+            holdings = 0;
+            action = TradeActionEnum.SELL;
+        }
+        double equity = equity(price);
+        peakEquity = Math.max(peakEquity, equity);
+        if (peakEquity > 0) {
+            maxDrawdown = Math.max(maxDrawdown, (peakEquity - equity) / peakEquity);
+        }
+        return action;
+    }
+
+    /**
+     * Returns the engine to its initial balance with no position, trades or bars, keeping its
+     * buffers so many runs can share one engine.
+     */
+    public void reset() {
+        balance = initialBalance;
+        holdings = 0;
+        lastPrice = Double.NaN;
+        peakEquity = initialBalance;
+        maxDrawdown = 0;
+        bars = 0;
+        tradeCount = 0;
+        trades.clear();
+    }
+
+    private void trade(int bar, TradeActionEnum action, double quantity, double price, double value) {
+        tradeCount++;
+        if (listener == null) {
+            trades.add(bar, action, quantity, price, value);
+        } else {
+            listener.onTrade(bar, action, quantity, price, value, balance);
+        }
+    }
+
+    private void reportEquity(int bar, int from, int end) {
+        if (listener != null && ((bar - from + 1) % equityInterval == 0 || bar == end - 1)) {
+            listener.onEquity(bar, lastPrice, equity(lastPrice));
+        }
+    }
+
+    public double getInitialBalance() {
+        return initialBalance;
+    }
+
+    public double getBalance() {
+        return balance;
+    }
+
+    public double getHoldings() {
+        return holdings;
+    }
+
+    public int getBars() {
+        return bars;
+    }
+
+    /**
+     * The logged trades; always empty for a streaming engine.
+     */
+    public TradeLog getTrades() {
+        return trades;
+    }
+
+    public int getTradeCount() {
+        return tradeCount;
+    }
+
+    /**
+     * Largest fall of equity from its running peak, as a fraction of the peak, over the bars run.
+     */
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+
+    /**
+     * Cash plus the position valued at {@code price}.
+     */
+    public double equity(double price) {
+        return balance + holdings * price;
+    }
+
+    /**
+     * Equity at the last bar's price, or the initial balance if no bar was run.
+     */
+    public double finalValue() {
+        return bars == 0 ? balance : equity(lastPrice);
+    }
+}
@@ -0,0 +1,14 @@
+package dankok.trading212.auto_trading_bot.backtest;
+
+import dankok.trading212.auto_trading_bot.enums.TradeActionEnum;
+
+/**
+ * Receives a {@link BacktestEngine}'s trades and equity as the run progresses, so callers can
+ * pass them on without the engine keeping them. Bars are indexes into the simulated series.
+ */
+public interface BacktestListener {
+
+    void onTrade(int bar, TradeActionEnum action, double quantity, double price, double value, double balance);
+
+    void onEquity(int bar, double price, double equity);
+}
@@ -0,0 +1,60 @@
+package dankok.trading212.auto_trading_bot.backtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Moving-block bootstrap of a price series. The series' bar-to-bar price ratios are computed
+ * once; each sampled path starts at the first historical price and is built from randomly
+ * chosen runs of {@code blockLength} consecutive ratios, which keeps short-range patterns such
+ * as volatility clusters that resampling single bars would destroy. Sampling writes into a
+ * caller-owned buffer and allocates nothing.
+ */
+public final class BlockBootstrap {
+
+    private final double[] ratios;
+    private final double startPrice;
+    private final int blockLength;
+
+    public BlockBootstrap(double[] prices, int blockLength) {
+        if (prices.length < 2) {
+            throw new IllegalArgumentException("Need at least two prices to resample");
+        }
+        if (blockLength <= 0 || blockLength >= prices.length) {
+            throw new IllegalArgumentException("Block length must be between 1 and " + (prices.length - 1));
+        }
+        this.ratios = new double[prices.length - 1];
+        for (int i = 1; i < prices.length; i++) {
+            ratios[i - 1] = prices[i] / prices[i - 1];
+        }
+        this.startPrice = prices[0];
+        this.blockLength = blockLength;
+    }
+
+    /**
+     * Number of prices in each sampled path, the same as the historical series.
+     */
+    public int size() {
+        return ratios.length + 1;
+    }
+
+    /**
+     * Fills {@code path}, which must hold {@link #size()} prices, with a resampled path.
+     */
+    public void sample(SplittableRandom random, double[] path) {
+        if (path.length != size()) {
+            throw new IllegalArgumentException("Path must hold " + size() + " prices");
+        }
+        int starts = ratios.length - blockLength + 1;
+        double price = startPrice;
+        path[0] = price;
+        int i = 1;
+        while (i < path.length) {
+            int block = random.nextInt(starts);
+            int end = Math.min(path.length, i + blockLength);
+            for (; i < end; i++) {
+                price *= ratios[block++];
+                path[i] = price;
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package dankok.trading212.auto_trading_bot.backtest;
+
+import dankok.trading212.auto_trading_bot.enums.TradeActionEnum;
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+
+/**
+ * Simulates several coins trading from one shared cash balance, bar by bar. Each coin follows
+ * the same rules as {@link BacktestEngine}, but buys draw on the common balance: within a bar all
+ * sells are applied first, so freed cash is available to that bar's buys, and buys are then
+ * filled in coin order until the cash runs out.
+ */
+public final class PortfolioEngine {
+
+    private final double initialBalance;
+    private final TradeLog[] trades;
+    private final double[] holdings;
+    private final double[] lastPrices;
+    private double cash;
+    private double peakEquity;
+    private double maxDrawdown;
+
+    public PortfolioEngine(int coins, double initialBalance, int expectedBars) {
+        this.initialBalance = initialBalance;
+        this.cash = initialBalance;
+        this.peakEquity = initialBalance;
+        this.trades = new TradeLog[coins];
+        for (int c = 0; c < coins; c++) {
+            trades[c] = new TradeLog(expectedBars / 10 + 1);
+        }
+        this.holdings = new double[coins];
+        this.lastPrices = new double[coins];
+    }
+
+    /**
+     * Runs every bar of {@code prices}; coin {@code c} trades on {@code signals[c]} from bar
+     * {@code warmups[c]} on.
+     */
+    public void run(AlignedPrices prices, TradingSignalEunum[][] signals, int[] warmups) {
+        int coins = trades.length;
+        for (int bar = 0; bar < prices.bars(); bar++) {
+            for (int c = 0; c < coins; c++) {
+                double price = prices.prices(c)[bar];
+                lastPrices[c] = price;
+                if (bar >= warmups[c] && signals[c][bar] == TradingSignalEunum.SELL && holdings[c] > 0) {
+                    double saleValue = holdings[c] * price;
+                    cash += saleValue;
+                    trades[c].add(bar, TradeActionEnum.SELL, holdings[c], price, saleValue);
+                    holdings[c] = 0;
+                }
+            }
+            for (int c = 0; c < coins; c++) {
+                if (bar >= warmups[c] && signals[c][bar] == TradingSignalEunum.BUY && holdings[c] == 0
+                        && cash >= BacktestEngine.MIN_BUY_BALANCE) {
+                    double price = lastPrices[c];
+                    double investAmount = Math.min(cash, BacktestEngine.MAX_BUY_AMOUNT);
+                    holdings[c] = investAmount / price;
+                    cash -= investAmount;
+                    trades[c].add(bar, TradeActionEnum.BUY, holdings[c], price, investAmount);
+                }
+            }
+            double equity = equity();
+            peakEquity = Math.max(peakEquity, equity);
+            if (peakEquity > 0) {
+                maxDrawdown = Math.max(maxDrawdown, (peakEquity - equity) / peakEquity);
+            }
+        }
+    }
+
+    public double getInitialBalance() {
+        return initialBalance;
+    }
+
+    public double getCash() {
+        return cash;
+    }
+
+    public double getHoldings(int coin) {
+        return holdings[coin];
+    }
+
+    public TradeLog getTrades(int coin) {
+        return trades[coin];
+    }
+
+    /**
+     * Value of the coin's position at the last bar's price.
+     */
+    public double positionValue(int coin) {
+        return holdings[coin] * lastPrices[coin];
+    }
+
+    /**
+     * Cash plus every position at the last bar's prices.
+     */
+    public double equity() {
+        double equity = cash;
+        for (int c = 0; c < holdings.length; c++) {
+            equity += positionValue(c);
+        }
+        return equity;
+    }
+
+    /**
+     * Largest fall from a previous equity peak, as a fraction of that peak.
+     */
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+}
@@ -0,0 +1,103 @@
+package dankok.trading212.auto_trading_bot.backtest;
+
+import dankok.trading212.auto_trading_bot.dtos.TradeResult;
+import dankok.trading212.auto_trading_bot.enums.TradeActionEnum;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Trades of one backtest run in parallel primitive arrays. The arrays are allocated up front for
+ * the expected number of trades and only grow (by doubling) if a run trades more than that;
+ * {@link TradeResult}s are built once, when the result is reported.
+ */
+public final class TradeLog {
+
+    private static final TradeActionEnum[] ACTIONS = TradeActionEnum.values();
+
+    private int[] bars;
+    private byte[] actions;
+    private double[] quantities;
+    private double[] prices;
+    private double[] values;
+    private int size;
+
+    public TradeLog(int expectedTrades) {
+        int capacity = Math.max(1, expectedTrades);
+        this.bars = new int[capacity];
+        this.actions = new byte[capacity];
+        this.quantities = new double[capacity];
+        this.prices = new double[capacity];
+        this.values = new double[capacity];
+    }
+
+    public void add(int bar, TradeActionEnum action, double quantity, double price, double value) {
+        if (size == bars.length) {
+            grow();
+        }
+        bars[size] = bar;
+        actions[size] = (byte) action.ordinal();
+        quantities[size] = quantity;
+        prices[size] = price;
+        values[size] = value;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Forgets all trades but keeps the buffers, so the log can be reused for another run.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int barAt(int index) {
+        return bars[checkIndex(index)];
+    }
+
+    public TradeActionEnum actionAt(int index) {
+        return ACTIONS[actions[checkIndex(index)]];
+    }
+
+    public double quantityAt(int index) {
+        return quantities[checkIndex(index)];
+    }
+
+    public double priceAt(int index) {
+        return prices[checkIndex(index)];
+    }
+
+    public double valueAt(int index) {
+        return values[checkIndex(index)];
+    }
+
+    public List<TradeResult> toTradeResults() {
+        List<TradeResult> trades = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TradeActionEnum action = ACTIONS[actions[i]];
+            String message = action == TradeActionEnum.BUY ? "Backtest buy executed" : "Backtest sell executed";
+            trades.add(new TradeResult(true, action.name(), quantities[i], prices[i], values[i], message));
+        }
+        return trades;
+    }
+
+    private void grow() {
+        int capacity = bars.length * 2;
+        bars = Arrays.copyOf(bars, capacity);
+        actions = Arrays.copyOf(actions, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,195 @@
+package dankok.trading212.auto_trading_bot.cache;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps already downloaded market_chart series per coin and resolution. A request that is
+ * covered by the cached range only fetches the points newer than the last cached sample and
+ * appends them, instead of downloading the whole series again.
+ */
+@Component
+public class HistoricalSeriesCache {
+
+    public static final long DAY_MILLIS = Duration.ofDays(1).toMillis();
+
+    public interface SeriesLoader {
+        PriceSeries loadDays(String coinId, int days);
+
+        PriceSeries loadRange(String coinId, long fromMillis, long toMillis);
+    }
+
+    public enum Resolution {
+        FIVE_MINUTES(Duration.ofMinutes(5).toMillis()),
+        HOURLY(Duration.ofHours(1).toMillis()),
+        DAILY(DAY_MILLIS);
+
+        private final long stepMillis;
+
+        Resolution(long stepMillis) {
+            this.stepMillis = stepMillis;
+        }
+
+        public long getStepMillis() {
+            return stepMillis;
+        }
+
+        // Mirrors CoinGecko's automatic granularity for market_chart
+        public static Resolution forDays(int days) {
+            if (days <= 1) return FIVE_MINUTES;
+            if (days <= 90) return HOURLY;
+            return DAILY;
+        }
+    }
+
+    private final long refreshIntervalMillis;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<String, SeriesEntry> entries;
+
+    private final Counter hits;
+    private final Counter deltaLoads;
+    private final Counter fullLoads;
+
+    @Autowired
+    public HistoricalSeriesCache(@Value("${coingecko.cache.series-refresh-seconds:60}") long refreshSeconds,
+                                 @Value("${coingecko.cache.series-max-entries:200}") int maxEntries,
+                                 MeterRegistry meterRegistry) {
+        this(Duration.ofSeconds(refreshSeconds), maxEntries, meterRegistry, Clock.systemUTC());
+    }
+
+    HistoricalSeriesCache(Duration refreshInterval, int maxEntries, MeterRegistry meterRegistry, Clock clock) {
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        this.hits = Counter.builder("series.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.deltaLoads = Counter.builder("series.cache.requests").tag("result", "delta").register(meterRegistry);
+        this.fullLoads = Counter.builder("series.cache.requests").tag("result", "full").register(meterRegistry);
+    }
+
+    /**
+     * Returns the last {@code days} of the series for {@code coinId}, or {@code null} if the
+     * upstream has no data for it. Loader failures on a full download are propagated; failures
+     * while fetching a delta fall back to the cached points.
+     */
+    public PriceSeries get(String coinId, int days, SeriesLoader loader) {
+        Resolution resolution = Resolution.forDays(days);
+        SeriesEntry entry = entryFor(coinId + ":" + resolution.name());
+
+        synchronized (entry) {
+            long now = clock.millis();
+
+            if (entry.series.isEmpty() || entry.coveredDays < days) {
+                PriceSeries full = loader.loadDays(coinId, days);
+                fullLoads.increment();
+                if (full == null) {
+                    return null;
+                }
+                entry.replace(full, days, now);
+            } else if (now - entry.lastRefreshMillis >= refreshIntervalMillis) {
+                try {
+                    PriceSeries delta = loader.loadRange(coinId, entry.series.lastTimestamp() + 1, now);
+                    if (delta != null) {
+                        entry.append(delta, resolution.stepMillis);
+                    }
+                    deltaLoads.increment();
+                } catch (RuntimeException e) {
+                    System.err.println("Failed to refresh cached series for " + coinId + ": " + e.getMessage());
+                }
+                entry.lastRefreshMillis = now;
+            } else {
+                hits.increment();
+            }
+
+            return entry.window(days);
+        }
+    }
+
+    public void invalidate(String coinId) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.startsWith(coinId + ":"));
+        }
+    }
+
+    private SeriesEntry entryFor(String key) {
+        synchronized (entries) {
+            SeriesEntry entry = entries.computeIfAbsent(key, k -> new SeriesEntry());
+            var iterator = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+            return entry;
+        }
+    }
+
+    // Entries are copy-on-write: returned windows are views over the entry's current arrays,
+    // so appending builds new arrays rather than touching samples a caller may still hold.
+    private static final class SeriesEntry {
+        private PriceSeries series = PriceSeries.empty();
+        private int coveredDays;
+        private long lastRefreshMillis;
+
+        void replace(PriceSeries full, int days, long now) {
+            series = full;
+            coveredDays = days;
+            lastRefreshMillis = now;
+        }
+
+        // CoinGecko ends every series with a "live" sample taken at request time. That sample is
+        // replaced by newer data, and delta points are thinned out to the series' resolution.
+        void append(PriceSeries delta, long stepMillis) {
+            if (delta.isEmpty()) {
+                return;
+            }
+            long minGap = stepMillis - stepMillis / 10;
+            int kept = series.size();
+            if (kept >= 2 && series.timestampAt(kept - 1) - series.timestampAt(kept - 2) < minGap) {
+                kept--;
+            }
+
+            long from = series.lastTimestamp() - coveredDays * DAY_MILLIS - stepMillis;
+            PriceSeries base = series.slice(0, kept).since(from);
+            long[] timestamps = new long[base.size() + delta.size()];
+            double[] prices = new double[timestamps.length];
+            int size = 0;
+            for (int i = 0; i < base.size(); i++) {
+                timestamps[size] = base.timestampAt(i);
+                prices[size] = base.priceAt(i);
+                size++;
+            }
+
+            int last = delta.size() - 1;
+            for (int i = 0; i <= last; i++) {
+                long timestamp = delta.timestampAt(i);
+                if (size > 0 && timestamp <= timestamps[size - 1]) {
+                    continue;
+                }
+                if (i == last || size == 0 || timestamp - timestamps[size - 1] >= minGap) {
+                    timestamps[size] = timestamp;
+                    prices[size] = delta.priceAt(i);
+                    size++;
+                }
+            }
+            series = PriceSeries.wrap(timestamps, prices, size);
+        }
+
+        PriceSeries window(int days) {
+            if (series.isEmpty()) {
+                return series;
+            }
+            return series.since(series.lastTimestamp() - days * DAY_MILLIS);
+        }
+    }
+}
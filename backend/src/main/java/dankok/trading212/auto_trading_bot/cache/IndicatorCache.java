@@ -0,0 +1,149 @@
+package dankok.trading212.auto_trading_bot.cache;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.BatchKernels;
+import dankok.trading212.auto_trading_bot.indicators.Indicator;
+import dankok.trading212.auto_trading_bot.indicators.IndicatorSet;
+import dankok.trading212.auto_trading_bot.strategies.Strategy;
+import dankok.trading212.auto_trading_bot.strategies.StrategySignals;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Computed indicators shared across requests. Entries are keyed by coin, indicator kind and
+ * parameters, and the version of the series they were computed over (its first and last
+ * timestamps and length), so a series with new samples never hits an old entry. Concurrent
+ * requests for the same entry wait for a single computation. The least recently used entries
+ * are evicted once the cache is full, and {@link #invalidate(String)} drops a coin's entries as
+ * soon as new samples for it arrive.
+ */
+@Component
+public class IndicatorCache {
+
+    private final int maxEntries;
+    private final BatchKernels batchKernels;
+    private final Map<String, CompletableFuture<Object>> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public IndicatorCache(@Value("${indicator-cache.max-entries:2048}") int maxEntries, BatchKernels batchKernels,
+                          MeterRegistry meterRegistry) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.batchKernels = batchKernels;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        this.hits = Counter.builder("indicator.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("indicator.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("indicator.cache.size", this, IndicatorCache::size).register(meterRegistry);
+    }
+
+    /**
+     * The indicators {@code strategy} reads, fed with all of {@code series}. The returned set is
+     * read-only and its indicators may be shared with other callers.
+     */
+    public IndicatorSet indicators(String coinId, PriceSeries series, Strategy strategy) {
+        IndicatorSet fresh = new IndicatorSet();
+        strategy.registerIndicators(fresh);
+
+        Map<String, Indicator> computed = new LinkedHashMap<>();
+        for (Map.Entry<String, Indicator> entry : fresh.indicators().entrySet()) {
+            Indicator indicator = entry.getValue();
+            computed.put(entry.getKey(), get(key(coinId, entry.getKey(), series), () -> {
+                for (int i = 0; i < series.size(); i++) {
+                    indicator.update(series.priceAt(i));
+                }
+                return indicator;
+            }));
+        }
+        return IndicatorSet.precomputed(computed);
+    }
+
+    /**
+     * The signal {@code strategy} emits at every sample of {@code series}. The array is shared
+     * between callers and must not be modified. Strategies that support it compute the whole
+     * array with the batch kernels instead of being fed sample by sample.
+     */
+    public TradingSignalEunum[] signals(String coinId, PriceSeries series, Strategy strategy) {
+        return get(key(coinId, "signals:" + strategy.getKey(), series),
+            () -> StrategySignals.compute(strategy, series.toTimestampArray(), series.toPriceArray(), batchKernels));
+    }
+
+    public void invalidate(String coinId) {
+        String prefix = coinId + "|";
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String key, Supplier<T> compute) {
+        CompletableFuture<Object> future;
+        boolean owner = false;
+        synchronized (entries) {
+            future = entries.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                entries.put(key, future);
+                owner = true;
+                evictOverflow();
+            }
+        }
+
+        if (!owner) {
+            hits.increment();
+            try {
+                return (T) future.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        misses.increment();
+        try {
+            T value = compute.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                entries.remove(key, future);
+            }
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void evictOverflow() {
+        var iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static String key(String coinId, String indicatorKey, PriceSeries series) {
+        if (series.isEmpty()) {
+            return coinId + "|" + indicatorKey + "|empty";
+        }
+        return coinId + "|" + indicatorKey + "|" + series.firstTimestamp() + "|" + series.lastTimestamp()
+            + "|" + series.size();
+    }
+}
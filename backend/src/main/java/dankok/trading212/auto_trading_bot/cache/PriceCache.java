@@ -0,0 +1,212 @@
+package dankok.trading212.auto_trading_bot.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process spot price cache keyed by coin id. Entries are served as fresh for a fixed TTL and
+ * the least recently used entry is evicted once the cache is full. Expired entries are kept
+ * until evicted so they can be served, with their age, when the upstream is unavailable.
+ * Concurrent misses for the same coin share a single upstream load.
+ */
+@Component
+public class PriceCache {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    private final Map<String, CachedPrice> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<Double>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Timer loadTimer;
+
+    @Autowired
+    public PriceCache(@Value("${coingecko.cache.price-ttl-seconds:30}") long ttlSeconds,
+                      @Value("${coingecko.cache.price-max-entries:1000}") int maxEntries,
+                      MeterRegistry meterRegistry) {
+        this(Duration.ofSeconds(ttlSeconds), maxEntries, meterRegistry, System::nanoTime);
+    }
+
+    PriceCache(Duration ttl, int maxEntries, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        this.hits = Counter.builder("price.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("price.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("price.cache.evictions").register(meterRegistry);
+        this.loadTimer = Timer.builder("price.cache.load").register(meterRegistry);
+        Gauge.builder("price.cache.size", this, PriceCache::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns prices for the requested coins, serving fresh entries from memory and loading the
+     * rest through {@code loader}. The loader receives only the coins this call is responsible
+     * for; coins already being loaded by another thread are awaited instead of requested again.
+     * Coins the loader does not return are absent from the result.
+     */
+    public Map<String, Double> getAll(Collection<String> coinIds, Function<Set<String>, Map<String, Double>> loader) {
+        Map<String, Double> result = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+
+        for (String coinId : coinIds) {
+            Double cached = getFresh(coinId);
+            if (cached != null) {
+                hits.increment();
+                result.put(coinId, cached);
+            } else if (!result.containsKey(coinId)) {
+                missing.add(coinId);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return result;
+        }
+        misses.increment(missing.size());
+
+        Map<String, CompletableFuture<Double>> owned = new HashMap<>();
+        Map<String, CompletableFuture<Double>> awaited = new HashMap<>();
+
+        for (String coinId : missing) {
+            CompletableFuture<Double> future = new CompletableFuture<>();
+            CompletableFuture<Double> existing = inFlight.putIfAbsent(coinId, future);
+            if (existing != null) {
+                awaited.put(coinId, existing);
+                continue;
+            }
+
+            Double loadedMeanwhile = getFresh(coinId);
+            if (loadedMeanwhile != null) {
+                future.complete(loadedMeanwhile);
+                inFlight.remove(coinId, future);
+                result.put(coinId, loadedMeanwhile);
+            } else {
+                owned.put(coinId, future);
+            }
+        }
+
+        if (!owned.isEmpty()) {
+            load(owned, loader);
+            owned.forEach((coinId, future) -> putIfPresent(result, coinId, future.join()));
+        }
+
+        for (Map.Entry<String, CompletableFuture<Double>> entry : awaited.entrySet()) {
+            try {
+                putIfPresent(result, entry.getKey(), entry.getValue().join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        return result;
+    }
+
+    public void put(String coinId, double price) {
+        synchronized (entries) {
+            entries.put(coinId, new CachedPrice(price, nanoClock.getAsLong()));
+            evictOverflow();
+        }
+    }
+
+    /**
+     * The last cached price of {@code coinId} regardless of its TTL, or {@code null} if the coin
+     * was never cached or has been evicted.
+     */
+    public StalePrice peek(String coinId) {
+        synchronized (entries) {
+            CachedPrice cached = entries.get(coinId);
+            if (cached == null) {
+                return null;
+            }
+            return new StalePrice(cached.price(), Duration.ofNanos(nanoClock.getAsLong() - cached.loadedAtNanos()));
+        }
+    }
+
+    public void invalidate(String coinId) {
+        synchronized (entries) {
+            entries.remove(coinId);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void load(Map<String, CompletableFuture<Double>> owned,
+                      Function<Set<String>, Map<String, Double>> loader) {
+        try {
+            Map<String, Double> loaded = loadTimer.record(() -> loader.apply(owned.keySet()));
+            for (Map.Entry<String, CompletableFuture<Double>> entry : owned.entrySet()) {
+                Double price = loaded != null ? loaded.get(entry.getKey()) : null;
+                if (price != null) {
+                    put(entry.getKey(), price);
+                }
+                entry.getValue().complete(price);
+            }
+        } catch (RuntimeException e) {
+            owned.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        } finally {
+            owned.forEach(inFlight::remove);
+        }
+    }
+
+    private Double getFresh(String coinId) {
+        synchronized (entries) {
+            CachedPrice cached = entries.get(coinId);
+            if (cached == null) {
+                return null;
+            }
+            if (nanoClock.getAsLong() - cached.loadedAtNanos() > ttlNanos) {
+                return null;
+            }
+            return cached.price();
+        }
+    }
+
+    private void evictOverflow() {
+        var iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static void putIfPresent(Map<String, Double> result, String coinId, Double price) {
+        if (price != null) {
+            result.put(coinId, price);
+        }
+    }
+
+    public record StalePrice(double price, Duration age) {}
+
+    private record CachedPrice(double price, long loadedAtNanos) {}
+}
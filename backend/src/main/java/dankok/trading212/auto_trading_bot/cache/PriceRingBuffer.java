@@ -0,0 +1,139 @@
+package dankok.trading212.auto_trading_bot.cache;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Fixed-capacity ring of the most recent price samples of one coin. The slots are allocated
+ * once up front and overwritten in place. Writers serialize on the buffer; readers never lock
+ * and instead validate their copy against a version counter (a seqlock), retrying in the rare
+ * case that a write landed while they were copying.
+ */
+public final class PriceRingBuffer {
+
+    private final long[] timestamps;
+    private final double[] prices;
+    private final int capacity;
+
+    // Odd while a write is in progress; readers only accept copies taken between equal even values
+    private volatile long version;
+    // Number of samples ever written; the newest sample lives at slot (count - 1) % capacity
+    private long count;
+    private volatile long updatedAtMillis;
+
+    public PriceRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.prices = new double[capacity];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long getUpdatedAtMillis() {
+        return updatedAtMillis;
+    }
+
+    public int size() {
+        while (true) {
+            long before = version;
+            long size = Math.min(count, capacity);
+            VarHandle.acquireFence();
+            if ((before & 1) == 0 && before == version) {
+                return (int) size;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Copies the newest {@code maxSamples} samples (or fewer, if the buffer holds fewer) into a
+     * new series, oldest first.
+     */
+    public PriceSeries snapshot(int maxSamples) {
+        long[] ts = new long[Math.min(Math.max(0, maxSamples), capacity)];
+        double[] px = new double[ts.length];
+
+        while (true) {
+            long before = version;
+            if ((before & 1) == 0) {
+                long end = count;
+                int size = (int) Math.min(ts.length, Math.min(end, capacity));
+                long start = end - size;
+                for (int i = 0; i < size; i++) {
+                    int slot = (int) ((start + i) % capacity);
+                    ts[i] = timestamps[slot];
+                    px[i] = prices[slot];
+                }
+                VarHandle.acquireFence();
+                if (before == version) {
+                    return PriceSeries.wrap(ts, px, size);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public PriceSeries snapshot() {
+        return snapshot(capacity);
+    }
+
+    /**
+     * Appends the samples of {@code latest} that are newer than the buffer's newest sample.
+     * Upstream series end with a provisional "live" sample that a later fetch replaces; if
+     * {@code latest} no longer contains the buffer's newest sample, that sample is overwritten
+     * instead of being kept as a stale point in the middle of the ring.
+     *
+     * @return the number of samples written
+     */
+    public synchronized int merge(PriceSeries latest, long nowMillis) {
+        updatedAtMillis = nowMillis;
+        if (latest == null || latest.isEmpty()) {
+            return 0;
+        }
+
+        PriceSeries fresh = latest;
+        boolean replaceNewest = false;
+        if (count > 0) {
+            long newest = timestamps[(int) ((count - 1) % capacity)];
+            fresh = latest.since(newest + 1);
+            PriceSeries fromNewest = latest.since(newest);
+            replaceNewest = !fresh.isEmpty() && fromNewest.size() == fresh.size() && latest.firstTimestamp() < newest;
+        }
+        fresh = fresh.last(capacity);
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+
+        beginWrite();
+        try {
+            if (replaceNewest) {
+                count--;
+            }
+            for (int i = 0; i < fresh.size(); i++) {
+                int slot = (int) (count % capacity);
+                timestamps[slot] = fresh.timestampAt(i);
+                prices[slot] = fresh.priceAt(i);
+                count++;
+            }
+        } finally {
+            endWrite();
+        }
+        return fresh.size();
+    }
+
+    private void beginWrite() {
+        version = version + 1;
+        // Keep the slot writes from being reordered ahead of the odd version
+        VarHandle.storeStoreFence();
+    }
+
+    private void endWrite() {
+        version = version + 1;
+    }
+}
@@ -0,0 +1,19 @@
+package dankok.trading212.auto_trading_bot.config;
+
+import dankok.trading212.auto_trading_bot.enums.BatchKernelModeEnum;
+import dankok.trading212.auto_trading_bot.indicators.BatchKernels;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BatchKernelConfig {
+
+    @Value("${batch-kernels.mode:auto}")
+    private String mode;
+
+    @Bean
+    public BatchKernels batchKernels() {
+        return BatchKernels.forMode(BatchKernelModeEnum.fromCode(mode));
+    }
+}
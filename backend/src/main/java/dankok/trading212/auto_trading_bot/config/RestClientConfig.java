@@ -1,10 +1,30 @@
 package dankok.trading212.auto_trading_bot.config;
 
+import dankok.trading212.auto_trading_bot.enums.CoinGeckoEndpointEnum;
+import dankok.trading212.auto_trading_bot.enums.CoinGeckoTierEnum;
+import dankok.trading212.auto_trading_bot.http.CoinGeckoRateLimiter;
+import dankok.trading212.auto_trading_bot.http.RateLimitInterceptor;
+import dankok.trading212.auto_trading_bot.http.UpstreamMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Configuration
 public class RestClientConfig {
 
@@ -20,14 +40,73 @@ public class RestClientConfig {
     @Value("${coingecko.api.pro-url:https://pro-api.coingecko.com/api/v3}")
     private String proUrl;
 
+    @Value("${coingecko.http.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${coingecko.http.connect-timeout-millis:3000}")
+    private long connectTimeoutMillis;
+
+    @Value("${coingecko.http.pool-acquire-timeout-millis:2000}")
+    private long poolAcquireTimeoutMillis;
+
+    @Value("${coingecko.http.connection-ttl-seconds:300}")
+    private long connectionTtlSeconds;
+
+    @Value("${coingecko.http.idle-evict-seconds:30}")
+    private long idleEvictSeconds;
+
+    @Value("${coingecko.http.read-timeout-millis.default:10000}")
+    private long defaultReadTimeoutMillis;
+
+    @Value("${coingecko.http.read-timeout-millis.simple-price:5000}")
+    private long simplePriceReadTimeoutMillis;
+
+    @Value("${coingecko.http.read-timeout-millis.market-chart:15000}")
+    private long marketChartReadTimeoutMillis;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager coinGeckoConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                // Every call goes to the same host, so a single route may use the whole pool
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                        .setTimeToLive(TimeValue.ofSeconds(connectionTtlSeconds))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "coingecko").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient coinGeckoHttpClient(PoolingHttpClientConnectionManager coinGeckoConnectionManager) {
+        // Compression is on by default: requests send Accept-Encoding and gzip bodies are inflated
+        // transparently. Retries stay off so a 429 reaches the rate limiter instead of being replayed.
+        return HttpClients.custom()
+                .setConnectionManager(coinGeckoConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMillis))
+                        .setResponseTimeout(Timeout.ofMilliseconds(defaultReadTimeoutMillis))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .disableAutomaticRetries()
+                .build();
+    }
+
     @Bean
-    public RestClient coinGeckoRestClient() {
+    public RestClient coinGeckoRestClient(CoinGeckoRateLimiter rateLimiter, CloseableHttpClient coinGeckoHttpClient,
+                                          MeterRegistry meterRegistry) {
         String effectiveBaseUrl;
         String headerName = null;
         
-        if (apiKey == null || apiKey.isEmpty()) {
+        CoinGeckoTierEnum tier = CoinGeckoTierEnum.fromApiKey(apiKey);
+        if (tier == CoinGeckoTierEnum.FREE) {
             effectiveBaseUrl = baseUrl;
-        } else if (apiKey.startsWith("CG-") && apiKey.length() > 20) {
+        } else if (tier == CoinGeckoTierEnum.DEMO) {
             effectiveBaseUrl = demoUrl;
             headerName = "x-cg-demo-api-key";
         } else {
@@ -36,7 +115,10 @@ public class RestClientConfig {
         }
         
         RestClient.Builder builder = RestClient.builder()
-                .baseUrl(effectiveBaseUrl);
+                .baseUrl(effectiveBaseUrl)
+                .requestFactory(requestFactory(coinGeckoHttpClient))
+                .requestInterceptor(new RateLimitInterceptor(rateLimiter))
+                .requestInterceptor(new UpstreamMetricsInterceptor(meterRegistry));
 
         if (apiKey != null && !apiKey.isEmpty() && headerName != null) {
             builder.defaultHeader(headerName, apiKey);
@@ -47,4 +129,30 @@ public class RestClientConfig {
 
         return builder.build();
     }
-}
\ No newline at end of file
+
+    private HttpComponentsClientHttpRequestFactory requestFactory(CloseableHttpClient httpClient) {
+        Map<CoinGeckoEndpointEnum, RequestConfig> configs = new EnumMap<>(CoinGeckoEndpointEnum.class);
+        for (CoinGeckoEndpointEnum endpoint : CoinGeckoEndpointEnum.values()) {
+            configs.put(endpoint, RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMillis))
+                    .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMillis(endpoint)))
+                    .build());
+        }
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(configs.get(CoinGeckoEndpointEnum.fromPath(uri.getPath())));
+            return context;
+        });
+        return requestFactory;
+    }
+
+    private long readTimeoutMillis(CoinGeckoEndpointEnum endpoint) {
+        return switch (endpoint) {
+            case SIMPLE_PRICE -> simplePriceReadTimeoutMillis;
+            case MARKET_CHART, MARKET_CHART_RANGE -> marketChartReadTimeoutMillis;
+            case OTHER -> defaultReadTimeoutMillis;
+        };
+    }
+}
@@ -1,22 +1,54 @@
 package dankok.trading212.auto_trading_bot.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dankok.trading212.auto_trading_bot.dtos.BacktestResult;
+import dankok.trading212.auto_trading_bot.dtos.MonteCarloResult;
+import dankok.trading212.auto_trading_bot.dtos.ParameterSweepRequest;
+import dankok.trading212.auto_trading_bot.dtos.ParameterSweepResult;
+import dankok.trading212.auto_trading_bot.dtos.PortfolioBacktestResult;
+import dankok.trading212.auto_trading_bot.enums.StreamFormatEnum;
 import dankok.trading212.auto_trading_bot.services.BacktestService;
+import dankok.trading212.auto_trading_bot.services.MonteCarloService;
+import dankok.trading212.auto_trading_bot.services.ParameterSweepService;
+import dankok.trading212.auto_trading_bot.services.PortfolioBacktestService;
+import dankok.trading212.auto_trading_bot.strategies.Strategy;
+import dankok.trading212.auto_trading_bot.strategies.StrategyRegistry;
+import dankok.trading212.auto_trading_bot.utils.BacktestEventWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 @RestController
 @RequestMapping("/backtest")
 public class BacktestController {
 
     private final BacktestService backtestService;
+    private final StrategyRegistry strategyRegistry;
+    private final ParameterSweepService parameterSweepService;
+    private final PortfolioBacktestService portfolioBacktestService;
+    private final MonteCarloService monteCarloService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public BacktestController(BacktestService backtestService) {
+    public BacktestController(BacktestService backtestService, StrategyRegistry strategyRegistry,
+                              ParameterSweepService parameterSweepService,
+                              PortfolioBacktestService portfolioBacktestService, MonteCarloService monteCarloService,
+                              ObjectMapper objectMapper) {
         this.backtestService = backtestService;
+        this.strategyRegistry = strategyRegistry;
+        this.parameterSweepService = parameterSweepService;
+        this.portfolioBacktestService = portfolioBacktestService;
+        this.monteCarloService = monteCarloService;
+        this.objectMapper = objectMapper;
     }
 
     private Integer getCurrentUserId(HttpServletRequest request) {
@@ -28,13 +60,140 @@ public class BacktestController {
             @RequestParam String coinId,
             @RequestParam(defaultValue = "365") int days,
             @RequestParam(defaultValue = "1000.0") double initialBalance,
+            @RequestParam(required = false) String strategy,
             HttpServletRequest request) {
         Integer userId = getCurrentUserId(request);
         if (userId == null) {
             return new BacktestResult(false, coinId, null, null, initialBalance, initialBalance,
                 0, 0, 0, 0, new ArrayList<>(), "Authentication required");
         }
+
+        Strategy selectedStrategy;
+        try {
+            selectedStrategy = strategyRegistry.get(strategy);
+        } catch (IllegalArgumentException e) {
+            return new BacktestResult(false, coinId, null, null, initialBalance, initialBalance,
+                0, 0, 0, 0, new ArrayList<>(), e.getMessage());
+        }
         
-        return backtestService.runBacktest(coinId, days, initialBalance);
+        return backtestService.runBacktest(coinId, days, initialBalance, selectedStrategy);
+    }
+
+    /**
+     * Streams the backtest's trades and periodic equity points while it runs, as NDJSON or
+     * Server-Sent Events, followed by a summary without the trade list.
+     */
+    @PostMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamBacktest(
+            @RequestParam String coinId,
+            @RequestParam(defaultValue = "365") int days,
+            @RequestParam(defaultValue = "1000.0") double initialBalance,
+            @RequestParam(required = false) String strategy,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "100") int equityInterval,
+            HttpServletRequest request) {
+        String failure = null;
+        StreamFormatEnum streamFormat;
+        try {
+            streamFormat = StreamFormatEnum.fromCode(format);
+        } catch (IllegalArgumentException e) {
+            streamFormat = StreamFormatEnum.NDJSON;
+            failure = e.getMessage();
+        }
+        StreamFormatEnum selectedFormat = streamFormat;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(selectedFormat.getContentType()))
+            .cacheControl(CacheControl.noCache());
+
+        Strategy selectedStrategy = null;
+        if (getCurrentUserId(request) == null) {
+            failure = "Authentication required";
+        } else if (failure == null && equityInterval <= 0) {
+            failure = "Equity interval must be positive";
+        } else if (failure == null) {
+            try {
+                selectedStrategy = strategyRegistry.get(strategy);
+            } catch (IllegalArgumentException e) {
+                failure = e.getMessage();
+            }
+        }
+        if (failure != null) {
+            BacktestResult result = new BacktestResult(false, coinId, null, null, initialBalance, initialBalance,
+                0, 0, 0, 0, new ArrayList<>(), failure);
+            return response.body(out -> {
+                BacktestEventWriter writer = new BacktestEventWriter(out, objectMapper, selectedFormat);
+                writer.write("summary", result);
+                writer.flush();
+            });
+        }
+
+        Strategy streamStrategy = selectedStrategy;
+        return response.body(out -> backtestService.streamBacktest(coinId, days, initialBalance, streamStrategy,
+            equityInterval, new BacktestEventWriter(out, objectMapper, selectedFormat)));
+    }
+
+    @PostMapping("/sweep")
+    public ParameterSweepResult runParameterSweep(@RequestBody ParameterSweepRequest sweepRequest,
+                                                  HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return new ParameterSweepResult(false, sweepRequest.getCoinId(), sweepRequest.getStrategy(),
+                sweepRequest.getDays(), 0, 0, 0, 0, new ArrayList<>(), "Authentication required");
+        }
+
+        return parameterSweepService.sweep(sweepRequest);
+    }
+
+    @PostMapping("/portfolio")
+    public PortfolioBacktestResult runPortfolioBacktest(
+            @RequestParam String coins,
+            @RequestParam(defaultValue = "365") int days,
+            @RequestParam(defaultValue = "1000.0") double initialBalance,
+            @RequestParam(required = false) String strategy,
+            HttpServletRequest request) {
+        List<String> coinIds = Arrays.asList(coins.split(","));
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return new PortfolioBacktestResult(false, coinIds, null, null, 0, initialBalance, initialBalance,
+                initialBalance, 0, 0, 0, 0, new ArrayList<>(), "Authentication required");
+        }
+
+        Strategy selectedStrategy;
+        try {
+            selectedStrategy = strategyRegistry.get(strategy);
+        } catch (IllegalArgumentException e) {
+            return new PortfolioBacktestResult(false, coinIds, null, null, 0, initialBalance, initialBalance,
+                initialBalance, 0, 0, 0, 0, new ArrayList<>(), e.getMessage());
+        }
+
+        return portfolioBacktestService.runBacktest(coinIds, days, initialBalance, selectedStrategy);
+    }
+
+    @PostMapping("/monte-carlo")
+    public MonteCarloResult runMonteCarlo(
+            @RequestParam String coinId,
+            @RequestParam(defaultValue = "365") int days,
+            @RequestParam(defaultValue = "1000.0") double initialBalance,
+            @RequestParam(required = false) String strategy,
+            @RequestParam(defaultValue = "1000") int paths,
+            @RequestParam(defaultValue = "24") int blockLength,
+            @RequestParam(required = false) Long seed,
+            HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return new MonteCarloResult(false, coinId, strategy, days, 0, 0, 0, 0, 0, 0, 0, 0, null, null, null,
+                "Authentication required");
+        }
+
+        Strategy selectedStrategy;
+        try {
+            selectedStrategy = strategyRegistry.get(strategy);
+        } catch (IllegalArgumentException e) {
+            return new MonteCarloResult(false, coinId, strategy, days, 0, 0, 0, 0, 0, 0, 0, 0, null, null, null,
+                e.getMessage());
+        }
+
+        long pathSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        return monteCarloService.run(coinId, days, initialBalance, selectedStrategy, paths, blockLength, pathSeed);
     }
 }
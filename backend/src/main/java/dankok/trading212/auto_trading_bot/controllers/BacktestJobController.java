@@ -0,0 +1,206 @@
+package dankok.trading212.auto_trading_bot.controllers;
+
+import dankok.trading212.auto_trading_bot.dtos.BacktestJobResponse;
+import dankok.trading212.auto_trading_bot.dtos.ParameterSweepRequest;
+import dankok.trading212.auto_trading_bot.enums.BacktestJobTypeEnum;
+import dankok.trading212.auto_trading_bot.services.BacktestJobService;
+import dankok.trading212.auto_trading_bot.services.BacktestService;
+import dankok.trading212.auto_trading_bot.services.MonteCarloService;
+import dankok.trading212.auto_trading_bot.services.ParameterSweepService;
+import dankok.trading212.auto_trading_bot.services.PortfolioBacktestService;
+import dankok.trading212.auto_trading_bot.services.TradingBotService;
+import dankok.trading212.auto_trading_bot.strategies.Strategy;
+import dankok.trading212.auto_trading_bot.strategies.StrategyRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Asynchronous variants of the backtest endpoints. Each POST queues a job and returns its id;
+ * clients poll the job for progress and fetch the result once it has completed.
+ */
+@RestController
+@RequestMapping("/backtest/jobs")
+public class BacktestJobController {
+
+    private final BacktestJobService backtestJobService;
+    private final BacktestService backtestService;
+    private final PortfolioBacktestService portfolioBacktestService;
+    private final ParameterSweepService parameterSweepService;
+    private final TradingBotService tradingBotService;
+    private final MonteCarloService monteCarloService;
+    private final StrategyRegistry strategyRegistry;
+
+    @Autowired
+    public BacktestJobController(BacktestJobService backtestJobService, BacktestService backtestService,
+                                 PortfolioBacktestService portfolioBacktestService,
+                                 ParameterSweepService parameterSweepService, TradingBotService tradingBotService,
+                                 MonteCarloService monteCarloService, StrategyRegistry strategyRegistry) {
+        this.backtestJobService = backtestJobService;
+        this.backtestService = backtestService;
+        this.portfolioBacktestService = portfolioBacktestService;
+        this.parameterSweepService = parameterSweepService;
+        this.tradingBotService = tradingBotService;
+        this.monteCarloService = monteCarloService;
+        this.strategyRegistry = strategyRegistry;
+    }
+
+    private Integer getCurrentUserId(HttpServletRequest request) {
+        return (Integer) request.getAttribute("userId");
+    }
+
+    @PostMapping("/backtest")
+    public BacktestJobResponse submitBacktest(
+            @RequestParam String coinId,
+            @RequestParam(defaultValue = "365") int days,
+            @RequestParam(defaultValue = "1000.0") double initialBalance,
+            @RequestParam(required = false) String strategy,
+            HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return BacktestJobResponse.failure(null, "Authentication required");
+        }
+
+        Strategy selectedStrategy;
+        try {
+            selectedStrategy = strategyRegistry.get(strategy);
+        } catch (IllegalArgumentException e) {
+            return BacktestJobResponse.failure(null, e.getMessage());
+        }
+
+        String description = String.format("Backtest of %s over %d days with %s", coinId, days,
+            selectedStrategy.getName());
+        return backtestJobService.submit(userId, BacktestJobTypeEnum.BACKTEST, description,
+            progress -> backtestService.runBacktest(coinId, days, initialBalance, selectedStrategy, progress));
+    }
+
+    @PostMapping("/portfolio")
+    public BacktestJobResponse submitPortfolioBacktest(
+            @RequestParam String coins,
+            @RequestParam(defaultValue = "365") int days,
+            @RequestParam(defaultValue = "1000.0") double initialBalance,
+            @RequestParam(required = false) String strategy,
+            HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return BacktestJobResponse.failure(null, "Authentication required");
+        }
+
+        Strategy selectedStrategy;
+        try {
+            selectedStrategy = strategyRegistry.get(strategy);
+        } catch (IllegalArgumentException e) {
+            return BacktestJobResponse.failure(null, e.getMessage());
+        }
+
+        List<String> coinIds = Arrays.asList(coins.split(","));
+        String description = String.format("Portfolio backtest of %s over %d days with %s", coins, days,
+            selectedStrategy.getName());
+        return backtestJobService.submit(userId, BacktestJobTypeEnum.PORTFOLIO_BACKTEST, description,
+            progress -> portfolioBacktestService.runBacktest(coinIds, days, initialBalance, selectedStrategy, progress));
+    }
+
+    @PostMapping("/sweep")
+    public BacktestJobResponse submitParameterSweep(@RequestBody ParameterSweepRequest sweepRequest,
+                                                    HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return BacktestJobResponse.failure(null, "Authentication required");
+        }
+
+        String description = String.format("Parameter sweep of %s over %d days", sweepRequest.getCoinId(),
+            sweepRequest.getDays());
+        return backtestJobService.submit(userId, BacktestJobTypeEnum.PARAMETER_SWEEP, description,
+            progress -> parameterSweepService.sweep(sweepRequest, progress));
+    }
+
+    @PostMapping("/historical-training")
+    public BacktestJobResponse submitHistoricalTraining(
+            @RequestParam(defaultValue = "bitcoin") String coins,
+            @RequestParam(defaultValue = "365") int days,
+            HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return BacktestJobResponse.failure(null, "Authentication required");
+        }
+
+        List<String> coinIds = Arrays.asList(coins.split(","));
+        String description = String.format("Historical training on %s over %d days", coins, days);
+        return backtestJobService.submit(userId, BacktestJobTypeEnum.HISTORICAL_TRAINING, description,
+            progress -> tradingBotService.runTrainingOnHistoricalData(coinIds, days, progress));
+    }
+
+    @PostMapping("/monte-carlo")
+    public BacktestJobResponse submitMonteCarlo(
+            @RequestParam String coinId,
+            @RequestParam(defaultValue = "365") int days,
+            @RequestParam(defaultValue = "1000.0") double initialBalance,
+            @RequestParam(required = false) String strategy,
+            @RequestParam(defaultValue = "1000") int paths,
+            @RequestParam(defaultValue = "24") int blockLength,
+            @RequestParam(required = false) Long seed,
+            HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return BacktestJobResponse.failure(null, "Authentication required");
+        }
+
+        Strategy selectedStrategy;
+        try {
+            selectedStrategy = strategyRegistry.get(strategy);
+        } catch (IllegalArgumentException e) {
+            return BacktestJobResponse.failure(null, e.getMessage());
+        }
+
+        long pathSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        String description = String.format("Monte Carlo backtest of %s over %d days with %s, %d paths", coinId, days,
+            selectedStrategy.getName(), paths);
+        return backtestJobService.submit(userId, BacktestJobTypeEnum.MONTE_CARLO, description,
+            progress -> monteCarloService.run(coinId, days, initialBalance, selectedStrategy, paths, blockLength,
+                pathSeed, progress));
+    }
+
+    @GetMapping
+    public List<BacktestJobResponse> listJobs(HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return List.of();
+        }
+
+        return backtestJobService.listJobs(userId);
+    }
+
+    @GetMapping("/{jobId}")
+    public BacktestJobResponse getJob(@PathVariable String jobId, HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return BacktestJobResponse.failure(jobId, "Authentication required");
+        }
+
+        return backtestJobService.getJob(userId, jobId);
+    }
+
+    @GetMapping("/{jobId}/result")
+    public BacktestJobResponse getResult(@PathVariable String jobId, HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return BacktestJobResponse.failure(jobId, "Authentication required");
+        }
+
+        return backtestJobService.getResult(userId, jobId);
+    }
+
+    @DeleteMapping("/{jobId}")
+    public BacktestJobResponse cancelJob(@PathVariable String jobId, HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return BacktestJobResponse.failure(jobId, "Authentication required");
+        }
+
+        return backtestJobService.cancel(userId, jobId);
+    }
+}
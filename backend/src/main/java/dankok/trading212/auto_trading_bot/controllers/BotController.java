@@ -6,6 +6,8 @@ import dankok.trading212.auto_trading_bot.enums.TradingModeEnum;
 import dankok.trading212.auto_trading_bot.services.BotStateService;
 import dankok.trading212.auto_trading_bot.services.TradingBotService;
 import dankok.trading212.auto_trading_bot.services.UserService;
+import dankok.trading212.auto_trading_bot.strategies.Strategy;
+import dankok.trading212.auto_trading_bot.strategies.StrategyRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,12 +24,15 @@ public class BotController {
     private final TradingBotService tradingBotService;
     private final BotStateService botStateService;
     private final UserService userService;
+    private final StrategyRegistry strategyRegistry;
 
     @Autowired
-    public BotController(TradingBotService tradingBotService, BotStateService botStateService, UserService userService) {
+    public BotController(TradingBotService tradingBotService, BotStateService botStateService, UserService userService,
+                         StrategyRegistry strategyRegistry) {
         this.tradingBotService = tradingBotService;
         this.botStateService = botStateService;
         this.userService = userService;
+        this.strategyRegistry = strategyRegistry;
     }
 
     private Integer getCurrentUserId(HttpServletRequest request) {
@@ -60,15 +65,28 @@ public class BotController {
     public TradingAnalysisResult runBot(
             @RequestParam(defaultValue = "bitcoin") String coins,
             @RequestParam(defaultValue = "TRADING") String mode,
+            @RequestParam(required = false) String strategy,
             HttpServletRequest request) {
         Integer userId = getCurrentUserId(request);
         if (userId == null) {
             return new TradingAnalysisResult(new ArrayList<>(), "Authentication required", false);
         }
+
+        Strategy selectedStrategy;
+        try {
+            selectedStrategy = strategyRegistry.get(strategy);
+        } catch (IllegalArgumentException e) {
+            return new TradingAnalysisResult(new ArrayList<>(), e.getMessage(), false);
+        }
         
         List<String> coinIds = Arrays.asList(coins.split(","));
         TradingModeEnum tradingMode = TradingModeEnum.valueOf(mode.toUpperCase());
-        return tradingBotService.executeTradingLogic(coinIds, tradingMode);
+        return tradingBotService.executeTradingLogic(coinIds, tradingMode, selectedStrategy);
+    }
+
+    @GetMapping("/strategies")
+    public List<String> getStrategies() {
+        return strategyRegistry.getNames();
     }
 
     @PostMapping("/hold")
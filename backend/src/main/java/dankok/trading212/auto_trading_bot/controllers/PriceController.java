@@ -1,24 +1,36 @@
 package dankok.trading212.auto_trading_bot.controllers;
 
+import dankok.trading212.auto_trading_bot.dtos.BackfillResult;
+import dankok.trading212.auto_trading_bot.dtos.Candle;
 import dankok.trading212.auto_trading_bot.dtos.CryptoPriceResponse;
 import dankok.trading212.auto_trading_bot.dtos.HistoricalPriceResponse;
+import dankok.trading212.auto_trading_bot.enums.CandleIntervalEnum;
 import dankok.trading212.auto_trading_bot.services.CryptoDataService;
+import dankok.trading212.auto_trading_bot.services.HistoricalBackfillService;
+import dankok.trading212.auto_trading_bot.store.CandleRollup;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 @RestController
 @RequestMapping("/prices")
 public class PriceController {
 
     private final CryptoDataService cryptoDataService;
+    private final HistoricalBackfillService historicalBackfillService;
+    private final CandleRollup candleRollup;
 
     @Autowired
-    public PriceController(CryptoDataService cryptoDataService) {
+    public PriceController(CryptoDataService cryptoDataService, HistoricalBackfillService historicalBackfillService,
+                           CandleRollup candleRollup) {
         this.cryptoDataService = cryptoDataService;
+        this.historicalBackfillService = historicalBackfillService;
+        this.candleRollup = candleRollup;
     }
 
     private Integer getCurrentUserId(HttpServletRequest request) {
@@ -58,4 +70,38 @@ public class PriceController {
         
         return cryptoDataService.fetchHistoricalPricesWithMetadata(coinId, days);
     }
+
+    @GetMapping("/candles/{coinId}")
+    public List<Candle> getCandles(
+            @PathVariable String coinId,
+            @RequestParam(defaultValue = "1h") String interval,
+            @RequestParam(defaultValue = "7") int days,
+            HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return List.of();
+        }
+
+        CandleIntervalEnum candleInterval;
+        try {
+            candleInterval = CandleIntervalEnum.fromCode(interval);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+        LocalDateTime to = LocalDateTime.now();
+        return candleRollup.candles(coinId, candleInterval, candleInterval.bucketStart(to.minusDays(days)), to);
+    }
+
+    @PostMapping("/backfill/{coinId}")
+    public BackfillResult backfillHistoricalPrices(
+            @PathVariable String coinId,
+            @RequestParam(defaultValue = "365") int days,
+            HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return new BackfillResult(false, coinId, days, 0, 0, 0, 0, "Authentication required");
+        }
+
+        return historicalBackfillService.backfill(coinId, days);
+    }
 }
@@ -0,0 +1,41 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+public class BackfillResult {
+    private boolean success;
+    private String coinId;
+    private int days;
+    private int gapsFound;
+    private int gapsFilled;
+    private int pointsWritten;
+    private int ticksStored;
+    private String message;
+
+    public BackfillResult(boolean success, String coinId, int days, int gapsFound, int gapsFilled,
+                          int pointsWritten, int ticksStored, String message) {
+        this.success = success;
+        this.coinId = coinId;
+        this.days = days;
+        this.gapsFound = gapsFound;
+        this.gapsFilled = gapsFilled;
+        this.pointsWritten = pointsWritten;
+        this.ticksStored = ticksStored;
+        this.message = message;
+    }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+    public String getCoinId() { return coinId; }
+    public void setCoinId(String coinId) { this.coinId = coinId; }
+    public int getDays() { return days; }
+    public void setDays(int days) { this.days = days; }
+    public int getGapsFound() { return gapsFound; }
+    public void setGapsFound(int gapsFound) { this.gapsFound = gapsFound; }
+    public int getGapsFilled() { return gapsFilled; }
+    public void setGapsFilled(int gapsFilled) { this.gapsFilled = gapsFilled; }
+    public int getPointsWritten() { return pointsWritten; }
+    public void setPointsWritten(int pointsWritten) { this.pointsWritten = pointsWritten; }
+    public int getTicksStored() { return ticksStored; }
+    public void setTicksStored(int ticksStored) { this.ticksStored = ticksStored; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,64 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+import java.time.LocalDateTime;
+
+public class BacktestJobResponse {
+    private boolean success;
+    private String jobId;
+    private String type;
+    private String status;
+    private String description;
+    private double progressPercentage;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;
+    private Object result;
+    private String message;
+
+    public BacktestJobResponse(boolean success, String jobId, String type, String status, String description,
+                               double progressPercentage, LocalDateTime submittedAt, LocalDateTime startedAt,
+                               LocalDateTime finishedAt, LocalDateTime expiresAt, Object result, String message) {
+        this.success = success;
+        this.jobId = jobId;
+        this.type = type;
+        this.status = status;
+        this.description = description;
+        this.progressPercentage = progressPercentage;
+        this.submittedAt = submittedAt;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.expiresAt = expiresAt;
+        this.result = result;
+        this.message = message;
+    }
+
+    public static BacktestJobResponse failure(String jobId, String message) {
+        return new BacktestJobResponse(false, jobId, null, null, null, 0, null, null, null, null, null, message);
+    }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public double getProgressPercentage() { return progressPercentage; }
+    public void setProgressPercentage(double progressPercentage) { this.progressPercentage = progressPercentage; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    public Object getResult() { return result; }
+    public void setResult(Object result) { this.result = result; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -1,9 +1,11 @@
 package dankok.trading212.auto_trading_bot.dtos;
 
+import dankok.trading212.auto_trading_bot.jobs.JobOutcome;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
-public class BacktestResult {
+public class BacktestResult implements JobOutcome {
     private boolean success;
     private String coinId;
     private LocalDateTime startDate;
@@ -47,4 +49,7 @@ public class BacktestResult {
     public int getSuccessfulTrades() { return successfulTrades; }
     public List<TradeResult> getTrades() { return trades; }
     public String getSummary() { return summary; }
+
+    @Override
+    public String failureMessage() { return summary; }
 }
@@ -0,0 +1,39 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+import java.time.LocalDateTime;
+
+public class BacktestTradeEvent {
+    private int bar;
+    private LocalDateTime timestamp;
+    private String action;
+    private double quantity;
+    private double price;
+    private double totalValue;
+    private double balance;
+
+    public BacktestTradeEvent(int bar, LocalDateTime timestamp, String action, double quantity, double price,
+                              double totalValue, double balance) {
+        this.bar = bar;
+        this.timestamp = timestamp;
+        this.action = action;
+        this.quantity = quantity;
+        this.price = price;
+        this.totalValue = totalValue;
+        this.balance = balance;
+    }
+
+    public int getBar() { return bar; }
+    public void setBar(int bar) { this.bar = bar; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+    public double getQuantity() { return quantity; }
+    public void setQuantity(double quantity) { this.quantity = quantity; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+    public double getTotalValue() { return totalValue; }
+    public void setTotalValue(double totalValue) { this.totalValue = totalValue; }
+    public double getBalance() { return balance; }
+    public void setBalance(double balance) { this.balance = balance; }
+}
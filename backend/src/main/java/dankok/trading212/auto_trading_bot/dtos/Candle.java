@@ -0,0 +1,35 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+import java.time.LocalDateTime;
+
+public class Candle {
+    private final String symbol;
+    private final LocalDateTime bucketStart;
+    private final double open;
+    private final double high;
+    private final double low;
+    private final double close;
+    private final LocalDateTime openTime;
+    private final LocalDateTime closeTime;
+
+    public Candle(String symbol, LocalDateTime bucketStart, double open, double high, double low, double close,
+                  LocalDateTime openTime, LocalDateTime closeTime) {
+        this.symbol = symbol;
+        this.bucketStart = bucketStart;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.openTime = openTime;
+        this.closeTime = closeTime;
+    }
+
+    public String getSymbol() { return symbol; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public double getOpen() { return open; }
+    public double getHigh() { return high; }
+    public double getLow() { return low; }
+    public double getClose() { return close; }
+    public LocalDateTime getOpenTime() { return openTime; }
+    public LocalDateTime getCloseTime() { return closeTime; }
+}
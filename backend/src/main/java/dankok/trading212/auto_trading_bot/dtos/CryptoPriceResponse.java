@@ -6,6 +6,8 @@ public class CryptoPriceResponse {
     private boolean success;
     private Map<String, Double> prices;
     private String errorMessage;
+    private boolean stale;
+    private Map<String, Long> priceAgeSeconds;
 
     public CryptoPriceResponse(boolean success, Map<String, Double> prices, String errorMessage) {
         this.success = success;
@@ -19,4 +21,8 @@ public class CryptoPriceResponse {
     public void setPrices(Map<String, Double> prices) { this.prices = prices; }
     public String getErrorMessage() { return errorMessage; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    public boolean isStale() { return stale; }
+    public void setStale(boolean stale) { this.stale = stale; }
+    public Map<String, Long> getPriceAgeSeconds() { return priceAgeSeconds; }
+    public void setPriceAgeSeconds(Map<String, Long> priceAgeSeconds) { this.priceAgeSeconds = priceAgeSeconds; }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+public class Distribution {
+    private double mean;
+    private double standardDeviation;
+    private double min;
+    private double percentile5;
+    private double percentile25;
+    private double median;
+    private double percentile75;
+    private double percentile95;
+    private double max;
+
+    public Distribution(double mean, double standardDeviation, double min, double percentile5, double percentile25,
+                        double median, double percentile75, double percentile95, double max) {
+        this.mean = mean;
+        this.standardDeviation = standardDeviation;
+        this.min = min;
+        this.percentile5 = percentile5;
+        this.percentile25 = percentile25;
+        this.median = median;
+        this.percentile75 = percentile75;
+        this.percentile95 = percentile95;
+        this.max = max;
+    }
+
+    public double getMean() { return mean; }
+    public double getStandardDeviation() { return standardDeviation; }
+    public double getMin() { return min; }
+    public double getPercentile5() { return percentile5; }
+    public double getPercentile25() { return percentile25; }
+    public double getMedian() { return median; }
+    public double getPercentile75() { return percentile75; }
+    public double getPercentile95() { return percentile95; }
+    public double getMax() { return max; }
+}
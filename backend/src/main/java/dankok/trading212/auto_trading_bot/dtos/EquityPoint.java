@@ -0,0 +1,26 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+import java.time.LocalDateTime;
+
+public class EquityPoint {
+    private int bar;
+    private LocalDateTime timestamp;
+    private double price;
+    private double equity;
+
+    public EquityPoint(int bar, LocalDateTime timestamp, double price, double equity) {
+        this.bar = bar;
+        this.timestamp = timestamp;
+        this.price = price;
+        this.equity = equity;
+    }
+
+    public int getBar() { return bar; }
+    public void setBar(int bar) { this.bar = bar; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+    public double getEquity() { return equity; }
+    public void setEquity(double equity) { this.equity = equity; }
+}
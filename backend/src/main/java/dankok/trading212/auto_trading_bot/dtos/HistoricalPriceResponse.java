@@ -1,31 +1,42 @@
 package dankok.trading212.auto_trading_bot.dtos;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.List;
 
 public class HistoricalPriceResponse {
     private boolean success;
     private String coinId;
-    private List<Double> prices;
+    private PriceSeries series;
     private int requestedDays;
     private int actualDays;
     private String errorMessage;
 
-    public HistoricalPriceResponse(boolean success, String coinId, List<Double> prices, 
+    public HistoricalPriceResponse(boolean success, String coinId, PriceSeries series, 
                                  int requestedDays, int actualDays, String errorMessage) {
         this.success = success;
         this.coinId = coinId;
-        this.prices = prices;
+        this.series = series;
         this.requestedDays = requestedDays;
         this.actualDays = actualDays;
         this.errorMessage = errorMessage;
     }
 
+    public HistoricalPriceResponse(boolean success, String coinId, List<Double> prices, 
+                                 int requestedDays, int actualDays, String errorMessage) {
+        this(success, coinId, PriceSeries.fromPrices(prices), requestedDays, actualDays, errorMessage);
+    }
+
     public boolean isSuccess() { return success; }
     public void setSuccess(boolean success) { this.success = success; }
     public String getCoinId() { return coinId; }
     public void setCoinId(String coinId) { this.coinId = coinId; }
-    public List<Double> getPrices() { return prices; }
-    public void setPrices(List<Double> prices) { this.prices = prices; }
+    @JsonIgnore
+    public PriceSeries getSeries() { return series; }
+    public void setSeries(PriceSeries series) { this.series = series; }
+    public List<Double> getPrices() { return series.asList(); }
+    public void setPrices(List<Double> prices) { this.series = PriceSeries.fromPrices(prices); }
+    public long[] getTimestamps() { return series.toTimestampArray(); }
     public int getRequestedDays() { return requestedDays; }
     public void setRequestedDays(int requestedDays) { this.requestedDays = requestedDays; }
     public int getActualDays() { return actualDays; }
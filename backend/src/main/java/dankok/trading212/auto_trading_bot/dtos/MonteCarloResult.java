@@ -0,0 +1,65 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+import dankok.trading212.auto_trading_bot.jobs.JobOutcome;
+
+public class MonteCarloResult implements JobOutcome {
+    private boolean success;
+    private String coinId;
+    private String strategy;
+    private int days;
+    private int bars;
+    private int paths;
+    private int blockLength;
+    private long seed;
+    private long elapsedMillis;
+    private double historicalReturnPercentage;
+    private double historicalMaxDrawdownPercentage;
+    private double lossProbability;
+    private Distribution returnPercentage;
+    private Distribution maxDrawdownPercentage;
+    private Distribution trades;
+    private String message;
+
+    public MonteCarloResult(boolean success, String coinId, String strategy, int days, int bars, int paths,
+                            int blockLength, long seed, long elapsedMillis, double historicalReturnPercentage,
+                            double historicalMaxDrawdownPercentage, double lossProbability,
+                            Distribution returnPercentage, Distribution maxDrawdownPercentage, Distribution trades,
+                            String message) {
+        this.success = success;
+        this.coinId = coinId;
+        this.strategy = strategy;
+        this.days = days;
+        this.bars = bars;
+        this.paths = paths;
+        this.blockLength = blockLength;
+        this.seed = seed;
+        this.elapsedMillis = elapsedMillis;
+        this.historicalReturnPercentage = historicalReturnPercentage;
+        this.historicalMaxDrawdownPercentage = historicalMaxDrawdownPercentage;
+        this.lossProbability = lossProbability;
+        this.returnPercentage = returnPercentage;
+        this.maxDrawdownPercentage = maxDrawdownPercentage;
+        this.trades = trades;
+        this.message = message;
+    }
+
+    public boolean isSuccess() { return success; }
+    public String getCoinId() { return coinId; }
+    public String getStrategy() { return strategy; }
+    public int getDays() { return days; }
+    public int getBars() { return bars; }
+    public int getPaths() { return paths; }
+    public int getBlockLength() { return blockLength; }
+    public long getSeed() { return seed; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public double getHistoricalReturnPercentage() { return historicalReturnPercentage; }
+    public double getHistoricalMaxDrawdownPercentage() { return historicalMaxDrawdownPercentage; }
+    public double getLossProbability() { return lossProbability; }
+    public Distribution getReturnPercentage() { return returnPercentage; }
+    public Distribution getMaxDrawdownPercentage() { return maxDrawdownPercentage; }
+    public Distribution getTrades() { return trades; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String failureMessage() { return message; }
+}
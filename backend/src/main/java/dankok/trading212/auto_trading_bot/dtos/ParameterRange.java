@@ -0,0 +1,24 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+public class ParameterRange {
+    private int from;
+    private int to;
+    private int step = 1;
+
+    public ParameterRange() {}
+
+    public ParameterRange(int from, int to, int step) {
+        this.from = from;
+        this.to = to;
+        this.step = step;
+    }
+
+    public int getFrom() { return from; }
+    public void setFrom(int from) { this.from = from; }
+
+    public int getTo() { return to; }
+    public void setTo(int to) { this.to = to; }
+
+    public int getStep() { return step; }
+    public void setStep(int step) { this.step = step; }
+}
@@ -0,0 +1,43 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ParameterSweepRequest {
+    private String coinId;
+    private int days = 365;
+    private double initialBalance = 1000.0;
+    private String strategy;
+    private Map<String, ParameterRange> parameters = new LinkedHashMap<>();
+    private int limit = 50;
+
+    public ParameterSweepRequest() {}
+
+    public ParameterSweepRequest(String coinId, int days, double initialBalance, String strategy,
+                                 Map<String, ParameterRange> parameters, int limit) {
+        this.coinId = coinId;
+        this.days = days;
+        this.initialBalance = initialBalance;
+        this.strategy = strategy;
+        this.parameters = parameters;
+        this.limit = limit;
+    }
+
+    public String getCoinId() { return coinId; }
+    public void setCoinId(String coinId) { this.coinId = coinId; }
+
+    public int getDays() { return days; }
+    public void setDays(int days) { this.days = days; }
+
+    public double getInitialBalance() { return initialBalance; }
+    public void setInitialBalance(double initialBalance) { this.initialBalance = initialBalance; }
+
+    public String getStrategy() { return strategy; }
+    public void setStrategy(String strategy) { this.strategy = strategy; }
+
+    public Map<String, ParameterRange> getParameters() { return parameters; }
+    public void setParameters(Map<String, ParameterRange> parameters) { this.parameters = parameters; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -0,0 +1,47 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+import dankok.trading212.auto_trading_bot.jobs.JobOutcome;
+
+import java.util.List;
+
+public class ParameterSweepResult implements JobOutcome {
+    private boolean success;
+    private String coinId;
+    private String strategy;
+    private int days;
+    private int bars;
+    private int combinations;
+    private int skippedCombinations;
+    private long elapsedMillis;
+    private List<SweepEntry> results;
+    private String message;
+
+    public ParameterSweepResult(boolean success, String coinId, String strategy, int days, int bars,
+                                int combinations, int skippedCombinations, long elapsedMillis,
+                                List<SweepEntry> results, String message) {
+        this.success = success;
+        this.coinId = coinId;
+        this.strategy = strategy;
+        this.days = days;
+        this.bars = bars;
+        this.combinations = combinations;
+        this.skippedCombinations = skippedCombinations;
+        this.elapsedMillis = elapsedMillis;
+        this.results = results;
+        this.message = message;
+    }
+
+    public boolean isSuccess() { return success; }
+    public String getCoinId() { return coinId; }
+    public String getStrategy() { return strategy; }
+    public int getDays() { return days; }
+    public int getBars() { return bars; }
+    public int getCombinations() { return combinations; }
+    public int getSkippedCombinations() { return skippedCombinations; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public List<SweepEntry> getResults() { return results; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String failureMessage() { return message; }
+}
@@ -0,0 +1,62 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+import dankok.trading212.auto_trading_bot.jobs.JobOutcome;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class PortfolioBacktestResult implements JobOutcome {
+    private boolean success;
+    private List<String> coinIds;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private int bars;
+    private double initialBalance;
+    private double finalBalance;
+    private double cash;
+    private double totalReturn;
+    private double totalReturnPercentage;
+    private double maxDrawdownPercentage;
+    private int totalTrades;
+    private List<PortfolioCoinResult> coins;
+    private String summary;
+
+    public PortfolioBacktestResult(boolean success, List<String> coinIds, LocalDateTime startDate,
+                                   LocalDateTime endDate, int bars, double initialBalance, double finalBalance,
+                                   double cash, double totalReturn, double totalReturnPercentage,
+                                   double maxDrawdownPercentage, int totalTrades, List<PortfolioCoinResult> coins,
+                                   String summary) {
+        this.success = success;
+        this.coinIds = coinIds;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.bars = bars;
+        this.initialBalance = initialBalance;
+        this.finalBalance = finalBalance;
+        this.cash = cash;
+        this.totalReturn = totalReturn;
+        this.totalReturnPercentage = totalReturnPercentage;
+        this.maxDrawdownPercentage = maxDrawdownPercentage;
+        this.totalTrades = totalTrades;
+        this.coins = coins;
+        this.summary = summary;
+    }
+
+    public boolean isSuccess() { return success; }
+    public List<String> getCoinIds() { return coinIds; }
+    public LocalDateTime getStartDate() { return startDate; }
+    public LocalDateTime getEndDate() { return endDate; }
+    public int getBars() { return bars; }
+    public double getInitialBalance() { return initialBalance; }
+    public double getFinalBalance() { return finalBalance; }
+    public double getCash() { return cash; }
+    public double getTotalReturn() { return totalReturn; }
+    public double getTotalReturnPercentage() { return totalReturnPercentage; }
+    public double getMaxDrawdownPercentage() { return maxDrawdownPercentage; }
+    public int getTotalTrades() { return totalTrades; }
+    public List<PortfolioCoinResult> getCoins() { return coins; }
+    public String getSummary() { return summary; }
+
+    @Override
+    public String failureMessage() { return summary; }
+}
@@ -0,0 +1,26 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+import java.util.List;
+
+public class PortfolioCoinResult {
+    private String coinId;
+    private double holdings;
+    private double positionValue;
+    private int totalTrades;
+    private List<TradeResult> trades;
+
+    public PortfolioCoinResult(String coinId, double holdings, double positionValue, int totalTrades,
+                               List<TradeResult> trades) {
+        this.coinId = coinId;
+        this.holdings = holdings;
+        this.positionValue = positionValue;
+        this.totalTrades = totalTrades;
+        this.trades = trades;
+    }
+
+    public String getCoinId() { return coinId; }
+    public double getHoldings() { return holdings; }
+    public double getPositionValue() { return positionValue; }
+    public int getTotalTrades() { return totalTrades; }
+    public List<TradeResult> getTrades() { return trades; }
+}
@@ -0,0 +1,19 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+import java.time.LocalDateTime;
+
+public class PricePoint {
+    private final String symbol;
+    private final double price;
+    private final LocalDateTime timestamp;
+
+    public PricePoint(String symbol, double price, LocalDateTime timestamp) {
+        this.symbol = symbol;
+        this.price = price;
+        this.timestamp = timestamp;
+    }
+
+    public String getSymbol() { return symbol; }
+    public double getPrice() { return price; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+}
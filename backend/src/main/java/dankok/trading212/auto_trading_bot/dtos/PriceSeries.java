@@ -0,0 +1,159 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable time series of prices backed by parallel primitive arrays. Slicing returns views
+ * that share the backing arrays, so narrowing a series to a window never copies samples.
+ */
+public final class PriceSeries {
+
+    private static final PriceSeries EMPTY = new PriceSeries(new long[0], new double[0], 0, 0);
+
+    private final long[] timestamps;
+    private final double[] prices;
+    private final int offset;
+    private final int length;
+
+    private PriceSeries(long[] timestamps, double[] prices, int offset, int length) {
+        this.timestamps = timestamps;
+        this.prices = prices;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public static PriceSeries empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Wraps the first {@code length} samples of the given arrays without copying them. The
+     * caller hands the arrays over and must not modify them afterwards.
+     */
+    public static PriceSeries wrap(long[] timestamps, double[] prices, int length) {
+        if (timestamps.length < length || prices.length < length) {
+            throw new IllegalArgumentException("Series length exceeds backing arrays");
+        }
+        return length == 0 ? EMPTY : new PriceSeries(timestamps, prices, 0, length);
+    }
+
+    public static PriceSeries wrap(long[] timestamps, double[] prices) {
+        if (timestamps.length != prices.length) {
+            throw new IllegalArgumentException("Timestamps and prices must have the same length");
+        }
+        return wrap(timestamps, prices, prices.length);
+    }
+
+    /**
+     * Builds a series from bare prices; samples are stamped with their index.
+     */
+    public static PriceSeries fromPrices(List<Double> prices) {
+        long[] timestamps = new long[prices.size()];
+        double[] values = new double[prices.size()];
+        for (int i = 0; i < values.length; i++) {
+            timestamps[i] = i;
+            values[i] = prices.get(i);
+        }
+        return wrap(timestamps, values);
+    }
+
+    public int size() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public long timestampAt(int index) {
+        return timestamps[offset + checkIndex(index)];
+    }
+
+    public double priceAt(int index) {
+        return prices[offset + checkIndex(index)];
+    }
+
+    public long firstTimestamp() {
+        return timestampAt(0);
+    }
+
+    public long lastTimestamp() {
+        return timestampAt(length - 1);
+    }
+
+    public double lastPrice() {
+        return priceAt(length - 1);
+    }
+
+    /**
+     * View of samples {@code [from, to)}.
+     */
+    public PriceSeries slice(int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("Invalid slice [" + from + ", " + to + ") of " + length);
+        }
+        if (from == 0 && to == length) {
+            return this;
+        }
+        return from == to ? EMPTY : new PriceSeries(timestamps, prices, offset + from, to - from);
+    }
+
+    /**
+     * View of the last {@code count} samples, or the whole series if it is shorter.
+     */
+    public PriceSeries last(int count) {
+        return slice(Math.max(0, length - count), length);
+    }
+
+    /**
+     * View of the samples stamped at or after {@code fromTimestamp}.
+     */
+    public PriceSeries since(long fromTimestamp) {
+        int index = Arrays.binarySearch(timestamps, offset, offset + length, fromTimestamp);
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            while (index > offset && timestamps[index - 1] == fromTimestamp) {
+                index--;
+            }
+        }
+        return slice(index - offset, length);
+    }
+
+    public double[] toPriceArray() {
+        return Arrays.copyOfRange(prices, offset, offset + length);
+    }
+
+    public long[] toTimestampArray() {
+        return Arrays.copyOfRange(timestamps, offset, offset + length);
+    }
+
+    /**
+     * Read-only list view of the prices; values are boxed on access only.
+     */
+    public List<Double> asList() {
+        return new PriceListView();
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+        return index;
+    }
+
+    private final class PriceListView extends AbstractList<Double> implements RandomAccess {
+        @Override
+        public Double get(int index) {
+            return priceAt(index);
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+import java.util.Map;
+
+public class SweepEntry {
+    private int rank;
+    private Map<String, Integer> parameters;
+    private double finalBalance;
+    private double totalReturn;
+    private double totalReturnPercentage;
+    private int totalTrades;
+
+    public SweepEntry(Map<String, Integer> parameters, double finalBalance, double totalReturn,
+                      double totalReturnPercentage, int totalTrades) {
+        this.parameters = parameters;
+        this.finalBalance = finalBalance;
+        this.totalReturn = totalReturn;
+        this.totalReturnPercentage = totalReturnPercentage;
+        this.totalTrades = totalTrades;
+    }
+
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+    public Map<String, Integer> getParameters() { return parameters; }
+    public double getFinalBalance() { return finalBalance; }
+    public double getTotalReturn() { return totalReturn; }
+    public double getTotalReturnPercentage() { return totalReturnPercentage; }
+    public int getTotalTrades() { return totalTrades; }
+}
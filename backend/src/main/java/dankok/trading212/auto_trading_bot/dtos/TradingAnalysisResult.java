@@ -1,8 +1,10 @@
 package dankok.trading212.auto_trading_bot.dtos;
 
+import dankok.trading212.auto_trading_bot.jobs.JobOutcome;
+
 import java.util.List;
 
-public class TradingAnalysisResult {
+public class TradingAnalysisResult implements JobOutcome {
     private List<CoinAnalysis> analyses;
     private String summary;
     private boolean success;
@@ -19,4 +21,7 @@ public class TradingAnalysisResult {
     public void setSummary(String summary) { this.summary = summary; }
     public boolean isSuccess() { return success; }
     public void setSuccess(boolean success) { this.success = success; }
-}
\ No newline at end of file
+
+    @Override
+    public String failureMessage() { return summary; }
+}
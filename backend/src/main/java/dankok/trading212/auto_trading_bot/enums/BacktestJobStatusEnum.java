@@ -0,0 +1,13 @@
+package dankok.trading212.auto_trading_bot.enums;
+
+public enum BacktestJobStatusEnum {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
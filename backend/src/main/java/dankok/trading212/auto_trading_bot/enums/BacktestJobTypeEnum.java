@@ -0,0 +1,9 @@
+package dankok.trading212.auto_trading_bot.enums;
+
+public enum BacktestJobTypeEnum {
+    BACKTEST,
+    HISTORICAL_TRAINING,
+    PORTFOLIO_BACKTEST,
+    PARAMETER_SWEEP,
+    MONTE_CARLO
+}
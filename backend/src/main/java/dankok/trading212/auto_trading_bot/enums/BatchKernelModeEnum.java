@@ -0,0 +1,26 @@
+package dankok.trading212.auto_trading_bot.enums;
+
+public enum BatchKernelModeEnum {
+    AUTO("auto"),
+    VECTOR("vector"),
+    SCALAR("scalar");
+
+    private final String code;
+
+    BatchKernelModeEnum(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public static BatchKernelModeEnum fromCode(String code) {
+        for (BatchKernelModeEnum mode : values()) {
+            if (mode.code.equalsIgnoreCase(code.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown batch kernel mode: " + code);
+    }
+}
@@ -0,0 +1,41 @@
+package dankok.trading212.auto_trading_bot.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum CandleIntervalEnum {
+    ONE_MINUTE("1m", "price_candles_1m", ChronoUnit.MINUTES),
+    ONE_HOUR("1h", "price_candles_1h", ChronoUnit.HOURS),
+    ONE_DAY("1d", "price_candles_1d", ChronoUnit.DAYS);
+
+    private final String code;
+    private final String table;
+    private final ChronoUnit unit;
+
+    CandleIntervalEnum(String code, String table, ChronoUnit unit) {
+        this.code = code;
+        this.table = table;
+        this.unit = unit;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    public static CandleIntervalEnum fromCode(String code) {
+        for (CandleIntervalEnum interval : values()) {
+            if (interval.code.equalsIgnoreCase(code)) {
+                return interval;
+            }
+        }
+        throw new IllegalArgumentException("Unknown candle interval: " + code);
+    }
+}
@@ -0,0 +1,34 @@
+package dankok.trading212.auto_trading_bot.enums;
+
+public enum CoinGeckoEndpointEnum {
+    SIMPLE_PRICE("simple_price"),
+    MARKET_CHART("market_chart"),
+    MARKET_CHART_RANGE("market_chart_range"),
+    OTHER("other");
+
+    private final String tag;
+
+    CoinGeckoEndpointEnum(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public static CoinGeckoEndpointEnum fromPath(String path) {
+        if (path == null) {
+            return OTHER;
+        }
+        if (path.endsWith("/simple/price")) {
+            return SIMPLE_PRICE;
+        }
+        if (path.endsWith("/market_chart/range")) {
+            return MARKET_CHART_RANGE;
+        }
+        if (path.endsWith("/market_chart")) {
+            return MARKET_CHART;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,17 @@
+package dankok.trading212.auto_trading_bot.enums;
+
+public enum CoinGeckoTierEnum {
+    FREE,
+    DEMO,
+    PRO;
+
+    public static CoinGeckoTierEnum fromApiKey(String apiKey) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            return FREE;
+        } else if (apiKey.startsWith("CG-") && apiKey.length() > 20) {
+            return DEMO;
+        } else {
+            return PRO;
+        }
+    }
+}
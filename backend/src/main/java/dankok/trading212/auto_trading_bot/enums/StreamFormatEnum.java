@@ -0,0 +1,31 @@
+package dankok.trading212.auto_trading_bot.enums;
+
+public enum StreamFormatEnum {
+    NDJSON("ndjson", "application/x-ndjson"),
+    SSE("sse", "text/event-stream");
+
+    private final String code;
+    private final String contentType;
+
+    StreamFormatEnum(String code, String contentType) {
+        this.code = code;
+        this.contentType = contentType;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static StreamFormatEnum fromCode(String code) {
+        for (StreamFormatEnum format : values()) {
+            if (format.code.equalsIgnoreCase(code.trim())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown stream format: " + code);
+    }
+}
@@ -0,0 +1,7 @@
+package dankok.trading212.auto_trading_bot.enums;
+
+public enum UpstreamPriorityEnum {
+    LIVE_TRADING,
+    INTERACTIVE,
+    BACKGROUND
+}
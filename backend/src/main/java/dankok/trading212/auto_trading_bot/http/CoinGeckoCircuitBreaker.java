@@ -0,0 +1,170 @@
+package dankok.trading212.auto_trading_bot.http;
+
+import dankok.trading212.auto_trading_bot.enums.CircuitStateEnum;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Stops calling CoinGecko after a run of consecutive failures. While open, calls are rejected
+ * immediately with {@link CircuitOpenException} instead of waiting on timeouts; after the open
+ * period a single trial call is let through, and its outcome closes or reopens the circuit.
+ * Timeouts, 5xx responses and rate limiting count as failures; other 4xx responses do not,
+ * since they say nothing about the upstream's health. Calls the local rate limiter turned away
+ * before they reached CoinGecko count as neither.
+ */
+@Component
+public class CoinGeckoCircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private CircuitStateEnum state = CircuitStateEnum.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+
+    private final Counter rejected;
+    private final Map<CircuitStateEnum, Counter> transitions = new EnumMap<>(CircuitStateEnum.class);
+
+    @Autowired
+    public CoinGeckoCircuitBreaker(@Value("${coingecko.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                   @Value("${coingecko.circuit-breaker.open-seconds:30}") long openSeconds,
+                                   MeterRegistry meterRegistry) {
+        this(failureThreshold, Duration.ofSeconds(openSeconds), meterRegistry, System::nanoTime);
+    }
+
+    CoinGeckoCircuitBreaker(int failureThreshold, Duration openDuration, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+
+        this.rejected = Counter.builder("coingecko.circuit.rejected").register(meterRegistry);
+        for (CircuitStateEnum target : CircuitStateEnum.values()) {
+            transitions.put(target, Counter.builder("coingecko.circuit.transitions")
+                .tag("to", target.name())
+                .register(meterRegistry));
+        }
+        Gauge.builder("coingecko.circuit.state", this, breaker -> breaker.getState().ordinal()).register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> action) {
+        boolean trial = acquirePermission();
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            if (e instanceof UpstreamThrottledException) {
+                onNotSent(trial);
+            } else if (isFailure(e)) {
+                onFailure(trial);
+            } else {
+                onSuccess(trial);
+            }
+            throw e;
+        }
+        onSuccess(trial);
+        return result;
+    }
+
+    public synchronized CircuitStateEnum getState() {
+        if (state == CircuitStateEnum.OPEN && nanoClock.getAsLong() - openedAtNanos >= openNanos) {
+            return CircuitStateEnum.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * How long the circuit stays open before it lets a trial call through; zero if it is not open.
+     */
+    public synchronized Duration remainingOpen() {
+        if (state != CircuitStateEnum.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, openedAtNanos + openNanos - nanoClock.getAsLong()));
+    }
+
+    private synchronized boolean acquirePermission() {
+        if (state == CircuitStateEnum.OPEN) {
+            if (nanoClock.getAsLong() - openedAtNanos < openNanos) {
+                rejected.increment();
+                throw new CircuitOpenException("CoinGecko circuit is open, retrying in "
+                    + remainingOpen().toSeconds() + "s");
+            }
+            transition(CircuitStateEnum.HALF_OPEN);
+        }
+        if (state == CircuitStateEnum.HALF_OPEN) {
+            if (trialInFlight) {
+                rejected.increment();
+                throw new CircuitOpenException("CoinGecko circuit is half-open, trial call in progress");
+            }
+            trialInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void onSuccess(boolean trial) {
+        consecutiveFailures = 0;
+        if (trial) {
+            trialInFlight = false;
+            transition(CircuitStateEnum.CLOSED);
+        }
+    }
+
+    // The call never left the process, so a trial slot is released without deciding anything
+    private synchronized void onNotSent(boolean trial) {
+        if (trial) {
+            trialInFlight = false;
+        }
+    }
+
+    private synchronized void onFailure(boolean trial) {
+        if (trial) {
+            trialInFlight = false;
+            open();
+            return;
+        }
+        consecutiveFailures++;
+        if (state == CircuitStateEnum.CLOSED && consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        openedAtNanos = nanoClock.getAsLong();
+        consecutiveFailures = 0;
+        transition(CircuitStateEnum.OPEN);
+    }
+
+    private void transition(CircuitStateEnum target) {
+        if (state != target) {
+            state = target;
+            transitions.get(target).increment();
+        }
+    }
+
+    private static boolean isFailure(RuntimeException e) {
+        if (e instanceof CircuitOpenException) {
+            return false;
+        }
+        if (e instanceof HttpClientErrorException clientError) {
+            return clientError.getStatusCode().value() == 429;
+        }
+        // Anything else the client raises without a status is a transport or read failure
+        return e instanceof HttpServerErrorException || e instanceof RestClientException;
+    }
+}
@@ -0,0 +1,171 @@
+package dankok.trading212.auto_trading_bot.http;
+
+import dankok.trading212.auto_trading_bot.enums.CoinGeckoTierEnum;
+import dankok.trading212.auto_trading_bot.enums.UpstreamPriorityEnum;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Token bucket sized to the request budget of the configured CoinGecko tier. Callers queue in
+ * priority lanes and a token always goes to the oldest waiter of the highest-priority lane.
+ * A 429 from upstream empties the bucket and pauses it until the advertised Retry-After.
+ */
+@Component
+public class CoinGeckoRateLimiter {
+
+    private final CoinGeckoTierEnum tier;
+    private final double tokensPerNano;
+    private final double capacity;
+    private final long maxWaitNanos;
+
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+        Comparator.comparingInt((Waiter waiter) -> waiter.priority.ordinal()).thenComparingLong(waiter -> waiter.sequence));
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private long nextSequence;
+
+    private final Map<UpstreamPriorityEnum, AtomicInteger> queueDepth = new EnumMap<>(UpstreamPriorityEnum.class);
+    private final Map<UpstreamPriorityEnum, Timer> waitTimers = new EnumMap<>(UpstreamPriorityEnum.class);
+    private final Counter upstreamThrottles;
+    private final Counter queueTimeouts;
+
+    @Autowired
+    public CoinGeckoRateLimiter(@Value("${coingecko.api.key:}") String apiKey,
+                                @Value("${coingecko.rate-limit.free-per-minute:10}") int freePerMinute,
+                                @Value("${coingecko.rate-limit.demo-per-minute:30}") int demoPerMinute,
+                                @Value("${coingecko.rate-limit.pro-per-minute:500}") int proPerMinute,
+                                @Value("${coingecko.rate-limit.burst:5}") int burst,
+                                @Value("${coingecko.rate-limit.max-wait-millis:30000}") long maxWaitMillis,
+                                MeterRegistry meterRegistry) {
+        this(CoinGeckoTierEnum.fromApiKey(apiKey),
+            switch (CoinGeckoTierEnum.fromApiKey(apiKey)) {
+                case FREE -> freePerMinute;
+                case DEMO -> demoPerMinute;
+                case PRO -> proPerMinute;
+            },
+            burst, Duration.ofMillis(maxWaitMillis), meterRegistry);
+    }
+
+    CoinGeckoRateLimiter(CoinGeckoTierEnum tier, int requestsPerMinute, int burst, Duration maxWait,
+                         MeterRegistry meterRegistry) {
+        this.tier = tier;
+        this.tokensPerNano = Math.max(1, requestsPerMinute) / (double) TimeUnit.MINUTES.toNanos(1);
+        this.capacity = Math.max(1, Math.min(burst, requestsPerMinute));
+        this.maxWaitNanos = maxWait.toNanos();
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+
+        for (UpstreamPriorityEnum priority : UpstreamPriorityEnum.values()) {
+            AtomicInteger depth = new AtomicInteger();
+            queueDepth.put(priority, depth);
+            Gauge.builder("coingecko.scheduler.queue.depth", depth, AtomicInteger::get)
+                .tag("lane", priority.name())
+                .register(meterRegistry);
+            waitTimers.put(priority, Timer.builder("coingecko.scheduler.wait")
+                .tag("lane", priority.name())
+                .register(meterRegistry));
+        }
+        this.upstreamThrottles = Counter.builder("coingecko.scheduler.throttled").tag("reason", "upstream_429").register(meterRegistry);
+        this.queueTimeouts = Counter.builder("coingecko.scheduler.throttled").tag("reason", "queue_timeout").register(meterRegistry);
+        Gauge.builder("coingecko.scheduler.tokens", this, CoinGeckoRateLimiter::availableTokens)
+            .tag("tier", tier.name())
+            .register(meterRegistry);
+    }
+
+    public CoinGeckoTierEnum getTier() {
+        return tier;
+    }
+
+    public void acquire(UpstreamPriorityEnum priority) {
+        long started = System.nanoTime();
+        long deadline = started + maxWaitNanos;
+        AtomicInteger depth = queueDepth.get(priority);
+        depth.incrementAndGet();
+
+        try {
+            synchronized (this) {
+                Waiter waiter = new Waiter(priority, nextSequence++);
+                queue.add(waiter);
+                try {
+                    while (true) {
+                        long now = System.nanoTime();
+                        refill(now);
+
+                        if (queue.peek() == waiter && now >= pausedUntilNanos && tokens >= 1) {
+                            tokens -= 1;
+                            queue.poll();
+                            notifyAll();
+                            return;
+                        }
+                        if (now >= deadline) {
+                            queue.remove(waiter);
+                            notifyAll();
+                            queueTimeouts.increment();
+                            throw new UpstreamThrottledException(String.format(
+                                "Local rate limit: no CoinGecko request slot (%s tier) within %d ms",
+                                tier, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos)));
+                        }
+
+                        long sleep = deadline - now;
+                        if (now < pausedUntilNanos) {
+                            sleep = Math.min(sleep, pausedUntilNanos - now);
+                        } else if (tokens < 1) {
+                            sleep = Math.min(sleep, (long) Math.ceil((1 - tokens) / tokensPerNano));
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, Math.max(sleep, 1));
+                    }
+                } catch (InterruptedException e) {
+                    queue.remove(waiter);
+                    notifyAll();
+                    Thread.currentThread().interrupt();
+                    throw new UpstreamThrottledException("Interrupted while waiting for a CoinGecko request slot");
+                }
+            }
+        } finally {
+            depth.decrementAndGet();
+            waitTimers.get(priority).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public synchronized void onRateLimited(Duration retryAfter) {
+        upstreamThrottles.increment();
+        long now = System.nanoTime();
+        refill(now);
+        tokens = 0;
+        pausedUntilNanos = Math.max(pausedUntilNanos, now + retryAfter.toNanos());
+        notifyAll();
+    }
+
+    public synchronized double availableTokens() {
+        refill(System.nanoTime());
+        return tokens;
+    }
+
+    private void refill(long now) {
+        if (now <= lastRefillNanos) {
+            return;
+        }
+        long from = Math.max(lastRefillNanos, pausedUntilNanos);
+        if (now > from) {
+            tokens = Math.min(capacity, tokens + (now - from) * tokensPerNano);
+        }
+        lastRefillNanos = now;
+    }
+
+    private record Waiter(UpstreamPriorityEnum priority, long sequence) {}
+}
@@ -0,0 +1,153 @@
+package dankok.trading212.auto_trading_bot.http;
+
+import dankok.trading212.auto_trading_bot.enums.UpstreamPriorityEnum;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects the coins requested by concurrent callers during a short window and loads them
+ * with one batched upstream call. The first caller of a window leads the batch: it waits for
+ * the window to close (or the batch to fill up), runs the loader and fans the results out to
+ * everyone else who joined. The batch is sent in the most urgent lane of its callers.
+ */
+@Component
+public class PriceRequestCoalescer {
+
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Object lock = new Object();
+    private final Map<Function<Set<String>, Map<String, Double>>, Batch> openBatches = new HashMap<>();
+
+    private final Counter requests;
+    private final Counter batches;
+    private final DistributionSummary batchSize;
+
+    @Autowired
+    public PriceRequestCoalescer(@Value("${coingecko.batch.window-millis:30}") long windowMillis,
+                                 @Value("${coingecko.batch.max-size:100}") int maxBatchSize,
+                                 MeterRegistry meterRegistry) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+
+        this.requests = Counter.builder("price.coalescer.requests").register(meterRegistry);
+        this.batches = Counter.builder("price.coalescer.batches").register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("price.coalescer.batch.size").register(meterRegistry);
+    }
+
+    /**
+     * Loads {@code coinIds} through {@code loader}, sharing the upstream call with other callers
+     * that pass the same loader instance within the window. Coins the loader does not return
+     * are absent from the result; loader failures are rethrown to every caller of the batch.
+     */
+    public Map<String, Double> fetch(Collection<String> coinIds, Function<Set<String>, Map<String, Double>> loader) {
+        requests.increment();
+        if (windowNanos <= 0) {
+            batches.increment();
+            batchSize.record(coinIds.size());
+            return loader.apply(new LinkedHashSet<>(coinIds));
+        }
+
+        Map<String, CompletableFuture<Double>> futures = new HashMap<>();
+        Batch batch;
+        boolean leader = false;
+
+        synchronized (lock) {
+            batch = openBatches.get(loader);
+            if (batch == null) {
+                batch = new Batch(loader, System.nanoTime() + windowNanos, UpstreamPriority.current());
+                openBatches.put(loader, batch);
+                leader = true;
+            }
+            UpstreamPriorityEnum priority = UpstreamPriority.current();
+            if (priority.ordinal() < batch.priority.ordinal()) {
+                batch.priority = priority;
+            }
+            for (String coinId : coinIds) {
+                futures.put(coinId, batch.futures.computeIfAbsent(coinId, id -> new CompletableFuture<>()));
+            }
+            if (batch.futures.size() >= maxBatchSize) {
+                openBatches.remove(loader, batch);
+                lock.notifyAll();
+            }
+        }
+
+        if (leader) {
+            awaitClose(batch);
+            execute(batch);
+        }
+
+        Map<String, Double> result = new HashMap<>();
+        for (Map.Entry<String, CompletableFuture<Double>> entry : futures.entrySet()) {
+            try {
+                Double price = entry.getValue().join();
+                if (price != null) {
+                    result.put(entry.getKey(), price);
+                }
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    private void awaitClose(Batch batch) {
+        boolean interrupted = false;
+        synchronized (lock) {
+            long remaining;
+            while (openBatches.get(batch.loader) == batch && (remaining = batch.deadlineNanos - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    break;
+                }
+            }
+            openBatches.remove(batch.loader, batch);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void execute(Batch batch) {
+        batches.increment();
+        batchSize.record(batch.futures.size());
+        try {
+            Set<String> coinIds = new LinkedHashSet<>(batch.futures.keySet());
+            Map<String, Double> loaded = UpstreamPriority.call(batch.priority, () -> batch.loader.apply(coinIds));
+            batch.futures.forEach((coinId, future) -> future.complete(loaded != null ? loaded.get(coinId) : null));
+        } catch (RuntimeException e) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private static final class Batch {
+        private final Function<Set<String>, Map<String, Double>> loader;
+        private final long deadlineNanos;
+        private final Map<String, CompletableFuture<Double>> futures = new HashMap<>();
+        private UpstreamPriorityEnum priority;
+
+        Batch(Function<Set<String>, Map<String, Double>> loader, long deadlineNanos, UpstreamPriorityEnum priority) {
+            this.loader = loader;
+            this.deadlineNanos = deadlineNanos;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package dankok.trading212.auto_trading_bot.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+public class RateLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(60);
+
+    private final CoinGeckoRateLimiter rateLimiter;
+
+    public RateLimitInterceptor(CoinGeckoRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        rateLimiter.acquire(UpstreamPriority.current());
+
+        ClientHttpResponse response = execution.execute(request, body);
+        if (response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            rateLimiter.onRateLimited(parseRetryAfter(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)));
+        }
+        return response;
+    }
+
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT_RETRY_AFTER;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration untilRetry = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt);
+                return untilRetry.isNegative() ? Duration.ZERO : untilRetry;
+            } catch (DateTimeParseException ignored) {
+                return DEFAULT_RETRY_AFTER;
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dankok.trading212.auto_trading_bot.http;
+
+import dankok.trading212.auto_trading_bot.enums.CoinGeckoEndpointEnum;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of every CoinGecko call per endpoint and outcome as a histogram. It is
+ * registered after the rate limiter, so time spent waiting for a token is not counted.
+ */
+public class UpstreamMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        CoinGeckoEndpointEnum endpoint = CoinGeckoEndpointEnum.fromPath(request.getURI().getPath());
+        long start = System.nanoTime();
+        String outcome = "IO_ERROR";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            outcome = outcome(response.getStatusCode().value());
+            return response;
+        } finally {
+            Timer.builder("coingecko.http.requests")
+                .tag("endpoint", endpoint.getTag())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String outcome(int status) {
+        if (status == 429) {
+            return "RATE_LIMITED";
+        }
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return "SUCCESS";
+    }
+}
@@ -0,0 +1,35 @@
+package dankok.trading212.auto_trading_bot.http;
+
+import dankok.trading212.auto_trading_bot.enums.UpstreamPriorityEnum;
+
+import java.util.function.Supplier;
+
+/**
+ * Carries the scheduling lane of the current thread's upstream calls. Calls made outside of
+ * {@link #call} run in the {@link UpstreamPriorityEnum#INTERACTIVE} lane.
+ */
+public final class UpstreamPriority {
+
+    private static final ThreadLocal<UpstreamPriorityEnum> CURRENT = new ThreadLocal<>();
+
+    private UpstreamPriority() {}
+
+    public static UpstreamPriorityEnum current() {
+        UpstreamPriorityEnum priority = CURRENT.get();
+        return priority != null ? priority : UpstreamPriorityEnum.INTERACTIVE;
+    }
+
+    public static <T> T call(UpstreamPriorityEnum priority, Supplier<T> action) {
+        UpstreamPriorityEnum previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
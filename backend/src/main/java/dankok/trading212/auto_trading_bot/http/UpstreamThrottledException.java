@@ -0,0 +1,10 @@
+package dankok.trading212.auto_trading_bot.http;
+
+import org.springframework.web.client.RestClientException;
+
+public class UpstreamThrottledException extends RestClientException {
+
+    public UpstreamThrottledException(String message) {
+        super(message);
+    }
+}
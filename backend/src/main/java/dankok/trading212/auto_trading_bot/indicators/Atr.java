@@ -0,0 +1,67 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+/**
+ * Average true range with Wilder's smoothing. Fed candles through
+ * {@link #update(double, double, double)}; fed single prices through {@link #update(double)},
+ * where each price is its own high, low and close and the true range reduces to the absolute
+ * change from the previous close.
+ */
+public final class Atr implements Indicator {
+
+    private final int period;
+    private int ranges;
+    private boolean hasPreviousClose;
+    private double previousClose;
+    private double value;
+
+    public Atr(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        this.period = period;
+    }
+
+    @Override
+    public double update(double price) {
+        return update(price, price, price);
+    }
+
+    public double update(double high, double low, double close) {
+        double trueRange = high - low;
+        if (hasPreviousClose) {
+            trueRange = Math.max(trueRange, Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
+        } else if (high == low) {
+            // A lone price has no range yet
+            hasPreviousClose = true;
+            previousClose = close;
+            return Double.NaN;
+        }
+        hasPreviousClose = true;
+        previousClose = close;
+
+        if (ranges < period) {
+            ranges++;
+            value += (trueRange - value) / ranges;
+        } else {
+            value += (trueRange - value) / period;
+        }
+        return value();
+    }
+
+    @Override
+    public double value() {
+        return isReady() ? value : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ranges >= period;
+    }
+
+    @Override
+    public void reset() {
+        ranges = 0;
+        hasPreviousClose = false;
+        value = 0;
+    }
+}
@@ -0,0 +1,77 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+import dankok.trading212.auto_trading_bot.enums.BatchKernelModeEnum;
+
+/**
+ * Indicator kernels over whole price arrays, for bulk work such as backtests and parameter sweeps
+ * where feeding the streaming {@link Indicator}s one price at a time is the bottleneck. Outputs
+ * have the input's length and hold {@code NaN} wherever the streaming indicator would not be
+ * ready yet.
+ */
+public interface BatchKernels {
+
+    byte CROSS_ABOVE = 1;
+    byte CROSS_BELOW = -1;
+
+    String getName();
+
+    /**
+     * Sum of the last {@code window} values at every index.
+     */
+    double[] rollingSum(double[] values, int window);
+
+    default double[] sma(double[] values, int period) {
+        double[] out = new double[values.length];
+        sma(values, period, out);
+        return out;
+    }
+
+    /**
+     * Writes the SMA into {@code out}, which must have the input's length, so callers running
+     * many series can reuse one buffer.
+     */
+    void sma(double[] values, int period, double[] out);
+
+    /**
+     * Same smoothing and seeding as {@link Ema}.
+     */
+    double[] ema(double[] values, int period);
+
+    /**
+     * Simple return from the previous value at every index.
+     */
+    double[] returns(double[] values);
+
+    /**
+     * {@link #CROSS_ABOVE} where {@code fast} moves from at or below {@code slow} to above it,
+     * {@link #CROSS_BELOW} where it moves from at or above to below, and 0 elsewhere. Indices
+     * where either side is {@code NaN} never cross.
+     */
+    byte[] crossovers(double[] fast, double[] slow);
+
+    /**
+     * Whether the JVM was started with the incubating Vector API
+     * ({@code --add-modules jdk.incubator.vector}).
+     */
+    static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    /**
+     * Kernels for {@code mode}. {@code AUTO} picks the vectorized kernels when the Vector API is
+     * available and falls back to the scalar ones otherwise.
+     */
+    static BatchKernels forMode(BatchKernelModeEnum mode) {
+        return switch (mode) {
+            case SCALAR -> new ScalarBatchKernels();
+            case VECTOR -> {
+                if (!isVectorApiAvailable()) {
+                    throw new IllegalStateException(
+                        "Vector batch kernels need the JVM option --add-modules jdk.incubator.vector");
+                }
+                yield new VectorBatchKernels();
+            }
+            case AUTO -> isVectorApiAvailable() ? new VectorBatchKernels() : new ScalarBatchKernels();
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+/**
+ * Bollinger bands: the simple moving average of the last {@code period} prices, plus and minus
+ * {@code width} population standard deviations. The deviation comes from running sums of the
+ * prices and their squares, taken relative to the first price seen to keep the subtraction in
+ * the variance from losing precision at large price levels. {@link #value()} is the middle band.
+ */
+public final class BollingerBands implements Indicator {
+
+    private final int period;
+    private final double width;
+    private final double[] window;
+    private int count;
+    private int next;
+    private boolean hasOrigin;
+    private double origin;
+    private double sum;
+    private double sumOfSquares;
+
+    public BollingerBands(int period, double width) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        this.period = period;
+        this.width = width;
+        this.window = new double[period];
+    }
+
+    public BollingerBands() {
+        this(20, 2);
+    }
+
+    @Override
+    public double update(double price) {
+        if (!hasOrigin) {
+            hasOrigin = true;
+            origin = price;
+        }
+        double shifted = price - origin;
+        if (count == period) {
+            double dropped = window[next];
+            sum -= dropped;
+            sumOfSquares -= dropped * dropped;
+        } else {
+            count++;
+        }
+        window[next] = shifted;
+        sum += shifted;
+        sumOfSquares += shifted * shifted;
+        next = next + 1 == period ? 0 : next + 1;
+        return value();
+    }
+
+    @Override
+    public double value() {
+        return isReady() ? origin + sum / period : Double.NaN;
+    }
+
+    public double standardDeviation() {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        double mean = sum / period;
+        return Math.sqrt(Math.max(0, sumOfSquares / period - mean * mean));
+    }
+
+    public double upper() {
+        return value() + width * standardDeviation();
+    }
+
+    public double lower() {
+        return value() - width * standardDeviation();
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == period;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        next = 0;
+        hasOrigin = false;
+        sum = 0;
+        sumOfSquares = 0;
+    }
+}
@@ -0,0 +1,53 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+/**
+ * Exponential moving average with smoothing {@code 2 / (period + 1)}, seeded with the simple
+ * average of the first {@code period} prices.
+ */
+public final class Ema implements Indicator {
+
+    private final int period;
+    private final double alpha;
+    private int count;
+    private double value;
+
+    public Ema(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    @Override
+    public double update(double price) {
+        if (count < period) {
+            // Accumulates the seed average
+            value += (price - value) / (count + 1);
+            count++;
+        } else {
+            value += alpha * (price - value);
+        }
+        return value();
+    }
+
+    @Override
+    public double value() {
+        return isReady() ? value : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        value = 0;
+    }
+}
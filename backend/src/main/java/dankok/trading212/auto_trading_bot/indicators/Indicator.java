@@ -0,0 +1,29 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+/**
+ * A technical indicator that is fed one price at a time. Implementations keep only primitive
+ * state, do not allocate after construction and update in constant time, so one instance can be
+ * walked across a whole series or kept alive and fed live prices.
+ */
+public interface Indicator {
+
+    /**
+     * Adds the next price and returns the new value.
+     */
+    double update(double price);
+
+    /**
+     * The current value; {@code NaN} until {@link #isReady()}.
+     */
+    double value();
+
+    /**
+     * Whether enough prices have been seen for {@link #value()} to be meaningful.
+     */
+    boolean isReady();
+
+    /**
+     * Forgets every price seen so far.
+     */
+    void reset();
+}
@@ -0,0 +1,125 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The indicators computed over one coin's prices. Indicators are requested by kind and
+ * parameters and created once; asking for the same one again returns the existing instance, so
+ * several strategies reading the same coin share a single computation. Every price passed to
+ * {@link #update(double)} is fed to all indicators registered so far, which is why strategies
+ * register what they need before the first price.
+ *
+ * <p>A set built with {@link #precomputed(Map)} wraps indicators that were already fed elsewhere
+ * (and may be shared between threads); it is read-only.
+ */
+public final class IndicatorSet {
+
+    private final Map<String, Indicator> byKey = new LinkedHashMap<>();
+    private final boolean readOnly;
+    private Indicator[] indicators = new Indicator[0];
+    private int samples;
+
+    public IndicatorSet() {
+        this.readOnly = false;
+    }
+
+    private IndicatorSet(Map<String, Indicator> precomputed) {
+        this.readOnly = true;
+        this.byKey.putAll(precomputed);
+        this.indicators = precomputed.values().toArray(new Indicator[0]);
+    }
+
+    public static IndicatorSet precomputed(Map<String, Indicator> indicators) {
+        return new IndicatorSet(indicators);
+    }
+
+    public Sma sma(int period) {
+        return register("sma:" + period, () -> new Sma(period));
+    }
+
+    public Ema ema(int period) {
+        return register("ema:" + period, () -> new Ema(period));
+    }
+
+    public Wma wma(int period) {
+        return register("wma:" + period, () -> new Wma(period));
+    }
+
+    public Rsi rsi(int period) {
+        return register("rsi:" + period, () -> new Rsi(period));
+    }
+
+    public Macd macd(int fastPeriod, int slowPeriod, int signalPeriod) {
+        return register("macd:" + fastPeriod + ":" + slowPeriod + ":" + signalPeriod,
+            () -> new Macd(fastPeriod, slowPeriod, signalPeriod));
+    }
+
+    public BollingerBands bollingerBands(int period, double width) {
+        return register("bollinger:" + period + ":" + width, () -> new BollingerBands(period, width));
+    }
+
+    public Atr atr(int period) {
+        return register("atr:" + period, () -> new Atr(period));
+    }
+
+    public void update(double price) {
+        if (readOnly) {
+            throw new IllegalStateException("Precomputed indicators cannot be updated");
+        }
+        for (Indicator indicator : indicators) {
+            indicator.update(price);
+        }
+        samples++;
+    }
+
+    /**
+     * Number of prices fed so far.
+     */
+    public int samples() {
+        return samples;
+    }
+
+    public int size() {
+        return indicators.length;
+    }
+
+    /**
+     * Registered indicators by key, in registration order.
+     */
+    public Map<String, Indicator> indicators() {
+        return Collections.unmodifiableMap(byKey);
+    }
+
+    public void reset() {
+        if (readOnly) {
+            throw new IllegalStateException("Precomputed indicators cannot be reset");
+        }
+        for (Indicator indicator : indicators) {
+            indicator.reset();
+        }
+        samples = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Indicator> T register(String key, Supplier<T> factory) {
+        Indicator existing = byKey.get(key);
+        if (existing != null) {
+            return (T) existing;
+        }
+        if (readOnly) {
+            throw new IllegalStateException("Indicator " + key + " was not precomputed");
+        }
+        if (samples > 0) {
+            throw new IllegalStateException("Indicator " + key + " registered after prices were fed");
+        }
+        T created = factory.get();
+        byKey.put(key, created);
+        indicators = Arrays.copyOf(indicators, indicators.length + 1);
+        indicators[indicators.length - 1] = created;
+        return created;
+    }
+}
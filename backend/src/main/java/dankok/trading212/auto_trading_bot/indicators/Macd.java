@@ -0,0 +1,63 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+/**
+ * Moving average convergence/divergence: the fast EMA minus the slow EMA, with an EMA of that
+ * line as the signal. {@link #value()} is the MACD line.
+ */
+public final class Macd implements Indicator {
+
+    private final Ema fast;
+    private final Ema slow;
+    private final Ema signal;
+
+    public Macd(int fastPeriod, int slowPeriod, int signalPeriod) {
+        if (fastPeriod >= slowPeriod) {
+            throw new IllegalArgumentException("Fast period must be shorter than slow period");
+        }
+        this.fast = new Ema(fastPeriod);
+        this.slow = new Ema(slowPeriod);
+        this.signal = new Ema(signalPeriod);
+    }
+
+    public Macd() {
+        this(12, 26, 9);
+    }
+
+    @Override
+    public double update(double price) {
+        fast.update(price);
+        slow.update(price);
+        if (slow.isReady()) {
+            signal.update(fast.value() - slow.value());
+        }
+        return value();
+    }
+
+    @Override
+    public double value() {
+        return slow.isReady() ? fast.value() - slow.value() : Double.NaN;
+    }
+
+    public double signal() {
+        return signal.value();
+    }
+
+    public double histogram() {
+        return value() - signal();
+    }
+
+    /**
+     * Whether the signal line is available too; the MACD line itself is ready earlier.
+     */
+    @Override
+    public boolean isReady() {
+        return signal.isReady();
+    }
+
+    @Override
+    public void reset() {
+        fast.reset();
+        slow.reset();
+        signal.reset();
+    }
+}
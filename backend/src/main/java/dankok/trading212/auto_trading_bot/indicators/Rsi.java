@@ -0,0 +1,70 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+/**
+ * Relative strength index with Wilder's smoothing. The first average gain and loss are plain
+ * averages over {@code period} price changes; after that each new change is blended in with
+ * weight {@code 1 / period}.
+ */
+public final class Rsi implements Indicator {
+
+    private final int period;
+    private int changes;
+    private boolean hasPrevious;
+    private double previous;
+    private double averageGain;
+    private double averageLoss;
+
+    public Rsi(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        this.period = period;
+    }
+
+    @Override
+    public double update(double price) {
+        if (!hasPrevious) {
+            hasPrevious = true;
+            previous = price;
+            return Double.NaN;
+        }
+        double change = price - previous;
+        previous = price;
+        double gain = Math.max(change, 0);
+        double loss = Math.max(-change, 0);
+
+        if (changes < period) {
+            changes++;
+            averageGain += (gain - averageGain) / changes;
+            averageLoss += (loss - averageLoss) / changes;
+        } else {
+            averageGain += (gain - averageGain) / period;
+            averageLoss += (loss - averageLoss) / period;
+        }
+        return value();
+    }
+
+    @Override
+    public double value() {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        if (averageLoss == 0) {
+            return averageGain == 0 ? 50 : 100;
+        }
+        return 100 - 100 / (1 + averageGain / averageLoss);
+    }
+
+    @Override
+    public boolean isReady() {
+        return changes >= period;
+    }
+
+    @Override
+    public void reset() {
+        changes = 0;
+        hasPrevious = false;
+        averageGain = 0;
+        averageLoss = 0;
+    }
+}
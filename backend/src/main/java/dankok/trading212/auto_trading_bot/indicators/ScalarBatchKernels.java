@@ -0,0 +1,104 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+import java.util.Arrays;
+
+/**
+ * Plain loops computing the batch kernels the same way the streaming indicators do. Used where
+ * the Vector API is not available and as the reference the vectorized kernels are checked
+ * against.
+ */
+public final class ScalarBatchKernels implements BatchKernels {
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public double[] rollingSum(double[] values, int window) {
+        checkPeriod(window);
+        double[] out = new double[values.length];
+        rollingSum(values, window, out);
+        return out;
+    }
+
+    @Override
+    public void sma(double[] values, int period, double[] out) {
+        checkPeriod(period);
+        checkSameLength(values, out);
+        rollingSum(values, period, out);
+        for (int i = period - 1; i < out.length; i++) {
+            out[i] /= period;
+        }
+    }
+
+    private static void rollingSum(double[] values, int window, double[] out) {
+        double sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            sum += values[i];
+            if (i >= window) {
+                sum -= values[i - window];
+            }
+            out[i] = i >= window - 1 ? sum : Double.NaN;
+        }
+    }
+
+    @Override
+    public double[] ema(double[] values, int period) {
+        checkPeriod(period);
+        double[] out = new double[values.length];
+        Arrays.fill(out, Double.NaN);
+        if (values.length < period) {
+            return out;
+        }
+        double value = 0;
+        for (int i = 0; i < period; i++) {
+            value += (values[i] - value) / (i + 1);
+        }
+        out[period - 1] = value;
+        double alpha = 2.0 / (period + 1);
+        for (int i = period; i < values.length; i++) {
+            value += alpha * (values[i] - value);
+            out[i] = value;
+        }
+        return out;
+    }
+
+    @Override
+    public double[] returns(double[] values) {
+        double[] out = new double[values.length];
+        if (values.length > 0) {
+            out[0] = Double.NaN;
+        }
+        for (int i = 1; i < values.length; i++) {
+            out[i] = values[i] / values[i - 1] - 1;
+        }
+        return out;
+    }
+
+    @Override
+    public byte[] crossovers(double[] fast, double[] slow) {
+        checkSameLength(fast, slow);
+        byte[] out = new byte[fast.length];
+        for (int i = 1; i < fast.length; i++) {
+            if (fast[i] > slow[i] && fast[i - 1] <= slow[i - 1]) {
+                out[i] = CROSS_ABOVE;
+            } else if (fast[i] < slow[i] && fast[i - 1] >= slow[i - 1]) {
+                out[i] = CROSS_BELOW;
+            }
+        }
+        return out;
+    }
+
+    static void checkPeriod(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+    }
+
+    static void checkSameLength(double[] first, double[] second) {
+        if (first.length != second.length) {
+            throw new IllegalArgumentException("Series must have the same length");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+/**
+ * Simple moving average over the last {@code period} prices, kept as a running sum over a ring
+ * of the window's prices.
+ */
+public final class Sma implements Indicator {
+
+    private final int period;
+    private final double[] window;
+    private int count;
+    private int next;
+    private double sum;
+
+    public Sma(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        this.period = period;
+        this.window = new double[period];
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    @Override
+    public double update(double price) {
+        if (count == period) {
+            sum -= window[next];
+        } else {
+            count++;
+        }
+        window[next] = price;
+        sum += price;
+        next = next + 1 == period ? 0 : next + 1;
+        return value();
+    }
+
+    @Override
+    public double value() {
+        return isReady() ? sum / period : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == period;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        next = 0;
+        sum = 0;
+    }
+}
@@ -0,0 +1,206 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * Batch kernels on the incubating Vector API, using the widest double vectors the CPU supports
+ * (at most 8 lanes). Element-wise kernels map directly onto lanes. Rolling sums advance each lane's
+ * window by a whole vector width at a time, so the only dependency between iterations is a
+ * single vector add. The EMA is a prefix scan: each vector is scanned in registers by log2(lanes)
+ * shift-and-add steps and then offset by the value carried from the previous vector. Results
+ * round differently from the scalar kernels in the last few bits.
+ *
+ * <p>Only instantiate this through {@link BatchKernels#forMode}, which checks that the JVM was
+ * started with the Vector API module.
+ */
+final class VectorBatchKernels implements BatchKernels {
+
+    // The scan steps below are unrolled for up to 8 lanes
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED.length() > 8
+        ? DoubleVector.SPECIES_512
+        : DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    @Override
+    public String getName() {
+        return "vector(" + LANES + "x" + SPECIES.elementSize() + "bit)";
+    }
+
+    @Override
+    public double[] rollingSum(double[] values, int window) {
+        ScalarBatchKernels.checkPeriod(window);
+        double[] out = new double[values.length];
+        windowSums(values, window, 1, out);
+        return out;
+    }
+
+    @Override
+    public void sma(double[] values, int period, double[] out) {
+        ScalarBatchKernels.checkPeriod(period);
+        ScalarBatchKernels.checkSameLength(values, out);
+        windowSums(values, period, period, out);
+    }
+
+    @Override
+    public double[] ema(double[] values, int period) {
+        ScalarBatchKernels.checkPeriod(period);
+        int n = values.length;
+        double[] out = new double[n];
+        Arrays.fill(out, 0, Math.min(n, period - 1), Double.NaN);
+        if (n < period) {
+            return out;
+        }
+        double carry = 0;
+        for (int i = 0; i < period; i++) {
+            carry += (values[i] - carry) / (i + 1);
+        }
+        out[period - 1] = carry;
+
+        double alpha = 2.0 / (period + 1);
+        double decay = 1 - alpha;
+        // decay^(lane + 1) carries the previous value into each lane
+        double[] carryWeights = new double[LANES];
+        double power = 1;
+        for (int lane = 0; lane < LANES; lane++) {
+            power *= decay;
+            carryWeights[lane] = power;
+        }
+        DoubleVector carryWeight = DoubleVector.fromArray(SPECIES, carryWeights, 0);
+        DoubleVector decay1 = DoubleVector.broadcast(SPECIES, decay);
+        DoubleVector decay2 = decay1.mul(decay1);
+        DoubleVector decay4 = decay2.mul(decay2);
+
+        int i = period;
+        int bound = period + SPECIES.loopBound(n - period);
+        for (; i < bound; i += LANES) {
+            DoubleVector scan = DoubleVector.fromArray(SPECIES, values, i).mul(alpha);
+            if (LANES > 1) {
+                scan = scan.add(scan.unslice(1).mul(decay1));
+            }
+            if (LANES > 2) {
+                scan = scan.add(scan.unslice(2).mul(decay2));
+            }
+            if (LANES > 4) {
+                scan = scan.add(scan.unslice(4).mul(decay4));
+            }
+            scan = carryWeight.mul(carry).add(scan);
+            scan.intoArray(out, i);
+            carry = out[i + LANES - 1];
+        }
+        for (; i < n; i++) {
+            carry += alpha * (values[i] - carry);
+            out[i] = carry;
+        }
+        return out;
+    }
+
+    @Override
+    public double[] returns(double[] values) {
+        int n = values.length;
+        double[] out = new double[n];
+        if (n == 0) {
+            return out;
+        }
+        out[0] = Double.NaN;
+        int i = 1;
+        int bound = 1 + SPECIES.loopBound(n - 1);
+        for (; i < bound; i += LANES) {
+            DoubleVector current = DoubleVector.fromArray(SPECIES, values, i);
+            DoubleVector previous = DoubleVector.fromArray(SPECIES, values, i - 1);
+            current.div(previous).sub(1).intoArray(out, i);
+        }
+        for (; i < n; i++) {
+            out[i] = values[i] / values[i - 1] - 1;
+        }
+        return out;
+    }
+
+    @Override
+    public byte[] crossovers(double[] fast, double[] slow) {
+        ScalarBatchKernels.checkSameLength(fast, slow);
+        int n = fast.length;
+        byte[] out = new byte[n];
+        int i = 1;
+        int bound = n == 0 ? 0 : 1 + SPECIES.loopBound(n - 1);
+        for (; i < bound; i += LANES) {
+            DoubleVector fastNow = DoubleVector.fromArray(SPECIES, fast, i);
+            DoubleVector slowNow = DoubleVector.fromArray(SPECIES, slow, i);
+            DoubleVector fastBefore = DoubleVector.fromArray(SPECIES, fast, i - 1);
+            DoubleVector slowBefore = DoubleVector.fromArray(SPECIES, slow, i - 1);
+            VectorMask<Double> above = fastNow.compare(VectorOperators.GT, slowNow)
+                .and(fastBefore.compare(VectorOperators.LE, slowBefore));
+            VectorMask<Double> below = fastNow.compare(VectorOperators.LT, slowNow)
+                .and(fastBefore.compare(VectorOperators.GE, slowBefore));
+            // Crosses are rare, so most vectors store nothing
+            mark(out, i, above.toLong(), CROSS_ABOVE);
+            mark(out, i, below.toLong(), CROSS_BELOW);
+        }
+        for (; i < n; i++) {
+            if (fast[i] > slow[i] && fast[i - 1] <= slow[i - 1]) {
+                out[i] = CROSS_ABOVE;
+            } else if (fast[i] < slow[i] && fast[i - 1] >= slow[i - 1]) {
+                out[i] = CROSS_BELOW;
+            }
+        }
+        return out;
+    }
+
+    // Sum of each complete window divided by divisor into out, NaN before the first one
+    private static void windowSums(double[] values, int window, double divisor, double[] out) {
+        int n = values.length;
+        Arrays.fill(out, 0, Math.min(n, window - 1), Double.NaN);
+
+        // The first vector's worth of windows is summed one value at a time straight into out,
+        // where it seeds the lanes before being divided in place
+        double sum = 0;
+        int i = 0;
+        int seedEnd = Math.min(n, window - 1 + LANES);
+        for (; i < seedEnd; i++) {
+            sum += values[i];
+            if (i >= window) {
+                sum -= values[i - window];
+            }
+            if (i >= window - 1) {
+                out[i] = sum;
+            }
+        }
+
+        if (i == window - 1 + LANES) {
+            DoubleVector sums = DoubleVector.fromArray(SPECIES, out, window - 1);
+            sums.div(divisor).intoArray(out, window - 1);
+            for (; i <= n - LANES; i += LANES) {
+                // Each lane's window moves LANES values forward: add the values entering it and
+                // subtract the ones leaving it
+                DoubleVector entering = DoubleVector.fromArray(SPECIES, values, i);
+                DoubleVector leaving = DoubleVector.fromArray(SPECIES, values, i - window);
+                for (int k = 1; k < LANES; k++) {
+                    entering = entering.add(DoubleVector.fromArray(SPECIES, values, i - k));
+                    leaving = leaving.add(DoubleVector.fromArray(SPECIES, values, i - k - window));
+                }
+                sums = sums.add(entering.sub(leaving));
+                sums.div(divisor).intoArray(out, i);
+            }
+            sum = sums.lane(LANES - 1);
+        } else {
+            for (int k = window - 1; k < i; k++) {
+                out[k] /= divisor;
+            }
+        }
+        for (; i < n; i++) {
+            sum += values[i] - values[i - window];
+            out[i] = sum / divisor;
+        }
+    }
+
+    private static void mark(byte[] out, int from, long lanes, byte value) {
+        while (lanes != 0) {
+            out[from + Long.numberOfTrailingZeros(lanes)] = value;
+            lanes &= lanes - 1;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+/**
+ * Linearly weighted moving average: the newest of the last {@code period} prices has weight
+ * {@code period}, the oldest weight 1. Sliding the window lowers every remaining weight by one,
+ * which is the same as subtracting the plain sum, so both sums update in constant time.
+ */
+public final class Wma implements Indicator {
+
+    private final int period;
+    private final double[] window;
+    private final double weightTotal;
+    private int count;
+    private int next;
+    private double sum;
+    private double weightedSum;
+
+    public Wma(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        this.period = period;
+        this.window = new double[period];
+        this.weightTotal = period * (period + 1) / 2.0;
+    }
+
+    @Override
+    public double update(double price) {
+        if (count == period) {
+            weightedSum += period * price - sum;
+            sum += price - window[next];
+        } else {
+            count++;
+            weightedSum += count * price;
+            sum += price;
+        }
+        window[next] = price;
+        next = next + 1 == period ? 0 : next + 1;
+        return value();
+    }
+
+    @Override
+    public double value() {
+        return isReady() ? weightedSum / weightTotal : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == period;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        next = 0;
+        sum = 0;
+        weightedSum = 0;
+    }
+}
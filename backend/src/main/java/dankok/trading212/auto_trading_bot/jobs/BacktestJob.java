@@ -0,0 +1,155 @@
+package dankok.trading212.auto_trading_bot.jobs;
+
+import dankok.trading212.auto_trading_bot.enums.BacktestJobStatusEnum;
+import dankok.trading212.auto_trading_bot.enums.BacktestJobTypeEnum;
+
+import java.time.Instant;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One submitted analytics job. Status changes are synchronized so a job that is cancelled while
+ * it is queued never starts, and one that finishes never goes back to another state.
+ */
+public final class BacktestJob implements JobProgress {
+
+    private final String id;
+    private final Integer userId;
+    private final BacktestJobTypeEnum type;
+    private final String description;
+    private final Instant submittedAt;
+    private final AtomicLong completedUnits = new AtomicLong();
+
+    private volatile long totalUnits;
+    private volatile BacktestJobStatusEnum status = BacktestJobStatusEnum.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile Object result;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    public BacktestJob(String id, Integer userId, BacktestJobTypeEnum type, String description, Instant submittedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.type = type;
+        this.description = description;
+        this.submittedAt = submittedAt;
+    }
+
+    @Override
+    public void setTotal(long units) {
+        totalUnits = units;
+    }
+
+    @Override
+    public void advance(long units) {
+        completedUnits.addAndGet(units);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return status == BacktestJobStatusEnum.CANCELLED;
+    }
+
+    /**
+     * Fraction of the work done, between 0 and 1. Work that never reported a total counts as
+     * done only once it has finished.
+     */
+    public double getProgress() {
+        if (status == BacktestJobStatusEnum.COMPLETED) {
+            return 1;
+        }
+        long total = totalUnits;
+        return total <= 0 ? 0 : Math.min(1, (double) completedUnits.get() / total);
+    }
+
+    /**
+     * Moves a queued job to running; {@code false} if it was cancelled first.
+     */
+    public synchronized boolean start(Instant now) {
+        if (status != BacktestJobStatusEnum.QUEUED) {
+            return false;
+        }
+        status = BacktestJobStatusEnum.RUNNING;
+        startedAt = now;
+        return true;
+    }
+
+    public synchronized void complete(Object result, Instant now) {
+        if (status == BacktestJobStatusEnum.RUNNING) {
+            this.result = result;
+            finish(BacktestJobStatusEnum.COMPLETED, now);
+        }
+    }
+
+    public synchronized void fail(String error, Instant now) {
+        if (status == BacktestJobStatusEnum.RUNNING) {
+            this.error = error;
+            finish(BacktestJobStatusEnum.FAILED, now);
+        }
+    }
+
+    /**
+     * Cancels a job that has not finished; {@code false} if it already had.
+     */
+    public synchronized boolean cancel(Instant now) {
+        if (status.isFinished()) {
+            return false;
+        }
+        finish(BacktestJobStatusEnum.CANCELLED, now);
+        return true;
+    }
+
+    private void finish(BacktestJobStatusEnum finalStatus, Instant now) {
+        status = finalStatus;
+        finishedAt = now;
+    }
+
+    public void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    public Future<?> getFuture() {
+        return future;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public BacktestJobTypeEnum getType() {
+        return type;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public BacktestJobStatusEnum getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
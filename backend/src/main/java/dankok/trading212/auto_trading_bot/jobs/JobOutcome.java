@@ -0,0 +1,15 @@
+package dankok.trading212.auto_trading_bot.jobs;
+
+/**
+ * A job result that can say the work itself failed, such as a backtest that found no price
+ * history. Jobs returning an unsuccessful outcome finish as failed rather than completed.
+ */
+public interface JobOutcome {
+
+    boolean isSuccess();
+
+    /**
+     * Why the work failed; only consulted when {@link #isSuccess()} is false.
+     */
+    String failureMessage();
+}
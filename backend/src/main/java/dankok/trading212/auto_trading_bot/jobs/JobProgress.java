@@ -0,0 +1,43 @@
+package dankok.trading212.auto_trading_bot.jobs;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Handed to long-running work so it can report how far it got and stop early once its job is
+ * cancelled. Progress is counted in whatever units the work chooses (coins, combinations, ...).
+ */
+public interface JobProgress {
+
+    /**
+     * For work that does not run as a job.
+     */
+    JobProgress NONE = new JobProgress() {
+        @Override
+        public void setTotal(long units) {
+        }
+
+        @Override
+        public void advance(long units) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    void setTotal(long units);
+
+    void advance(long units);
+
+    boolean isCancelled();
+
+    /**
+     * @throws CancellationException if the job was cancelled
+     */
+    default void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Job was cancelled");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package dankok.trading212.auto_trading_bot.marketdata;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.utils.MarketChartParser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestClient;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@ConditionalOnProperty(name = "market-data.source", havingValue = "coingecko", matchIfMissing = true)
+public class CoinGeckoMarketDataSource implements MarketDataSource {
+
+    private static final DefaultResponseErrorHandler RESPONSE_ERROR_HANDLER = new DefaultResponseErrorHandler();
+
+    private final RestClient coinGeckoRestClient;
+
+    @Autowired
+    public CoinGeckoMarketDataSource(RestClient coinGeckoRestClient) {
+        this.coinGeckoRestClient = coinGeckoRestClient;
+    }
+
+    @Override
+    public Map<String, Double> fetchSpotPrices(Set<String> coinIds) {
+        String ids = String.join(",", coinIds);
+        String relativeUrl = String.format("/simple/price?ids=%s&vs_currencies=usd", ids);
+
+        Map<?, ?> response = coinGeckoRestClient.get()
+                .uri(relativeUrl)
+                .retrieve()
+                .body(Map.class);
+
+        Map<String, Double> prices = new HashMap<>();
+        if (response == null) {
+            return prices;
+        }
+
+        for (Map.Entry<?, ?> entry : response.entrySet()) {
+            if (entry.getKey() instanceof String coinId && entry.getValue() instanceof Map<?, ?> coinData) {
+                Object usdValue = coinData.get("usd");
+                if (usdValue instanceof Number) {
+                    prices.put(coinId, ((Number) usdValue).doubleValue());
+                }
+            }
+        }
+        return prices;
+    }
+
+    @Override
+    public PriceSeries loadDays(String coinId, int days) {
+        return requestMarketChart(String.format("/coins/%s/market_chart?vs_currency=usd&days=%d", coinId, days));
+    }
+
+    @Override
+    public PriceSeries loadRange(String coinId, long fromMillis, long toMillis) {
+        return requestMarketChart(String.format("/coins/%s/market_chart/range?vs_currency=usd&from=%d&to=%d",
+            coinId, fromMillis / 1000, toMillis / 1000));
+    }
+
+    @Override
+    public boolean isLive() {
+        return true;
+    }
+
+    private PriceSeries requestMarketChart(String relativeUrl) {
+        return coinGeckoRestClient.get()
+                .uri(relativeUrl)
+                .exchange((request, response) -> {
+                    if (RESPONSE_ERROR_HANDLER.hasError(response)) {
+                        RESPONSE_ERROR_HANDLER.handleError(request.getURI(), request.getMethod(), response);
+                    }
+                    return MarketChartParser.parsePrices(response.getBody());
+                });
+    }
+}
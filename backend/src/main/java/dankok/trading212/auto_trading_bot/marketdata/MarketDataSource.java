@@ -0,0 +1,37 @@
+package dankok.trading212.auto_trading_bot.marketdata;
+
+import dankok.trading212.auto_trading_bot.cache.HistoricalSeriesCache;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Where {@link dankok.trading212.auto_trading_bot.services.CryptoDataService} gets its market
+ * data from. Exactly one implementation is active, chosen with {@code market-data.source}.
+ */
+public interface MarketDataSource extends HistoricalSeriesCache.SeriesLoader {
+
+    /**
+     * Current USD prices for the given coins. Coins the source does not know are left out.
+     */
+    Map<String, Double> fetchSpotPrices(Set<String> coinIds);
+
+    /**
+     * Samples of the last {@code days} days, or {@code null} if the source has no data for the coin.
+     */
+    @Override
+    PriceSeries loadDays(String coinId, int days);
+
+    /**
+     * Samples stamped within {@code [fromMillis, toMillis]}, or {@code null} if the source has
+     * no data for the coin.
+     */
+    @Override
+    PriceSeries loadRange(String coinId, long fromMillis, long toMillis);
+
+    /**
+     * Whether prices come from a live market and are worth recording in the price history.
+     */
+    boolean isLive();
+}
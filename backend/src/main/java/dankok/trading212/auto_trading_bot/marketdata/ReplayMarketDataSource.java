@@ -0,0 +1,234 @@
+package dankok.trading212.auto_trading_bot.marketdata;
+
+import dankok.trading212.auto_trading_bot.cache.HistoricalSeriesCache;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Serves recorded price history from local files instead of a live API, for offline load tests
+ * and backtests. Every {@code <coinId>.csv} or {@code <coinId>.bin} file in the replay
+ * directory is read once at startup:
+ * <ul>
+ *   <li>CSV: one {@code timestamp,price} sample per line, the timestamp either in epoch millis
+ *   or as an ISO-8601 instant. Blank lines, {@code #} comments and a header are skipped.</li>
+ *   <li>Binary: consecutive big-endian records of an epoch-millis {@code long} followed by a
+ *   {@code double} price.</li>
+ * </ul>
+ * A replay clock starts at {@code market-data.replay.start} (the earliest sample by default)
+ * and runs {@code market-data.replay.speed} times faster than wall time; only samples up to the
+ * replay clock are visible. A speed of 0 or less makes the whole history visible at once.
+ */
+@Component
+@ConditionalOnProperty(name = "market-data.source", havingValue = "replay")
+public class ReplayMarketDataSource implements MarketDataSource {
+
+    private static final int RECORD_BYTES = Long.BYTES + Double.BYTES;
+
+    private final Map<String, PriceSeries> history;
+    private final double speed;
+    private final long replayStartMillis;
+    private final long wallStartMillis;
+    private final LongSupplier wallClock;
+
+    @Autowired
+    public ReplayMarketDataSource(@Value("${market-data.replay.directory}") String directory,
+                                  @Value("${market-data.replay.speed:0}") double speed,
+                                  @Value("${market-data.replay.start:-1}") long startMillis) {
+        this(Paths.get(directory), speed, startMillis, System::currentTimeMillis);
+    }
+
+    ReplayMarketDataSource(Path directory, double speed, long startMillis, LongSupplier wallClock) {
+        this.history = loadDirectory(directory);
+        this.speed = speed;
+        this.wallClock = wallClock;
+        this.wallStartMillis = wallClock.getAsLong();
+
+        long earliest = history.values().stream()
+            .mapToLong(PriceSeries::firstTimestamp)
+            .min()
+            .orElse(0L);
+        this.replayStartMillis = startMillis >= 0 ? startMillis : earliest;
+    }
+
+    public Set<String> getCoinIds() {
+        return history.keySet();
+    }
+
+    public long replayTimeMillis() {
+        if (speed <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return replayStartMillis + (long) ((wallClock.getAsLong() - wallStartMillis) * speed);
+    }
+
+    @Override
+    public Map<String, Double> fetchSpotPrices(Set<String> coinIds) {
+        long now = replayTimeMillis();
+        Map<String, Double> prices = new HashMap<>();
+        for (String coinId : coinIds) {
+            PriceSeries series = history.get(coinId);
+            if (series == null) {
+                continue;
+            }
+            PriceSeries visible = upTo(series, now);
+            if (!visible.isEmpty()) {
+                prices.put(coinId, visible.lastPrice());
+            }
+        }
+        return prices;
+    }
+
+    @Override
+    public PriceSeries loadDays(String coinId, int days) {
+        PriceSeries series = history.get(coinId);
+        if (series == null) {
+            return null;
+        }
+        PriceSeries visible = upTo(series, replayTimeMillis());
+        if (visible.isEmpty()) {
+            return visible;
+        }
+        return visible.since(visible.lastTimestamp() - days * HistoricalSeriesCache.DAY_MILLIS);
+    }
+
+    @Override
+    public PriceSeries loadRange(String coinId, long fromMillis, long toMillis) {
+        PriceSeries series = history.get(coinId);
+        if (series == null) {
+            return null;
+        }
+        return upTo(series, Math.min(toMillis, replayTimeMillis())).since(fromMillis);
+    }
+
+    @Override
+    public boolean isLive() {
+        return false;
+    }
+
+    private static PriceSeries upTo(PriceSeries series, long toMillis) {
+        if (toMillis == Long.MAX_VALUE) {
+            return series;
+        }
+        return series.slice(0, series.size() - series.since(toMillis + 1).size());
+    }
+
+    private static Map<String, PriceSeries> loadDirectory(Path directory) {
+        Map<String, PriceSeries> loaded = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.{csv,bin}")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String coinId = fileName.substring(0, fileName.lastIndexOf('.'));
+                PriceSeries series = fileName.endsWith(".csv") ? readCsv(file) : readBinary(file);
+                if (!series.isEmpty()) {
+                    loaded.put(coinId, series);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read replay data from " + directory + ": " + e.getMessage(), e);
+        }
+        return Map.copyOf(loaded);
+    }
+
+    static PriceSeries readCsv(Path file) throws IOException {
+        long[] timestamps = new long[1024];
+        double[] prices = new double[1024];
+        int size = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                if (comma < 0) {
+                    continue;
+                }
+                long timestamp;
+                double price;
+                try {
+                    timestamp = parseTimestamp(line.substring(0, comma).trim());
+                    price = Double.parseDouble(line.substring(comma + 1).trim());
+                } catch (NumberFormatException | DateTimeParseException e) {
+                    // Header row or malformed sample
+                    continue;
+                }
+                if (size == timestamps.length) {
+                    timestamps = Arrays.copyOf(timestamps, size * 2);
+                    prices = Arrays.copyOf(prices, size * 2);
+                }
+                timestamps[size] = timestamp;
+                prices[size] = price;
+                size++;
+            }
+        }
+        return sorted(timestamps, prices, size);
+    }
+
+    static PriceSeries readBinary(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int size = (int) (channel.size() / RECORD_BYTES);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) size * RECORD_BYTES);
+            long[] timestamps = new long[size];
+            double[] prices = new double[size];
+            for (int i = 0; i < size; i++) {
+                timestamps[i] = buffer.getLong();
+                prices[i] = buffer.getDouble();
+            }
+            return sorted(timestamps, prices, size);
+        }
+    }
+
+    private static long parseTimestamp(String value) {
+        if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+            return Long.parseLong(value);
+        }
+        return Instant.parse(value).toEpochMilli();
+    }
+
+    // Recordings are normally in order already; anything else is sorted by timestamp once at load
+    private static PriceSeries sorted(long[] timestamps, double[] prices, int size) {
+        boolean ordered = true;
+        for (int i = 1; i < size && ordered; i++) {
+            ordered = timestamps[i - 1] <= timestamps[i];
+        }
+        if (ordered) {
+            return PriceSeries.wrap(timestamps, prices, size);
+        }
+
+        int[] order = IntStream.range(0, size).boxed()
+            .sorted(Comparator.comparingLong(i -> timestamps[i]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        long[] sortedTimestamps = new long[size];
+        double[] sortedPrices = new double[size];
+        for (int i = 0; i < size; i++) {
+            sortedTimestamps[i] = timestamps[order[i]];
+            sortedPrices[i] = prices[order[i]];
+        }
+        return PriceSeries.wrap(sortedTimestamps, sortedPrices, size);
+    }
+}
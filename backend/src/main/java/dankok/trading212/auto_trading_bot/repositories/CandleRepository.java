@@ -0,0 +1,84 @@
+package dankok.trading212.auto_trading_bot.repositories;
+
+import dankok.trading212.auto_trading_bot.dtos.Candle;
+import dankok.trading212.auto_trading_bot.enums.CandleIntervalEnum;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public class CandleRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CandleRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the candles or merges them into the stored ones for the same bucket: the open and
+     * close come from whichever side saw the earliest and latest sample, high and low widen.
+     * The open/close assignments run before open_time/close_time are moved, since MySQL applies
+     * them left to right.
+     */
+    public int[] upsertCandles(CandleIntervalEnum interval, List<Candle> candles) {
+        return jdbcTemplate.batchUpdate(
+            "INSERT INTO " + interval.getTable() +
+            " (symbol, bucket_start, open, high, low, close, open_time, close_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "open = IF(VALUES(open_time) < open_time, VALUES(open), open), " +
+            "close = IF(VALUES(close_time) >= close_time, VALUES(close), close), " +
+            "high = GREATEST(high, VALUES(high)), " +
+            "low = LEAST(low, VALUES(low)), " +
+            "open_time = LEAST(open_time, VALUES(open_time)), " +
+            "close_time = GREATEST(close_time, VALUES(close_time))",
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Candle candle = candles.get(i);
+                    ps.setString(1, candle.getSymbol());
+                    ps.setTimestamp(2, Timestamp.valueOf(candle.getBucketStart()));
+                    ps.setDouble(3, candle.getOpen());
+                    ps.setDouble(4, candle.getHigh());
+                    ps.setDouble(5, candle.getLow());
+                    ps.setDouble(6, candle.getClose());
+                    ps.setTimestamp(7, Timestamp.valueOf(candle.getOpenTime()));
+                    ps.setTimestamp(8, Timestamp.valueOf(candle.getCloseTime()));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return candles.size();
+                }
+            }
+        );
+    }
+
+    /**
+     * Candles of {@code symbol} whose bucket starts within {@code [from, to]}, oldest first.
+     */
+    public List<Candle> getCandles(String symbol, CandleIntervalEnum interval, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+            "SELECT symbol, bucket_start, open, high, low, close, open_time, close_time FROM " + interval.getTable() +
+            " WHERE symbol = ? AND bucket_start BETWEEN ? AND ? ORDER BY bucket_start ASC",
+            (rs, rowNum) -> new Candle(
+                rs.getString("symbol"),
+                rs.getTimestamp("bucket_start").toLocalDateTime(),
+                rs.getDouble("open"),
+                rs.getDouble("high"),
+                rs.getDouble("low"),
+                rs.getDouble("close"),
+                rs.getTimestamp("open_time").toLocalDateTime(),
+                rs.getTimestamp("close_time").toLocalDateTime()),
+            symbol, Timestamp.valueOf(from), Timestamp.valueOf(to)
+        );
+    }
+}
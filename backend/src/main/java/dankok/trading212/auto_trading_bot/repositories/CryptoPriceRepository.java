@@ -1,11 +1,20 @@
 package dankok.trading212.auto_trading_bot.repositories;
 
+import dankok.trading212.auto_trading_bot.dtos.PricePoint;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -31,6 +40,27 @@ public class CryptoPriceRepository {
         }
     }
 
+    public int[] savePrices(List<PricePoint> points) {
+        return jdbcTemplate.batchUpdate(
+            "INSERT INTO crypto_prices (symbol, price, timestamp) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE price = VALUES(price)",
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    PricePoint point = points.get(i);
+                    ps.setString(1, point.getSymbol());
+                    ps.setDouble(2, point.getPrice());
+                    ps.setTimestamp(3, Timestamp.valueOf(point.getTimestamp()));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return points.size();
+                }
+            }
+        );
+    }
+
     public Double getLatestPrice(String symbol) {
         try {
             return jdbcTemplate.queryForObject(
@@ -43,6 +73,19 @@ public class CryptoPriceRepository {
         }
     }
 
+    public PricePoint getLatestPricePoint(String symbol) {
+        try {
+            return jdbcTemplate.queryForObject(
+                "SELECT symbol, price, timestamp FROM crypto_prices WHERE symbol = ? ORDER BY timestamp DESC LIMIT 1",
+                (rs, rowNum) -> new PricePoint(rs.getString("symbol"), rs.getDouble("price"),
+                    rs.getTimestamp("timestamp").toLocalDateTime()),
+                symbol
+            );
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
     public List<Map<String, Object>> getHistoricalPrices(String symbol, int days) {
         return jdbcTemplate.queryForList(
             "SELECT symbol, price, timestamp FROM crypto_prices " +
@@ -52,10 +95,95 @@ public class CryptoPriceRepository {
         );
     }
 
-    public void deletePricesOlderThan(int days) {
-        jdbcTemplate.update(
-            "DELETE FROM crypto_prices WHERE timestamp < DATE_SUB(NOW(), INTERVAL ? DAY)",
-            days
+    /**
+     * Prices of {@code symbol} stamped within {@code [fromMillis, toMillis]}, oldest first.
+     * Rows are streamed straight into primitive arrays.
+     */
+    public PriceSeries getPriceSeries(String symbol, long fromMillis, long toMillis) {
+        SeriesCollector collector = new SeriesCollector();
+        jdbcTemplate.query(
+            "SELECT timestamp, price FROM crypto_prices " +
+            "WHERE symbol = ? AND timestamp BETWEEN ? AND ? " +
+            "ORDER BY timestamp ASC",
+            collector,
+            symbol, new Timestamp(fromMillis), new Timestamp(toMillis)
+        );
+        return collector.toSeries();
+    }
+
+    /**
+     * The id that ends the next purge chunk: the highest of the first {@code chunkSize} ids
+     * after {@code afterId} stamped before {@code cutoff}, or {@code null} when none are left.
+     */
+    public Long findPurgeChunkEnd(long afterId, LocalDateTime cutoff, int chunkSize) {
+        return jdbcTemplate.queryForObject(
+            "SELECT MAX(id) FROM (SELECT id FROM crypto_prices WHERE id > ? AND timestamp < ? " +
+            "ORDER BY id LIMIT ?) chunk",
+            Long.class,
+            afterId, Timestamp.valueOf(cutoff), chunkSize
+        );
+    }
+
+    public int deletePriceChunk(long afterId, long toId, LocalDateTime cutoff) {
+        return jdbcTemplate.update(
+            "DELETE FROM crypto_prices WHERE id > ? AND id <= ? AND timestamp < ?",
+            afterId, toId, Timestamp.valueOf(cutoff)
+        );
+    }
+
+    /**
+     * Range partitions of crypto_prices with their {@code VALUES LESS THAN} bound, oldest
+     * first. Empty when the table is not partitioned.
+     */
+    public List<Map<String, Object>> getPartitions() {
+        return jdbcTemplate.queryForList(
+            "SELECT PARTITION_NAME AS name, PARTITION_DESCRIPTION AS bound FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'crypto_prices' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION"
+        );
+    }
+
+    public void dropPartition(String name) {
+        jdbcTemplate.execute("ALTER TABLE crypto_prices DROP PARTITION " + name);
+    }
+
+    /**
+     * Splits a new partition for timestamps below {@code boundEpochSeconds} off the catch-all
+     * {@code pmax} partition. Cheap as long as pmax is still empty.
+     */
+    public void addPartition(String name, long boundEpochSeconds) {
+        jdbcTemplate.execute(
+            "ALTER TABLE crypto_prices REORGANIZE PARTITION pmax INTO (" +
+            "PARTITION " + name + " VALUES LESS THAN (" + boundEpochSeconds + "), " +
+            "PARTITION pmax VALUES LESS THAN MAXVALUE)"
         );
     }
-}
+
+    public Long estimateRowCount() {
+        return jdbcTemplate.queryForObject(
+            "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'crypto_prices'",
+            Long.class
+        );
+    }
+
+    private static final class SeriesCollector implements RowCallbackHandler {
+        private long[] timestamps = new long[256];
+        private double[] prices = new double[256];
+        private int size;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                prices = Arrays.copyOf(prices, size * 2);
+            }
+            timestamps[size] = rs.getTimestamp(1).getTime();
+            prices[size] = rs.getDouble(2);
+            size++;
+        }
+
+        PriceSeries toSeries() {
+            return PriceSeries.wrap(timestamps, prices, size);
+        }
+    }
+}
\ No newline at end of file
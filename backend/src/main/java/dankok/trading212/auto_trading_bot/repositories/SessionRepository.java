@@ -52,9 +52,26 @@ public class SessionRepository {
         );
     }
 
-    public void cleanupExpiredSessions() {
-        jdbcTemplate.update(
-            "DELETE FROM user_sessions WHERE expires_at < NOW()"
+    public Long findExpiredChunkEnd(long afterId, int chunkSize) {
+        return jdbcTemplate.queryForObject(
+            "SELECT MAX(id) FROM (SELECT id FROM user_sessions WHERE id > ? AND expires_at < NOW() " +
+            "ORDER BY id LIMIT ?) chunk",
+            Long.class,
+            afterId, chunkSize
+        );
+    }
+
+    public int deleteExpiredChunk(long afterId, long toId) {
+        return jdbcTemplate.update(
+            "DELETE FROM user_sessions WHERE id > ? AND id <= ? AND expires_at < NOW()",
+            afterId, toId
+        );
+    }
+
+    public Long estimateRowCount() {
+        return jdbcTemplate.queryForObject(
+            "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'user_sessions'",
+            Long.class
         );
     }
 }
@@ -139,6 +139,13 @@ public class UserRepository {
                 u.balance as cash_balance,
                 COALESCE(SUM(
                     h.quantity * COALESCE(
+                        (SELECT c.close 
+                         FROM price_candles_1d c 
+                         WHERE c.symbol = h.symbol 
+                         AND c.bucket_start <= ds.date_value 
+                         ORDER BY c.bucket_start DESC 
+                         LIMIT 1), 
+                        -- Prices stored before the candle tables existed were never rolled up
                         (SELECT cp.price 
                          FROM crypto_prices cp 
                          WHERE cp.symbol = h.symbol 
@@ -0,0 +1,218 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.dtos.BacktestJobResponse;
+import dankok.trading212.auto_trading_bot.enums.BacktestJobStatusEnum;
+import dankok.trading212.auto_trading_bot.enums.BacktestJobTypeEnum;
+import dankok.trading212.auto_trading_bot.jobs.BacktestJob;
+import dankok.trading212.auto_trading_bot.jobs.JobOutcome;
+import dankok.trading212.auto_trading_bot.jobs.JobProgress;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs backtests, sweeps and other heavy analytics as background jobs. Submitting returns a job
+ * id straight away; the work runs on a small dedicated pool with a bounded queue, so a burst of
+ * analytics requests is turned away instead of tying up the request threads the trading
+ * endpoints need. Finished jobs keep their result until the retention time has passed.
+ */
+@Service
+public class BacktestJobService {
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, BacktestJob> jobs = new ConcurrentHashMap<>();
+    private final Duration retention;
+    private final Clock clock;
+
+    private final Map<BacktestJobStatusEnum, Counter> finished = new EnumMap<>(BacktestJobStatusEnum.class);
+    private final Counter rejected;
+
+    @Autowired
+    public BacktestJobService(@Value("${backtest-jobs.parallelism:2}") int parallelism,
+                              @Value("${backtest-jobs.queue-capacity:20}") int queueCapacity,
+                              @Value("${backtest-jobs.retention-minutes:60}") long retentionMinutes,
+                              MeterRegistry meterRegistry) {
+        this(parallelism, queueCapacity, Duration.ofMinutes(retentionMinutes), meterRegistry, Clock.systemUTC());
+    }
+
+    BacktestJobService(int parallelism, int queueCapacity, Duration retention, MeterRegistry meterRegistry,
+                       Clock clock) {
+        int threads = Math.max(1, parallelism);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                Thread thread = new Thread(runnable, "backtest-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.retention = retention;
+        this.clock = clock;
+
+        for (BacktestJobStatusEnum status : BacktestJobStatusEnum.values()) {
+            if (status.isFinished()) {
+                finished.put(status, Counter.builder("backtest.jobs.finished")
+                    .tag("status", status.name().toLowerCase()).register(meterRegistry));
+            }
+        }
+        this.rejected = Counter.builder("backtest.jobs.rejected").register(meterRegistry);
+        Gauge.builder("backtest.jobs.queued", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("backtest.jobs.running", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues {@code work} for {@code userId}. The work receives its job as {@link JobProgress}
+     * to report progress and notice cancellation; whatever it returns becomes the job's result,
+     * unless it is a {@link JobOutcome} reporting failure, which fails the job with its message.
+     */
+    public BacktestJobResponse submit(Integer userId, BacktestJobTypeEnum type, String description,
+                                      Function<JobProgress, ?> work) {
+        BacktestJob job = new BacktestJob(UUID.randomUUID().toString(), userId, type, description, clock.instant());
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job, work)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            rejected.increment();
+            return BacktestJobResponse.failure(null, "Job queue is full, try again later");
+        }
+        return toResponse(job, true, null, "Job queued");
+    }
+
+    public BacktestJobResponse getJob(Integer userId, String jobId) {
+        BacktestJob job = find(userId, jobId);
+        if (job == null) {
+            return BacktestJobResponse.failure(jobId, "Job not found");
+        }
+        return toResponse(job, true, null, describe(job));
+    }
+
+    public List<BacktestJobResponse> listJobs(Integer userId) {
+        return jobs.values().stream()
+            .filter(job -> job.getUserId().equals(userId))
+            .sorted(Comparator.comparing(BacktestJob::getSubmittedAt).reversed())
+            .map(job -> toResponse(job, true, null, describe(job)))
+            .toList();
+    }
+
+    public BacktestJobResponse getResult(Integer userId, String jobId) {
+        BacktestJob job = find(userId, jobId);
+        if (job == null) {
+            return BacktestJobResponse.failure(jobId, "Job not found");
+        }
+        boolean completed = job.getStatus() == BacktestJobStatusEnum.COMPLETED;
+        return toResponse(job, completed, completed ? job.getResult() : null, describe(job));
+    }
+
+    /**
+     * Cancels a queued or running job. A queued job is dropped from the queue; a running one is
+     * interrupted and stops at its next progress check.
+     */
+    public BacktestJobResponse cancel(Integer userId, String jobId) {
+        BacktestJob job = find(userId, jobId);
+        if (job == null) {
+            return BacktestJobResponse.failure(jobId, "Job not found");
+        }
+        if (!job.cancel(clock.instant())) {
+            return toResponse(job, false, null, "Job has already finished");
+        }
+        Future<?> future = job.getFuture();
+        if (future != null) {
+            future.cancel(true);
+            executor.purge();
+        }
+        finished.get(BacktestJobStatusEnum.CANCELLED).increment();
+        return toResponse(job, true, null, "Job cancelled");
+    }
+
+    @Scheduled(fixedDelayString = "${backtest-jobs.cleanup-interval-millis:60000}")
+    public void removeExpiredJobs() {
+        Instant now = clock.instant();
+        jobs.values().removeIf(job -> {
+            Instant expiresAt = expiresAt(job);
+            return expiresAt != null && !expiresAt.isAfter(now);
+        });
+    }
+
+    private void run(BacktestJob job, Function<JobProgress, ?> work) {
+        if (!job.start(clock.instant())) {
+            return;
+        }
+        try {
+            Object result = work.apply(job);
+            if (result instanceof JobOutcome outcome && !outcome.isSuccess()) {
+                job.fail(outcome.failureMessage(), clock.instant());
+            } else {
+                job.complete(result, clock.instant());
+            }
+        } catch (CancellationException e) {
+            // cancel() already finished and counted the job
+            return;
+        } catch (RuntimeException e) {
+            System.err.println("Backtest job " + job.getId() + " failed: " + e.getMessage());
+            job.fail(e.getMessage(), clock.instant());
+        }
+        if (job.getStatus() != BacktestJobStatusEnum.CANCELLED) {
+            finished.get(job.getStatus()).increment();
+        }
+    }
+
+    private BacktestJob find(Integer userId, String jobId) {
+        BacktestJob job = jobs.get(jobId);
+        return job == null || !job.getUserId().equals(userId) ? null : job;
+    }
+
+    private static String describe(BacktestJob job) {
+        return switch (job.getStatus()) {
+            case QUEUED -> "Job is waiting in the queue";
+            case RUNNING -> "Job is running";
+            case COMPLETED -> "Job completed";
+            case FAILED -> "Job failed: " + job.getError();
+            case CANCELLED -> "Job was cancelled";
+        };
+    }
+
+    private Instant expiresAt(BacktestJob job) {
+        return job.getFinishedAt() == null ? null : job.getFinishedAt().plus(retention);
+    }
+
+    private BacktestJobResponse toResponse(BacktestJob job, boolean success, Object result, String message) {
+        return new BacktestJobResponse(success, job.getId(), job.getType().name(), job.getStatus().name(),
+            job.getDescription(), job.getProgress() * 100, toDateTime(job.getSubmittedAt()),
+            toDateTime(job.getStartedAt()), toDateTime(job.getFinishedAt()), toDateTime(expiresAt(job)), result,
+            message);
+    }
+
+    private static LocalDateTime toDateTime(Instant instant) {
+        return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
@@ -1,88 +1,183 @@
 package dankok.trading212.auto_trading_bot.services;
 
+import dankok.trading212.auto_trading_bot.backtest.BacktestEngine;
+import dankok.trading212.auto_trading_bot.backtest.BacktestListener;
+import dankok.trading212.auto_trading_bot.cache.IndicatorCache;
 import dankok.trading212.auto_trading_bot.dtos.BacktestResult;
+import dankok.trading212.auto_trading_bot.dtos.BacktestTradeEvent;
+import dankok.trading212.auto_trading_bot.dtos.EquityPoint;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
 import dankok.trading212.auto_trading_bot.dtos.TradeResult;
 import dankok.trading212.auto_trading_bot.enums.TradeActionEnum;
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.enums.UpstreamPriorityEnum;
+import dankok.trading212.auto_trading_bot.http.UpstreamPriority;
+import dankok.trading212.auto_trading_bot.jobs.JobProgress;
+import dankok.trading212.auto_trading_bot.strategies.Strategy;
+import dankok.trading212.auto_trading_bot.strategies.StrategyRegistry;
+import dankok.trading212.auto_trading_bot.utils.BacktestEventWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 @Service
 public class BacktestService {
 
     private final CryptoDataService cryptoDataService;
+    private final HistoricalBackfillService historicalBackfillService;
+    private final StrategyRegistry strategyRegistry;
+    private final IndicatorCache indicatorCache;
 
     @Autowired
-    public BacktestService(CryptoDataService cryptoDataService) {
+    public BacktestService(CryptoDataService cryptoDataService, HistoricalBackfillService historicalBackfillService,
+                           StrategyRegistry strategyRegistry, IndicatorCache indicatorCache) {
         this.cryptoDataService = cryptoDataService;
+        this.historicalBackfillService = historicalBackfillService;
+        this.strategyRegistry = strategyRegistry;
+        this.indicatorCache = indicatorCache;
     }
 
     public BacktestResult runBacktest(String coinId, int days, double initialBalance) {
+        return runBacktest(coinId, days, initialBalance, strategyRegistry.getDefault());
+    }
+
+    public BacktestResult runBacktest(String coinId, int days, double initialBalance, Strategy strategy) {
+        return runBacktest(coinId, days, initialBalance, strategy, JobProgress.NONE);
+    }
+
+    /**
+     * Same as {@link #runBacktest(String, int, double, Strategy)}, reporting progress in bars.
+     * Loading counts as many units as the run, since fetching the history usually takes as long
+     * as simulating it.
+     *
+     * @throws java.util.concurrent.CancellationException if {@code progress} is cancelled
+     */
+    public BacktestResult runBacktest(String coinId, int days, double initialBalance, Strategy strategy,
+                                      JobProgress progress) {
         try {
-            List<Double> historicalPrices = cryptoDataService.fetchHistoricalPrices(coinId, days);
+            PriceSeries historicalPrices = loadSeries(coinId, days);
             
-            if (historicalPrices.size() < 50) {
+            int warmup = strategy.getWarmupPeriod();
+            if (historicalPrices.size() < warmup) {
                 return new BacktestResult(false, coinId, null, null, initialBalance, initialBalance, 
                     0, 0, 0, 0, List.of(), "Insufficient historical data for backtesting");
             }
+            long bars = historicalPrices.size() - warmup;
+            progress.setTotal(2 * bars);
+            progress.advance(bars);
+            progress.checkCancelled();
 
-            double balance = initialBalance;
-            double holdings = 0;
-            List<TradeResult> trades = new ArrayList<>();
-            
-            for (int i = 50; i < historicalPrices.size(); i++) {
-                List<Double> priceWindow = historicalPrices.subList(0, i + 1);
-                double shortSMA = calculateSMA(priceWindow, 10);
-                double longSMA = calculateSMA(priceWindow, 50);
-                double currentPrice = historicalPrices.get(i);
-                
-                if (shortSMA > longSMA && holdings == 0 && balance >= 10) {
-                    double investAmount = Math.min(balance, 100);
-                    holdings = investAmount / currentPrice;
-                    balance -= investAmount;
-                    
-                    trades.add(new TradeResult(true, TradeActionEnum.BUY.name(), holdings, currentPrice, investAmount,
-                        "Backtest buy executed"));
-                }
-                else if (shortSMA < longSMA && holdings > 0) {
-                    double saleValue = holdings * currentPrice;
-                    balance += saleValue;
-                    
-                    trades.add(new TradeResult(true, TradeActionEnum.SELL.name(), holdings, currentPrice, saleValue,
-                        "Backtest sell executed"));
-                    holdings = 0;
-                }
-            }
+            TradingSignalEunum[] signals = indicatorCache.signals(coinId, historicalPrices, strategy);
+            BacktestEngine engine = new BacktestEngine(initialBalance, historicalPrices.size());
+            engine.run(historicalPrices, signals, warmup, progress);
 
-            double finalPrice = historicalPrices.get(historicalPrices.size() - 1);
-            double finalValue = balance + (holdings * finalPrice);
-            double totalReturn = finalValue - initialBalance;
-            double returnPercentage = (totalReturn / initialBalance) * 100;
+            return completed(coinId, days, strategy, engine, engine.getTrades().toTradeResults());
 
-            String summary = String.format("Backtest completed: %.2f%% return, %d trades executed",
-                returnPercentage, trades.size());
+        } catch (CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            return new BacktestResult(false, coinId, null, null, initialBalance, initialBalance,
+                0, 0, 0, 0, List.of(), "Backtest failed: " + e.getMessage());
+        }
+    }
 
-            return new BacktestResult(true, coinId, LocalDateTime.now().minusDays(days), 
-                LocalDateTime.now(), initialBalance, finalValue, totalReturn, returnPercentage,
-                trades.size(), trades.size(), trades, summary);
+    /**
+     * Runs the same backtest as {@link #runBacktest(String, int, double, Strategy)} but writes
+     * each trade as a {@code trade} event and the equity every {@code equityInterval} bars as an
+     * {@code equity} event while the simulation runs, and ends with a {@code summary} event whose
+     * result carries no trade list. Nothing per trade is kept, so memory does not depend on how
+     * many trades the run makes.
+     *
+     * @throws java.io.UncheckedIOException if the client goes away, which stops the run
+     */
+    public void streamBacktest(String coinId, int days, double initialBalance, Strategy strategy, int equityInterval,
+                               BacktestEventWriter writer) {
+        BacktestResult summary;
+        try {
+            PriceSeries historicalPrices = loadSeries(coinId, days);
 
+            int warmup = strategy.getWarmupPeriod();
+            if (historicalPrices.size() < warmup) {
+                summary = new BacktestResult(false, coinId, null, null, initialBalance, initialBalance,
+                    0, 0, 0, 0, List.of(), "Insufficient historical data for backtesting");
+            } else {
+                TradingSignalEunum[] signals = indicatorCache.signals(coinId, historicalPrices, strategy);
+                BacktestEngine engine = new BacktestEngine(initialBalance,
+                    new StreamingListener(historicalPrices, writer), equityInterval);
+                engine.run(historicalPrices, signals, warmup);
+                summary = completed(coinId, days, strategy, engine, List.of());
+            }
+        } catch (UncheckedIOException e) {
+            throw e;
         } catch (Exception e) {
-            return new BacktestResult(false, coinId, null, null, initialBalance, initialBalance,
+            summary = new BacktestResult(false, coinId, null, null, initialBalance, initialBalance,
                 0, 0, 0, 0, List.of(), "Backtest failed: " + e.getMessage());
         }
+        writer.write("summary", summary);
+        writer.flush();
     }
 
-    private double calculateSMA(List<Double> prices, int period) {
-        int startIndex = prices.size() - period;
-        if (startIndex < 0) return 0.0;
-        
-        return prices.subList(startIndex, prices.size())
-                .stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+    private static BacktestResult completed(String coinId, int days, Strategy strategy, BacktestEngine engine,
+                                            List<TradeResult> trades) {
+        double initialBalance = engine.getInitialBalance();
+        double finalValue = engine.finalValue();
+        double totalReturn = finalValue - initialBalance;
+        double returnPercentage = (totalReturn / initialBalance) * 100;
+        int tradeCount = engine.getTradeCount();
+
+        String summary = String.format("Backtest completed with %s: %.2f%% return, %d trades executed",
+            strategy.getName(), returnPercentage, tradeCount);
+
+        return new BacktestResult(true, coinId, LocalDateTime.now().minusDays(days), 
+            LocalDateTime.now(), initialBalance, finalValue, totalReturn, returnPercentage,
+            tradeCount, tradeCount, trades, summary);
+    }
+
+    /**
+     * The series backtests over {@code days} run on: the stored history when it is complete,
+     * otherwise a background-priority download.
+     */
+    public PriceSeries loadSeries(String coinId, int days) {
+        PriceSeries stored = historicalBackfillService.localSeries(coinId, days);
+        if (stored != null) {
+            return stored;
+        }
+        return UpstreamPriority.call(UpstreamPriorityEnum.BACKGROUND,
+            () -> cryptoDataService.fetchHistoricalSeries(coinId, days));
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    // Writes trades as they happen; equity points also flush what has been written so far
+    private static final class StreamingListener implements BacktestListener {
+
+        private final PriceSeries series;
+        private final BacktestEventWriter writer;
+
+        StreamingListener(PriceSeries series, BacktestEventWriter writer) {
+            this.series = series;
+            this.writer = writer;
+        }
+
+        @Override
+        public void onTrade(int bar, TradeActionEnum action, double quantity, double price, double value,
+                            double balance) {
+            writer.write("trade", new BacktestTradeEvent(bar, toDateTime(series.timestampAt(bar)), action.name(),
+                quantity, price, value, balance));
+        }
+
+        @Override
+        public void onEquity(int bar, double price, double equity) {
+            writer.write("equity", new EquityPoint(bar, toDateTime(series.timestampAt(bar)), price, equity));
+            writer.flush();
+        }
     }
-}
\ No newline at end of file
+}
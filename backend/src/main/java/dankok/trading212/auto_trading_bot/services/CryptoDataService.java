@@ -1,64 +1,102 @@
 package dankok.trading212.auto_trading_bot.services;
 
+import dankok.trading212.auto_trading_bot.cache.HistoricalSeriesCache;
+import dankok.trading212.auto_trading_bot.cache.PriceCache;
 import dankok.trading212.auto_trading_bot.dtos.CryptoPriceResponse;
 import dankok.trading212.auto_trading_bot.dtos.HistoricalPriceResponse;
+import dankok.trading212.auto_trading_bot.dtos.PricePoint;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.enums.CoinGeckoTierEnum;
+import dankok.trading212.auto_trading_bot.enums.UpstreamPriorityEnum;
+import dankok.trading212.auto_trading_bot.http.CoinGeckoCircuitBreaker;
+import dankok.trading212.auto_trading_bot.http.PriceRequestCoalescer;
+import dankok.trading212.auto_trading_bot.http.UpstreamPriority;
+import dankok.trading212.auto_trading_bot.http.UpstreamThrottledException;
+import dankok.trading212.auto_trading_bot.marketdata.MarketDataSource;
 import dankok.trading212.auto_trading_bot.repositories.CryptoPriceRepository;
+import dankok.trading212.auto_trading_bot.store.PriceWriteBehindQueue;
+import dankok.trading212.auto_trading_bot.store.TickStore;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Service
 public class CryptoDataService {
 
-    private final RestClient coinGeckoRestClient;
+    private final MarketDataSource marketDataSource;
+    private final PriceWriteBehindQueue priceWriteBehindQueue;
+    private final PriceCache priceCache;
+    private final HistoricalSeriesCache historicalSeriesCache;
+    private final PriceRequestCoalescer priceRequestCoalescer;
+    private final TickStore tickStore;
+    private final CoinGeckoCircuitBreaker circuitBreaker;
     private final CryptoPriceRepository cryptoPriceRepository;
+    private final Function<Set<String>, Map<String, Double>> spotPriceLoader = this::requestSpotPricesGuarded;
+    private final HistoricalSeriesCache.SeriesLoader seriesLoader = new HistoricalSeriesCache.SeriesLoader() {
+        @Override
+        public PriceSeries loadDays(String coinId, int days) {
+            return circuitBreaker.call(() -> marketDataSource.loadDays(coinId, days));
+        }
+
+        @Override
+        public PriceSeries loadRange(String coinId, long fromMillis, long toMillis) {
+            return circuitBreaker.call(() -> marketDataSource.loadRange(coinId, fromMillis, toMillis));
+        }
+    };
+    private final Set<String> pendingRefresh = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stale-price-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
     
     @Value("${coingecko.api.key:}")
     private String apiKey;
     
     @Autowired
-    public CryptoDataService(RestClient coinGeckoRestClient, CryptoPriceRepository cryptoRepository) {
-        this.coinGeckoRestClient = coinGeckoRestClient;
-        this.cryptoPriceRepository = cryptoRepository;
+    public CryptoDataService(MarketDataSource marketDataSource, PriceWriteBehindQueue priceWriteBehindQueue,
+                             PriceCache priceCache, HistoricalSeriesCache historicalSeriesCache,
+                             PriceRequestCoalescer priceRequestCoalescer, TickStore tickStore,
+                             CoinGeckoCircuitBreaker circuitBreaker, CryptoPriceRepository cryptoPriceRepository) {
+        this.marketDataSource = marketDataSource;
+        this.priceWriteBehindQueue = priceWriteBehindQueue;
+        this.priceCache = priceCache;
+        this.historicalSeriesCache = historicalSeriesCache;
+        this.priceRequestCoalescer = priceRequestCoalescer;
+        this.tickStore = tickStore;
+        this.circuitBreaker = circuitBreaker;
+        this.cryptoPriceRepository = cryptoPriceRepository;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
     }
 
     public CryptoPriceResponse fetchPrices(String... coinIds) {
-        String ids = String.join(",", coinIds);        
-        String relativeUrl = String.format("/simple/price?ids=%s&vs_currencies=usd", ids);
-        
         try {
-            Map<?, ?> response = coinGeckoRestClient.get()
-                    .uri(relativeUrl)
-                    .retrieve()
-                    .body(Map.class);
-
-            if (response != null && !response.isEmpty()) {
-                Map<String, Double> prices = new HashMap<>();
-                
-                for (Map.Entry<?, ?> entry : response.entrySet()) {
-                    if (entry.getKey() instanceof String coinId && entry.getValue() instanceof Map<?, ?> coinData) {
-                        Object usdValue = coinData.get("usd");
-                        if (usdValue instanceof Number) {
-                            Double price = ((Number) usdValue).doubleValue();
-                            prices.put(coinId, price);
-                            
-                            try {
-                                cryptoPriceRepository.savePrice(coinId, price, LocalDateTime.now());
-                            } catch (Exception e) {
-                                System.err.println("Failed to save price for " + coinId + ": " + e.getMessage());
-                            }
-                        }
-                    }
-                }
-                
+            Map<String, Double> prices = priceCache.getAll(Arrays.asList(coinIds),
+                missing -> priceRequestCoalescer.fetch(missing, spotPriceLoader));
+
+            if (!prices.isEmpty()) {
                 return new CryptoPriceResponse(true, prices, null);
             } else {
                 return new CryptoPriceResponse(false, Map.of(), "No price data received from API");
@@ -67,9 +105,14 @@ public class CryptoDataService {
         } catch (RestClientException e) {
             String errorMessage = "Error fetching crypto prices: " + e.getMessage();
             
-            if (e.getMessage().contains("429") || e.getMessage().contains("rate limit")) {
+            if (isRateLimited(e)) {
                 errorMessage = "Rate limit exceeded. Please upgrade your CoinGecko API plan or wait before making another request.";
             }
+
+            CryptoPriceResponse lastKnown = lastKnownPrices(coinIds, errorMessage);
+            if (lastKnown != null) {
+                return lastKnown;
+            }
             
             return new CryptoPriceResponse(false, Map.of(), errorMessage);
         } catch (Exception e) {
@@ -78,43 +121,114 @@ public class CryptoDataService {
         }
     }
 
+    // Serves the newest price we have for each coin, from memory or else from crypto_prices,
+    // and schedules a refresh for when the upstream may accept calls again
+    private CryptoPriceResponse lastKnownPrices(String[] coinIds, String upstreamError) {
+        Map<String, Double> prices = new HashMap<>();
+        Map<String, Long> ages = new HashMap<>();
+
+        for (String coinId : coinIds) {
+            PriceCache.StalePrice cached = priceCache.peek(coinId);
+            if (cached != null) {
+                prices.put(coinId, cached.price());
+                ages.put(coinId, cached.age().toSeconds());
+                continue;
+            }
+            try {
+                PricePoint stored = cryptoPriceRepository.getLatestPricePoint(coinId);
+                if (stored != null) {
+                    prices.put(coinId, stored.getPrice());
+                    ages.put(coinId, Math.max(0, Duration.between(stored.getTimestamp(), LocalDateTime.now()).toSeconds()));
+                }
+            } catch (Exception e) {
+                System.err.println("Failed to read last known price for " + coinId + ": " + e.getMessage());
+            }
+        }
+
+        if (prices.isEmpty()) {
+            return null;
+        }
+        scheduleRefresh(prices.keySet());
+
+        CryptoPriceResponse response = new CryptoPriceResponse(true, prices, "Serving last known prices. " + upstreamError);
+        response.setStale(true);
+        response.setPriceAgeSeconds(ages);
+        return response;
+    }
+
+    private void scheduleRefresh(Set<String> coinIds) {
+        Set<String> scheduled = new HashSet<>();
+        for (String coinId : coinIds) {
+            if (pendingRefresh.add(coinId)) {
+                scheduled.add(coinId);
+            }
+        }
+        if (scheduled.isEmpty()) {
+            return;
+        }
+
+        long delayMillis = Math.max(1000, circuitBreaker.remainingOpen().toMillis());
+        try {
+            refreshExecutor.schedule(() -> {
+                try {
+                    UpstreamPriority.call(UpstreamPriorityEnum.BACKGROUND,
+                        () -> priceCache.getAll(scheduled, missing -> priceRequestCoalescer.fetch(missing, spotPriceLoader)));
+                } catch (RuntimeException e) {
+                    System.err.println("Background price refresh failed: " + e.getMessage());
+                } finally {
+                    pendingRefresh.removeAll(scheduled);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            pendingRefresh.removeAll(scheduled);
+        }
+    }
+
+    private Map<String, Double> requestSpotPricesGuarded(Set<String> coinIds) {
+        return circuitBreaker.call(() -> requestSpotPrices(coinIds));
+    }
+
+    private Map<String, Double> requestSpotPrices(Set<String> coinIds) {
+        Map<String, Double> prices = marketDataSource.fetchSpotPrices(coinIds);
+        if (prices == null || !marketDataSource.isLive()) {
+            return prices;
+        }
+
+        long now = System.currentTimeMillis();
+        LocalDateTime timestamp = LocalDateTime.now();
+        for (Map.Entry<String, Double> entry : prices.entrySet()) {
+            priceWriteBehindQueue.enqueue(new PricePoint(entry.getKey(), entry.getValue(), timestamp));
+            try {
+                tickStore.append(entry.getKey(), now, entry.getValue());
+            } catch (RuntimeException e) {
+                System.err.println("Failed to store tick for " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+        return prices;
+    }
+
     public HistoricalPriceResponse fetchHistoricalPricesWithMetadata(String coinId, int days) {        
-        String relativeUrl = String.format("/coins/%s/market_chart?vs_currency=usd&days=%d", coinId, days);
-        
         try {            
-            Map<?, ?> response = coinGeckoRestClient.get()
-                    .uri(relativeUrl)
-                    .retrieve()
-                    .body(Map.class);
-
-            if (response != null && response.containsKey("prices")) {
-                Object pricesObj = response.get("prices");
-                if (pricesObj instanceof List<?> pricesData) {
-                    List<Double> prices = pricesData.stream()
-                            .filter(item -> item instanceof List<?> && ((List<?>) item).size() >= 2)
-                            .map(item -> (List<?>) item)
-                            .filter(dataPoint -> dataPoint.get(1) instanceof Number)
-                            .map(dataPoint -> ((Number) dataPoint.get(1)).doubleValue())
-                            .collect(Collectors.toList());
-                    
-                    return new HistoricalPriceResponse(true, coinId, prices, days, prices.size(), null);
-                }
+            PriceSeries series = historicalSeriesCache.get(coinId, days, seriesLoader);
+
+            if (series != null) {
+                return new HistoricalPriceResponse(true, coinId, series, days, series.size(), null);
             }
             
-            return new HistoricalPriceResponse(false, coinId, List.of(), days, 0, 
+            return new HistoricalPriceResponse(false, coinId, PriceSeries.empty(), days, 0, 
                 "No historical price data available for " + coinId);
             
         } catch (RestClientException e) {
             String errorMessage = "Error fetching historical crypto prices for " + coinId + ": " + e.getMessage();
             
-            if (e.getMessage().contains("429") || e.getMessage().contains("rate limit")) {
+            if (isRateLimited(e)) {
                 errorMessage = "Rate limit exceeded. Please upgrade your CoinGecko API plan or wait before making another request.";
             }
             
-            return new HistoricalPriceResponse(false, coinId, List.of(), days, 0, errorMessage);
+            return new HistoricalPriceResponse(false, coinId, PriceSeries.empty(), days, 0, errorMessage);
         } catch (Exception e) {
             String errorMessage = "Unexpected error fetching historical crypto prices for " + coinId + ": " + e.getMessage();
-            return new HistoricalPriceResponse(false, coinId, List.of(), days, 0, errorMessage);
+            return new HistoricalPriceResponse(false, coinId, PriceSeries.empty(), days, 0, errorMessage);
         }
     }
 
@@ -123,6 +237,11 @@ public class CryptoDataService {
         return response.getPrices();
     }
 
+    public PriceSeries fetchHistoricalSeries(String coinId, int days) {
+        HistoricalPriceResponse response = fetchHistoricalPricesWithMetadata(coinId, days);
+        return response.getSeries();
+    }
+
     public Double getCurrentPrice(String coinId) {
         CryptoPriceResponse response = fetchPrices(coinId);
         if (response.isSuccess() && response.getPrices().containsKey(coinId)) {
@@ -141,12 +260,18 @@ public class CryptoDataService {
     }
     
     public String getApiKeyType() {
-        if (apiKey == null || apiKey.isEmpty()) {
-            return "None (Free tier)";
-        } else if (apiKey.startsWith("CG-") && apiKey.length() > 20) {
-            return "Demo";
-        } else {
-            return "Pro";
+        return switch (CoinGeckoTierEnum.fromApiKey(apiKey)) {
+            case FREE -> "None (Free tier)";
+            case DEMO -> "Demo";
+            case PRO -> "Pro";
+        };
+    }
+
+    private boolean isRateLimited(RestClientException e) {
+        if (e instanceof HttpClientErrorException.TooManyRequests || e instanceof UpstreamThrottledException) {
+            return true;
         }
+        String message = e.getMessage();
+        return message != null && (message.contains("429") || message.contains("rate limit"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,270 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.cache.HistoricalSeriesCache;
+import dankok.trading212.auto_trading_bot.dtos.BackfillResult;
+import dankok.trading212.auto_trading_bot.dtos.PricePoint;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.enums.CandleIntervalEnum;
+import dankok.trading212.auto_trading_bot.enums.UpstreamPriorityEnum;
+import dankok.trading212.auto_trading_bot.http.UpstreamPriority;
+import dankok.trading212.auto_trading_bot.marketdata.MarketDataSource;
+import dankok.trading212.auto_trading_bot.repositories.CryptoPriceRepository;
+import dankok.trading212.auto_trading_bot.store.CandleRollup;
+import dankok.trading212.auto_trading_bot.store.TickStore;
+import dankok.trading212.auto_trading_bot.store.TickView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Loads historical series into crypto_prices with their original timestamps. Each run first
+ * reads what is already stored for the requested window, finds the gaps that are wider than the
+ * window's sampling step and only downloads those ranges, so repeated runs are cheap. Stored
+ * history the tick store is missing, such as everything from before the process started
+ * appending live ticks, is copied into it so backtests can read the window from the ticks.
+ */
+@Service
+public class HistoricalBackfillService {
+
+    private final MarketDataSource marketDataSource;
+    private final CryptoPriceRepository cryptoPriceRepository;
+    private final TickStore tickStore;
+    private final CandleRollup candleRollup;
+    private final List<String> scheduledCoins;
+    private final int scheduledDays;
+    private final int batchSize;
+    private final Clock clock;
+
+    private final Counter pointsWritten;
+    private final Counter gapsFilled;
+
+    @Autowired
+    public HistoricalBackfillService(MarketDataSource marketDataSource, CryptoPriceRepository cryptoPriceRepository,
+                                     TickStore tickStore, CandleRollup candleRollup,
+                                     @Value("${backfill.coins:}") List<String> scheduledCoins,
+                                     @Value("${backfill.days:365}") int scheduledDays,
+                                     @Value("${backfill.batch-size:1000}") int batchSize,
+                                     MeterRegistry meterRegistry) {
+        this(marketDataSource, cryptoPriceRepository, tickStore, candleRollup, scheduledCoins, scheduledDays, batchSize,
+            meterRegistry, Clock.systemUTC());
+    }
+
+    HistoricalBackfillService(MarketDataSource marketDataSource, CryptoPriceRepository cryptoPriceRepository,
+                              TickStore tickStore, CandleRollup candleRollup, List<String> scheduledCoins, int scheduledDays, int batchSize,
+                              MeterRegistry meterRegistry, Clock clock) {
+        this.marketDataSource = marketDataSource;
+        this.cryptoPriceRepository = cryptoPriceRepository;
+        this.tickStore = tickStore;
+        this.candleRollup = candleRollup;
+        this.scheduledCoins = scheduledCoins;
+        this.scheduledDays = scheduledDays;
+        this.batchSize = Math.max(1, batchSize);
+        this.clock = clock;
+
+        this.pointsWritten = Counter.builder("backfill.points.written").register(meterRegistry);
+        this.gapsFilled = Counter.builder("backfill.gaps.filled").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${backfill.cron:-}")
+    public void backfillScheduledCoins() {
+        for (String coinId : scheduledCoins) {
+            if (coinId.isBlank()) {
+                continue;
+            }
+            BackfillResult result = backfill(coinId.trim(), scheduledDays);
+            if (!result.isSuccess()) {
+                System.err.println("Backfill failed for " + coinId + ": " + result.getMessage());
+            }
+        }
+    }
+
+    public BackfillResult backfill(String coinId, int days) {
+        long step = HistoricalSeriesCache.Resolution.forDays(days).getStepMillis();
+        long to = clock.millis();
+        long from = to - days * HistoricalSeriesCache.DAY_MILLIS;
+
+        PriceSeries stored;
+        List<long[]> gaps;
+        try {
+            stored = cryptoPriceRepository.getPriceSeries(coinId, from, to);
+            gaps = findGaps(stored, from, to, step);
+        } catch (RuntimeException e) {
+            return new BackfillResult(false, coinId, days, 0, 0, 0, 0, "Failed to read stored prices: " + e.getMessage());
+        }
+
+        int filled = 0;
+        int written = 0;
+        int ticks = copyToTickStore(coinId, stored, from, to, step);
+        for (long[] gap : gaps) {
+            try {
+                PriceSeries missing = UpstreamPriority.call(UpstreamPriorityEnum.BACKGROUND,
+                    () -> marketDataSource.loadRange(coinId, gap[0] + 1, gap[1] - 1));
+                if (missing == null) {
+                    return new BackfillResult(false, coinId, days, gaps.size(), filled, written, ticks,
+                        "No historical price data available for " + coinId);
+                }
+                PriceSeries thinned = thin(missing, step);
+                written += save(coinId, thinned);
+                ticks += tickStore.append(coinId, thinned);
+                filled++;
+                gapsFilled.increment();
+            } catch (RuntimeException e) {
+                return new BackfillResult(false, coinId, days, gaps.size(), filled, written, ticks,
+                    "Backfill stopped after " + filled + " of " + gaps.size() + " gaps: " + e.getMessage());
+            }
+        }
+
+        String message = gaps.isEmpty()
+            ? "Stored history is complete"
+            : String.format("Filled %d gaps with %d prices, %d stored as ticks", filled, written, ticks);
+        return new BackfillResult(true, coinId, days, gaps.size(), filled, written, ticks, message);
+    }
+
+    // Copies the stored samples that fall into the tick store's own gaps; a failure only costs the copy
+    private int copyToTickStore(String coinId, PriceSeries stored, long from, long to, long step) {
+        if (!tickStore.isEnabled() || stored.isEmpty()) {
+            return 0;
+        }
+        try {
+            List<long[]> missing = findGaps(thin(tickStore.range(coinId, from, to), step), from, to, step);
+            long[] timestamps = new long[stored.size()];
+            double[] prices = new double[stored.size()];
+            int size = 0;
+            int gap = 0;
+            for (int i = 0; i < stored.size() && gap < missing.size(); i++) {
+                long timestamp = stored.timestampAt(i);
+                while (gap < missing.size() && missing.get(gap)[1] < timestamp) {
+                    gap++;
+                }
+                if (gap < missing.size() && timestamp >= missing.get(gap)[0]) {
+                    timestamps[size] = timestamp;
+                    prices[size++] = stored.priceAt(i);
+                }
+            }
+            return size == 0 ? 0 : tickStore.append(coinId, thin(PriceSeries.wrap(timestamps, prices, size), step));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to copy stored prices of " + coinId + " to the tick store: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * The stored series for the last {@code days}, sampled at the step CoinGecko would use for
+     * that window, or {@code null} if the stored history has gaps or cannot be read. Daily
+     * windows are read from the daily candles when those cover the window; otherwise the tick
+     * store is read when it covers the window, and the database only as a last resort.
+     */
+    public PriceSeries localSeries(String coinId, int days) {
+        HistoricalSeriesCache.Resolution resolution = HistoricalSeriesCache.Resolution.forDays(days);
+        long step = resolution.getStepMillis();
+        long to = clock.millis();
+        long from = to - days * HistoricalSeriesCache.DAY_MILLIS;
+        try {
+            if (resolution == HistoricalSeriesCache.Resolution.DAILY) {
+                PriceSeries closes = candleRollup.closeSeries(coinId, CandleIntervalEnum.ONE_DAY, from, to);
+                if (!closes.isEmpty() && findGaps(closes, from, to, step).isEmpty()) {
+                    return closes;
+                }
+            }
+            TickView ticks = tickStore.range(coinId, from, to);
+            if (!ticks.isEmpty()) {
+                PriceSeries thinned = thin(ticks, step);
+                if (findGaps(thinned, from, to, step).isEmpty()) {
+                    return thinned;
+                }
+            }
+            PriceSeries stored = cryptoPriceRepository.getPriceSeries(coinId, from, to);
+            if (stored.isEmpty() || !findGaps(stored, from, to, step).isEmpty()) {
+                return null;
+            }
+            return thin(stored, step);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to read stored prices for " + coinId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Ranges {@code [start, end]} within {@code [from, to]} where consecutive stored samples are
+     * more than one and a half steps apart. The range bounds are the neighbouring stored samples
+     * (or the window edges), which are not missing themselves.
+     */
+    static List<long[]> findGaps(PriceSeries stored, long from, long to, long step) {
+        long tolerance = step + step / 2;
+        List<long[]> gaps = new ArrayList<>();
+        long cursor = from;
+        for (int i = 0; i < stored.size(); i++) {
+            long timestamp = stored.timestampAt(i);
+            if (timestamp - cursor > tolerance) {
+                gaps.add(new long[] {cursor, timestamp});
+            }
+            cursor = Math.max(cursor, timestamp);
+        }
+        if (to - cursor > tolerance) {
+            gaps.add(new long[] {cursor, to});
+        }
+        return gaps;
+    }
+
+    // Drops samples closer than 90% of a step to the previously kept one; the newest is always kept
+    static PriceSeries thin(PriceSeries series, long step) {
+        if (series.size() < 2) {
+            return series;
+        }
+        PriceSeries thinned = thin(series.size(), series::timestampAt, series::priceAt, step);
+        return thinned.size() == series.size() ? series : thinned;
+    }
+
+    // Thins straight off the mapped tick columns, so only the kept samples are copied to the heap
+    static PriceSeries thin(TickView ticks, long step) {
+        return thin(ticks.size(), ticks::timestampAt, ticks::priceAt, step);
+    }
+
+    private static PriceSeries thin(int count, IntToLongFunction timestampAt, IntToDoubleFunction priceAt,
+                                    long step) {
+        long minGap = step - step / 10;
+        long[] timestamps = new long[count];
+        double[] prices = new double[count];
+        int size = 0;
+        int last = count - 1;
+        for (int i = 0; i <= last; i++) {
+            long timestamp = timestampAt.applyAsLong(i);
+            if (i == last || size == 0 || timestamp - timestamps[size - 1] >= minGap) {
+                timestamps[size] = timestamp;
+                prices[size] = priceAt.applyAsDouble(i);
+                size++;
+            }
+        }
+        return PriceSeries.wrap(timestamps, prices, size);
+    }
+
+    private int save(String coinId, PriceSeries series) {
+        List<PricePoint> batch = new ArrayList<>(Math.min(batchSize, series.size()));
+        int written = 0;
+        for (int i = 0; i < series.size(); i++) {
+            LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(series.timestampAt(i)),
+                ZoneId.systemDefault());
+            batch.add(new PricePoint(coinId, series.priceAt(i), timestamp));
+            if (batch.size() == batchSize || i == series.size() - 1) {
+                cryptoPriceRepository.savePrices(batch);
+                candleRollup.rollup(batch);
+                written += batch.size();
+                pointsWritten.increment(batch.size());
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        return written;
+    }
+}
@@ -0,0 +1,118 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.cache.IndicatorCache;
+import dankok.trading212.auto_trading_bot.cache.PriceRingBuffer;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.enums.UpstreamPriorityEnum;
+import dankok.trading212.auto_trading_bot.http.UpstreamPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the recent price history of the configured watchlist in memory. A scheduled task
+ * refreshes every watched coin in the background lane and merges new samples into that coin's
+ * ring buffer, so the trading bot can read its history without a request to CoinGecko.
+ */
+@Service
+public class MarketDataPoller {
+
+    private final CryptoDataService cryptoDataService;
+    private final IndicatorCache indicatorCache;
+    private final int historyDays;
+    private final long maxStalenessMillis;
+    private final Clock clock;
+    private final Map<String, PriceRingBuffer> buffers;
+
+    private final Counter polls;
+    private final Counter failures;
+
+    @Autowired
+    public MarketDataPoller(CryptoDataService cryptoDataService, IndicatorCache indicatorCache,
+                            @Value("${market-data.watchlist:}") List<String> watchlist,
+                            @Value("${market-data.poller.history-days:50}") int historyDays,
+                            @Value("${market-data.poller.buffer-capacity:2048}") int bufferCapacity,
+                            @Value("${market-data.poller.max-staleness-seconds:300}") long maxStalenessSeconds,
+                            MeterRegistry meterRegistry) {
+        this(cryptoDataService, indicatorCache, watchlist, historyDays, bufferCapacity, Duration.ofSeconds(maxStalenessSeconds),
+            meterRegistry, Clock.systemUTC());
+    }
+
+    MarketDataPoller(CryptoDataService cryptoDataService, IndicatorCache indicatorCache, List<String> watchlist,
+                     int historyDays, int bufferCapacity, Duration maxStaleness, MeterRegistry meterRegistry,
+                     Clock clock) {
+        this.cryptoDataService = cryptoDataService;
+        this.indicatorCache = indicatorCache;
+        this.historyDays = historyDays;
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.clock = clock;
+
+        // The map itself is never modified after construction, so it can be read without locking
+        Map<String, PriceRingBuffer> byCoin = new LinkedHashMap<>();
+        for (String coinId : watchlist) {
+            String trimmed = coinId.trim();
+            if (!trimmed.isEmpty()) {
+                byCoin.putIfAbsent(trimmed, new PriceRingBuffer(bufferCapacity));
+            }
+        }
+        this.buffers = Map.copyOf(byCoin);
+
+        this.polls = Counter.builder("market.data.poller.polls").register(meterRegistry);
+        this.failures = Counter.builder("market.data.poller.failures").register(meterRegistry);
+        meterRegistry.gauge("market.data.poller.watchlist.size", buffers, Map::size);
+    }
+
+    @Scheduled(initialDelayString = "${market-data.poller.initial-delay-millis:0}",
+               fixedDelayString = "${market-data.poller.interval-millis:60000}")
+    public void poll() {
+        for (Map.Entry<String, PriceRingBuffer> entry : buffers.entrySet()) {
+            String coinId = entry.getKey();
+            try {
+                PriceSeries latest = UpstreamPriority.call(UpstreamPriorityEnum.BACKGROUND,
+                    () -> cryptoDataService.fetchHistoricalSeries(coinId, historyDays));
+                if (latest.isEmpty()) {
+                    failures.increment();
+                    continue;
+                }
+                if (entry.getValue().merge(latest, clock.millis()) > 0) {
+                    indicatorCache.invalidate(coinId);
+                }
+                polls.increment();
+            } catch (RuntimeException e) {
+                failures.increment();
+                System.err.println("Failed to poll market data for " + coinId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public Set<String> getWatchlist() {
+        return buffers.keySet();
+    }
+
+    /**
+     * Returns up to {@code maxSamples} of the newest polled prices for {@code coinId} when the
+     * coin is watched over at least {@code days} of history and was refreshed recently enough,
+     * otherwise {@code null} so the caller falls back to fetching the data itself.
+     */
+    public PriceSeries recentPrices(String coinId, int days, int maxSamples) {
+        PriceRingBuffer buffer = buffers.get(coinId);
+        if (buffer == null || days > historyDays) {
+            return null;
+        }
+        if (clock.millis() - buffer.getUpdatedAtMillis() > maxStalenessMillis) {
+            return null;
+        }
+        PriceSeries prices = buffer.snapshot(maxSamples);
+        return prices.isEmpty() ? null : prices;
+    }
+}
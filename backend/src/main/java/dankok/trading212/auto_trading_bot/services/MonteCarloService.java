@@ -0,0 +1,232 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.backtest.BacktestEngine;
+import dankok.trading212.auto_trading_bot.backtest.BlockBootstrap;
+import dankok.trading212.auto_trading_bot.dtos.Distribution;
+import dankok.trading212.auto_trading_bot.dtos.MonteCarloResult;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.BatchKernels;
+import dankok.trading212.auto_trading_bot.jobs.JobProgress;
+import dankok.trading212.auto_trading_bot.strategies.SignalBuffers;
+import dankok.trading212.auto_trading_bot.strategies.Strategy;
+import dankok.trading212.auto_trading_bot.strategies.StrategySignals;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tests how much a strategy's result depends on the exact history it was backtested on. The
+ * historical series is resampled into many price paths with a {@link BlockBootstrap}, the
+ * strategy is backtested on each path on a dedicated fork/join pool, and the spread of returns
+ * and drawdowns is reported. Each task reuses one path buffer, one set of {@link SignalBuffers}
+ * and one engine for all of its paths, and the per-path results go into primitive arrays. Path
+ * {@code i} is always drawn from {@code seed + i}, so a run can be repeated exactly whatever the
+ * thread scheduling.
+ */
+@Service
+public class MonteCarloService {
+
+    // Paths one task simulates before it stops splitting
+    private static final int LEAF_SIZE = 16;
+
+    private final BacktestService backtestService;
+    private final BatchKernels batchKernels;
+    private final int maxPaths;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public MonteCarloService(BacktestService backtestService, BatchKernels batchKernels,
+                             @Value("${monte-carlo.parallelism:0}") int parallelism,
+                             @Value("${monte-carlo.max-paths:20000}") int maxPaths) {
+        this.backtestService = backtestService;
+        this.batchKernels = batchKernels;
+        this.maxPaths = Math.max(1, maxPaths);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+            forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("monte-carlo-" + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public MonteCarloResult run(String coinId, int days, double initialBalance, Strategy strategy, int paths,
+                                int blockLength, long seed) {
+        return run(coinId, days, initialBalance, strategy, paths, blockLength, seed, JobProgress.NONE);
+    }
+
+    /**
+     * Progress is counted in paths; a cancelled run stops simulating and throws
+     * {@link java.util.concurrent.CancellationException}.
+     */
+    public MonteCarloResult run(String coinId, int days, double initialBalance, Strategy strategy, int paths,
+                                int blockLength, long seed, JobProgress progress) {
+        if (paths <= 0 || paths > maxPaths) {
+            return failure(coinId, strategy, days, "Paths must be between 1 and " + maxPaths);
+        }
+        if (initialBalance <= 0) {
+            return failure(coinId, strategy, days, "Initial balance must be positive");
+        }
+
+        PriceSeries series;
+        try {
+            series = backtestService.loadSeries(coinId, days);
+        } catch (RuntimeException e) {
+            return failure(coinId, strategy, days, "Failed to load price history: " + e.getMessage());
+        }
+        if (series == null || series.isEmpty()) {
+            return failure(coinId, strategy, days, "No historical price data available for " + coinId);
+        }
+        int warmup = strategy.getWarmupPeriod();
+        if (series.size() <= warmup) {
+            return failure(coinId, strategy, days, "Insufficient historical data for backtesting");
+        }
+
+        double[] prices = series.toPriceArray();
+        long[] timestamps = series.toTimestampArray();
+        BlockBootstrap bootstrap;
+        try {
+            bootstrap = new BlockBootstrap(prices, blockLength);
+        } catch (IllegalArgumentException e) {
+            return failure(coinId, strategy, days, e.getMessage());
+        }
+
+        long start = System.nanoTime();
+        BacktestEngine historical = new BacktestEngine(initialBalance, prices.length);
+        historical.run(prices, StrategySignals.compute(strategy, timestamps, prices, batchKernels), warmup);
+
+        double[] returns = new double[paths];
+        double[] drawdowns = new double[paths];
+        double[] trades = new double[paths];
+        progress.setTotal(paths);
+        pool.invoke(new PathTask(strategy, bootstrap, timestamps, initialBalance, warmup, seed, progress,
+            returns, drawdowns, trades, 0, paths));
+        progress.checkCancelled();
+
+        int losses = 0;
+        for (double pathReturn : returns) {
+            if (pathReturn < 0) {
+                losses++;
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        Distribution returnDistribution = distribution(returns);
+
+        String message = String.format(
+            "Simulated %d resampled paths of %d bars in %d ms: median return %.2f%%, %.1f%% of paths lost money",
+            paths, prices.length, elapsedMillis, returnDistribution.getMedian(), 100.0 * losses / paths);
+        return new MonteCarloResult(true, coinId, strategy.getName(), days, prices.length, paths, blockLength, seed,
+            elapsedMillis, percentReturn(historical), historical.getMaxDrawdown() * 100, (double) losses / paths,
+            returnDistribution, distribution(drawdowns), distribution(trades), message);
+    }
+
+    /**
+     * Mean, population standard deviation and linearly interpolated percentiles of
+     * {@code values}, which is sorted in place.
+     */
+    static Distribution distribution(double[] values) {
+        Arrays.sort(values);
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        double mean = sum / values.length;
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        return new Distribution(mean, Math.sqrt(squares / values.length), values[0], percentile(values, 0.05),
+            percentile(values, 0.25), percentile(values, 0.5), percentile(values, 0.75), percentile(values, 0.95),
+            values[values.length - 1]);
+    }
+
+    private static double percentile(double[] sorted, double quantile) {
+        double position = quantile * (sorted.length - 1);
+        int lower = (int) position;
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (sorted[upper] - sorted[lower]) * (position - lower);
+    }
+
+    private static double percentReturn(BacktestEngine engine) {
+        return (engine.finalValue() - engine.getInitialBalance()) / engine.getInitialBalance() * 100;
+    }
+
+    private static MonteCarloResult failure(String coinId, Strategy strategy, int days, String message) {
+        return new MonteCarloResult(false, coinId, strategy.getName(), days, 0, 0, 0, 0, 0, 0, 0, 0, null, null, null,
+            message);
+    }
+
+    private final class PathTask extends RecursiveAction {
+
+        private final Strategy strategy;
+        private final BlockBootstrap bootstrap;
+        private final long[] timestamps;
+        private final double initialBalance;
+        private final int warmup;
+        private final long seed;
+        private final JobProgress progress;
+        private final double[] returns;
+        private final double[] drawdowns;
+        private final double[] trades;
+        private final int from;
+        private final int to;
+
+        PathTask(Strategy strategy, BlockBootstrap bootstrap, long[] timestamps, double initialBalance, int warmup,
+                 long seed, JobProgress progress, double[] returns, double[] drawdowns, double[] trades,
+                 int from, int to) {
+            this.strategy = strategy;
+            this.bootstrap = bootstrap;
+            this.timestamps = timestamps;
+            this.initialBalance = initialBalance;
+            this.warmup = warmup;
+            this.seed = seed;
+            this.progress = progress;
+            this.returns = returns;
+            this.drawdowns = drawdowns;
+            this.trades = trades;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (progress.isCancelled()) {
+                return;
+            }
+            if (to - from <= LEAF_SIZE) {
+                double[] path = new double[bootstrap.size()];
+                SignalBuffers buffers = new SignalBuffers(path.length);
+                BacktestEngine engine = new BacktestEngine(initialBalance, path.length);
+                for (int i = from; i < to; i++) {
+                    bootstrap.sample(new SplittableRandom(seed + i), path);
+                    TradingSignalEunum[] signals = StrategySignals.compute(strategy, timestamps, path, batchKernels,
+                        buffers);
+                    engine.reset();
+                    engine.run(path, signals, warmup);
+                    returns[i] = percentReturn(engine);
+                    drawdowns[i] = engine.getMaxDrawdown() * 100;
+                    trades[i] = engine.getTradeCount();
+                }
+                progress.advance(to - from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PathTask(strategy, bootstrap, timestamps, initialBalance, warmup, seed, progress,
+                    returns, drawdowns, trades, from, middle),
+                new PathTask(strategy, bootstrap, timestamps, initialBalance, warmup, seed, progress,
+                    returns, drawdowns, trades, middle, to));
+        }
+    }
+}
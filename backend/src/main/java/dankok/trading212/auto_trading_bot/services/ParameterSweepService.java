@@ -0,0 +1,256 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.backtest.BacktestEngine;
+import dankok.trading212.auto_trading_bot.dtos.ParameterRange;
+import dankok.trading212.auto_trading_bot.dtos.ParameterSweepRequest;
+import dankok.trading212.auto_trading_bot.dtos.ParameterSweepResult;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.dtos.SweepEntry;
+import dankok.trading212.auto_trading_bot.indicators.BatchKernels;
+import dankok.trading212.auto_trading_bot.jobs.JobProgress;
+import dankok.trading212.auto_trading_bot.strategies.Strategy;
+import dankok.trading212.auto_trading_bot.strategies.StrategyRegistry;
+import dankok.trading212.auto_trading_bot.strategies.StrategySignals;
+import dankok.trading212.auto_trading_bot.strategies.TunableStrategy;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Backtests every combination of a strategy's parameters over one coin's history. The series is
+ * loaded once and copied into a single price array that all combinations read without locking;
+ * the grid is split across a dedicated fork/join pool and the results are ranked by return.
+ */
+@Service
+public class ParameterSweepService {
+
+    // Combinations one task evaluates before it stops splitting
+    private static final int LEAF_SIZE = 4;
+
+    private final BacktestService backtestService;
+    private final StrategyRegistry strategyRegistry;
+    private final BatchKernels batchKernels;
+    private final int maxCombinations;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public ParameterSweepService(BacktestService backtestService, StrategyRegistry strategyRegistry,
+                                 BatchKernels batchKernels,
+                                 @Value("${sweep.parallelism:0}") int parallelism,
+                                 @Value("${sweep.max-combinations:10000}") int maxCombinations) {
+        this.backtestService = backtestService;
+        this.strategyRegistry = strategyRegistry;
+        this.batchKernels = batchKernels;
+        this.maxCombinations = Math.max(1, maxCombinations);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+            forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("parameter-sweep-" + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public ParameterSweepResult sweep(ParameterSweepRequest request) {
+        return sweep(request, JobProgress.NONE);
+    }
+
+    /**
+     * Progress is counted in combinations; a cancelled sweep stops evaluating and throws
+     * {@link java.util.concurrent.CancellationException}.
+     */
+    public ParameterSweepResult sweep(ParameterSweepRequest request, JobProgress progress) {
+        String coinId = request.getCoinId();
+        int days = request.getDays();
+
+        Strategy selected;
+        List<Map<String, Integer>> grid;
+        try {
+            selected = strategyRegistry.get(request.getStrategy());
+            if (!(selected instanceof TunableStrategy)) {
+                throw new IllegalArgumentException("Strategy " + selected.getName() + " has no tunable parameters");
+            }
+            Map<String, ParameterRange> ranges = request.getParameters() == null ? Map.of() : request.getParameters();
+            grid = grid((TunableStrategy) selected, ranges, maxCombinations);
+        } catch (IllegalArgumentException e) {
+            return failure(request, request.getStrategy(), e.getMessage());
+        }
+        TunableStrategy strategy = (TunableStrategy) selected;
+
+        PriceSeries series;
+        try {
+            series = backtestService.loadSeries(coinId, days);
+        } catch (RuntimeException e) {
+            return failure(request, strategy.getName(), "Failed to load price history: " + e.getMessage());
+        }
+        if (series == null || series.isEmpty()) {
+            return failure(request, strategy.getName(), "No historical price data available for " + coinId);
+        }
+
+        long start = System.nanoTime();
+        double[] prices = series.toPriceArray();
+        long[] timestamps = series.toTimestampArray();
+        SweepEntry[] entries = new SweepEntry[grid.size()];
+        progress.setTotal(grid.size());
+        pool.invoke(new SweepTask(strategy, grid, prices, timestamps, request.getInitialBalance(), entries,
+            progress, 0, grid.size()));
+        progress.checkCancelled();
+
+        List<SweepEntry> ranked = new ArrayList<>(entries.length);
+        for (SweepEntry entry : entries) {
+            if (entry != null) {
+                ranked.add(entry);
+            }
+        }
+        ranked.sort(Comparator.comparingDouble(SweepEntry::getTotalReturnPercentage).reversed()
+            .thenComparingInt(SweepEntry::getTotalTrades));
+        for (int i = 0; i < ranked.size(); i++) {
+            ranked.get(i).setRank(i + 1);
+        }
+        int skipped = grid.size() - ranked.size();
+        if (request.getLimit() > 0 && ranked.size() > request.getLimit()) {
+            ranked = new ArrayList<>(ranked.subList(0, request.getLimit()));
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        String message = String.format("Evaluated %d of %d combinations over %d bars in %d ms",
+            grid.size() - skipped, grid.size(), prices.length, elapsedMillis);
+        return new ParameterSweepResult(true, coinId, strategy.getName(), days, prices.length, grid.size(), skipped,
+            elapsedMillis, ranked, message);
+    }
+
+    /**
+     * Every combination of the given ranges, in row-major order of {@code ranges}. Parameters
+     * without a range keep the strategy's values.
+     *
+     * @throws IllegalArgumentException if a range is invalid or the grid has more than {@code max} points
+     */
+    static List<Map<String, Integer>> grid(TunableStrategy strategy, Map<String, ParameterRange> ranges, int max) {
+        long size = 1;
+        TunableStrategy.checkKnown(strategy, ranges.keySet());
+        for (Map.Entry<String, ParameterRange> entry : ranges.entrySet()) {
+            ParameterRange range = entry.getValue();
+            if (range.getFrom() <= 0) {
+                throw new IllegalArgumentException("Invalid range for " + entry.getKey() + ": values must be positive");
+            }
+            if (range.getStep() <= 0 || range.getFrom() > range.getTo()) {
+                throw new IllegalArgumentException("Invalid range for " + entry.getKey()
+                    + ": from must not exceed to and step must be positive");
+            }
+            size *= count(range);
+            if (size > max) {
+                throw new IllegalArgumentException("Sweep exceeds the limit of " + max + " combinations");
+            }
+        }
+
+        List<Map<String, Integer>> grid = new ArrayList<>((int) size);
+        grid.add(new LinkedHashMap<>());
+        for (Map.Entry<String, ParameterRange> entry : ranges.entrySet()) {
+            ParameterRange range = entry.getValue();
+            long count = count(range);
+            List<Map<String, Integer>> expanded = new ArrayList<>((int) size);
+            for (Map<String, Integer> point : grid) {
+                // Derived from the index so a range ending near Integer.MAX_VALUE cannot overflow
+                for (long k = 0; k < count; k++) {
+                    Map<String, Integer> next = new LinkedHashMap<>(point);
+                    next.put(entry.getKey(), (int) (range.getFrom() + k * range.getStep()));
+                    expanded.add(next);
+                }
+            }
+            grid = expanded;
+        }
+        return grid;
+    }
+
+    private static long count(ParameterRange range) {
+        return ((long) range.getTo() - range.getFrom()) / range.getStep() + 1;
+    }
+
+    /**
+     * Backtests one combination, or returns {@code null} if the combination is invalid or needs
+     * more history than there is.
+     */
+    private SweepEntry evaluate(TunableStrategy base, Map<String, Integer> parameters, double[] prices,
+                                long[] timestamps, double initialBalance) {
+        TunableStrategy strategy;
+        try {
+            strategy = base.withParameters(parameters);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int warmup = strategy.getWarmupPeriod();
+        if (prices.length < warmup) {
+            return null;
+        }
+
+        BacktestEngine engine = new BacktestEngine(initialBalance, prices.length);
+        engine.run(prices, StrategySignals.compute(strategy, timestamps, prices, batchKernels), warmup);
+
+        double finalValue = engine.finalValue();
+        double totalReturn = finalValue - initialBalance;
+        return new SweepEntry(strategy.getParameters(), finalValue, totalReturn,
+            (totalReturn / initialBalance) * 100, engine.getTrades().size());
+    }
+
+    private static ParameterSweepResult failure(ParameterSweepRequest request, String strategy, String message) {
+        return new ParameterSweepResult(false, request.getCoinId(), strategy, request.getDays(), 0, 0, 0, 0,
+            List.of(), message);
+    }
+
+    private final class SweepTask extends RecursiveAction {
+
+        private final TunableStrategy strategy;
+        private final List<Map<String, Integer>> grid;
+        private final double[] prices;
+        private final long[] timestamps;
+        private final double initialBalance;
+        private final SweepEntry[] entries;
+        private final JobProgress progress;
+        private final int from;
+        private final int to;
+
+        SweepTask(TunableStrategy strategy, List<Map<String, Integer>> grid, double[] prices, long[] timestamps,
+                  double initialBalance, SweepEntry[] entries, JobProgress progress, int from, int to) {
+            this.strategy = strategy;
+            this.grid = grid;
+            this.prices = prices;
+            this.timestamps = timestamps;
+            this.initialBalance = initialBalance;
+            this.entries = entries;
+            this.progress = progress;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (progress.isCancelled()) {
+                return;
+            }
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    entries[i] = evaluate(strategy, grid.get(i), prices, timestamps, initialBalance);
+                }
+                progress.advance(to - from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SweepTask(strategy, grid, prices, timestamps, initialBalance, entries, progress, from, middle),
+                new SweepTask(strategy, grid, prices, timestamps, initialBalance, entries, progress, middle, to));
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.backtest.AlignedPrices;
+import dankok.trading212.auto_trading_bot.backtest.PortfolioEngine;
+import dankok.trading212.auto_trading_bot.backtest.TradeLog;
+import dankok.trading212.auto_trading_bot.cache.HistoricalSeriesCache;
+import dankok.trading212.auto_trading_bot.dtos.PortfolioBacktestResult;
+import dankok.trading212.auto_trading_bot.dtos.PortfolioCoinResult;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.BatchKernels;
+import dankok.trading212.auto_trading_bot.jobs.JobProgress;
+import dankok.trading212.auto_trading_bot.strategies.Strategy;
+import dankok.trading212.auto_trading_bot.strategies.StrategyRegistry;
+import dankok.trading212.auto_trading_bot.strategies.StrategySignals;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Backtests several coins as one portfolio with a shared cash balance. Every coin's history is
+ * loaded concurrently, the series are aligned on a common timeline, and each coin's signals are
+ * computed on its own worker, so the run takes about as long as the slowest coin rather than the
+ * sum of all of them. Only the cash simulation, which is cheap, walks the bars on one thread.
+ */
+@Service
+public class PortfolioBacktestService {
+
+    private final BacktestService backtestService;
+    private final StrategyRegistry strategyRegistry;
+    private final BatchKernels batchKernels;
+    private final ExecutorService executor;
+
+    @Autowired
+    public PortfolioBacktestService(BacktestService backtestService, StrategyRegistry strategyRegistry,
+                                    BatchKernels batchKernels,
+                                    @Value("${portfolio-backtest.parallelism:0}") int parallelism) {
+        this.backtestService = backtestService;
+        this.strategyRegistry = strategyRegistry;
+        this.batchKernels = batchKernels;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(
+            parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "portfolio-backtest-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public PortfolioBacktestResult runBacktest(List<String> coinIds, int days, double initialBalance) {
+        return runBacktest(coinIds, days, initialBalance, strategyRegistry.getDefault());
+    }
+
+    public PortfolioBacktestResult runBacktest(List<String> coinIds, int days, double initialBalance,
+                                               Strategy strategy) {
+        return runBacktest(coinIds, days, initialBalance, strategy, JobProgress.NONE);
+    }
+
+    /**
+     * Progress counts one unit per coin for loading its history and one for computing its signals.
+     */
+    public PortfolioBacktestResult runBacktest(List<String> coinIds, int days, double initialBalance,
+                                               Strategy strategy, JobProgress progress) {
+        if (coinIds.isEmpty()) {
+            return failure(coinIds, initialBalance, "No coins given");
+        }
+        if (coinIds.stream().distinct().count() != coinIds.size()) {
+            return failure(coinIds, initialBalance, "Each coin may only be listed once");
+        }
+
+        progress.setTotal(2L * coinIds.size());
+        List<PriceSeries> series;
+        try {
+            series = join(coinIds.stream()
+                .map(coinId -> CompletableFuture.supplyAsync(() -> {
+                    PriceSeries loaded = backtestService.loadSeries(coinId, days);
+                    progress.advance(1);
+                    return loaded;
+                }, executor))
+                .toList());
+        } catch (RuntimeException e) {
+            return failure(coinIds, initialBalance, "Failed to load price history: " + e.getMessage());
+        }
+        for (int c = 0; c < coinIds.size(); c++) {
+            if (series.get(c) == null || series.get(c).isEmpty()) {
+                return failure(coinIds, initialBalance, "No historical price data available for " + coinIds.get(c));
+            }
+        }
+
+        progress.checkCancelled();
+
+        AlignedPrices aligned = AlignedPrices.align(series,
+            HistoricalSeriesCache.Resolution.forDays(days).getStepMillis());
+        int warmup = strategy.getWarmupPeriod();
+        if (aligned.bars() == 0 || aligned.bars() < warmup) {
+            return failure(coinIds, initialBalance, "Insufficient overlapping history for backtesting");
+        }
+
+        TradingSignalEunum[][] signals;
+        try {
+            List<CompletableFuture<TradingSignalEunum[]>> futures = new ArrayList<>();
+            for (int c = 0; c < coinIds.size(); c++) {
+                double[] prices = aligned.prices(c);
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    TradingSignalEunum[] coinSignals = StrategySignals.compute(strategy, aligned.timestamps(), prices,
+                        batchKernels);
+                    progress.advance(1);
+                    return coinSignals;
+                }, executor));
+            }
+            signals = join(futures).toArray(new TradingSignalEunum[0][]);
+        } catch (RuntimeException e) {
+            return failure(coinIds, initialBalance, "Backtest failed: " + e.getMessage());
+        }
+        progress.checkCancelled();
+
+        int[] warmups = new int[coinIds.size()];
+        Arrays.fill(warmups, warmup);
+        PortfolioEngine engine = new PortfolioEngine(coinIds.size(), initialBalance, aligned.bars());
+        engine.run(aligned, signals, warmups);
+
+        List<PortfolioCoinResult> coins = new ArrayList<>();
+        int totalTrades = 0;
+        for (int c = 0; c < coinIds.size(); c++) {
+            TradeLog trades = engine.getTrades(c);
+            totalTrades += trades.size();
+            coins.add(new PortfolioCoinResult(coinIds.get(c), engine.getHoldings(c), engine.positionValue(c),
+                trades.size(), trades.toTradeResults()));
+        }
+        double finalValue = engine.equity();
+        double totalReturn = finalValue - initialBalance;
+        double returnPercentage = (totalReturn / initialBalance) * 100;
+        String summary = String.format(
+            "Portfolio backtest completed with %s over %d coins: %.2f%% return, %d trades executed",
+            strategy.getName(), coinIds.size(), returnPercentage, totalTrades);
+
+        long[] timestamps = aligned.timestamps();
+        return new PortfolioBacktestResult(true, coinIds, toDateTime(timestamps[0]),
+            toDateTime(timestamps[timestamps.length - 1]), aligned.bars(), initialBalance, finalValue,
+            engine.getCash(), totalReturn, returnPercentage, engine.getMaxDrawdown() * 100, totalTrades, coins, summary);
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static PortfolioBacktestResult failure(List<String> coinIds, double initialBalance, String message) {
+        return new PortfolioBacktestResult(false, coinIds, null, null, 0, initialBalance, initialBalance, initialBalance,
+            0, 0, 0, 0, List.of(), message);
+    }
+}
@@ -0,0 +1,216 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.repositories.CryptoPriceRepository;
+import dankok.trading212.auto_trading_bot.repositories.SessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongFunction;
+
+/**
+ * Purges raw prices past their retention window and expired sessions on a schedule. Rows are
+ * deleted in small chunks bounded by primary key ranges, with a pause between chunks, so a purge
+ * never holds locks over a large range or starves other writers. When crypto_prices is range
+ * partitioned by day, whole partitions past the window are dropped instead and partitions for
+ * the coming days are created ahead of time.
+ */
+@Service
+public class RetentionService {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    private final CryptoPriceRepository cryptoPriceRepository;
+    private final SessionRepository sessionRepository;
+    private final int priceRetentionDays;
+    private final boolean partitioned;
+    private final int partitionsAheadDays;
+    private final int chunkSize;
+    private final long chunkPauseMillis;
+    private final long maxRunNanos;
+    private final Clock clock;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter partitionsDropped;
+    private final AtomicLong priceRows = new AtomicLong();
+    private final AtomicLong sessionRows = new AtomicLong();
+
+    @Autowired
+    public RetentionService(CryptoPriceRepository cryptoPriceRepository, SessionRepository sessionRepository,
+                            @Value("${retention.crypto-prices.days:400}") int priceRetentionDays,
+                            @Value("${retention.crypto-prices.partitioned:false}") boolean partitioned,
+                            @Value("${retention.crypto-prices.partitions-ahead-days:7}") int partitionsAheadDays,
+                            @Value("${retention.chunk-size:1000}") int chunkSize,
+                            @Value("${retention.chunk-pause-millis:100}") long chunkPauseMillis,
+                            @Value("${retention.max-run-seconds:300}") long maxRunSeconds,
+                            MeterRegistry meterRegistry) {
+        this(cryptoPriceRepository, sessionRepository, priceRetentionDays, partitioned, partitionsAheadDays, chunkSize,
+            chunkPauseMillis, Duration.ofSeconds(maxRunSeconds), meterRegistry, Clock.systemDefaultZone());
+    }
+
+    RetentionService(CryptoPriceRepository cryptoPriceRepository, SessionRepository sessionRepository,
+                     int priceRetentionDays, boolean partitioned, int partitionsAheadDays, int chunkSize,
+                     long chunkPauseMillis, Duration maxRun, MeterRegistry meterRegistry, Clock clock) {
+        this.cryptoPriceRepository = cryptoPriceRepository;
+        this.sessionRepository = sessionRepository;
+        this.priceRetentionDays = Math.max(1, priceRetentionDays);
+        this.partitioned = partitioned;
+        this.partitionsAheadDays = Math.max(1, partitionsAheadDays);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkPauseMillis = Math.max(0, chunkPauseMillis);
+        this.maxRunNanos = maxRun.toNanos();
+        this.clock = clock;
+
+        this.meterRegistry = meterRegistry;
+        this.partitionsDropped = Counter.builder("retention.partitions.dropped").register(meterRegistry);
+        meterRegistry.gauge("retention.table.rows", Tags.of("table", "crypto_prices"), priceRows);
+        meterRegistry.gauge("retention.table.rows", Tags.of("table", "user_sessions"), sessionRows);
+    }
+
+    @Scheduled(cron = "${retention.cron:0 15 4 * * *}")
+    public void purge() {
+        try {
+            purgePrices();
+        } catch (RuntimeException e) {
+            System.err.println("Price retention failed: " + e.getMessage());
+        }
+        try {
+            purgeSessions();
+        } catch (RuntimeException e) {
+            System.err.println("Session retention failed: " + e.getMessage());
+        }
+        refreshRowCounts();
+    }
+
+    public long purgePrices() {
+        Instant cutoffInstant = clock.instant().minus(Duration.ofDays(priceRetentionDays));
+        LocalDateTime cutoff = LocalDateTime.ofInstant(cutoffInstant, clock.getZone());
+        return timer("crypto_prices").record(() -> {
+            if (partitioned) {
+                maintainPartitions(cutoffInstant.getEpochSecond());
+            }
+            // Also covers the unpartitioned case and rows of a partition that straddles the cutoff
+            return purgeInChunks("crypto_prices",
+                afterId -> cryptoPriceRepository.findPurgeChunkEnd(afterId, cutoff, chunkSize),
+                (afterId, toId) -> cryptoPriceRepository.deletePriceChunk(afterId, toId, cutoff));
+        });
+    }
+
+    public long purgeSessions() {
+        return timer("user_sessions").record(() -> purgeInChunks("user_sessions",
+            afterId -> sessionRepository.findExpiredChunkEnd(afterId, chunkSize),
+            sessionRepository::deleteExpiredChunk));
+    }
+
+    private long purgeInChunks(String table, LongFunction<Long> findChunkEnd, LongBinaryOperator deleteChunk) {
+        Counter purged = Counter.builder("retention.purged.rows").tag("table", table).register(meterRegistry);
+        long deadline = System.nanoTime() + maxRunNanos;
+        long afterId = 0;
+        long deleted = 0;
+        while (true) {
+            Long chunkEnd = findChunkEnd.apply(afterId);
+            if (chunkEnd == null || chunkEnd <= afterId) {
+                break;
+            }
+            long rows = deleteChunk.applyAsLong(afterId, chunkEnd);
+            deleted += rows;
+            purged.increment(rows);
+            afterId = chunkEnd;
+
+            if (System.nanoTime() - deadline > 0) {
+                System.err.println("Retention for " + table + " stopped after " + deleted + " rows, resuming next run");
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    private void maintainPartitions(long cutoffSeconds) {
+        List<Map<String, Object>> partitions = cryptoPriceRepository.getPartitions();
+        if (partitions.isEmpty()) {
+            System.err.println("retention.crypto-prices.partitioned is set but crypto_prices has no partitions");
+            return;
+        }
+
+        long lastBound = -1;
+        for (Map<String, Object> partition : partitions) {
+            Long bound = parseBound(partition.get("bound"));
+            if (bound == null) {
+                continue;
+            }
+            lastBound = Math.max(lastBound, bound);
+            if (bound <= cutoffSeconds) {
+                String name = String.valueOf(partition.get("name"));
+                cryptoPriceRepository.dropPartition(name);
+                partitionsDropped.increment();
+                System.err.println("Dropped crypto_prices partition " + name);
+            }
+        }
+
+        LocalDate today = LocalDate.ofInstant(clock.instant(), ZoneOffset.UTC);
+        LocalDate day = lastBound >= 0
+            ? LocalDateTime.ofEpochSecond(lastBound, 0, ZoneOffset.UTC).toLocalDate()
+            : today;
+        LocalDate lastDay = today.plusDays(partitionsAheadDays);
+        for (; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            cryptoPriceRepository.addPartition(day.format(PARTITION_NAME),
+                day.plusDays(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC));
+        }
+    }
+
+    private void refreshRowCounts() {
+        try {
+            Long prices = cryptoPriceRepository.estimateRowCount();
+            Long sessions = sessionRepository.estimateRowCount();
+            priceRows.set(prices != null ? prices : 0);
+            sessionRows.set(sessions != null ? sessions : 0);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to read table sizes: " + e.getMessage());
+        }
+    }
+
+    private Timer timer(String table) {
+        return Timer.builder("retention.purge").tag("table", table).register(meterRegistry);
+    }
+
+    private boolean pause() {
+        if (chunkPauseMillis == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(chunkPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // MAXVALUE (the pmax partition) has no numeric bound
+    private static Long parseBound(Object bound) {
+        try {
+            return bound == null ? null : Long.parseLong(bound.toString().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
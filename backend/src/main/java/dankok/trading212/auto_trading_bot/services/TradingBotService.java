@@ -1,11 +1,20 @@
 package dankok.trading212.auto_trading_bot.services;
 
+import dankok.trading212.auto_trading_bot.cache.IndicatorCache;
 import dankok.trading212.auto_trading_bot.dtos.CoinAnalysis;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
 import dankok.trading212.auto_trading_bot.dtos.TradeResult;
 import dankok.trading212.auto_trading_bot.dtos.TradingAnalysisResult;
 import dankok.trading212.auto_trading_bot.enums.TradeActionEnum;
 import dankok.trading212.auto_trading_bot.enums.TradingModeEnum;
 import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.enums.UpstreamPriorityEnum;
+import dankok.trading212.auto_trading_bot.http.UpstreamPriority;
+import dankok.trading212.auto_trading_bot.indicators.IndicatorSet;
+import dankok.trading212.auto_trading_bot.jobs.JobProgress;
+import dankok.trading212.auto_trading_bot.strategies.SmaCrossoverStrategy;
+import dankok.trading212.auto_trading_bot.strategies.Strategy;
+import dankok.trading212.auto_trading_bot.strategies.StrategyRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -15,23 +24,39 @@ import java.util.List;
 @Service
 public class TradingBotService {
 
+    // Live analysis always feeds the strategy the last ANALYSIS_SAMPLES prices (or its warmup if
+    // longer) from the last ANALYSIS_DAYS, whether they come from the poller or from CoinGecko,
+    // so history-dependent indicators such as EMA and RSI see the same input either way
+    static final int ANALYSIS_DAYS = 30;
+    static final int ANALYSIS_SAMPLES = 200;
+
     private final CryptoDataService cryptoDataService;
     private final TradeExecutorService tradeExecutorService;
     private final BotStateService botStateService;
     private final BacktestService backtestService;
-    private static final int SHORT_TERM_PERIOD = 10;
-    private static final int LONG_TERM_PERIOD = 50;
+    private final MarketDataPoller marketDataPoller;
+    private final StrategyRegistry strategyRegistry;
+    private final IndicatorCache indicatorCache;
 
     @Autowired
     public TradingBotService(CryptoDataService cryptoDataService, TradeExecutorService tradeExecutorService,
-                           BotStateService botStateService, BacktestService backtestService) {
+                           BotStateService botStateService, BacktestService backtestService,
+                           MarketDataPoller marketDataPoller, StrategyRegistry strategyRegistry,
+                           IndicatorCache indicatorCache) {
         this.cryptoDataService = cryptoDataService;
         this.tradeExecutorService = tradeExecutorService;
         this.botStateService = botStateService;
         this.backtestService = backtestService;
+        this.marketDataPoller = marketDataPoller;
+        this.strategyRegistry = strategyRegistry;
+        this.indicatorCache = indicatorCache;
     }
 
     public TradingAnalysisResult executeTradingLogic(List<String> coinIds, TradingModeEnum mode) {
+        return executeTradingLogic(coinIds, mode, strategyRegistry.getDefault());
+    }
+
+    public TradingAnalysisResult executeTradingLogic(List<String> coinIds, TradingModeEnum mode, Strategy strategy) {
         if (!botStateService.isActive()) {
             String statusMessage = String.format("Bot is currently %s. Trading suspended.", 
                 botStateService.getCurrentStatus());
@@ -43,7 +68,7 @@ public class TradingBotService {
         int totalSignals = 0;
 
         for (String coinId : coinIds) {
-            CoinAnalysis analysis = analyzeCoin(coinId, mode);
+            CoinAnalysis analysis = analyzeCoin(coinId, mode, strategy);
             analyses.add(analysis);
 
             if (analysis.getTradeResult() != null) {
@@ -55,16 +80,22 @@ public class TradingBotService {
         }
 
         String modeStr = mode == TradingModeEnum.TRAINING ? "TRAINING" : "LIVE";
-        String summary = String.format("[%s MODE] Analyzed %d coins, generated %d trading signals, %d successful trades", 
-            modeStr, coinIds.size(), totalSignals, successfulTrades);
+        String summary = String.format("[%s MODE] Analyzed %d coins with %s, generated %d trading signals, %d successful trades", 
+            modeStr, coinIds.size(), strategy.getName(), totalSignals, successfulTrades);
 
         return new TradingAnalysisResult(analyses, summary, true);
     }
 
     public TradingAnalysisResult runTrainingOnHistoricalData(List<String> coinIds, int days) {
+        return runTrainingOnHistoricalData(coinIds, days, JobProgress.NONE);
+    }
+
+    public TradingAnalysisResult runTrainingOnHistoricalData(List<String> coinIds, int days, JobProgress progress) {
         List<CoinAnalysis> analyses = new ArrayList<>();
+        progress.setTotal(coinIds.size());
         
         for (String coinId : coinIds) {
+            progress.checkCancelled();
             var backtestResult = backtestService.runBacktest(coinId, days, 1000.0);
             
             CoinAnalysis analysis = new CoinAnalysis(
@@ -88,6 +119,7 @@ public class TradingBotService {
             );
             analysis.setTradeResult(summaryResult);
             analyses.add(analysis);
+            progress.advance(1);
         }
         
         String summary = String.format("[HISTORICAL TRAINING] Analyzed %d coins over %d days", 
@@ -95,23 +127,32 @@ public class TradingBotService {
         return new TradingAnalysisResult(analyses, summary, true);
     }
 
-    private CoinAnalysis analyzeCoin(String coinId, TradingModeEnum mode) {
-        List<Double> historicalPrices = cryptoDataService.fetchHistoricalPrices(coinId, LONG_TERM_PERIOD);
+    private CoinAnalysis analyzeCoin(String coinId, TradingModeEnum mode, Strategy strategy) {
+        int warmup = strategy.getWarmupPeriod();
+        int window = Math.max(warmup, ANALYSIS_SAMPLES);
+        PriceSeries historicalPrices = loadPrices(coinId, mode, window);
 
-        if (historicalPrices.size() < LONG_TERM_PERIOD) {
+        if (historicalPrices.size() < warmup) {
             return new CoinAnalysis(coinId, 0, 0, 0, TradingSignalEunum.NONE.name(),
-                    "Not enough historical data (need " + LONG_TERM_PERIOD + " days, got " + historicalPrices.size() + ")");
+                    "Not enough historical data (need " + warmup + " prices, got " + historicalPrices.size() + ")");
         }
 
-        double shortTermSMA = calculateSMA(historicalPrices, SHORT_TERM_PERIOD);
-        double longTermSMA = calculateSMA(historicalPrices, LONG_TERM_PERIOD);
-        double currentPrice = historicalPrices.get(historicalPrices.size() - 1);
+        IndicatorSet indicators = indicatorCache.indicators(coinId, historicalPrices, strategy);
+        double currentPrice = historicalPrices.lastPrice();
+        TradingSignalEunum strategySignal = strategy.onPrice(historicalPrices.lastTimestamp(), currentPrice, indicators);
+
+        double shortTermSMA = 0;
+        double longTermSMA = 0;
+        if (strategy instanceof SmaCrossoverStrategy crossover) {
+            shortTermSMA = crossover.shortAverage(indicators);
+            longTermSMA = crossover.longAverage(indicators);
+        }
 
         TradingSignalEunum signal;
         String status = "Analysis completed - " + mode.name() + " mode";
         CoinAnalysis analysis;
 
-        if (shortTermSMA > longTermSMA) {
+        if (strategySignal == TradingSignalEunum.BUY) {
             signal = TradingSignalEunum.BUY;
             analysis = new CoinAnalysis(coinId, currentPrice, shortTermSMA, longTermSMA, signal.name(), status);
             
@@ -127,7 +168,7 @@ public class TradingBotService {
                     "Trade signal generated but bot is on hold");
                 analysis.setTradeResult(heldResult);
             }
-        } else if (shortTermSMA < longTermSMA) {
+        } else if (strategySignal == TradingSignalEunum.SELL) {
             signal = TradingSignalEunum.SELL;
             analysis = new CoinAnalysis(coinId, currentPrice, shortTermSMA, longTermSMA, signal.name(), status);
             
@@ -152,15 +193,15 @@ public class TradingBotService {
         return analysis;
     }
 
-    private double calculateSMA(List<Double> prices, int period) {
-        int startIndex = prices.size() - period;
-        if (startIndex < 0) {
-            return 0.0;
+    private PriceSeries loadPrices(String coinId, TradingModeEnum mode, int window) {
+        PriceSeries polled = marketDataPoller.recentPrices(coinId, ANALYSIS_DAYS, window);
+        if (polled != null && polled.size() >= window) {
+            return polled;
         }
-        return prices.subList(startIndex, prices.size())
-                .stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+        UpstreamPriorityEnum priority = mode == TradingModeEnum.TRADING
+            ? UpstreamPriorityEnum.LIVE_TRADING
+            : UpstreamPriorityEnum.INTERACTIVE;
+        return UpstreamPriority.call(priority,
+            () -> cryptoDataService.fetchHistoricalSeries(coinId, ANALYSIS_DAYS)).last(window);
     }
 }
\ No newline at end of file
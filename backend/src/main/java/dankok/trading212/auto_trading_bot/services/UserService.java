@@ -125,24 +125,41 @@ public class UserService {
 
     public List<Map<String, Object>> getDetailedHoldings(int userId) {
         List<Map<String, Object>> holdings = userRepository.getUserHoldings(userId);
+        if (holdings.isEmpty()) {
+            return holdings;
+        }
+
+        String[] symbols = holdings.stream()
+            .map(holding -> (String) holding.get("symbol"))
+            .distinct()
+            .toArray(String[]::new);
+
+        Map<String, Double> prices;
+        Map<String, Long> priceAges = Map.of();
+        try {
+            CryptoPriceResponse priceResponse = cryptoDataService.fetchPrices(symbols);
+            prices = priceResponse.isSuccess() ? priceResponse.getPrices() : Map.of();
+            if (priceResponse.isStale() && priceResponse.getPriceAgeSeconds() != null) {
+                priceAges = priceResponse.getPriceAgeSeconds();
+            }
+        } catch (Exception e) {
+            prices = Map.of();
+        }
 
         for (Map<String, Object> holding : holdings) {
             String symbol = (String) holding.get("symbol");
             Double quantity = ((Number) holding.get("quantity")).doubleValue();
+            Double currentPrice = prices.get(symbol);
+
+            if (currentPrice != null) {
+                Double currentValue = quantity * currentPrice;
 
-            try {
-                CryptoPriceResponse priceResponse = cryptoDataService.fetchPrices(symbol);
-                if (priceResponse.isSuccess() && priceResponse.getPrices().containsKey(symbol)) {
-                    Double currentPrice = priceResponse.getPrices().get(symbol);
-                    Double currentValue = quantity * currentPrice;
-
-                    holding.put("current_price", currentPrice);
-                    holding.put("current_value", currentValue);
-                } else {
-                    holding.put("current_price", 0.0);
-                    holding.put("current_value", 0.0);
+                holding.put("current_price", currentPrice);
+                holding.put("current_value", currentValue);
+                if (priceAges.containsKey(symbol)) {
+                    holding.put("price_age_seconds", priceAges.get(symbol));
                 }
-            } catch (Exception e) {
+            } else {
                 holding.put("current_price", 0.0);
                 holding.put("current_value", 0.0);
             }
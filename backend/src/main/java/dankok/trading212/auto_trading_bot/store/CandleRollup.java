@@ -0,0 +1,118 @@
+package dankok.trading212.auto_trading_bot.store;
+
+import dankok.trading212.auto_trading_bot.dtos.Candle;
+import dankok.trading212.auto_trading_bot.dtos.PricePoint;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.enums.CandleIntervalEnum;
+import dankok.trading212.auto_trading_bot.repositories.CandleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains 1-minute, 1-hour and 1-day OHLC candles next to crypto_prices. Every batch of prices
+ * that is written is folded into one candle per coin and bucket in memory and then merged into
+ * the stored candles, so the tables stay current without ever rescanning raw prices. Batches may
+ * arrive out of order (backfills write old ranges); the merge keeps the earliest open and the
+ * latest close by sample time.
+ */
+@Component
+public class CandleRollup {
+
+    private final CandleRepository candleRepository;
+
+    private final Timer rollupTimer;
+    private final Counter failures;
+
+    @Autowired
+    public CandleRollup(CandleRepository candleRepository, MeterRegistry meterRegistry) {
+        this.candleRepository = candleRepository;
+        this.rollupTimer = Timer.builder("candles.rollup").register(meterRegistry);
+        this.failures = Counter.builder("candles.rollup.failures").register(meterRegistry);
+    }
+
+    /**
+     * Merges {@code points} into the candles of every interval. Failures are logged and counted
+     * rather than thrown, since the raw prices have already been stored.
+     */
+    public void rollup(List<PricePoint> points) {
+        if (points.isEmpty()) {
+            return;
+        }
+        rollupTimer.record(() -> {
+            for (CandleIntervalEnum interval : CandleIntervalEnum.values()) {
+                try {
+                    candleRepository.upsertCandles(interval, aggregate(points, interval));
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    System.err.println("Failed to roll up " + interval.getCode() + " candles: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    public List<Candle> candles(String coinId, CandleIntervalEnum interval, LocalDateTime from, LocalDateTime to) {
+        return candleRepository.getCandles(coinId, interval, from, to);
+    }
+
+    /**
+     * Closing prices of the candles in {@code [fromMillis, toMillis]}, each stamped with the time
+     * of the sample it was taken from.
+     */
+    public PriceSeries closeSeries(String coinId, CandleIntervalEnum interval, long fromMillis, long toMillis) {
+        List<Candle> candles = candleRepository.getCandles(coinId, interval,
+            interval.bucketStart(toLocal(fromMillis)), toLocal(toMillis));
+        long[] timestamps = new long[candles.size()];
+        double[] prices = new double[candles.size()];
+        int size = 0;
+        for (Candle candle : candles) {
+            long closeMillis = candle.getCloseTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            if (closeMillis < fromMillis || closeMillis > toMillis) {
+                continue;
+            }
+            timestamps[size] = closeMillis;
+            prices[size] = candle.getClose();
+            size++;
+        }
+        return PriceSeries.wrap(timestamps, prices, size);
+    }
+
+    static List<Candle> aggregate(List<PricePoint> points, CandleIntervalEnum interval) {
+        Map<String, Candle> buckets = new LinkedHashMap<>();
+        for (PricePoint point : points) {
+            LocalDateTime time = point.getTimestamp();
+            LocalDateTime bucketStart = interval.bucketStart(time);
+            double price = point.getPrice();
+            buckets.merge(point.getSymbol() + '|' + bucketStart,
+                new Candle(point.getSymbol(), bucketStart, price, price, price, price, time, time),
+                CandleRollup::combine);
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    private static Candle combine(Candle a, Candle b) {
+        boolean aOpens = !b.getOpenTime().isBefore(a.getOpenTime());
+        boolean bCloses = !b.getCloseTime().isBefore(a.getCloseTime());
+        return new Candle(a.getSymbol(), a.getBucketStart(),
+            aOpens ? a.getOpen() : b.getOpen(),
+            Math.max(a.getHigh(), b.getHigh()),
+            Math.min(a.getLow(), b.getLow()),
+            bCloses ? b.getClose() : a.getClose(),
+            aOpens ? a.getOpenTime() : b.getOpenTime(),
+            bCloses ? b.getCloseTime() : a.getCloseTime());
+    }
+
+    private static LocalDateTime toLocal(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
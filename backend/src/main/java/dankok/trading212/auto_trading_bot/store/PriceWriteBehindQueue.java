@@ -0,0 +1,175 @@
+package dankok.trading212.auto_trading_bot.store;
+
+import dankok.trading212.auto_trading_bot.dtos.PricePoint;
+import dankok.trading212.auto_trading_bot.repositories.CryptoPriceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers price points in a bounded queue and writes them to crypto_prices from a background
+ * thread, so request threads never wait for the database. A batch is flushed when it reaches
+ * {@code batch-size} points or when its oldest point has waited {@code flush-interval-millis}.
+ * When the queue is full, producers wait up to {@code offer-timeout-millis} and then drop the
+ * point. Whatever is still queued at shutdown is flushed before the application stops. Each
+ * written batch is also rolled up into the OHLC candle tables.
+ */
+@Component
+public class PriceWriteBehindQueue {
+
+    // Wakes an idle flusher on shutdown without interrupting a write that may be in progress
+    private static final PricePoint STOP = new PricePoint("", 0, null);
+
+    private final CryptoPriceRepository cryptoPriceRepository;
+    private final CandleRollup candleRollup;
+    private final BlockingQueue<PricePoint> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    @Autowired
+    public PriceWriteBehindQueue(CryptoPriceRepository cryptoPriceRepository, CandleRollup candleRollup,
+                                 @Value("${price-persistence.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${price-persistence.batch-size:500}") int batchSize,
+                                 @Value("${price-persistence.flush-interval-millis:1000}") long flushIntervalMillis,
+                                 @Value("${price-persistence.offer-timeout-millis:50}") long offerTimeoutMillis,
+                                 MeterRegistry meterRegistry) {
+        this.cryptoPriceRepository = cryptoPriceRepository;
+        this.candleRollup = candleRollup;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, offerTimeoutMillis));
+
+        this.written = Counter.builder("price.writebehind.points").tag("result", "written").register(meterRegistry);
+        this.dropped = Counter.builder("price.writebehind.points").tag("result", "dropped").register(meterRegistry);
+        this.failed = Counter.builder("price.writebehind.points").tag("result", "failed").register(meterRegistry);
+        this.flushTimer = Timer.builder("price.writebehind.flush").register(meterRegistry);
+        meterRegistry.gauge("price.writebehind.queue.depth", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "price-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Queues a point for persistence. Returns {@code false} if the queue stayed full for the
+     * whole offer timeout and the point was dropped.
+     */
+    public boolean enqueue(PricePoint point) {
+        try {
+            if (queue.offer(point, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = flusher;
+            flusher = null;
+        }
+        if (thread != null) {
+            queue.offer(STOP);
+            try {
+                thread.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drainAndFlush();
+    }
+
+    private void runFlusher() {
+        List<PricePoint> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PricePoint first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null || first == STOP) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    batch.remove(STOP);
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PricePoint next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null || next == STOP) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void drainAndFlush() {
+        List<PricePoint> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            batch.remove(STOP);
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PricePoint> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            flushTimer.record(() -> cryptoPriceRepository.savePrices(batch));
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            System.err.println("Failed to write " + batch.size() + " prices: " + e.getMessage());
+            return;
+        }
+        candleRollup.rollup(batch);
+    }
+}
@@ -0,0 +1,318 @@
+package dankok.trading212.auto_trading_bot.store;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Ticks of one coin, stored column-wise in two memory-mapped files: {@code <coin>.ts} starts
+ * with the committed tick count followed by the epoch-millis timestamps, {@code <coin>.px}
+ * holds the prices. The count is written after the samples, so a crash mid-append leaves the
+ * file at its last complete tick.
+ *
+ * <p>Ticks older than the newest stored one, such as backfilled history, cannot be appended in
+ * place. They are merged in by writing both columns afresh to {@code .merge} files and renaming
+ * those over the originals; a {@code <coin>.merged} marker written before the renames lets a
+ * reopen finish a merge that crashed half way. Views taken before a merge keep reading the old
+ * mapping.
+ */
+final class TickFile implements AutoCloseable {
+
+    static final int HEADER_LONGS = 1;
+    // A single mapping cannot exceed Integer.MAX_VALUE bytes
+    static final int MAX_TICKS = Integer.MAX_VALUE / Long.BYTES - HEADER_LONGS;
+
+    private static final String MERGE_SUFFIX = ".merge";
+
+    private final Path timestampPath;
+    private final Path pricePath;
+    private final Path mergeMarker;
+
+    // Only replaced by a merge, under the lock
+    private FileChannel timestampChannel;
+    private FileChannel priceChannel;
+
+    // Replaced together when the files grow; readers take a consistent pair from one Mapping
+    private volatile Mapping mapping;
+    private volatile int count;
+    // Odd while a merge swaps mapping and count, which unlike growth changes the stored positions
+    private volatile int merges;
+
+    TickFile(Path directory, String coinId, int initialCapacity) throws IOException {
+        this.timestampPath = directory.resolve(coinId + ".ts");
+        this.pricePath = directory.resolve(coinId + ".px");
+        this.mergeMarker = directory.resolve(coinId + ".merged");
+        recoverMerge();
+        this.timestampChannel = open(timestampPath);
+        this.priceChannel = open(pricePath);
+
+        long existingTicks = Math.max(0, timestampChannel.size() / Long.BYTES - HEADER_LONGS);
+        int capacity = (int) Math.min(MAX_TICKS, Math.max(initialCapacity, existingTicks));
+        this.mapping = map(capacity);
+
+        long committed = mapping.timestamps.get(0);
+        long available = Math.min(existingTicks, priceChannel.size() / Double.BYTES);
+        this.count = (int) Math.max(0, Math.min(committed, available));
+    }
+
+    int size() {
+        return count;
+    }
+
+    long lastTimestamp() {
+        while (true) {
+            int version = merges;
+            int size = count;
+            long last = size == 0 ? Long.MIN_VALUE : mapping.timestamps.get(HEADER_LONGS + size - 1);
+            if ((version & 1) == 0 && version == merges) {
+                return last;
+            }
+        }
+    }
+
+    /**
+     * Stores the ticks whose timestamps are not stored yet and returns how many were written.
+     * Ticks newer than the last stored one are appended in place; older ones make the whole file
+     * be rewritten by a merge.
+     */
+    synchronized int append(long[] timestamps, double[] prices, int from, int to) throws IOException {
+        if (hasOlderUnstoredTicks(timestamps, from, to)) {
+            return merge(timestamps, prices, from, to);
+        }
+        int size = count;
+        long last = lastTimestamp();
+        Mapping current = mapping;
+        int written = 0;
+
+        for (int i = from; i < to; i++) {
+            if (timestamps[i] <= last) {
+                continue;
+            }
+            if (size == current.capacity) {
+                current = grow(size);
+            }
+            current.timestamps.put(HEADER_LONGS + size, timestamps[i]);
+            current.prices.put(size, prices[i]);
+            last = timestamps[i];
+            size++;
+            written++;
+        }
+
+        if (written > 0) {
+            current.timestamps.put(0, size);
+            count = size;
+        }
+        return written;
+    }
+
+    TickView range(long fromMillis, long toMillis) {
+        while (true) {
+            int version = merges;
+            TickView view = range(count, mapping, fromMillis, toMillis);
+            if ((version & 1) == 0 && version == merges) {
+                return view;
+            }
+        }
+    }
+
+    private static TickView range(int size, Mapping current, long fromMillis, long toMillis) {
+        int start = lowerBound(current.timestamps, size, fromMillis);
+        int end = toMillis == Long.MAX_VALUE ? size : lowerBound(current.timestamps, size, toMillis + 1);
+        if (start >= end) {
+            return TickView.empty();
+        }
+        return new TickView(
+            current.timestamps.slice(HEADER_LONGS + start, end - start),
+            current.prices.slice(start, end - start)
+        );
+    }
+
+    synchronized void force() {
+        mapping.timestampBytes.force();
+        mapping.priceBytes.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        timestampChannel.close();
+        priceChannel.close();
+    }
+
+    private Mapping grow(int size) throws IOException {
+        if (size >= MAX_TICKS) {
+            throw new IOException("Tick file is full (" + MAX_TICKS + " ticks)");
+        }
+        Mapping grown = map((int) Math.min(MAX_TICKS, (long) size * 2));
+        mapping = grown;
+        return grown;
+    }
+
+    private Mapping map(int capacity) throws IOException {
+        return map(timestampChannel, priceChannel, capacity);
+    }
+
+    private static Mapping map(FileChannel timestampChannel, FileChannel priceChannel, int capacity)
+            throws IOException {
+        MappedByteBuffer timestampBytes = timestampChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+            (long) (capacity + HEADER_LONGS) * Long.BYTES);
+        MappedByteBuffer priceBytes = priceChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+            (long) capacity * Double.BYTES);
+        timestampBytes.order(ByteOrder.LITTLE_ENDIAN);
+        priceBytes.order(ByteOrder.LITTLE_ENDIAN);
+        return new Mapping(capacity, timestampBytes, priceBytes);
+    }
+
+    // Live ticks are always newest, so this is only true for history that is not stored yet
+    private boolean hasOlderUnstoredTicks(long[] timestamps, int from, int to) {
+        int size = count;
+        long last = lastTimestamp();
+        LongBuffer stored = mapping.timestamps;
+        for (int i = from; i < to; i++) {
+            if (timestamps[i] < last) {
+                int index = lowerBound(stored, size, timestamps[i]);
+                if (stored.get(HEADER_LONGS + index) != timestamps[i]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Merges the ticks into the stored ones in timestamp order. A stored tick wins over a new one
+     * with the same timestamp, and new ticks that are not newer than the new tick before them are
+     * skipped, as in a plain append.
+     */
+    private int merge(long[] timestamps, double[] prices, int from, int to) throws IOException {
+        int size = count;
+        Mapping current = mapping;
+        long upperBound = (long) size + (to - from);
+        if (upperBound > MAX_TICKS) {
+            throw new IOException("Tick file is full (" + MAX_TICKS + " ticks)");
+        }
+
+        Path timestampMerge = mergePath(timestampPath);
+        Path priceMerge = mergePath(pricePath);
+        FileChannel mergedTimestamps = FileChannel.open(timestampMerge, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel mergedPrices = FileChannel.open(priceMerge, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Mapping target;
+        int merged = 0;
+        try {
+            target = map(mergedTimestamps, mergedPrices, (int) Math.max(current.capacity, upperBound));
+            long last = Long.MIN_VALUE;
+            int stored = 0;
+            int next = from;
+            while (stored < size || next < to) {
+                boolean takeNew = next < to
+                    && (stored == size || timestamps[next] < current.timestamps.get(HEADER_LONGS + stored));
+                long timestamp;
+                double price;
+                if (takeNew) {
+                    timestamp = timestamps[next];
+                    price = prices[next++];
+                } else {
+                    timestamp = current.timestamps.get(HEADER_LONGS + stored);
+                    price = current.prices.get(stored++);
+                }
+                if (timestamp <= last) {
+                    continue;
+                }
+                target.timestamps.put(HEADER_LONGS + merged, timestamp);
+                target.prices.put(merged, price);
+                last = timestamp;
+                merged++;
+            }
+            target.timestamps.put(0, merged);
+            target.timestampBytes.force();
+            target.priceBytes.force();
+
+            // From here on a reopen completes the merge instead of discarding it
+            Files.createFile(mergeMarker);
+            Files.move(priceMerge, pricePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(timestampMerge, timestampPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(mergeMarker);
+        } catch (IOException | RuntimeException e) {
+            mergedTimestamps.close();
+            mergedPrices.close();
+            throw e;
+        }
+
+        timestampChannel.close();
+        priceChannel.close();
+        timestampChannel = mergedTimestamps;
+        priceChannel = mergedPrices;
+        merges++;
+        mapping = target;
+        count = merged;
+        merges++;
+        return merged - size;
+    }
+
+    // Finishes a merge whose marker was written before the process stopped, or drops its leftovers
+    private void recoverMerge() throws IOException {
+        Path timestampMerge = mergePath(timestampPath);
+        Path priceMerge = mergePath(pricePath);
+        if (Files.exists(mergeMarker)) {
+            if (Files.exists(priceMerge)) {
+                Files.move(priceMerge, pricePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (Files.exists(timestampMerge)) {
+                Files.move(timestampMerge, timestampPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.delete(mergeMarker);
+        } else {
+            Files.deleteIfExists(timestampMerge);
+            Files.deleteIfExists(priceMerge);
+        }
+    }
+
+    private static Path mergePath(Path path) {
+        return path.resolveSibling(path.getFileName() + MERGE_SUFFIX);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    // First index in [0, size) whose timestamp is >= value, or size if there is none
+    private static int lowerBound(LongBuffer timestamps, int size, long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps.get(HEADER_LONGS + mid) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static final class Mapping {
+        private final int capacity;
+        private final MappedByteBuffer timestampBytes;
+        private final MappedByteBuffer priceBytes;
+        private final LongBuffer timestamps;
+        private final DoubleBuffer prices;
+
+        Mapping(int capacity, MappedByteBuffer timestampBytes, MappedByteBuffer priceBytes) {
+            this.capacity = capacity;
+            this.timestampBytes = timestampBytes;
+            this.priceBytes = priceBytes;
+            this.timestamps = timestampBytes.asLongBuffer();
+            this.prices = priceBytes.asDoubleBuffer();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package dankok.trading212.auto_trading_bot.store;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Local price history, one pair of memory-mapped column files per coin kept in timestamp order.
+ * Live ticks are appended; backfilled history older than them is merged in by rewriting the
+ * coin's files. Range reads return {@link TickView}s over the mapped files, so scanning years of
+ * data does not go through the database or the heap.
+ */
+@Component
+public class TickStore {
+
+    private static final Pattern COIN_ID = Pattern.compile("[a-z0-9][a-z0-9._-]*");
+
+    private final Path directory;
+    private final int initialCapacity;
+    private final boolean enabled;
+    private final Map<String, TickFile> files = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TickStore(@Value("${tick-store.directory:./data/ticks}") String directory,
+                     @Value("${tick-store.initial-capacity:65536}") int initialCapacity,
+                     @Value("${tick-store.enabled:true}") boolean enabled) {
+        this(Paths.get(directory), initialCapacity, enabled);
+    }
+
+    TickStore(Path directory, int initialCapacity, boolean enabled) {
+        this.directory = directory;
+        this.initialCapacity = Math.max(1, initialCapacity);
+        this.enabled = enabled && createDirectory(directory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void append(String coinId, long timestamp, double price) {
+        append(coinId, PriceSeries.wrap(new long[] {timestamp}, new double[] {price}));
+    }
+
+    /**
+     * Stores the samples of {@code series} whose timestamps the coin does not have yet. Samples
+     * newer than the last stored tick are appended; older ones are merged in, which rewrites the
+     * coin's files and so costs time proportional to everything stored.
+     *
+     * @return the number of ticks written
+     */
+    public int append(String coinId, PriceSeries series) {
+        if (!enabled || series == null || series.isEmpty()) {
+            return 0;
+        }
+        try {
+            return fileFor(coinId).append(series.toTimestampArray(), series.toPriceArray(), 0, series.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append ticks for " + coinId, e);
+        }
+    }
+
+    /**
+     * Ticks stamped within {@code [fromMillis, toMillis]}; empty if the coin has none.
+     */
+    public TickView range(String coinId, long fromMillis, long toMillis) {
+        if (!enabled) {
+            return TickView.empty();
+        }
+        TickFile file = existingFile(coinId);
+        return file == null ? TickView.empty() : file.range(fromMillis, toMillis);
+    }
+
+    public int size(String coinId) {
+        TickFile file = enabled ? existingFile(coinId) : null;
+        return file == null ? 0 : file.size();
+    }
+
+    /**
+     * Timestamp of the coin's newest tick, or {@code null} if none is stored.
+     */
+    public Long lastTimestamp(String coinId) {
+        TickFile file = enabled ? existingFile(coinId) : null;
+        return file == null || file.size() == 0 ? null : file.lastTimestamp();
+    }
+
+    public void flush() {
+        files.values().forEach(TickFile::force);
+    }
+
+    @PreDestroy
+    public void close() {
+        for (TickFile file : files.values()) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close tick file: " + e.getMessage());
+            }
+        }
+        files.clear();
+    }
+
+    private TickFile existingFile(String coinId) {
+        TickFile file = files.get(coinId);
+        if (file != null || !Files.exists(directory.resolve(checkCoinId(coinId) + ".ts"))) {
+            return file;
+        }
+        return fileFor(coinId);
+    }
+
+    private TickFile fileFor(String coinId) {
+        return files.computeIfAbsent(checkCoinId(coinId), id -> {
+            try {
+                return new TickFile(directory, id, initialCapacity);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open tick file for " + id, e);
+            }
+        });
+    }
+
+    // Coin ids become file names, so anything that could escape the directory is rejected
+    private static String checkCoinId(String coinId) {
+        if (coinId == null || !COIN_ID.matcher(coinId).matches()) {
+            throw new IllegalArgumentException("Invalid coin id: " + coinId);
+        }
+        return coinId;
+    }
+
+    private static boolean createDirectory(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Tick store disabled, cannot create " + directory + ": " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package dankok.trading212.auto_trading_bot.store;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Read-only window over ticks of a {@link TickStore} file. The view reads straight from the
+ * memory-mapped columns; nothing is copied until {@link #toPriceSeries()} is called.
+ */
+public final class TickView {
+
+    private static final TickView EMPTY = new TickView(LongBuffer.allocate(0), DoubleBuffer.allocate(0));
+
+    private final LongBuffer timestamps;
+    private final DoubleBuffer prices;
+
+    TickView(LongBuffer timestamps, DoubleBuffer prices) {
+        this.timestamps = timestamps;
+        this.prices = prices;
+    }
+
+    static TickView empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return timestamps.limit();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public long timestampAt(int index) {
+        return timestamps.get(index);
+    }
+
+    public double priceAt(int index) {
+        return prices.get(index);
+    }
+
+    public long firstTimestamp() {
+        return timestamps.get(0);
+    }
+
+    public long lastTimestamp() {
+        return timestamps.get(size() - 1);
+    }
+
+    /**
+     * Copies the ticks onto the heap, e.g. to hand them to code that works on {@link PriceSeries}.
+     */
+    public PriceSeries toPriceSeries() {
+        long[] ts = new long[size()];
+        double[] px = new double[size()];
+        timestamps.get(0, ts);
+        prices.get(0, px);
+        return PriceSeries.wrap(ts, px);
+    }
+}
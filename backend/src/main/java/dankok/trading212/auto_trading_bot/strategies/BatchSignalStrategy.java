@@ -0,0 +1,20 @@
+package dankok.trading212.auto_trading_bot.strategies;
+
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.BatchKernels;
+
+/**
+ * A strategy that can also compute its signal at every sample of a whole price array in one go,
+ * for backtests. The result must match feeding the prices to {@link #onPrice} one at a time, up
+ * to the rounding of the batch kernels.
+ */
+public interface BatchSignalStrategy extends Strategy {
+
+    TradingSignalEunum[] signals(double[] prices, BatchKernels kernels);
+
+    /**
+     * Same as {@link #signals(double[], BatchKernels)}, but computed in {@code buffers}, whose
+     * length must match the prices. Returns the buffers' signal array.
+     */
+    TradingSignalEunum[] signals(double[] prices, BatchKernels kernels, SignalBuffers buffers);
+}
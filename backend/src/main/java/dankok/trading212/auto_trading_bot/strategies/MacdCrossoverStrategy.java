@@ -0,0 +1,90 @@
+package dankok.trading212.auto_trading_bot.strategies;
+
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.IndicatorSet;
+import dankok.trading212.auto_trading_bot.indicators.Macd;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Buys while the MACD line is above its signal line and sells while it is below.
+ */
+@Component
+public class MacdCrossoverStrategy implements TunableStrategy {
+
+    public static final String NAME = "macd-crossover";
+
+    private final int fastPeriod;
+    private final int slowPeriod;
+    private final int signalPeriod;
+
+    public MacdCrossoverStrategy() {
+        this(12, 26, 9);
+    }
+
+    public MacdCrossoverStrategy(int fastPeriod, int slowPeriod, int signalPeriod) {
+        if (fastPeriod <= 0 || signalPeriod <= 0) {
+            throw new IllegalArgumentException("Periods must be positive");
+        }
+        if (fastPeriod >= slowPeriod) {
+            throw new IllegalArgumentException("Fast period must be shorter than slow period");
+        }
+        this.fastPeriod = fastPeriod;
+        this.slowPeriod = slowPeriod;
+        this.signalPeriod = signalPeriod;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getKey() {
+        return NAME + "(" + fastPeriod + "," + slowPeriod + "," + signalPeriod + ")";
+    }
+
+    @Override
+    public Map<String, Integer> getParameters() {
+        Map<String, Integer> parameters = new LinkedHashMap<>();
+        parameters.put("fastPeriod", fastPeriod);
+        parameters.put("slowPeriod", slowPeriod);
+        parameters.put("signalPeriod", signalPeriod);
+        return parameters;
+    }
+
+    @Override
+    public MacdCrossoverStrategy withParameters(Map<String, Integer> parameters) {
+        TunableStrategy.checkKnown(this, parameters.keySet());
+        return new MacdCrossoverStrategy(TunableStrategy.parameter(parameters, "fastPeriod", fastPeriod),
+            TunableStrategy.parameter(parameters, "slowPeriod", slowPeriod),
+            TunableStrategy.parameter(parameters, "signalPeriod", signalPeriod));
+    }
+
+    @Override
+    public int getWarmupPeriod() {
+        return slowPeriod + signalPeriod - 1;
+    }
+
+    @Override
+    public void registerIndicators(IndicatorSet indicators) {
+        indicators.macd(fastPeriod, slowPeriod, signalPeriod);
+    }
+
+    @Override
+    public TradingSignalEunum onPrice(long timestamp, double price, IndicatorSet indicators) {
+        Macd macd = indicators.macd(fastPeriod, slowPeriod, signalPeriod);
+        if (!macd.isReady()) {
+            return TradingSignalEunum.NONE;
+        }
+        if (macd.histogram() > 0) {
+            return TradingSignalEunum.BUY;
+        }
+        if (macd.histogram() < 0) {
+            return TradingSignalEunum.SELL;
+        }
+        return TradingSignalEunum.HOLD;
+    }
+}
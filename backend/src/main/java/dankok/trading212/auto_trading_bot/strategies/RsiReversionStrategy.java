@@ -0,0 +1,92 @@
+package dankok.trading212.auto_trading_bot.strategies;
+
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.IndicatorSet;
+import dankok.trading212.auto_trading_bot.indicators.Rsi;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Buys when the RSI shows the coin oversold and sells when it shows it overbought.
+ */
+@Component
+public class RsiReversionStrategy implements TunableStrategy {
+
+    public static final String NAME = "rsi-reversion";
+
+    private final int period;
+    private final double oversold;
+    private final double overbought;
+
+    public RsiReversionStrategy() {
+        this(14, 30, 70);
+    }
+
+    public RsiReversionStrategy(int period, double oversold, double overbought) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        if (oversold >= overbought) {
+            throw new IllegalArgumentException("Oversold level must be below overbought level");
+        }
+        this.period = period;
+        this.oversold = oversold;
+        this.overbought = overbought;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getKey() {
+        return NAME + "(" + period + "," + oversold + "," + overbought + ")";
+    }
+
+    @Override
+    public Map<String, Integer> getParameters() {
+        Map<String, Integer> parameters = new LinkedHashMap<>();
+        parameters.put("period", period);
+        parameters.put("oversold", (int) oversold);
+        parameters.put("overbought", (int) overbought);
+        return parameters;
+    }
+
+    @Override
+    public RsiReversionStrategy withParameters(Map<String, Integer> parameters) {
+        TunableStrategy.checkKnown(this, parameters.keySet());
+        Integer oversoldLevel = parameters.get("oversold");
+        Integer overboughtLevel = parameters.get("overbought");
+        return new RsiReversionStrategy(TunableStrategy.parameter(parameters, "period", period),
+            oversoldLevel == null ? oversold : oversoldLevel,
+            overboughtLevel == null ? overbought : overboughtLevel);
+    }
+
+    @Override
+    public int getWarmupPeriod() {
+        return period + 1;
+    }
+
+    @Override
+    public void registerIndicators(IndicatorSet indicators) {
+        indicators.rsi(period);
+    }
+
+    @Override
+    public TradingSignalEunum onPrice(long timestamp, double price, IndicatorSet indicators) {
+        Rsi rsi = indicators.rsi(period);
+        if (!rsi.isReady()) {
+            return TradingSignalEunum.NONE;
+        }
+        if (rsi.value() < oversold) {
+            return TradingSignalEunum.BUY;
+        }
+        if (rsi.value() > overbought) {
+            return TradingSignalEunum.SELL;
+        }
+        return TradingSignalEunum.HOLD;
+    }
+}
@@ -0,0 +1,44 @@
+package dankok.trading212.auto_trading_bot.strategies;
+
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.IndicatorSet;
+
+/**
+ * Scratch space for computing signals over many price arrays of one length, such as Monte Carlo
+ * paths, without allocating per array. Each computation overwrites the previous one's output, so
+ * a set of buffers belongs to a single thread.
+ */
+public final class SignalBuffers {
+
+    private final double[] firstSeries;
+    private final double[] secondSeries;
+    private final TradingSignalEunum[] signals;
+    private Strategy indicatorStrategy;
+    private IndicatorSet indicators;
+
+    public SignalBuffers(int length) {
+        this.firstSeries = new double[length];
+        this.secondSeries = new double[length];
+        this.signals = new TradingSignalEunum[length];
+    }
+
+    public int getLength() { return signals.length; }
+    public double[] getFirstSeries() { return firstSeries; }
+    public double[] getSecondSeries() { return secondSeries; }
+    public TradingSignalEunum[] getSignals() { return signals; }
+
+    /**
+     * Indicators registered by {@code strategy}, reset to their initial state. They are created
+     * on first use and reused for as long as the same strategy asks for them.
+     */
+    IndicatorSet indicatorsFor(Strategy strategy) {
+        if (strategy != indicatorStrategy) {
+            indicators = new IndicatorSet();
+            strategy.registerIndicators(indicators);
+            indicatorStrategy = strategy;
+        } else {
+            indicators.reset();
+        }
+        return indicators;
+    }
+}
@@ -0,0 +1,119 @@
+package dankok.trading212.auto_trading_bot.strategies;
+
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.BatchKernels;
+import dankok.trading212.auto_trading_bot.indicators.IndicatorSet;
+import dankok.trading212.auto_trading_bot.indicators.Sma;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Buys while the short simple moving average is above the long one and sells while it is below.
+ */
+@Component
+public class SmaCrossoverStrategy implements BatchSignalStrategy, TunableStrategy {
+
+    public static final String NAME = "sma-crossover";
+
+    private final int shortPeriod;
+    private final int longPeriod;
+
+    public SmaCrossoverStrategy() {
+        this(10, 50);
+    }
+
+    public SmaCrossoverStrategy(int shortPeriod, int longPeriod) {
+        if (shortPeriod <= 0) {
+            throw new IllegalArgumentException("Periods must be positive");
+        }
+        if (shortPeriod >= longPeriod) {
+            throw new IllegalArgumentException("Short period must be shorter than long period");
+        }
+        this.shortPeriod = shortPeriod;
+        this.longPeriod = longPeriod;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getKey() {
+        return NAME + "(" + shortPeriod + "," + longPeriod + ")";
+    }
+
+    @Override
+    public Map<String, Integer> getParameters() {
+        Map<String, Integer> parameters = new LinkedHashMap<>();
+        parameters.put("shortPeriod", shortPeriod);
+        parameters.put("longPeriod", longPeriod);
+        return parameters;
+    }
+
+    @Override
+    public SmaCrossoverStrategy withParameters(Map<String, Integer> parameters) {
+        TunableStrategy.checkKnown(this, parameters.keySet());
+        return new SmaCrossoverStrategy(TunableStrategy.parameter(parameters, "shortPeriod", shortPeriod),
+            TunableStrategy.parameter(parameters, "longPeriod", longPeriod));
+    }
+
+    @Override
+    public int getWarmupPeriod() {
+        return longPeriod;
+    }
+
+    @Override
+    public void registerIndicators(IndicatorSet indicators) {
+        indicators.sma(shortPeriod);
+        indicators.sma(longPeriod);
+    }
+
+    @Override
+    public TradingSignalEunum onPrice(long timestamp, double price, IndicatorSet indicators) {
+        Sma shortAverage = indicators.sma(shortPeriod);
+        Sma longAverage = indicators.sma(longPeriod);
+        if (!longAverage.isReady()) {
+            return TradingSignalEunum.NONE;
+        }
+        return signal(shortAverage.value(), longAverage.value());
+    }
+
+    @Override
+    public TradingSignalEunum[] signals(double[] prices, BatchKernels kernels) {
+        return signals(prices, kernels, new SignalBuffers(prices.length));
+    }
+
+    @Override
+    public TradingSignalEunum[] signals(double[] prices, BatchKernels kernels, SignalBuffers buffers) {
+        double[] shortAverages = buffers.getFirstSeries();
+        double[] longAverages = buffers.getSecondSeries();
+        kernels.sma(prices, shortPeriod, shortAverages);
+        kernels.sma(prices, longPeriod, longAverages);
+        TradingSignalEunum[] signals = buffers.getSignals();
+        for (int i = 0; i < prices.length; i++) {
+            signals[i] = i < longPeriod - 1 ? TradingSignalEunum.NONE : signal(shortAverages[i], longAverages[i]);
+        }
+        return signals;
+    }
+
+    public double shortAverage(IndicatorSet indicators) {
+        return indicators.sma(shortPeriod).value();
+    }
+
+    public double longAverage(IndicatorSet indicators) {
+        return indicators.sma(longPeriod).value();
+    }
+
+    private static TradingSignalEunum signal(double shortAverage, double longAverage) {
+        if (shortAverage > longAverage) {
+            return TradingSignalEunum.BUY;
+        }
+        if (shortAverage < longAverage) {
+            return TradingSignalEunum.SELL;
+        }
+        return TradingSignalEunum.HOLD;
+    }
+}
@@ -0,0 +1,40 @@
+package dankok.trading212.auto_trading_bot.strategies;
+
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.IndicatorSet;
+
+/**
+ * A trading rule over one coin's price stream. Strategies keep no per-coin state of their own:
+ * everything they compute lives in the coin's {@link IndicatorSet}, which the caller owns and
+ * feeds, so one strategy instance serves every coin and strategies on the same coin share
+ * indicators.
+ */
+public interface Strategy {
+
+    /**
+     * Name used to select the strategy on requests.
+     */
+    String getName();
+
+    /**
+     * Identifies the strategy together with its parameters, for caching what it computes.
+     */
+    default String getKey() {
+        return getName();
+    }
+
+    /**
+     * Number of prices needed before the strategy emits anything but {@code NONE}.
+     */
+    int getWarmupPeriod();
+
+    /**
+     * Registers the indicators the strategy reads. Called before the first price.
+     */
+    void registerIndicators(IndicatorSet indicators);
+
+    /**
+     * Called after {@code indicators} has been updated with {@code price}.
+     */
+    TradingSignalEunum onPrice(long timestamp, double price, IndicatorSet indicators);
+}
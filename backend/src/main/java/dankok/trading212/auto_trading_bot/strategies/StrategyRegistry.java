@@ -0,0 +1,54 @@
+package dankok.trading212.auto_trading_bot.strategies;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Looks up strategies by name. Every {@link Strategy} bean is registered; requests that do not
+ * name a strategy get the SMA crossover the bot has always used.
+ */
+@Component
+public class StrategyRegistry {
+
+    private final Map<String, Strategy> byName = new TreeMap<>();
+
+    @Autowired
+    public StrategyRegistry(List<Strategy> strategies) {
+        for (Strategy strategy : strategies) {
+            if (byName.putIfAbsent(strategy.getName(), strategy) != null) {
+                throw new IllegalStateException("Duplicate strategy name: " + strategy.getName());
+            }
+        }
+        if (!byName.containsKey(SmaCrossoverStrategy.NAME)) {
+            byName.put(SmaCrossoverStrategy.NAME, new SmaCrossoverStrategy());
+        }
+    }
+
+    /**
+     * The named strategy, or the default one when {@code name} is blank.
+     *
+     * @throws IllegalArgumentException if no strategy has that name
+     */
+    public Strategy get(String name) {
+        if (name == null || name.isBlank()) {
+            return getDefault();
+        }
+        Strategy strategy = byName.get(name.trim().toLowerCase());
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown strategy '" + name + "', available: " + getNames());
+        }
+        return strategy;
+    }
+
+    public Strategy getDefault() {
+        return byName.get(SmaCrossoverStrategy.NAME);
+    }
+
+    public List<String> getNames() {
+        return List.copyOf(byName.keySet());
+    }
+}
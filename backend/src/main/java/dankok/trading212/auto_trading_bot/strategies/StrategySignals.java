@@ -0,0 +1,53 @@
+package dankok.trading212.auto_trading_bot.strategies;
+
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.BatchKernels;
+import dankok.trading212.auto_trading_bot.indicators.IndicatorSet;
+
+/**
+ * Runs a strategy over a whole series at once.
+ */
+public final class StrategySignals {
+
+    private StrategySignals() {
+    }
+
+    /**
+     * The signal {@code strategy} emits at every sample. Strategies that support it are computed
+     * with the batch kernels; the others are fed one sample at a time. The arrays are only read.
+     */
+    public static TradingSignalEunum[] compute(Strategy strategy, long[] timestamps, double[] prices,
+                                               BatchKernels kernels) {
+        if (strategy instanceof BatchSignalStrategy batchStrategy) {
+            return batchStrategy.signals(prices, kernels);
+        }
+        IndicatorSet indicators = new IndicatorSet();
+        strategy.registerIndicators(indicators);
+        return stream(strategy, timestamps, prices, indicators, new TradingSignalEunum[prices.length]);
+    }
+
+    /**
+     * Same as {@link #compute(Strategy, long[], double[], BatchKernels)}, but into {@code buffers}
+     * instead of fresh arrays and indicators. Returns the buffers' signal array, which the next
+     * computation with the same buffers overwrites.
+     */
+    public static TradingSignalEunum[] compute(Strategy strategy, long[] timestamps, double[] prices,
+                                               BatchKernels kernels, SignalBuffers buffers) {
+        if (prices.length != buffers.getLength()) {
+            throw new IllegalArgumentException("Buffers must have the length of the prices");
+        }
+        if (strategy instanceof BatchSignalStrategy batchStrategy) {
+            return batchStrategy.signals(prices, kernels, buffers);
+        }
+        return stream(strategy, timestamps, prices, buffers.indicatorsFor(strategy), buffers.getSignals());
+    }
+
+    private static TradingSignalEunum[] stream(Strategy strategy, long[] timestamps, double[] prices,
+                                               IndicatorSet indicators, TradingSignalEunum[] signals) {
+        for (int i = 0; i < prices.length; i++) {
+            indicators.update(prices[i]);
+            signals[i] = strategy.onPrice(timestamps[i], prices[i], indicators);
+        }
+        return signals;
+    }
+}
@@ -0,0 +1,43 @@
+package dankok.trading212.auto_trading_bot.strategies;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A strategy with integer parameters that can be tuned, for example by a parameter sweep.
+ */
+public interface TunableStrategy extends Strategy {
+
+    /**
+     * Current parameter values by name, in a stable order.
+     */
+    Map<String, Integer> getParameters();
+
+    /**
+     * A copy of this strategy with the given parameters replaced; parameters that are not given
+     * keep their current values.
+     *
+     * @throws IllegalArgumentException if a parameter is unknown or the combination is invalid
+     */
+    TunableStrategy withParameters(Map<String, Integer> parameters);
+
+    /**
+     * {@code parameters[name]}, or {@code current} if it is not given.
+     */
+    static int parameter(Map<String, Integer> parameters, String name, int current) {
+        Integer value = parameters.get(name);
+        return value == null ? current : value;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code names} has a parameter {@code strategy} does not have
+     */
+    static void checkKnown(TunableStrategy strategy, Collection<String> names) {
+        for (String name : names) {
+            if (!strategy.getParameters().containsKey(name)) {
+                throw new IllegalArgumentException("Unknown parameter '" + name + "' for " + strategy.getName()
+                    + ", available: " + strategy.getParameters().keySet());
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package dankok.trading212.auto_trading_bot.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dankok.trading212.auto_trading_bot.enums.StreamFormatEnum;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes backtest events to a response stream as they happen, either as NDJSON lines of
+ * {@code {"type": ..., "data": ...}} or as Server-Sent Events named after the type. Events are
+ * serialized straight into the stream through one generator and only reach the client when
+ * {@link #flush()} is called, so callers decide how often to pay for a network write.
+ */
+public final class BacktestEventWriter {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+    private final StreamFormatEnum format;
+
+    public BacktestEventWriter(OutputStream out, ObjectMapper objectMapper, StreamFormatEnum format) {
+        try {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.generator.setRootValueSeparator(null);
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.format = format;
+    }
+
+    /**
+     * @throws UncheckedIOException if the client has gone away
+     */
+    public void write(String type, Object data) {
+        try {
+            if (format == StreamFormatEnum.SSE) {
+                generator.writeRaw("event: " + type + "\ndata: ");
+                writer.writeValue(generator, data);
+                generator.writeRaw("\n\n");
+            } else {
+                generator.writeStartObject();
+                generator.writeStringField("type", type);
+                generator.writeFieldName("data");
+                writer.writeValue(generator, data);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @throws UncheckedIOException if the client has gone away
+     */
+    public void flush() {
+        try {
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
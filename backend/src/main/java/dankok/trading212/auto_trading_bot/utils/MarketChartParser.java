@@ -0,0 +1,120 @@
+package dankok.trading212.auto_trading_bot.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Token-level reader for CoinGecko market_chart responses. Each requested series is read
+ * straight into primitive timestamp/value buffers; series that were not requested are
+ * skipped without being materialized.
+ */
+public final class MarketChartParser {
+
+    public enum Series {
+        PRICES("prices"),
+        MARKET_CAPS("market_caps"),
+        TOTAL_VOLUMES("total_volumes");
+
+        private final String fieldName;
+
+        Series(String fieldName) {
+            this.fieldName = fieldName;
+        }
+
+        static Series fromFieldName(String fieldName) {
+            for (Series series : values()) {
+                if (series.fieldName.equals(fieldName)) {
+                    return series;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int INITIAL_CAPACITY = 512;
+
+    private MarketChartParser() {}
+
+    /**
+     * Reads only the {@code prices} series. Returns {@code null} if the response has none.
+     */
+    public static PriceSeries parsePrices(InputStream body) throws IOException {
+        return parse(body, EnumSet.of(Series.PRICES)).get(Series.PRICES);
+    }
+
+    public static Map<Series, PriceSeries> parse(InputStream body, Set<Series> wanted) throws IOException {
+        Map<Series, PriceSeries> result = new EnumMap<>(Series.class);
+
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return result;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Series series = Series.fromFieldName(parser.currentName());
+                JsonToken value = parser.nextToken();
+
+                if (series != null && wanted.contains(series) && value == JsonToken.START_ARRAY) {
+                    result.put(series, readPairs(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return result;
+    }
+
+    private static PriceSeries readPairs(JsonParser parser) throws IOException {
+        long[] timestamps = new long[INITIAL_CAPACITY];
+        double[] values = new double[INITIAL_CAPACITY];
+        int size = 0;
+
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+
+            JsonToken timestampToken = parser.nextToken();
+            if (timestampToken == JsonToken.END_ARRAY) {
+                continue;
+            }
+            long timestamp = timestampToken.isNumeric() ? parser.getValueAsLong() : 0;
+            parser.skipChildren();
+
+            JsonToken valueToken = parser.nextToken();
+            if (valueToken == JsonToken.END_ARRAY) {
+                continue;
+            }
+            double value = valueToken.isNumeric() ? parser.getDoubleValue() : 0;
+            parser.skipChildren();
+
+            if (timestampToken.isNumeric() && valueToken.isNumeric()) {
+                if (size == timestamps.length) {
+                    timestamps = Arrays.copyOf(timestamps, size * 2);
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                timestamps[size] = timestamp;
+                values[size] = value;
+                size++;
+            }
+
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                parser.skipChildren();
+            }
+        }
+
+        return PriceSeries.wrap(timestamps, values, size);
+    }
+}
@@ -72,6 +72,48 @@ CREATE TABLE IF NOT EXISTS crypto_prices (
     CONSTRAINT chk_price_positive CHECK (price > 0)
 );
 
+-- Optional: partition crypto_prices by day so retention can drop whole days instead of deleting
+-- rows (set retention.crypto-prices.partitioned=true). Partition columns must be part of every
+-- unique key, hence the wider primary key. RetentionService adds the daily partitions ahead.
+-- ALTER TABLE crypto_prices DROP PRIMARY KEY, ADD PRIMARY KEY (id, timestamp),
+--     PARTITION BY RANGE (UNIX_TIMESTAMP(timestamp)) (PARTITION pmax VALUES LESS THAN MAXVALUE);
+
+CREATE TABLE IF NOT EXISTS price_candles_1m (
+    symbol VARCHAR(20) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    open DECIMAL(20, 10) NOT NULL,
+    high DECIMAL(20, 10) NOT NULL,
+    low DECIMAL(20, 10) NOT NULL,
+    close DECIMAL(20, 10) NOT NULL,
+    open_time DATETIME NOT NULL,
+    close_time DATETIME NOT NULL,
+    PRIMARY KEY (symbol, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS price_candles_1h (
+    symbol VARCHAR(20) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    open DECIMAL(20, 10) NOT NULL,
+    high DECIMAL(20, 10) NOT NULL,
+    low DECIMAL(20, 10) NOT NULL,
+    close DECIMAL(20, 10) NOT NULL,
+    open_time DATETIME NOT NULL,
+    close_time DATETIME NOT NULL,
+    PRIMARY KEY (symbol, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS price_candles_1d (
+    symbol VARCHAR(20) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    open DECIMAL(20, 10) NOT NULL,
+    high DECIMAL(20, 10) NOT NULL,
+    low DECIMAL(20, 10) NOT NULL,
+    close DECIMAL(20, 10) NOT NULL,
+    open_time DATETIME NOT NULL,
+    close_time DATETIME NOT NULL,
+    PRIMARY KEY (symbol, bucket_start)
+);
+
 -- demo data
 -- danko2003 -> password username -> demo
 INSERT INTO users (id, balance, username, email, password_hash, first_name, last_name, is_active) 
@@ -0,0 +1,48 @@
+package dankok.trading212.auto_trading_bot;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+
+import java.util.Random;
+
+/**
+ * Synthetic price fixtures shared by the tests: reproducible random walks starting at 40,000.
+ */
+public final class TestSeries {
+
+    public static final long HOUR_MILLIS = 3_600_000L;
+
+    private TestSeries() {
+    }
+
+    /**
+     * A walk whose every step moves the price by up to 2% either way.
+     */
+    public static double[] randomWalk(int size, long seed) {
+        return randomWalk(size, seed, 0.04);
+    }
+
+    /**
+     * A walk whose every step moves the price by up to {@code range / 2} either way.
+     */
+    public static double[] randomWalk(int size, long seed, double range) {
+        Random random = new Random(seed);
+        double[] prices = new double[size];
+        double price = 40_000;
+        for (int i = 0; i < size; i++) {
+            price *= 1 + (random.nextDouble() - 0.5) * range;
+            prices[i] = price;
+        }
+        return prices;
+    }
+
+    /**
+     * {@code prices} as hourly samples starting at the epoch.
+     */
+    public static PriceSeries hourly(double[] prices) {
+        long[] timestamps = new long[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            timestamps[i] = i * HOUR_MILLIS;
+        }
+        return PriceSeries.wrap(timestamps, prices);
+    }
+}
@@ -0,0 +1,189 @@
+package dankok.trading212.auto_trading_bot.backtest;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.dtos.TradeResult;
+import dankok.trading212.auto_trading_bot.enums.TradeActionEnum;
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.ScalarBatchKernels;
+import dankok.trading212.auto_trading_bot.jobs.JobProgress;
+import dankok.trading212.auto_trading_bot.strategies.SmaCrossoverStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static dankok.trading212.auto_trading_bot.TestSeries.hourly;
+import static dankok.trading212.auto_trading_bot.TestSeries.randomWalk;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BacktestEngineTest {
+
+    // Hourly bars for a year are under 10k; this leaves room for sweeps over many coins and
+    // parameter sets even on a slow single-core CI runner
+    private static final double TARGET_BARS_PER_SECOND = 20_000_000;
+
+    private static final TradingSignalEunum BUY = TradingSignalEunum.BUY;
+    private static final TradingSignalEunum SELL = TradingSignalEunum.SELL;
+    private static final TradingSignalEunum HOLD = TradingSignalEunum.HOLD;
+
+    @Test
+    void run_ShouldBuyWhenFlatAndSellWholePosition() {
+        PriceSeries series = PriceSeries.wrap(new long[] {0, 1, 2, 3, 4, 5},
+            new double[] {90, 100, 110, 120, 130, 50});
+        TradingSignalEunum[] signals = {BUY, BUY, BUY, SELL, SELL, BUY};
+        BacktestEngine engine = new BacktestEngine(150, series.size());
+
+        engine.run(series, signals, 1);
+
+        TradeLog trades = engine.getTrades();
+        assertEquals(3, trades.size());
+        assertEquals(TradeActionEnum.BUY, trades.actionAt(0));
+        assertEquals(1, trades.barAt(0));
+        assertEquals(1.0, trades.quantityAt(0));
+        assertEquals(TradeActionEnum.SELL, trades.actionAt(1));
+        assertEquals(120.0, trades.valueAt(1));
+        assertEquals(TradeActionEnum.BUY, trades.actionAt(2));
+        assertEquals(2.0, trades.quantityAt(2));
+        assertEquals(70.0, engine.getBalance());
+        assertEquals(170.0, engine.finalValue());
+        assertEquals(5, engine.getBars());
+    }
+
+    @Test
+    void reset_ShouldAllowReuseAndTrackMaxDrawdownPerRun() {
+        PriceSeries series = PriceSeries.wrap(new long[] {0, 1, 2, 3}, new double[] {100, 200, 50, 100});
+        TradingSignalEunum[] signals = {BUY, HOLD, HOLD, SELL};
+        BacktestEngine engine = new BacktestEngine(100, series.size());
+
+        engine.run(series, signals, 0);
+        // Equity goes 100, 200, 50, 100
+        assertEquals(0.75, engine.getMaxDrawdown(), 1e-12);
+        assertEquals(2, engine.getTradeCount());
+
+        engine.reset();
+        assertEquals(0, engine.getTrades().size());
+        assertEquals(0, engine.getMaxDrawdown());
+        assertEquals(100.0, engine.finalValue());
+
+        engine.run(series, new TradingSignalEunum[] {HOLD, HOLD, HOLD, HOLD}, 0);
+        assertEquals(0, engine.getTradeCount());
+        assertEquals(0, engine.getMaxDrawdown());
+        assertEquals(100.0, engine.finalValue());
+    }
+
+    @Test
+    void run_WithLittleCash_ShouldNotBuy() {
+        PriceSeries series = PriceSeries.wrap(new long[] {0, 1}, new double[] {100, 110});
+        BacktestEngine engine = new BacktestEngine(9.99, series.size());
+
+        engine.run(series, new TradingSignalEunum[] {BUY, HOLD}, 0);
+
+        assertEquals(0, engine.getTrades().size());
+        assertEquals(9.99, engine.finalValue());
+    }
+
+    @Test
+    void tradeLog_ShouldGrowPastExpectedTradesAndBuildResults() {
+        int size = 1_000;
+        long[] timestamps = new long[size];
+        double[] prices = new double[size];
+        TradingSignalEunum[] signals = new TradingSignalEunum[size];
+        for (int i = 0; i < size; i++) {
+            timestamps[i] = i;
+            prices[i] = 100;
+            signals[i] = i % 2 == 0 ? BUY : SELL;
+        }
+        BacktestEngine engine = new BacktestEngine(1_000, 10);
+
+        engine.run(PriceSeries.wrap(timestamps, prices), signals, 0);
+
+        List<TradeResult> results = engine.getTrades().toTradeResults();
+        assertEquals(size, results.size());
+        assertEquals("BUY", results.get(998).getAction());
+        assertEquals("Backtest sell executed", results.get(999).getMessage());
+        assertEquals(1_000.0, engine.finalValue(), 1e-9);
+    }
+
+    @Test
+    void streamingEngine_ShouldReportTradesAndEquityWithoutKeepingThem() {
+        PriceSeries series = hourly(randomWalk(1_000, 7));
+        Random random = new Random(11);
+        TradingSignalEunum[] signals = new TradingSignalEunum[series.size()];
+        for (int i = 0; i < signals.length; i++) {
+            signals[i] = random.nextInt(3) == 0 ? (random.nextBoolean() ? BUY : SELL) : HOLD;
+        }
+        BacktestEngine logging = new BacktestEngine(1000, series.size());
+        logging.run(series, signals, 10);
+
+        List<Integer> tradeBars = new ArrayList<>();
+        List<Integer> equityBars = new ArrayList<>();
+        BacktestEngine streaming = new BacktestEngine(1000, new BacktestListener() {
+            @Override
+            public void onTrade(int bar, TradeActionEnum action, double quantity, double price, double value,
+                                double balance) {
+                assertEquals(logging.getTrades().actionAt(tradeBars.size()), action);
+                assertEquals(logging.getTrades().valueAt(tradeBars.size()), value);
+                tradeBars.add(bar);
+            }
+
+            @Override
+            public void onEquity(int bar, double price, double equity) {
+                assertEquals(series.priceAt(bar), price);
+                equityBars.add(bar);
+            }
+        }, 100);
+        streaming.run(series, signals, 10);
+
+        assertEquals(logging.getTrades().size(), tradeBars.size());
+        for (int i = 0; i < tradeBars.size(); i++) {
+            assertEquals(logging.getTrades().barAt(i), tradeBars.get(i));
+        }
+        assertEquals(0, streaming.getTrades().size());
+        assertEquals(logging.getTradeCount(), streaming.getTradeCount());
+        assertEquals(logging.finalValue(), streaming.finalValue());
+        assertEquals(List.of(109, 209, 309, 409, 509, 609, 709, 809, 909, 999), equityBars);
+    }
+
+    @Test
+    void run_WithProgress_ShouldAdvancePerBarAndStopOnceCancelled() {
+        PriceSeries series = hourly(randomWalk(10_000, 3));
+        TradingSignalEunum[] signals = new TradingSignalEunum[series.size()];
+        Arrays.fill(signals, HOLD);
+        JobProgress progress = mock(JobProgress.class);
+        AtomicLong advanced = new AtomicLong();
+        doAnswer(invocation -> advanced.addAndGet(invocation.getArgument(0))).when(progress).advance(anyLong());
+        when(progress.isCancelled()).thenReturn(false, false, true);
+        doCallRealMethod().when(progress).checkCancelled();
+
+        BacktestEngine engine = new BacktestEngine(1_000, series.size());
+        assertThrows(CancellationException.class, () -> engine.run(series, signals, 100, progress));
+
+        assertEquals(advanced.get(), engine.getBars());
+        assertTrue(engine.getBars() > 0 && engine.getBars() < series.size() - 100, "bars " + engine.getBars());
+    }
+
+    @Test
+    void run_ShouldMeetThroughputTarget() {
+        PriceSeries series = hourly(randomWalk(2_000_000, 7));
+        SmaCrossoverStrategy strategy = new SmaCrossoverStrategy(10, 50);
+        TradingSignalEunum[] signals = strategy.signals(series.toPriceArray(), new ScalarBatchKernels());
+
+        double best = 0;
+        for (int round = 0; round < 10; round++) {
+            BacktestEngine engine = new BacktestEngine(1_000, series.size());
+            long start = System.nanoTime();
+            engine.run(series, signals, strategy.getWarmupPeriod());
+            long elapsed = System.nanoTime() - start;
+            assertEquals(series.size() - strategy.getWarmupPeriod(), engine.getBars());
+            best = Math.max(best, engine.getBars() * 1e9 / elapsed);
+        }
+
+        assertTrue(best >= TARGET_BARS_PER_SECOND,
+            String.format("%.0f bars/s is below the %.0f bars/s target", best, TARGET_BARS_PER_SECOND));
+    }
+}
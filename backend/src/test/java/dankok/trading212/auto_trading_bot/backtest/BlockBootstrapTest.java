@@ -0,0 +1,53 @@
+package dankok.trading212.auto_trading_bot.backtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockBootstrapTest {
+
+    @Test
+    void sample_ShouldBuildPathFromBlocksOfHistoricalRatios() {
+        // Ratios 2, 3, 4, ..., 10 are all distinct, so each step of a path identifies its source bar
+        double[] prices = new double[10];
+        prices[0] = 1;
+        for (int i = 1; i < prices.length; i++) {
+            prices[i] = prices[i - 1] * (i + 1);
+        }
+        BlockBootstrap bootstrap = new BlockBootstrap(prices, 3);
+        double[] path = new double[bootstrap.size()];
+
+        bootstrap.sample(new SplittableRandom(5), path);
+
+        assertEquals(1.0, path[0]);
+        for (int block = 1; block < path.length; block += 3) {
+            long first = Math.round(path[block] / path[block - 1]);
+            assertTrue(first >= 2 && first <= 8, "block must start where three ratios remain");
+            for (int i = block + 1; i < Math.min(path.length, block + 3); i++) {
+                assertEquals(first + (i - block), Math.round(path[i] / path[i - 1]));
+            }
+        }
+    }
+
+    @Test
+    void sample_WithSameSeed_ShouldRepeatPath() {
+        double[] prices = {100, 101, 99, 102, 98, 103, 97, 104};
+        BlockBootstrap bootstrap = new BlockBootstrap(prices, 2);
+        double[] first = new double[bootstrap.size()];
+        double[] second = new double[bootstrap.size()];
+
+        bootstrap.sample(new SplittableRandom(42), first);
+        bootstrap.sample(new SplittableRandom(42), second);
+
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    void constructor_ShouldRejectBlocksLongerThanHistory() {
+        assertThrows(IllegalArgumentException.class, () -> new BlockBootstrap(new double[] {1, 2, 3}, 3));
+        assertThrows(IllegalArgumentException.class, () -> new BlockBootstrap(new double[] {1, 2, 3}, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BlockBootstrap(new double[] {1}, 1));
+    }
+}
@@ -0,0 +1,168 @@
+package dankok.trading212.auto_trading_bot.cache;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoricalSeriesCacheTest {
+
+    private static final long DAY = HistoricalSeriesCache.DAY_MILLIS;
+    private static final long START = 1_700_000_000_000L;
+
+    private MutableClock clock;
+    private HistoricalSeriesCache cache;
+    private FakeLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START + 365 * DAY);
+        cache = new HistoricalSeriesCache(Duration.ofSeconds(60), 10, new SimpleMeterRegistry(), clock);
+        loader = new FakeLoader();
+    }
+
+    @Test
+    void get_RepeatedWithinRefreshInterval_ShouldDownloadOnce() {
+        for (int i = 0; i < 20; i++) {
+            PriceSeries points = cache.get("bitcoin", 365, loader);
+            assertEquals(366, points.size());
+        }
+
+        assertEquals(1, loader.fullLoads.get());
+        assertEquals(0, loader.rangeLoads.get());
+    }
+
+    @Test
+    void get_AfterRefreshInterval_ShouldAppendDeltaOnly() {
+        cache.get("bitcoin", 365, loader);
+
+        for (int i = 1; i <= 20; i++) {
+            clock.advance(DAY);
+            PriceSeries points = cache.get("bitcoin", 365, loader);
+            assertEquals(clock.millis(), points.toTimestampArray()[points.size() - 1]);
+        }
+
+        assertEquals(1, loader.fullLoads.get());
+        assertEquals(20, loader.rangeLoads.get());
+        PriceSeries points = cache.get("bitcoin", 365, loader);
+        long[] timestamps = points.toTimestampArray();
+        for (int i = 1; i < timestamps.length; i++) {
+            assertTrue(timestamps[i] > timestamps[i - 1]);
+        }
+        assertTrue(timestamps[timestamps.length - 1] - timestamps[0] <= 365 * DAY);
+    }
+
+    @Test
+    void get_WithSmallerWindow_ShouldServeFromCachedSeries() {
+        cache.get("bitcoin", 365, loader);
+
+        PriceSeries points = cache.get("bitcoin", 100, loader);
+
+        assertEquals(101, points.size());
+        assertEquals(1, loader.fullLoads.get());
+    }
+
+    @Test
+    void get_WithLargerWindowThanCached_ShouldDownloadAgain() {
+        cache.get("bitcoin", 100, loader);
+
+        cache.get("bitcoin", 365, loader);
+
+        assertEquals(2, loader.fullLoads.get());
+    }
+
+    @Test
+    void get_WhenDeltaFails_ShouldServeCachedPriceSeries() {
+        cache.get("bitcoin", 365, loader);
+        clock.advance(DAY);
+        loader.failRange = true;
+
+        PriceSeries points = cache.get("bitcoin", 365, loader);
+
+        assertEquals(366, points.size());
+    }
+
+    @Test
+    void get_WithNoUpstreamData_ShouldReturnNull() {
+        loader.empty = true;
+
+        assertNull(cache.get("bitcoin", 365, loader));
+    }
+
+    private class FakeLoader implements HistoricalSeriesCache.SeriesLoader {
+        final AtomicInteger fullLoads = new AtomicInteger();
+        final AtomicInteger rangeLoads = new AtomicInteger();
+        boolean failRange;
+        boolean empty;
+
+        @Override
+        public PriceSeries loadDays(String coinId, int days) {
+            fullLoads.incrementAndGet();
+            if (empty) {
+                return null;
+            }
+            return daily(clock.millis() - days * DAY, clock.millis());
+        }
+
+        @Override
+        public PriceSeries loadRange(String coinId, long fromMillis, long toMillis) {
+            rangeLoads.incrementAndGet();
+            if (failRange) {
+                throw new IllegalStateException("upstream down");
+            }
+            return daily(fromMillis, toMillis);
+        }
+
+        private PriceSeries daily(long from, long to) {
+            int count = (int) ((to - from) / DAY) + 1;
+            long[] timestamps = new long[count];
+            double[] prices = new double[count];
+            for (int i = 0; i < count; i++) {
+                timestamps[i] = to - (count - 1 - i) * DAY;
+                prices[i] = 100 + i;
+            }
+            return PriceSeries.wrap(timestamps, prices);
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
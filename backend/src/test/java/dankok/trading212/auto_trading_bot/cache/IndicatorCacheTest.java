@@ -0,0 +1,117 @@
+package dankok.trading212.auto_trading_bot.cache;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.BatchKernels;
+import dankok.trading212.auto_trading_bot.indicators.IndicatorSet;
+import dankok.trading212.auto_trading_bot.indicators.ScalarBatchKernels;
+import dankok.trading212.auto_trading_bot.strategies.SmaCrossoverStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndicatorCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private IndicatorCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new IndicatorCache(100, new ScalarBatchKernels(), meterRegistry);
+    }
+
+    private static PriceSeries rising(int size, long firstTimestamp) {
+        long[] timestamps = new long[size];
+        double[] prices = new double[size];
+        for (int i = 0; i < size; i++) {
+            timestamps[i] = firstTimestamp + i;
+            prices[i] = 100 + i;
+        }
+        return PriceSeries.wrap(timestamps, prices);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("indicator.cache.requests", "result", result).count();
+    }
+
+    @Test
+    void indicators_ShouldComputeEachIndicatorOnceAndShareAcrossStrategies() {
+        PriceSeries series = rising(60, 0);
+
+        IndicatorSet first = cache.indicators("bitcoin", series, new SmaCrossoverStrategy(10, 50));
+        IndicatorSet second = cache.indicators("bitcoin", series, new SmaCrossoverStrategy(20, 50));
+
+        assertEquals(154.5, first.sma(10).value());
+        assertEquals(134.5, first.sma(50).value());
+        assertSame(first.sma(50), second.sma(50));
+        assertEquals(3.0, requests("miss"));
+        assertEquals(1.0, requests("hit"));
+        assertThrows(IllegalStateException.class, () -> first.update(1));
+    }
+
+    @Test
+    void indicators_WithNewSample_ShouldNotReuseOldVersion() {
+        SmaCrossoverStrategy strategy = new SmaCrossoverStrategy(10, 50);
+        IndicatorSet before = cache.indicators("bitcoin", rising(60, 0), strategy);
+        IndicatorSet after = cache.indicators("bitcoin", rising(61, 0), strategy);
+
+        assertNotSame(before.sma(10), after.sma(10));
+        assertEquals(155.5, after.sma(10).value());
+    }
+
+    @Test
+    void signals_ShouldBeComputedOnceForConcurrentRequests() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        SmaCrossoverStrategy strategy = new SmaCrossoverStrategy(10, 50) {
+            @Override
+            public TradingSignalEunum[] signals(double[] prices, BatchKernels kernels) {
+                computations.incrementAndGet();
+                return super.signals(prices, kernels);
+            }
+        };
+        PriceSeries series = rising(5_000, 0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<TradingSignalEunum[]>> requests = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                requests.add(() -> cache.signals("bitcoin", series, strategy));
+            }
+            TradingSignalEunum[] first = null;
+            for (Future<TradingSignalEunum[]> result : executor.invokeAll(requests)) {
+                TradingSignalEunum[] signals = result.get();
+                if (first == null) {
+                    first = signals;
+                }
+                assertSame(first, signals);
+            }
+            assertEquals(TradingSignalEunum.NONE, first[48]);
+            assertEquals(TradingSignalEunum.BUY, first[49]);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void invalidate_ShouldDropOnlyThatCoin() {
+        SmaCrossoverStrategy strategy = new SmaCrossoverStrategy(10, 50);
+        cache.signals("bitcoin", rising(60, 0), strategy);
+        cache.signals("ethereum", rising(60, 0), strategy);
+
+        cache.invalidate("bitcoin");
+
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,136 @@
+package dankok.trading212.auto_trading_bot.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong clock;
+    private PriceCache priceCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong();
+        priceCache = new PriceCache(Duration.ofSeconds(30), 2, meterRegistry, clock::get);
+    }
+
+    @Test
+    void getAll_WithFreshEntry_ShouldNotCallLoader() {
+        AtomicInteger loads = new AtomicInteger();
+
+        priceCache.getAll(List.of("bitcoin"), ids -> { loads.incrementAndGet(); return Map.of("bitcoin", 50000.0); });
+        Map<String, Double> result = priceCache.getAll(List.of("bitcoin"), ids -> { loads.incrementAndGet(); return Map.of(); });
+
+        assertEquals(50000.0, result.get("bitcoin"));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("price.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("price.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void getAll_WithExpiredEntry_ShouldReload() {
+        priceCache.getAll(List.of("bitcoin"), ids -> Map.of("bitcoin", 50000.0));
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        Map<String, Double> result = priceCache.getAll(List.of("bitcoin"), ids -> Map.of("bitcoin", 51000.0));
+
+        assertEquals(51000.0, result.get("bitcoin"));
+    }
+
+    @Test
+    void getAll_ShouldOnlyLoadMissingCoins() {
+        priceCache.put("bitcoin", 50000.0);
+
+        Map<String, Double> result = priceCache.getAll(List.of("bitcoin", "ethereum"), ids -> {
+            assertEquals(1, ids.size());
+            assertTrue(ids.contains("ethereum"));
+            return Map.of("ethereum", 3000.0);
+        });
+
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void put_OverCapacity_ShouldEvictLeastRecentlyUsed() {
+        priceCache.put("bitcoin", 50000.0);
+        priceCache.put("ethereum", 3000.0);
+        priceCache.getAll(List.of("bitcoin"), ids -> Map.of());
+        priceCache.put("solana", 150.0);
+
+        assertEquals(2, priceCache.size());
+        Map<String, Double> result = priceCache.getAll(List.of("bitcoin", "ethereum"), ids -> Map.of());
+        assertTrue(result.containsKey("bitcoin"));
+        assertFalse(result.containsKey("ethereum"));
+        assertEquals(1.0, meterRegistry.get("price.cache.evictions").counter().count());
+    }
+
+    @Test
+    void getAll_WithLoaderFailure_ShouldPropagateAndNotCache() {
+        assertThrows(IllegalStateException.class,
+            () -> priceCache.getAll(List.of("bitcoin"), ids -> { throw new IllegalStateException("boom"); }));
+
+        Map<String, Double> result = priceCache.getAll(List.of("bitcoin"), ids -> Map.of("bitcoin", 50000.0));
+        assertEquals(50000.0, result.get("bitcoin"));
+    }
+
+    @Test
+    void getAll_WithConcurrentMisses_ShouldLoadOnce() throws Exception {
+        int threads = 16;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            Future<Map<String, Double>> first = executor.submit(() -> priceCache.getAll(List.of("bitcoin"), ids -> {
+                loads.incrementAndGet();
+                loaderEntered.countDown();
+                await(release);
+                return Map.of("bitcoin", 50000.0);
+            }));
+            assertTrue(loaderEntered.await(5, TimeUnit.SECONDS));
+
+            List<Future<Map<String, Double>>> followers = new ArrayList<>();
+            for (int i = 1; i < threads; i++) {
+                followers.add(executor.submit(() -> priceCache.getAll(List.of("bitcoin"), ids -> {
+                    loads.incrementAndGet();
+                    return Map.of("bitcoin", 1.0);
+                })));
+            }
+            release.countDown();
+
+            assertEquals(50000.0, first.get(5, TimeUnit.SECONDS).get("bitcoin"));
+            for (Future<Map<String, Double>> follower : followers) {
+                assertEquals(50000.0, follower.get(5, TimeUnit.SECONDS).get("bitcoin"));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package dankok.trading212.auto_trading_bot.cache;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceRingBufferTest {
+
+    private static PriceSeries series(long... timestamps) {
+        double[] prices = new double[timestamps.length];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = timestamps[i] / 10.0;
+        }
+        return PriceSeries.wrap(timestamps, prices);
+    }
+
+    @Test
+    void merge_ShouldKeepOnlyNewestSamplesWhenFull() {
+        PriceRingBuffer buffer = new PriceRingBuffer(3);
+
+        buffer.merge(series(10, 20), 0);
+        buffer.merge(series(10, 20, 30, 40), 0);
+
+        assertEquals(3, buffer.size());
+        assertArrayEquals(new long[] {20, 30, 40}, buffer.snapshot().toTimestampArray());
+        assertArrayEquals(new double[] {3.0, 4.0}, buffer.snapshot(2).toPriceArray());
+    }
+
+    @Test
+    void merge_ShouldReplaceSupersededLiveSample() {
+        PriceRingBuffer buffer = new PriceRingBuffer(10);
+
+        buffer.merge(series(100, 200, 250), 0);
+        buffer.merge(series(100, 200, 300, 340), 0);
+
+        assertArrayEquals(new long[] {100, 200, 300, 340}, buffer.snapshot().toTimestampArray());
+    }
+
+    @Test
+    void merge_ShouldIgnoreSamplesAlreadyBuffered() {
+        PriceRingBuffer buffer = new PriceRingBuffer(10);
+
+        buffer.merge(series(100, 200), 0);
+
+        assertEquals(0, buffer.merge(series(100, 200), 5));
+        assertEquals(2, buffer.size());
+        assertEquals(5, buffer.getUpdatedAtMillis());
+    }
+
+    @Test
+    void snapshot_ShouldNeverReturnTornWindowWhileWriting() throws Exception {
+        PriceRingBuffer buffer = new PriceRingBuffer(64);
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService readers = Executors.newFixedThreadPool(3);
+
+        try {
+            Future<?>[] results = new Future<?>[3];
+            for (int r = 0; r < results.length; r++) {
+                results[r] = readers.submit(() -> {
+                    while (!done.get()) {
+                        long[] timestamps = buffer.snapshot(32).toTimestampArray();
+                        for (int i = 1; i < timestamps.length; i++) {
+                            assertEquals(timestamps[i - 1] + 1, timestamps[i]);
+                        }
+                    }
+                });
+            }
+
+            for (long t = 1; t <= 20_000; t++) {
+                buffer.merge(series(t), t);
+            }
+            done.set(true);
+
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            done.set(true);
+            readers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package dankok.trading212.auto_trading_bot.dtos;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSeriesTest {
+
+    private final PriceSeries series = PriceSeries.wrap(
+        new long[] {1000L, 2000L, 3000L, 4000L, 5000L},
+        new double[] {10.0, 11.0, 12.0, 13.0, 14.0}
+    );
+
+    @Test
+    void slice_ShouldReturnViewOverRange() {
+        PriceSeries slice = series.slice(1, 4);
+
+        assertEquals(3, slice.size());
+        assertEquals(2000L, slice.firstTimestamp());
+        assertEquals(13.0, slice.lastPrice());
+        assertEquals(12.0, slice.slice(1, 2).priceAt(0));
+    }
+
+    @Test
+    void last_ShouldReturnTail() {
+        assertArrayEquals(new double[] {13.0, 14.0}, series.last(2).toPriceArray());
+        assertEquals(5, series.last(10).size());
+    }
+
+    @Test
+    void since_ShouldStartAtFirstSampleNotBeforeTimestamp() {
+        assertEquals(3000L, series.since(2500L).firstTimestamp());
+        assertEquals(3000L, series.since(3000L).firstTimestamp());
+        assertTrue(series.since(6000L).isEmpty());
+        assertEquals(3000L, series.slice(1, 5).since(0L).slice(1, 2).firstTimestamp());
+    }
+
+    @Test
+    void accessOutsideView_ShouldThrow() {
+        PriceSeries slice = series.slice(1, 3);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> slice.priceAt(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> series.slice(3, 6));
+    }
+
+    @Test
+    void fromPrices_ShouldStampSamplesWithIndex() {
+        PriceSeries fromList = PriceSeries.fromPrices(List.of(1.0, 2.0, 3.0));
+
+        assertEquals(List.of(1.0, 2.0, 3.0), fromList.asList());
+        assertEquals(2L, fromList.lastTimestamp());
+    }
+}
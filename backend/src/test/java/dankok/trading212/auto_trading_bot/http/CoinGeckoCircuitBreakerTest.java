@@ -0,0 +1,119 @@
+package dankok.trading212.auto_trading_bot.http;
+
+import dankok.trading212.auto_trading_bot.enums.CircuitStateEnum;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoinGeckoCircuitBreakerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private CoinGeckoCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        breaker = new CoinGeckoCircuitBreaker(3, Duration.ofSeconds(30), meterRegistry, nanos::get);
+    }
+
+    @Test
+    void call_AfterConsecutiveFailures_ShouldOpenAndRejectWithoutCalling() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ResourceAccessException.class, () -> breaker.call(this::timeout));
+        }
+
+        assertEquals(CircuitStateEnum.OPEN, breaker.getState());
+        assertThrows(CircuitOpenException.class, () -> breaker.call(this::timeout));
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.counter("coingecko.circuit.rejected").count());
+        assertEquals(Duration.ofSeconds(30), breaker.remainingOpen());
+    }
+
+    @Test
+    void call_WithSuccessBetweenFailures_ShouldStayClosed() {
+        assertThrows(ResourceAccessException.class, () -> breaker.call(this::timeout));
+        assertThrows(ResourceAccessException.class, () -> breaker.call(this::timeout));
+        assertEquals("ok", breaker.call(() -> "ok"));
+        assertThrows(ResourceAccessException.class, () -> breaker.call(this::timeout));
+
+        assertEquals(CircuitStateEnum.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void call_WithClientErrors_ShouldNotCountAsFailures() {
+        for (int i = 0; i < 5; i++) {
+            assertThrows(HttpClientErrorException.class, () -> breaker.call(() -> {
+                throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+            }));
+        }
+
+        assertEquals(CircuitStateEnum.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void call_WithLocalThrottling_ShouldNotCountAsFailureOrSuccess() {
+        assertThrows(ResourceAccessException.class, () -> breaker.call(this::timeout));
+        assertThrows(ResourceAccessException.class, () -> breaker.call(this::timeout));
+        for (int i = 0; i < 5; i++) {
+            assertThrows(UpstreamThrottledException.class, () -> breaker.call(() -> {
+                throw new UpstreamThrottledException("Interrupted while waiting for a CoinGecko request slot");
+            }));
+        }
+        assertEquals(CircuitStateEnum.CLOSED, breaker.getState());
+
+        // The earlier failures still count towards the threshold
+        assertThrows(ResourceAccessException.class, () -> breaker.call(this::timeout));
+        assertEquals(CircuitStateEnum.OPEN, breaker.getState());
+
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertThrows(UpstreamThrottledException.class, () -> breaker.call(() -> {
+            throw new UpstreamThrottledException("Timed out waiting for a CoinGecko request slot");
+        }));
+        assertEquals(CircuitStateEnum.HALF_OPEN, breaker.getState());
+        assertEquals("ok", breaker.call(() -> "ok"));
+        assertEquals(CircuitStateEnum.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void call_AfterOpenPeriod_ShouldCloseOnSuccessfulTrial() {
+        openCircuit();
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertEquals(CircuitStateEnum.HALF_OPEN, breaker.getState());
+        assertEquals("ok", breaker.call(() -> "ok"));
+        assertEquals(CircuitStateEnum.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void call_AfterOpenPeriod_ShouldReopenOnFailedTrial() {
+        openCircuit();
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertThrows(ResourceAccessException.class, () -> breaker.call(this::timeout));
+
+        assertEquals(CircuitStateEnum.OPEN, breaker.getState());
+        assertEquals(Duration.ofSeconds(30), breaker.remainingOpen());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ResourceAccessException.class, () -> breaker.call(this::timeout));
+        }
+    }
+
+    private String timeout() {
+        calls.incrementAndGet();
+        throw new ResourceAccessException("Read timed out");
+    }
+}
@@ -0,0 +1,94 @@
+package dankok.trading212.auto_trading_bot.http;
+
+import dankok.trading212.auto_trading_bot.enums.CoinGeckoTierEnum;
+import dankok.trading212.auto_trading_bot.enums.UpstreamPriorityEnum;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoinGeckoRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void acquire_WithinBurst_ShouldNotWait() {
+        CoinGeckoRateLimiter limiter = new CoinGeckoRateLimiter(CoinGeckoTierEnum.DEMO, 30, 3, Duration.ofSeconds(1), meterRegistry);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(UpstreamPriorityEnum.INTERACTIVE);
+        }
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 500);
+    }
+
+    @Test
+    void acquire_WhenBudgetExhausted_ShouldTimeOutWithThrottledException() {
+        CoinGeckoRateLimiter limiter = new CoinGeckoRateLimiter(CoinGeckoTierEnum.FREE, 1, 1, Duration.ofMillis(50), meterRegistry);
+        limiter.acquire(UpstreamPriorityEnum.INTERACTIVE);
+
+        UpstreamThrottledException exception = assertThrows(UpstreamThrottledException.class,
+            () -> limiter.acquire(UpstreamPriorityEnum.INTERACTIVE));
+
+        assertTrue(exception.getMessage().contains("rate limit"));
+        assertEquals(1.0, meterRegistry.get("coingecko.scheduler.throttled").tag("reason", "queue_timeout").counter().count());
+    }
+
+    @Test
+    void acquire_WithQueuedLanes_ShouldServeHigherPriorityFirst() throws Exception {
+        CoinGeckoRateLimiter limiter = new CoinGeckoRateLimiter(CoinGeckoTierEnum.PRO, 120, 1, Duration.ofSeconds(5), meterRegistry);
+        limiter.acquire(UpstreamPriorityEnum.INTERACTIVE);
+        List<UpstreamPriorityEnum> served = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            executor.submit(() -> { limiter.acquire(UpstreamPriorityEnum.BACKGROUND); served.add(UpstreamPriorityEnum.BACKGROUND); });
+            awaitQueueDepth(UpstreamPriorityEnum.BACKGROUND, 1);
+            executor.submit(() -> { limiter.acquire(UpstreamPriorityEnum.INTERACTIVE); served.add(UpstreamPriorityEnum.INTERACTIVE); });
+            awaitQueueDepth(UpstreamPriorityEnum.INTERACTIVE, 1);
+            executor.submit(() -> { limiter.acquire(UpstreamPriorityEnum.LIVE_TRADING); served.add(UpstreamPriorityEnum.LIVE_TRADING); });
+            awaitQueueDepth(UpstreamPriorityEnum.LIVE_TRADING, 1);
+
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of(UpstreamPriorityEnum.LIVE_TRADING, UpstreamPriorityEnum.INTERACTIVE, UpstreamPriorityEnum.BACKGROUND), served);
+    }
+
+    @Test
+    void onRateLimited_ShouldPauseUntilRetryAfter() {
+        CoinGeckoRateLimiter limiter = new CoinGeckoRateLimiter(CoinGeckoTierEnum.PRO, 6000, 10, Duration.ofSeconds(5), meterRegistry);
+
+        limiter.onRateLimited(Duration.ofMillis(300));
+        long started = System.nanoTime();
+        limiter.acquire(UpstreamPriorityEnum.LIVE_TRADING);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 250);
+        assertEquals(1.0, meterRegistry.get("coingecko.scheduler.throttled").tag("reason", "upstream_429").counter().count());
+    }
+
+    private void awaitQueueDepth(UpstreamPriorityEnum lane, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("coingecko.scheduler.queue.depth").tag("lane", lane.name()).gauge().value() < depth) {
+            assertTrue(System.nanoTime() < deadline, "waiter did not queue in time");
+            Thread.sleep(1);
+        }
+    }
+}
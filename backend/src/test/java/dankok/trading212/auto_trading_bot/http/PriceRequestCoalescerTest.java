@@ -0,0 +1,102 @@
+package dankok.trading212.auto_trading_bot.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceRequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<Set<String>> upstreamCalls;
+    private Function<Set<String>, Map<String, Double>> loader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamCalls = new CopyOnWriteArrayList<>();
+        loader = ids -> {
+            upstreamCalls.add(Set.copyOf(ids));
+            Map<String, Double> prices = new HashMap<>();
+            for (String id : ids) {
+                if (!id.equals("unknown")) {
+                    prices.put(id, (double) id.length());
+                }
+            }
+            return prices;
+        };
+    }
+
+    @Test
+    void fetch_WithConcurrentCallersInWindow_ShouldIssueOneBatchedCall() throws Exception {
+        PriceRequestCoalescer coalescer = new PriceRequestCoalescer(200, 100, meterRegistry);
+        List<String> coins = List.of("bitcoin", "ethereum", "solana", "cardano", "ripple", "dogecoin", "bitcoin", "ethereum");
+        ExecutorService executor = Executors.newFixedThreadPool(coins.size());
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<Map<String, Double>>> results = new ArrayList<>();
+            for (String coin : coins) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return coalescer.fetch(List.of(coin), loader);
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < coins.size(); i++) {
+                Map<String, Double> result = results.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals((double) coins.get(i).length(), result.get(coins.get(i)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, upstreamCalls.size());
+        assertEquals(6, upstreamCalls.get(0).size());
+        assertEquals(8.0, meterRegistry.get("price.coalescer.requests").counter().count());
+        assertEquals(1.0, meterRegistry.get("price.coalescer.batches").counter().count());
+    }
+
+    @Test
+    void fetch_WhenBatchIsFull_ShouldFlushBeforeWindowEnds() {
+        PriceRequestCoalescer coalescer = new PriceRequestCoalescer(60_000, 2, meterRegistry);
+
+        long started = System.nanoTime();
+        Map<String, Double> result = coalescer.fetch(List.of("bitcoin", "ethereum"), loader);
+
+        assertEquals(2, result.size());
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started) < 5);
+    }
+
+    @Test
+    void fetch_WithUnknownCoin_ShouldOmitIt() {
+        PriceRequestCoalescer coalescer = new PriceRequestCoalescer(0, 100, meterRegistry);
+
+        Map<String, Double> result = coalescer.fetch(List.of("bitcoin", "unknown"), loader);
+
+        assertEquals(Set.of("bitcoin"), result.keySet());
+    }
+
+    @Test
+    void fetch_WithLoaderFailure_ShouldPropagateToCaller() {
+        PriceRequestCoalescer coalescer = new PriceRequestCoalescer(10, 100, meterRegistry);
+
+        assertThrows(IllegalStateException.class,
+            () -> coalescer.fetch(List.of("bitcoin"), ids -> { throw new IllegalStateException("down"); }));
+    }
+}
@@ -0,0 +1,79 @@
+package dankok.trading212.auto_trading_bot.http;
+
+import dankok.trading212.auto_trading_bot.enums.UpstreamPriorityEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitInterceptorTest {
+
+    @Mock
+    private CoinGeckoRateLimiter rateLimiter;
+
+    @Mock
+    private HttpRequest request;
+
+    @Mock
+    private ClientHttpRequestExecution execution;
+
+    @Mock
+    private ClientHttpResponse response;
+
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new RateLimitInterceptor(rateLimiter);
+    }
+
+    @Test
+    void intercept_ShouldAcquireSlotInCurrentLane() throws Exception {
+        when(execution.execute(any(), any())).thenReturn(response);
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+
+        UpstreamPriority.call(UpstreamPriorityEnum.BACKGROUND, () -> {
+            try {
+                return interceptor.intercept(request, new byte[0], execution);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        verify(rateLimiter).acquire(UpstreamPriorityEnum.BACKGROUND);
+        verify(rateLimiter, never()).onRateLimited(any());
+    }
+
+    @Test
+    void intercept_WithTooManyRequests_ShouldPauseForRetryAfter() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "42");
+        when(execution.execute(any(), any())).thenReturn(response);
+        when(response.getStatusCode()).thenReturn(HttpStatus.TOO_MANY_REQUESTS);
+        when(response.getHeaders()).thenReturn(headers);
+
+        interceptor.intercept(request, new byte[0], execution);
+
+        verify(rateLimiter).acquire(UpstreamPriorityEnum.INTERACTIVE);
+        verify(rateLimiter).onRateLimited(Duration.ofSeconds(42));
+    }
+
+    @Test
+    void parseRetryAfter_WithMissingOrInvalidHeader_ShouldUseDefault() {
+        assertEquals(RateLimitInterceptor.DEFAULT_RETRY_AFTER, RateLimitInterceptor.parseRetryAfter(null));
+        assertEquals(RateLimitInterceptor.DEFAULT_RETRY_AFTER, RateLimitInterceptor.parseRetryAfter("soon"));
+    }
+}
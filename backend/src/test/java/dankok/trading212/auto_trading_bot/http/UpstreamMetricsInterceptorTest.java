@@ -0,0 +1,75 @@
+package dankok.trading212.auto_trading_bot.http;
+
+import dankok.trading212.auto_trading_bot.enums.CoinGeckoEndpointEnum;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UpstreamMetricsInterceptorTest {
+
+    @Mock
+    private HttpRequest request;
+
+    @Mock
+    private ClientHttpRequestExecution execution;
+
+    @Mock
+    private ClientHttpResponse response;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UpstreamMetricsInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new UpstreamMetricsInterceptor(meterRegistry);
+    }
+
+    private Timer timer(String endpoint, String outcome) {
+        return meterRegistry.find("coingecko.http.requests").tag("endpoint", endpoint).tag("outcome", outcome).timer();
+    }
+
+    @Test
+    void intercept_ShouldRecordLatencyPerEndpointAndOutcome() throws Exception {
+        when(request.getURI()).thenReturn(URI.create("https://api.coingecko.com/api/v3/coins/bitcoin/market_chart/range?from=1&to=2"));
+        when(execution.execute(any(), any())).thenReturn(response);
+        when(response.getStatusCode()).thenReturn(HttpStatus.TOO_MANY_REQUESTS);
+
+        interceptor.intercept(request, new byte[0], execution);
+
+        assertEquals(1, timer("market_chart_range", "RATE_LIMITED").count());
+    }
+
+    @Test
+    void intercept_ShouldRecordIoErrors() throws Exception {
+        when(request.getURI()).thenReturn(URI.create("https://api.coingecko.com/api/v3/simple/price?ids=bitcoin"));
+        when(execution.execute(any(), any())).thenThrow(new IOException("Read timed out"));
+
+        assertThrows(IOException.class, () -> interceptor.intercept(request, new byte[0], execution));
+
+        assertEquals(1, timer("simple_price", "IO_ERROR").count());
+    }
+
+    @Test
+    void fromPath_ShouldClassifyCoinGeckoEndpoints() {
+        assertEquals(CoinGeckoEndpointEnum.SIMPLE_PRICE, CoinGeckoEndpointEnum.fromPath("/api/v3/simple/price"));
+        assertEquals(CoinGeckoEndpointEnum.MARKET_CHART, CoinGeckoEndpointEnum.fromPath("/api/v3/coins/bitcoin/market_chart"));
+        assertEquals(CoinGeckoEndpointEnum.OTHER, CoinGeckoEndpointEnum.fromPath("/api/v3/ping"));
+    }
+}
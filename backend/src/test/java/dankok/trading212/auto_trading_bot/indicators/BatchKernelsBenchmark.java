@@ -0,0 +1,69 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+import dankok.trading212.auto_trading_bot.enums.BatchKernelModeEnum;
+
+import java.util.function.Function;
+
+import static dankok.trading212.auto_trading_bot.TestSeries.randomWalk;
+
+/**
+ * Times the scalar and vectorized batch kernels against each other on this machine's CPU. Run
+ * with {@code gradle benchmarkBatchKernels}; each kernel is warmed up for a couple of seconds so it
+ * is compiled, then the best of several timed rounds is reported.
+ */
+public class BatchKernelsBenchmark {
+
+    // A year of hourly prices, which fits in cache, and a million, which does not
+    private static final int[] SIZES = {8_760, 1 << 20};
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final int TIMED_ROUNDS = 50;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        BatchKernels scalar = BatchKernels.forMode(BatchKernelModeEnum.SCALAR);
+        BatchKernels vector = BatchKernels.forMode(BatchKernelModeEnum.VECTOR);
+        System.out.printf("%s vs %s, %d cores%n", scalar.getName(), vector.getName(),
+            Runtime.getRuntime().availableProcessors());
+        for (int size : SIZES) {
+            run(size, scalar, vector);
+        }
+    }
+
+    private static void run(int size, BatchKernels scalar, BatchKernels vector) {
+        double[] prices = randomWalk(size, 42);
+        double[] fast = new double[size];
+        double[] slow = scalar.sma(prices, 50);
+        System.arraycopy(scalar.sma(prices, 10), 0, fast, 0, size);
+
+        System.out.printf("%n%d prices%n%-12s %12s %12s %8s%n", size, "kernel", "scalar us", "vector us", "speedup");
+        compare("rollingSum", scalar, vector, kernels -> kernels.rollingSum(prices, 50));
+        compare("sma", scalar, vector, kernels -> kernels.sma(prices, 50));
+        compare("ema", scalar, vector, kernels -> kernels.ema(prices, 26));
+        compare("returns", scalar, vector, kernels -> kernels.returns(prices));
+        compare("crossovers", scalar, vector, kernels -> kernels.crossovers(fast, slow));
+    }
+
+    private static void compare(String name, BatchKernels scalar, BatchKernels vector,
+                                Function<BatchKernels, Object> kernel) {
+        double scalarMicros = time(scalar, kernel);
+        double vectorMicros = time(vector, kernel);
+        System.out.printf("%-12s %12.1f %12.1f %7.2fx%n", name, scalarMicros, vectorMicros,
+            scalarMicros / vectorMicros);
+    }
+
+    private static double time(BatchKernels kernels, Function<BatchKernels, Object> kernel) {
+        // Long enough for the JIT to finish compiling the kernel even on a single core
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) {
+            sink = kernel.apply(kernels);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < TIMED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink = kernel.apply(kernels);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000.0;
+    }
+}
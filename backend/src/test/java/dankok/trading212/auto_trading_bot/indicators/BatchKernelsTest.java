@@ -0,0 +1,134 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+import dankok.trading212.auto_trading_bot.enums.BatchKernelModeEnum;
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.strategies.SmaCrossoverStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static dankok.trading212.auto_trading_bot.TestSeries.randomWalk;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchKernelsTest {
+
+    private static final double EPSILON = 1e-6;
+
+    private static final List<BatchKernels> KERNELS = List.of(
+        BatchKernels.forMode(BatchKernelModeEnum.SCALAR), BatchKernels.forMode(BatchKernelModeEnum.VECTOR));
+
+    // Odd lengths leave a tail that does not fill a whole vector
+    private static final int[] SIZES = {0, 1, 7, 49, 50, 1_003};
+
+    private static void assertSeries(String kernel, double[] expected, double[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            if (Double.isNaN(expected[i])) {
+                assertTrue(Double.isNaN(actual[i]), kernel + " index " + i);
+            } else {
+                assertEquals(expected[i], actual[i], EPSILON, kernel + " index " + i);
+            }
+        }
+    }
+
+    @Test
+    void sma_ShouldMatchStreamingIndicator() {
+        for (BatchKernels kernels : KERNELS) {
+            for (int size : SIZES) {
+                double[] prices = randomWalk(size, size);
+                Sma sma = new Sma(50);
+                double[] expected = new double[size];
+                for (int i = 0; i < size; i++) {
+                    expected[i] = sma.update(prices[i]);
+                }
+
+                assertSeries(kernels.getName(), expected, kernels.sma(prices, 50));
+            }
+        }
+    }
+
+    @Test
+    void ema_ShouldMatchStreamingIndicator() {
+        for (BatchKernels kernels : KERNELS) {
+            for (int size : SIZES) {
+                double[] prices = randomWalk(size, size);
+                Ema ema = new Ema(12);
+                double[] expected = new double[size];
+                for (int i = 0; i < size; i++) {
+                    expected[i] = ema.update(prices[i]);
+                }
+
+                assertSeries(kernels.getName(), expected, kernels.ema(prices, 12));
+            }
+        }
+    }
+
+    @Test
+    void rollingSumAndReturns_ShouldMatchDirectComputation() {
+        for (BatchKernels kernels : KERNELS) {
+            double[] prices = randomWalk(1_003, 3);
+            double[] sums = kernels.rollingSum(prices, 3);
+            double[] returns = kernels.returns(prices);
+
+            assertTrue(Double.isNaN(sums[1]));
+            assertTrue(Double.isNaN(returns[0]));
+            for (int i = 2; i < prices.length; i++) {
+                assertEquals(prices[i - 2] + prices[i - 1] + prices[i], sums[i], EPSILON);
+                assertEquals(prices[i] / prices[i - 1] - 1, returns[i], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void crossovers_ShouldMarkOnlyTheBarsWhereTheOrderFlips() {
+        for (BatchKernels kernels : KERNELS) {
+            int size = 37;
+            double[] fast = new double[size];
+            double[] slow = new double[size];
+            for (int i = 0; i < size; i++) {
+                slow[i] = 100;
+                fast[i] = i < 10 ? 90 : i < 20 ? 110 : i < 25 ? 100 : 95;
+            }
+            fast[0] = Double.NaN;
+            fast[1] = 120;
+
+            byte[] crosses = kernels.crossovers(fast, slow);
+
+            for (int i = 0; i < size; i++) {
+                byte expected = i == 2 ? BatchKernels.CROSS_BELOW
+                    : i == 10 ? BatchKernels.CROSS_ABOVE
+                    : i == 25 ? BatchKernels.CROSS_BELOW : 0;
+                assertEquals(expected, crosses[i], kernels.getName() + " index " + i);
+            }
+        }
+    }
+
+    @Test
+    void smaCrossoverSignals_ShouldMatchStreamingStrategy() {
+        SmaCrossoverStrategy strategy = new SmaCrossoverStrategy(10, 50);
+        double[] prices = randomWalk(2_000, 5);
+        IndicatorSet indicators = new IndicatorSet();
+        strategy.registerIndicators(indicators);
+
+        TradingSignalEunum[] signals = strategy.signals(prices, BatchKernels.forMode(BatchKernelModeEnum.VECTOR));
+
+        for (int i = 0; i < prices.length; i++) {
+            indicators.update(prices[i]);
+            assertEquals(strategy.onPrice(i, prices[i], indicators), signals[i], "index " + i);
+        }
+    }
+
+    @Test
+    void sma_IntoReusedBuffer_ShouldMatchFreshArray() {
+        for (BatchKernels kernels : KERNELS) {
+            double[] buffer = new double[1_003];
+            for (long seed = 1; seed <= 3; seed++) {
+                double[] prices = randomWalk(buffer.length, seed);
+                kernels.sma(prices, 50, buffer);
+
+                assertArrayEquals(kernels.sma(prices, 50), buffer, kernels.getName());
+            }
+            assertThrows(IllegalArgumentException.class, () -> kernels.sma(new double[10], 5, new double[9]));
+        }
+    }
+}
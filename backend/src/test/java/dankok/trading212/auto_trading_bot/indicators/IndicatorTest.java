@@ -0,0 +1,155 @@
+package dankok.trading212.auto_trading_bot.indicators;
+
+import org.junit.jupiter.api.Test;
+
+import static dankok.trading212.auto_trading_bot.TestSeries.randomWalk;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndicatorTest {
+
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    void sma_ShouldMatchWindowAverageAtEveryStep() {
+        double[] prices = randomWalk(500, 1);
+        Sma sma = new Sma(20);
+
+        for (int i = 0; i < prices.length; i++) {
+            double value = sma.update(prices[i]);
+            if (i < 19) {
+                assertFalse(sma.isReady());
+                assertTrue(Double.isNaN(value));
+                continue;
+            }
+            double sum = 0;
+            for (int j = i - 19; j <= i; j++) {
+                sum += prices[j];
+            }
+            assertEquals(sum / 20, value, EPSILON);
+        }
+    }
+
+    @Test
+    void wma_ShouldMatchLinearlyWeightedWindow() {
+        double[] prices = randomWalk(300, 2);
+        Wma wma = new Wma(10);
+
+        for (int i = 0; i < prices.length; i++) {
+            double value = wma.update(prices[i]);
+            if (i < 9) {
+                continue;
+            }
+            double weighted = 0;
+            for (int j = 0; j < 10; j++) {
+                weighted += (j + 1) * prices[i - 9 + j];
+            }
+            assertEquals(weighted / 55, value, EPSILON);
+        }
+    }
+
+    @Test
+    void ema_ShouldSeedWithAverageThenSmooth() {
+        Ema ema = new Ema(3);
+
+        ema.update(1);
+        ema.update(2);
+        assertFalse(ema.isReady());
+        assertEquals(2.0, ema.update(3), EPSILON);
+        assertEquals(2.0 + 0.5 * (6 - 2.0), ema.update(6), EPSILON);
+    }
+
+    @Test
+    void rsi_ShouldFollowWilderSmoothing() {
+        Rsi rsi = new Rsi(2);
+
+        rsi.update(10);
+        rsi.update(12);
+        assertFalse(rsi.isReady());
+        // Average gain 1, average loss 0.5 after changes +2 and -1
+        assertEquals(100 - 100 / (1 + 2.0), rsi.update(11), EPSILON);
+        // Gain 3 blended in: gain (1 + 3) / 2 = 2, loss 0.5 / 2 = 0.25
+        assertEquals(100 - 100 / (1 + 8.0), rsi.update(14), EPSILON);
+
+        Rsi flat = new Rsi(2);
+        flat.update(5);
+        flat.update(5);
+        assertEquals(50, flat.update(5), EPSILON);
+    }
+
+    @Test
+    void macd_ShouldBeFastMinusSlowWithSignalOfTheLine() {
+        double[] prices = randomWalk(200, 3);
+        Macd macd = new Macd(3, 6, 4);
+        Ema fast = new Ema(3);
+        Ema slow = new Ema(6);
+        Ema signal = new Ema(4);
+
+        for (double price : prices) {
+            macd.update(price);
+            fast.update(price);
+            slow.update(price);
+            if (slow.isReady()) {
+                signal.update(fast.value() - slow.value());
+            }
+        }
+
+        assertTrue(macd.isReady());
+        assertEquals(fast.value() - slow.value(), macd.value(), EPSILON);
+        assertEquals(signal.value(), macd.signal(), EPSILON);
+        assertEquals(macd.value() - macd.signal(), macd.histogram(), EPSILON);
+    }
+
+    @Test
+    void bollingerBands_ShouldMatchWindowDeviationAtHighPriceLevels() {
+        double[] prices = randomWalk(400, 4);
+        BollingerBands bands = new BollingerBands(20, 2);
+
+        for (double price : prices) {
+            bands.update(price);
+        }
+
+        double mean = 0;
+        for (int i = prices.length - 20; i < prices.length; i++) {
+            mean += prices[i];
+        }
+        mean /= 20;
+        double variance = 0;
+        for (int i = prices.length - 20; i < prices.length; i++) {
+            variance += (prices[i] - mean) * (prices[i] - mean);
+        }
+        double deviation = Math.sqrt(variance / 20);
+
+        assertEquals(mean, bands.value(), EPSILON);
+        assertEquals(deviation, bands.standardDeviation(), 1e-4);
+        assertEquals(mean + 2 * deviation, bands.upper(), 1e-4);
+        assertEquals(mean - 2 * deviation, bands.lower(), 1e-4);
+    }
+
+    @Test
+    void atr_ShouldAverageTrueRangesIncludingGaps() {
+        Atr atr = new Atr(2);
+
+        assertTrue(Double.isNaN(atr.update(11, 9, 10)));
+        // Gap up: true range is high 13 minus previous close 10
+        assertEquals((2.0 + 3.0) / 2, atr.update(13, 12, 12.5), EPSILON);
+        // Gap down: true range is previous close 12.5 minus low 8
+        assertEquals(2.5 + (4.5 - 2.5) / 2, atr.update(9, 8, 8.5), EPSILON);
+
+        Atr closes = new Atr(2);
+        closes.update(100);
+        closes.update(103);
+        assertEquals(2.5, closes.update(101), EPSILON);
+    }
+
+    @Test
+    void reset_ShouldForgetPreviousPrices() {
+        Sma sma = new Sma(2);
+        sma.update(100);
+        sma.update(200);
+        sma.reset();
+
+        sma.update(1);
+        assertFalse(sma.isReady());
+        assertEquals(2.0, sma.update(3), EPSILON);
+    }
+}
@@ -0,0 +1,82 @@
+package dankok.trading212.auto_trading_bot.marketdata;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayMarketDataSourceTest {
+
+    private static final long DAY = 86_400_000L;
+
+    @TempDir
+    Path directory;
+
+    private void writeBinary(String coinId, long[] timestamps, double[] prices) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(directory.resolve(coinId + ".bin")))) {
+            for (int i = 0; i < timestamps.length; i++) {
+                out.writeLong(timestamps[i]);
+                out.writeDouble(prices[i]);
+            }
+        }
+    }
+
+    @Test
+    void readCsv_ShouldSkipHeaderAndCommentsAndSortSamples() throws IOException {
+        Path file = directory.resolve("bitcoin.csv");
+        Files.writeString(file, """
+            timestamp,price
+            # recorded offline
+            2000,20.5
+
+            1970-01-01T00:00:01Z,10.0
+            3000,30.0
+            """);
+
+        PriceSeries series = ReplayMarketDataSource.readCsv(file);
+
+        assertArrayEquals(new long[] {1000, 2000, 3000}, series.toTimestampArray());
+        assertArrayEquals(new double[] {10.0, 20.5, 30.0}, series.toPriceArray());
+    }
+
+    @Test
+    void unpacedReplay_ShouldExposeWholeHistory() throws IOException {
+        writeBinary("ethereum", new long[] {0, DAY, 2 * DAY, 3 * DAY}, new double[] {1.0, 2.0, 3.0, 4.0});
+        Files.writeString(directory.resolve("bitcoin.csv"), "0,100.0\n" + DAY + ",110.0\n");
+
+        ReplayMarketDataSource source = new ReplayMarketDataSource(directory, 0, -1, () -> 0L);
+
+        assertEquals(Set.of("bitcoin", "ethereum"), source.getCoinIds());
+        assertEquals(Map.of("bitcoin", 110.0, "ethereum", 4.0),
+            source.fetchSpotPrices(Set.of("bitcoin", "ethereum", "dogecoin")));
+        assertArrayEquals(new double[] {3.0, 4.0}, source.loadDays("ethereum", 1).toPriceArray());
+        assertArrayEquals(new double[] {2.0, 3.0}, source.loadRange("ethereum", DAY, 2 * DAY).toPriceArray());
+        assertNull(source.loadDays("dogecoin", 1));
+        assertFalse(source.isLive());
+    }
+
+    @Test
+    void pacedReplay_ShouldOnlyExposeSamplesUpToReplayClock() throws IOException {
+        writeBinary("ethereum", new long[] {0, DAY, 2 * DAY, 3 * DAY}, new double[] {1.0, 2.0, 3.0, 4.0});
+        AtomicLong wallClock = new AtomicLong(5_000);
+
+        // One wall-clock millisecond replays one hour
+        ReplayMarketDataSource source = new ReplayMarketDataSource(directory, 3_600_000, -1, wallClock::get);
+
+        assertEquals(1.0, source.fetchSpotPrices(Set.of("ethereum")).get("ethereum"));
+
+        wallClock.addAndGet(30);
+        assertEquals(2.0, source.fetchSpotPrices(Set.of("ethereum")).get("ethereum"));
+        assertArrayEquals(new double[] {1.0, 2.0}, source.loadDays("ethereum", 7).toPriceArray());
+        assertArrayEquals(new double[] {2.0}, source.loadRange("ethereum", 1, Long.MAX_VALUE - 1).toPriceArray());
+    }
+}
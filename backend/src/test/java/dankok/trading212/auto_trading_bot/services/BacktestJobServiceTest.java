@@ -0,0 +1,234 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.dtos.BacktestJobResponse;
+import dankok.trading212.auto_trading_bot.dtos.TradingAnalysisResult;
+import dankok.trading212.auto_trading_bot.enums.BacktestJobTypeEnum;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BacktestJobServiceTest {
+
+    private static final int USER = 1;
+    private static final int OTHER_USER = 2;
+
+    private MutableClock clock;
+    private BacktestJobService service;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(1_700_000_000_000L);
+        service = new BacktestJobService(1, 1, Duration.ofMinutes(60), new SimpleMeterRegistry(), clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void submitReturnsBeforeTheWorkFinishes() throws Exception {
+        BacktestJobResponse submitted = service.submit(USER, BacktestJobTypeEnum.BACKTEST, "test", progress -> {
+            await(release);
+            return "done";
+        });
+
+        assertTrue(submitted.isSuccess());
+        assertNotNull(submitted.getJobId());
+        assertNotEquals("COMPLETED", submitted.getStatus());
+        assertFalse(service.getResult(USER, submitted.getJobId()).isSuccess());
+
+        release.countDown();
+        BacktestJobResponse finished = awaitStatus(submitted.getJobId(), "COMPLETED");
+        assertEquals(100, finished.getProgressPercentage());
+
+        BacktestJobResponse result = service.getResult(USER, submitted.getJobId());
+        assertTrue(result.isSuccess());
+        assertEquals("done", result.getResult());
+        assertNotNull(result.getExpiresAt());
+    }
+
+    @Test
+    void reportsProgressWhileRunning() throws Exception {
+        String jobId = service.submit(USER, BacktestJobTypeEnum.PARAMETER_SWEEP, "test", progress -> {
+            progress.setTotal(4);
+            progress.advance(1);
+            await(release);
+            return null;
+        }).getJobId();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getJob(USER, jobId).getProgressPercentage() < 25 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        BacktestJobResponse running = service.getJob(USER, jobId);
+        assertEquals("RUNNING", running.getStatus());
+        assertEquals(25, running.getProgressPercentage(), 1e-9);
+    }
+
+    @Test
+    void cancelStopsARunningJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        String jobId = service.submit(USER, BacktestJobTypeEnum.BACKTEST, "test", progress -> {
+            started.countDown();
+            while (true) {
+                progress.checkCancelled();
+                Thread.onSpinWait();
+            }
+        }).getJobId();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        BacktestJobResponse cancelled = service.cancel(USER, jobId);
+        assertTrue(cancelled.isSuccess());
+        assertEquals("CANCELLED", cancelled.getStatus());
+        assertFalse(service.getResult(USER, jobId).isSuccess());
+        assertFalse(service.cancel(USER, jobId).isSuccess());
+
+        // The worker is free again once the cancelled job has noticed
+        String next = service.submit(USER, BacktestJobTypeEnum.BACKTEST, "next", progress -> "ok").getJobId();
+        awaitStatus(next, "COMPLETED");
+    }
+
+    @Test
+    void rejectsJobsOnceTheQueueIsFullAndCancellingAQueuedJobFreesItsSlot() throws Exception {
+        String running = service.submit(USER, BacktestJobTypeEnum.BACKTEST, "running", progress -> {
+            await(release);
+            return null;
+        }).getJobId();
+        awaitStatus(running, "RUNNING");
+        AtomicBoolean queuedRan = new AtomicBoolean();
+        String queued = service.submit(USER, BacktestJobTypeEnum.BACKTEST, "queued", progress -> {
+            queuedRan.set(true);
+            return null;
+        }).getJobId();
+
+        BacktestJobResponse rejected = service.submit(USER, BacktestJobTypeEnum.BACKTEST, "rejected", progress -> null);
+        assertFalse(rejected.isSuccess());
+        assertEquals("Job queue is full, try again later", rejected.getMessage());
+
+        assertTrue(service.cancel(USER, queued).isSuccess());
+        String accepted = service.submit(USER, BacktestJobTypeEnum.BACKTEST, "accepted", progress -> "ok").getJobId();
+        assertNotNull(accepted);
+
+        release.countDown();
+        awaitStatus(accepted, "COMPLETED");
+        assertFalse(queuedRan.get());
+        assertEquals("CANCELLED", service.getJob(USER, queued).getStatus());
+    }
+
+    @Test
+    void failedJobReportsItsError() throws Exception {
+        String jobId = service.submit(USER, BacktestJobTypeEnum.BACKTEST, "test", progress -> {
+            throw new IllegalStateException("boom");
+        }).getJobId();
+
+        awaitStatus(jobId, "FAILED");
+        BacktestJobResponse result = service.getResult(USER, jobId);
+        assertFalse(result.isSuccess());
+        assertEquals("Job failed: boom", result.getMessage());
+    }
+
+    @Test
+    void unsuccessfulResultFailsTheJobWithItsMessage() throws Exception {
+        String jobId = service.submit(USER, BacktestJobTypeEnum.BACKTEST, "test",
+            progress -> new TradingAnalysisResult(List.of(), "No historical data for bitcoin", false)).getJobId();
+
+        awaitStatus(jobId, "FAILED");
+        BacktestJobResponse result = service.getResult(USER, jobId);
+        assertFalse(result.isSuccess());
+        assertNull(result.getResult());
+        assertEquals("Job failed: No historical data for bitcoin", result.getMessage());
+    }
+
+    @Test
+    void jobsAreOnlyVisibleToTheirOwner() throws Exception {
+        String jobId = service.submit(USER, BacktestJobTypeEnum.BACKTEST, "test", progress -> "secret").getJobId();
+        awaitStatus(jobId, "COMPLETED");
+
+        assertEquals("Job not found", service.getJob(OTHER_USER, jobId).getMessage());
+        assertEquals("Job not found", service.getResult(OTHER_USER, jobId).getMessage());
+        assertFalse(service.cancel(OTHER_USER, jobId).isSuccess());
+        assertTrue(service.listJobs(OTHER_USER).isEmpty());
+        assertEquals(1, service.listJobs(USER).size());
+    }
+
+    @Test
+    void finishedJobsAreRemovedAfterTheRetentionTime() throws Exception {
+        String jobId = service.submit(USER, BacktestJobTypeEnum.BACKTEST, "test", progress -> "done").getJobId();
+        awaitStatus(jobId, "COMPLETED");
+
+        clock.advance(Duration.ofMinutes(59).toMillis());
+        service.removeExpiredJobs();
+        assertTrue(service.getResult(USER, jobId).isSuccess());
+
+        clock.advance(Duration.ofMinutes(1).toMillis());
+        service.removeExpiredJobs();
+        assertEquals("Job not found", service.getResult(USER, jobId).getMessage());
+    }
+
+    private BacktestJobResponse awaitStatus(String jobId, String status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        BacktestJobResponse job = service.getJob(USER, jobId);
+        while (!status.equals(job.getStatus()) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            job = service.getJob(USER, jobId);
+        }
+        assertEquals(status, job.getStatus());
+        return job;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
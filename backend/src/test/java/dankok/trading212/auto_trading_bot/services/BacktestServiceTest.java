@@ -1,15 +1,32 @@
 package dankok.trading212.auto_trading_bot.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dankok.trading212.auto_trading_bot.cache.IndicatorCache;
 import dankok.trading212.auto_trading_bot.dtos.BacktestResult;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.dtos.TradeResult;
+import dankok.trading212.auto_trading_bot.enums.StreamFormatEnum;
+import dankok.trading212.auto_trading_bot.indicators.ScalarBatchKernels;
+import dankok.trading212.auto_trading_bot.jobs.JobProgress;
+import dankok.trading212.auto_trading_bot.strategies.SmaCrossoverStrategy;
+import dankok.trading212.auto_trading_bot.strategies.StrategyRegistry;
+import dankok.trading212.auto_trading_bot.utils.BacktestEventWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,6 +37,15 @@ class BacktestServiceTest {
     @Mock
     private CryptoDataService cryptoDataService;
 
+    @Mock
+    private HistoricalBackfillService historicalBackfillService;
+
+    @Spy
+    private StrategyRegistry strategyRegistry = new StrategyRegistry(List.of(new SmaCrossoverStrategy()));
+
+    @Spy
+    private IndicatorCache indicatorCache = new IndicatorCache(100, new ScalarBatchKernels(), new SimpleMeterRegistry());
+
     @InjectMocks
     private BacktestService backtestService;
 
@@ -42,8 +68,8 @@ class BacktestServiceTest {
 
     @Test
     void runBacktest_WithSufficientData_ShouldReturnSuccessfulResult() {
-        when(cryptoDataService.fetchHistoricalPrices("bitcoin", 60))
-            .thenReturn(sufficientPriceData);
+        when(cryptoDataService.fetchHistoricalSeries("bitcoin", 60))
+            .thenReturn(PriceSeries.fromPrices(sufficientPriceData));
 
         BacktestResult result = backtestService.runBacktest("bitcoin", 60, 1000.0);
 
@@ -52,13 +78,13 @@ class BacktestServiceTest {
         assertEquals(1000.0, result.getInitialBalance());
         assertNotNull(result.getSummary());
         assertTrue(result.getSummary().contains("Backtest completed"));
-        verify(cryptoDataService).fetchHistoricalPrices("bitcoin", 60);
+        verify(cryptoDataService).fetchHistoricalSeries("bitcoin", 60);
     }
 
     @Test
     void runBacktest_WithInsufficientData_ShouldReturnFailureResult() {
-        when(cryptoDataService.fetchHistoricalPrices("bitcoin", 30))
-            .thenReturn(insufficientPriceData);
+        when(cryptoDataService.fetchHistoricalSeries("bitcoin", 30))
+            .thenReturn(PriceSeries.fromPrices(insufficientPriceData));
 
         BacktestResult result = backtestService.runBacktest("bitcoin", 30, 1000.0);
 
@@ -67,12 +93,12 @@ class BacktestServiceTest {
         assertEquals(1000.0, result.getInitialBalance());
         assertEquals(0, result.getTotalTrades());
         assertEquals("Insufficient historical data for backtesting", result.getSummary());
-        verify(cryptoDataService).fetchHistoricalPrices("bitcoin", 30);
+        verify(cryptoDataService).fetchHistoricalSeries("bitcoin", 30);
     }
 
     @Test
     void runBacktest_WithException_ShouldReturnFailureResult() {
-        when(cryptoDataService.fetchHistoricalPrices("bitcoin", 60))
+        when(cryptoDataService.fetchHistoricalSeries("bitcoin", 60))
             .thenThrow(new RuntimeException("API Error"));
 
         BacktestResult result = backtestService.runBacktest("bitcoin", 60, 1000.0);
@@ -82,7 +108,7 @@ class BacktestServiceTest {
         assertEquals(1000.0, result.getInitialBalance());
         assertEquals(0, result.getTotalTrades());
         assertTrue(result.getSummary().contains("Backtest failed"));
-        verify(cryptoDataService).fetchHistoricalPrices("bitcoin", 60);
+        verify(cryptoDataService).fetchHistoricalSeries("bitcoin", 60);
     }
 
     @Test
@@ -97,21 +123,21 @@ class BacktestServiceTest {
             150.0, 140.0, 130.0, 120.0, 110.0
         );
 
-        when(cryptoDataService.fetchHistoricalPrices("ethereum", 60))
-            .thenReturn(volatilePrices);
+        when(cryptoDataService.fetchHistoricalSeries("ethereum", 60))
+            .thenReturn(PriceSeries.fromPrices(volatilePrices));
 
         BacktestResult result = backtestService.runBacktest("ethereum", 60, 1000.0);
 
         assertTrue(result.isSuccess());
         assertTrue(result.getTotalTrades() > 0);
         assertNotNull(result.getTrades());
-        verify(cryptoDataService).fetchHistoricalPrices("ethereum", 60);
+        verify(cryptoDataService).fetchHistoricalSeries("ethereum", 60);
     }
 
     @Test
     void runBacktest_CalculatesCorrectReturnPercentage() {
-        when(cryptoDataService.fetchHistoricalPrices("bitcoin", 60))
-            .thenReturn(sufficientPriceData);
+        when(cryptoDataService.fetchHistoricalSeries("bitcoin", 60))
+            .thenReturn(PriceSeries.fromPrices(sufficientPriceData));
 
         BacktestResult result = backtestService.runBacktest("bitcoin", 60, 1000.0);
 
@@ -122,8 +148,8 @@ class BacktestServiceTest {
 
     @Test
     void runBacktest_WithZeroInitialBalance_ShouldHandleGracefully() {
-        when(cryptoDataService.fetchHistoricalPrices("bitcoin", 60))
-            .thenReturn(sufficientPriceData);
+        when(cryptoDataService.fetchHistoricalSeries("bitcoin", 60))
+            .thenReturn(PriceSeries.fromPrices(sufficientPriceData));
 
         BacktestResult result = backtestService.runBacktest("bitcoin", 60, 0.0);
 
@@ -131,4 +157,86 @@ class BacktestServiceTest {
         assertEquals(0.0, result.getInitialBalance());
         assertEquals(0, result.getTotalTrades());
     }
+
+    @Test
+    void runBacktest_WithProgress_ShouldCountLoadAndBars() {
+        when(cryptoDataService.fetchHistoricalSeries("bitcoin", 60))
+            .thenReturn(PriceSeries.fromPrices(sufficientPriceData));
+        JobProgress progress = mock(JobProgress.class);
+
+        BacktestResult result = backtestService.runBacktest("bitcoin", 60, 1000.0, new SmaCrossoverStrategy(), progress);
+
+        assertTrue(result.isSuccess());
+        // 60 prices with a warmup of 50 leave 10 bars; loading counts the same again
+        verify(progress).setTotal(20);
+        verify(progress, times(2)).advance(10);
+    }
+
+    @Test
+    void runBacktest_WhenCancelledAfterLoading_ShouldStopWithoutRunning() {
+        when(cryptoDataService.fetchHistoricalSeries("bitcoin", 60))
+            .thenReturn(PriceSeries.fromPrices(sufficientPriceData));
+        JobProgress cancelled = mock(JobProgress.class);
+        when(cancelled.isCancelled()).thenReturn(true);
+        doCallRealMethod().when(cancelled).checkCancelled();
+
+        assertThrows(CancellationException.class,
+            () -> backtestService.runBacktest("bitcoin", 60, 1000.0, new SmaCrossoverStrategy(), cancelled));
+        verify(cancelled, times(1)).advance(anyLong());
+    }
+
+    @Test
+    void streamBacktest_WithVolatilePrices_ShouldWriteTradesAndEquityThenSummary() throws Exception {
+        List<Double> volatilePrices = Arrays.asList(
+            100.0, 101.0, 102.0, 103.0, 104.0, 105.0, 106.0, 107.0, 108.0, 109.0,
+            110.0, 111.0, 112.0, 113.0, 114.0, 115.0, 116.0, 117.0, 118.0, 119.0,
+            120.0, 121.0, 122.0, 123.0, 124.0, 125.0, 126.0, 127.0, 128.0, 129.0,
+            130.0, 131.0, 132.0, 133.0, 134.0, 135.0, 136.0, 137.0, 138.0, 139.0,
+            140.0, 141.0, 142.0, 143.0, 144.0, 145.0, 146.0, 147.0, 148.0, 149.0,
+            180.0, 185.0, 190.0, 195.0, 200.0,
+            150.0, 140.0, 130.0, 120.0, 110.0
+        );
+        when(cryptoDataService.fetchHistoricalSeries("ethereum", 60))
+            .thenReturn(PriceSeries.fromPrices(volatilePrices));
+        BacktestResult expected = backtestService.runBacktest("ethereum", 60, 1000.0);
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        backtestService.streamBacktest("ethereum", 60, 1000.0, strategyRegistry.getDefault(), 5,
+            new BacktestEventWriter(out, objectMapper, StreamFormatEnum.NDJSON));
+
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            events.add(objectMapper.readTree(line));
+        }
+        List<String> trades = events.stream()
+            .filter(event -> event.get("type").asText().equals("trade"))
+            .map(event -> event.get("data").get("action").asText())
+            .toList();
+        assertEquals(expected.getTrades().stream().map(TradeResult::getAction).toList(), trades);
+        assertTrue(events.stream().anyMatch(event -> event.get("type").asText().equals("equity")));
+
+        JsonNode summary = events.get(events.size() - 1);
+        assertEquals("summary", summary.get("type").asText());
+        assertTrue(summary.get("data").get("success").asBoolean());
+        assertEquals(expected.getTotalTrades(), summary.get("data").get("totalTrades").asInt());
+        assertEquals(expected.getFinalBalance(), summary.get("data").get("finalBalance").asDouble(), 1e-9);
+        assertEquals(0, summary.get("data").get("trades").size());
+    }
+
+    @Test
+    void streamBacktest_WithException_ShouldWriteFailedSummary() throws Exception {
+        when(cryptoDataService.fetchHistoricalSeries("bitcoin", 60))
+            .thenThrow(new RuntimeException("API Error"));
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        backtestService.streamBacktest("bitcoin", 60, 1000.0, strategyRegistry.getDefault(), 5,
+            new BacktestEventWriter(out, objectMapper, StreamFormatEnum.NDJSON));
+
+        JsonNode summary = objectMapper.readTree(out.toString(StandardCharsets.UTF_8).trim());
+        assertEquals("summary", summary.get("type").asText());
+        assertFalse(summary.get("data").get("success").asBoolean());
+        assertEquals("Backtest failed: API Error", summary.get("data").get("summary").asText());
+    }
 }
@@ -1,20 +1,35 @@
 package dankok.trading212.auto_trading_bot.services;
 
+import dankok.trading212.auto_trading_bot.cache.HistoricalSeriesCache;
+import dankok.trading212.auto_trading_bot.cache.PriceCache;
 import dankok.trading212.auto_trading_bot.dtos.CryptoPriceResponse;
 import dankok.trading212.auto_trading_bot.dtos.HistoricalPriceResponse;
+import dankok.trading212.auto_trading_bot.dtos.PricePoint;
+import dankok.trading212.auto_trading_bot.http.CoinGeckoCircuitBreaker;
+import dankok.trading212.auto_trading_bot.http.PriceRequestCoalescer;
+import dankok.trading212.auto_trading_bot.marketdata.CoinGeckoMarketDataSource;
 import dankok.trading212.auto_trading_bot.repositories.CryptoPriceRepository;
+import dankok.trading212.auto_trading_bot.store.PriceWriteBehindQueue;
+import dankok.trading212.auto_trading_bot.store.TickStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,6 +41,9 @@ class CryptoDataServiceTest {
     @Mock
     private RestClient coinGeckoRestClient;
     
+    @Mock
+    private PriceWriteBehindQueue priceWriteBehindQueue;
+
     @Mock
     private CryptoPriceRepository cryptoPriceRepository;
     
@@ -35,14 +53,22 @@ class CryptoDataServiceTest {
     @Mock
     private RestClient.ResponseSpec responseSpec;
 
-    @InjectMocks
     private CryptoDataService cryptoDataService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @BeforeEach
     void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PriceCache priceCache = new PriceCache(30, 100, meterRegistry);
+        HistoricalSeriesCache historicalSeriesCache = new HistoricalSeriesCache(0, 100, meterRegistry);
+        PriceRequestCoalescer priceRequestCoalescer = new PriceRequestCoalescer(0, 100, meterRegistry);
+        cryptoDataService = new CryptoDataService(new CoinGeckoMarketDataSource(coinGeckoRestClient), priceWriteBehindQueue,
+            priceCache, historicalSeriesCache, priceRequestCoalescer, new TickStore("unused", 1, false),
+            new CoinGeckoCircuitBreaker(2, 30, meterRegistry), cryptoPriceRepository);
+
         when(coinGeckoRestClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        lenient().when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
     }
 
     @Test
@@ -62,7 +88,7 @@ class CryptoDataServiceTest {
         assertEquals(3000.0, result.getPrices().get("ethereum"));
         assertNull(result.getErrorMessage());
         
-        verify(cryptoPriceRepository, times(2)).savePrice(anyString(), anyDouble(), any());
+        verify(priceWriteBehindQueue, times(2)).enqueue(any());
     }
 
     @Test
@@ -107,7 +133,48 @@ class CryptoDataServiceTest {
     }
 
     @Test
-    void fetchHistoricalPricesWithMetadata_WithValidResponse_ShouldReturnSuccessfulResponse() {
+    void fetchPrices_WithUpstreamDown_ShouldServeLastStoredPriceAsStale() {
+        when(responseSpec.body(Map.class)).thenThrow(new RestClientException("Read timed out"));
+        when(cryptoPriceRepository.getLatestPricePoint("bitcoin"))
+            .thenReturn(new PricePoint("bitcoin", 48000.0, LocalDateTime.now().minusMinutes(2)));
+
+        CryptoPriceResponse result = cryptoDataService.fetchPrices("bitcoin");
+
+        assertTrue(result.isSuccess());
+        assertTrue(result.isStale());
+        assertEquals(48000.0, result.getPrices().get("bitcoin"));
+        assertTrue(result.getPriceAgeSeconds().get("bitcoin") >= 120);
+    }
+
+    @Test
+    void fetchPrices_WithOpenCircuit_ShouldNotCallApi() {
+        when(responseSpec.body(Map.class)).thenThrow(new RestClientException("Read timed out"));
+
+        cryptoDataService.fetchPrices("bitcoin");
+        cryptoDataService.fetchPrices("bitcoin");
+        CryptoPriceResponse result = cryptoDataService.fetchPrices("bitcoin");
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getErrorMessage().contains("circuit"));
+        verify(coinGeckoRestClient, times(2)).get();
+    }
+
+    @Test
+    void fetchPrices_WithCachedPrices_ShouldNotCallApiAgain() {
+        Map<String, Object> mockResponse = Map.of("bitcoin", Map.of("usd", 50000.0));
+        when(responseSpec.body(Map.class)).thenReturn(mockResponse);
+
+        cryptoDataService.fetchPrices("bitcoin");
+        CryptoPriceResponse result = cryptoDataService.fetchPrices("bitcoin");
+
+        assertTrue(result.isSuccess());
+        assertEquals(50000.0, result.getPrices().get("bitcoin"));
+        verify(coinGeckoRestClient, times(1)).get();
+        verify(priceWriteBehindQueue, times(1)).enqueue(any());
+    }
+
+    @Test
+    void fetchHistoricalPricesWithMetadata_WithValidResponse_ShouldReturnSuccessfulResponse() throws Exception {
         List<List<Object>> pricesData = Arrays.asList(
             Arrays.asList(1234567890000L, 50000.0),
             Arrays.asList(1234567900000L, 51000.0),
@@ -115,7 +182,7 @@ class CryptoDataServiceTest {
         );
         
         Map<String, Object> mockResponse = Map.of("prices", pricesData);
-        when(responseSpec.body(Map.class)).thenReturn(mockResponse);
+        stubMarketChart(mockResponse);
 
         HistoricalPriceResponse result = cryptoDataService.fetchHistoricalPricesWithMetadata("bitcoin", 30);
 
@@ -129,9 +196,29 @@ class CryptoDataServiceTest {
     }
 
     @Test
-    void fetchHistoricalPricesWithMetadata_WithNoPricesKey_ShouldReturnFailure() {
+    void fetchHistoricalPricesWithMetadata_WithCachedSeries_ShouldOnlyFetchDelta() throws Exception {
+        Map<String, Object> fullResponse = Map.of("prices", Arrays.asList(
+            Arrays.asList(1700000000000L, 50000.0),
+            Arrays.asList(1700000300000L, 51000.0)
+        ));
+        Map<String, Object> deltaResponse = Map.of("prices", Arrays.asList(
+            Arrays.asList(1700000600000L, 52000.0)
+        ));
+        stubMarketChart(fullResponse, deltaResponse);
+
+        cryptoDataService.fetchHistoricalPricesWithMetadata("bitcoin", 1);
+        HistoricalPriceResponse result = cryptoDataService.fetchHistoricalPricesWithMetadata("bitcoin", 1);
+
+        assertTrue(result.isSuccess());
+        assertEquals(List.of(50000.0, 51000.0, 52000.0), result.getPrices());
+        verify(requestHeadersUriSpec).uri("/coins/bitcoin/market_chart?vs_currency=usd&days=1");
+        verify(requestHeadersUriSpec).uri(startsWith("/coins/bitcoin/market_chart/range?vs_currency=usd&from=1700000300&"));
+    }
+
+    @Test
+    void fetchHistoricalPricesWithMetadata_WithNoPricesKey_ShouldReturnFailure() throws Exception {
         Map<String, Object> mockResponse = Map.of("volumes", Arrays.asList());
-        when(responseSpec.body(Map.class)).thenReturn(mockResponse);
+        stubMarketChart(mockResponse);
 
         HistoricalPriceResponse result = cryptoDataService.fetchHistoricalPricesWithMetadata("bitcoin", 30);
 
@@ -140,14 +227,14 @@ class CryptoDataServiceTest {
     }
 
     @Test
-    void fetchHistoricalPrices_ShouldReturnPricesList() {
+    void fetchHistoricalPrices_ShouldReturnPricesList() throws Exception {
         List<List<Object>> pricesData = Arrays.asList(
             Arrays.asList(1234567890000L, 50000.0),
             Arrays.asList(1234567900000L, 51000.0)
         );
         
         Map<String, Object> mockResponse = Map.of("prices", pricesData);
-        when(responseSpec.body(Map.class)).thenReturn(mockResponse);
+        stubMarketChart(mockResponse);
 
         List<Double> result = cryptoDataService.fetchHistoricalPrices("bitcoin", 30);
 
@@ -176,7 +263,7 @@ class CryptoDataServiceTest {
     }
 
     @Test
-    void hasSufficientData_WithSufficientData_ShouldReturnTrue() {
+    void hasSufficientData_WithSufficientData_ShouldReturnTrue() throws Exception {
         List<List<Object>> pricesData = Arrays.asList(
             Arrays.asList(1234567890000L, 50000.0),
             Arrays.asList(1234567900000L, 51000.0),
@@ -184,11 +271,29 @@ class CryptoDataServiceTest {
         );
         
         Map<String, Object> mockResponse = Map.of("prices", pricesData);
-        when(responseSpec.body(Map.class)).thenReturn(mockResponse);
+        stubMarketChart(mockResponse);
 
         boolean result = cryptoDataService.hasSufficientData("bitcoin", 3);
 
         assertTrue(result);
     }
 
+    @SafeVarargs
+    private void stubMarketChart(Map<String, Object>... responses) throws Exception {
+        List<byte[]> bodies = new ArrayList<>();
+        for (Map<String, Object> response : responses) {
+            bodies.add(objectMapper.writeValueAsBytes(response));
+        }
+        AtomicInteger calls = new AtomicInteger();
+
+        when(requestHeadersUriSpec.exchange(any(RestClient.RequestHeadersSpec.ExchangeFunction.class))).thenAnswer(invocation -> {
+            byte[] body = bodies.get(Math.min(calls.getAndIncrement(), bodies.size() - 1));
+            RestClient.RequestHeadersSpec.ConvertibleClientHttpResponse response =
+                mock(RestClient.RequestHeadersSpec.ConvertibleClientHttpResponse.class);
+            when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+            when(response.getBody()).thenReturn(new ByteArrayInputStream(body));
+            RestClient.RequestHeadersSpec.ExchangeFunction<?> function = invocation.getArgument(0);
+            return function.exchange(mock(HttpRequest.class), response);
+        });
+    }
 }
@@ -0,0 +1,221 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.dtos.BackfillResult;
+import dankok.trading212.auto_trading_bot.dtos.PricePoint;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.marketdata.MarketDataSource;
+import dankok.trading212.auto_trading_bot.repositories.CryptoPriceRepository;
+import dankok.trading212.auto_trading_bot.store.CandleRollup;
+import dankok.trading212.auto_trading_bot.store.TickStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HistoricalBackfillServiceTest {
+
+    private static final long DAY = 86_400_000L;
+    private static final long NOW = 1_700_000_000_000L;
+
+    private MarketDataSource marketDataSource;
+    private CryptoPriceRepository cryptoPriceRepository;
+    private CandleRollup candleRollup;
+    private HistoricalBackfillService backfillService;
+    private final List<List<PricePoint>> savedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        marketDataSource = mock(MarketDataSource.class);
+        cryptoPriceRepository = mock(CryptoPriceRepository.class);
+        candleRollup = mock(CandleRollup.class);
+        when(candleRollup.closeSeries(anyString(), any(), anyLong(), anyLong())).thenReturn(PriceSeries.empty());
+        when(cryptoPriceRepository.savePrices(anyList())).thenAnswer(invocation -> {
+            List<PricePoint> batch = invocation.getArgument(0);
+            savedBatches.add(new ArrayList<>(batch));
+            return new int[batch.size()];
+        });
+        backfillService = new HistoricalBackfillService(marketDataSource, cryptoPriceRepository,
+            new TickStore("unused", 1, false), candleRollup, List.of(), 365, 2, new SimpleMeterRegistry(),
+            Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+    }
+
+    private static PriceSeries daily(long... dayOffsets) {
+        long[] timestamps = new long[dayOffsets.length];
+        double[] prices = new double[dayOffsets.length];
+        for (int i = 0; i < dayOffsets.length; i++) {
+            timestamps[i] = NOW - dayOffsets[i] * DAY;
+            prices[i] = 100 + i;
+        }
+        return PriceSeries.wrap(timestamps, prices);
+    }
+
+    @Test
+    void findGaps_ShouldReportMissingRangesIncludingWindowEdges() {
+        PriceSeries stored = daily(8, 7, 4, 3);
+
+        List<long[]> gaps = HistoricalBackfillService.findGaps(stored, NOW - 10 * DAY, NOW, DAY);
+
+        assertEquals(3, gaps.size());
+        assertArrayEquals(new long[] {NOW - 10 * DAY, NOW - 8 * DAY}, gaps.get(0));
+        assertArrayEquals(new long[] {NOW - 7 * DAY, NOW - 4 * DAY}, gaps.get(1));
+        assertArrayEquals(new long[] {NOW - 3 * DAY, NOW}, gaps.get(2));
+    }
+
+    @Test
+    void backfill_ShouldFetchOnlyGapsAndWriteInBatches() {
+        when(cryptoPriceRepository.getPriceSeries("bitcoin", NOW - 200 * DAY, NOW))
+            .thenReturn(daily(200, 199, 198, 1, 0));
+        when(marketDataSource.loadRange(eq("bitcoin"), anyLong(), anyLong())).thenReturn(daily(197, 196, 195));
+
+        BackfillResult result = backfillService.backfill("bitcoin", 200);
+
+        assertTrue(result.isSuccess());
+        assertEquals(1, result.getGapsFound());
+        assertEquals(3, result.getPointsWritten());
+        verify(marketDataSource).loadRange("bitcoin", NOW - 198 * DAY + 1, NOW - DAY - 1);
+        assertEquals(List.of(2, 1), savedBatches.stream().map(List::size).toList());
+        assertEquals("bitcoin", savedBatches.get(0).get(0).getSymbol());
+    }
+
+    @Test
+    void backfill_AfterLiveTicks_ShouldStoreOlderGapInTickStore(@TempDir Path directory) {
+        TickStore tickStore = new TickStore(directory.toString(), 16, true);
+        HistoricalBackfillService service = new HistoricalBackfillService(marketDataSource, cryptoPriceRepository,
+            tickStore, candleRollup, List.of(), 365, 2, new SimpleMeterRegistry(),
+            Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+        tickStore.append("bitcoin", NOW, 500.0);
+        when(cryptoPriceRepository.getPriceSeries("bitcoin", NOW - 200 * DAY, NOW))
+            .thenReturn(daily(200, 199, 198, 1, 0));
+        when(marketDataSource.loadRange(eq("bitcoin"), anyLong(), anyLong())).thenReturn(daily(197, 196, 195));
+
+        try {
+            BackfillResult result = service.backfill("bitcoin", 200);
+
+            assertTrue(result.isSuccess());
+            // Four stored days copied from the database and the three fetched for the gap
+            assertEquals(7, result.getTicksStored());
+            assertArrayEquals(daily(197, 196, 195).toTimestampArray(),
+                tickStore.range("bitcoin", NOW - 197 * DAY, NOW - 195 * DAY).toPriceSeries().toTimestampArray());
+            assertEquals(NOW, tickStore.lastTimestamp("bitcoin"));
+        } finally {
+            tickStore.close();
+        }
+    }
+
+    @Test
+    void backfill_ShouldStopAndReportUpstreamFailure() {
+        when(cryptoPriceRepository.getPriceSeries(anyString(), anyLong(), anyLong())).thenReturn(PriceSeries.empty());
+        when(marketDataSource.loadRange(anyString(), anyLong(), anyLong())).thenThrow(new RuntimeException("429"));
+
+        BackfillResult result = backfillService.backfill("bitcoin", 30);
+
+        assertFalse(result.isSuccess());
+        assertEquals(0, result.getGapsFilled());
+        assertTrue(result.getMessage().contains("429"));
+        verify(cryptoPriceRepository, never()).savePrices(anyList());
+    }
+
+    @Test
+    void localSeries_ShouldOnlyServeCompleteHistoryThinnedToStep() {
+        long[] timestamps = new long[102];
+        double[] prices = new double[102];
+        for (int i = 0, day = 100; day >= 0; day--) {
+            timestamps[i] = NOW - day * DAY;
+            prices[i++] = day;
+            if (day == 50) {
+                timestamps[i] = NOW - day * DAY + 60_000;
+                prices[i++] = -1;
+            }
+        }
+        when(cryptoPriceRepository.getPriceSeries("bitcoin", NOW - 100 * DAY, NOW))
+            .thenReturn(PriceSeries.wrap(timestamps, prices));
+        when(cryptoPriceRepository.getPriceSeries("ethereum", NOW - 100 * DAY, NOW))
+            .thenReturn(daily(100, 99, 1, 0));
+
+        PriceSeries local = backfillService.localSeries("bitcoin", 100);
+
+        assertEquals(101, local.size());
+        assertFalse(local.asList().contains(-1.0));
+        assertNull(backfillService.localSeries("ethereum", 100));
+    }
+
+    @Test
+    void localSeries_ShouldReadTickStoreBeforeDatabase(@TempDir Path directory) {
+        TickStore tickStore = new TickStore(directory.toString(), 16, true);
+        HistoricalBackfillService service = new HistoricalBackfillService(marketDataSource, cryptoPriceRepository,
+            tickStore, candleRollup, List.of(), 365, 2, new SimpleMeterRegistry(),
+            Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+        // Hourly ticks over the last 100 days, thinned to the daily step of a 100 day window
+        int hours = 100 * 24 + 1;
+        long[] timestamps = new long[hours];
+        double[] prices = new double[hours];
+        for (int i = 0; i < hours; i++) {
+            timestamps[i] = NOW - 100 * DAY + i * 3_600_000L;
+            prices[i] = i;
+        }
+        tickStore.append("bitcoin", PriceSeries.wrap(timestamps, prices));
+        tickStore.append("ethereum", daily(100, 99, 1, 0));
+        when(cryptoPriceRepository.getPriceSeries("ethereum", NOW - 100 * DAY, NOW)).thenReturn(PriceSeries.empty());
+
+        try {
+            PriceSeries local = service.localSeries("bitcoin", 100);
+
+            assertEquals(NOW - 100 * DAY, local.firstTimestamp());
+            assertEquals(NOW, local.lastTimestamp());
+            for (int i = 1; i < local.size() - 1; i++) {
+                long gap = local.timestampAt(i) - local.timestampAt(i - 1);
+                assertTrue(gap >= DAY - DAY / 10 && gap < DAY, "gap " + gap);
+            }
+            verify(cryptoPriceRepository, never()).getPriceSeries(eq("bitcoin"), anyLong(), anyLong());
+            // Ticks with gaps fall back to the database
+            assertNull(service.localSeries("ethereum", 100));
+            verify(cryptoPriceRepository).getPriceSeries("ethereum", NOW - 100 * DAY, NOW);
+        } finally {
+            tickStore.close();
+        }
+    }
+
+    @Test
+    void localSeries_AfterBackfillOverLiveTicks_ShouldReadTickStoreInsteadOfDatabase(@TempDir Path directory) {
+        TickStore tickStore = new TickStore(directory.toString(), 16, true);
+        HistoricalBackfillService service = new HistoricalBackfillService(marketDataSource, cryptoPriceRepository,
+            tickStore, candleRollup, List.of(), 365, 2, new SimpleMeterRegistry(),
+            Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+        // The process has been polling for the last day; the database already holds the full history
+        for (int hour = 24; hour >= 0; hour--) {
+            tickStore.append("bitcoin", NOW - hour * 3_600_000L, 1_000 + hour);
+        }
+        long[] days = new long[101];
+        for (int i = 0; i <= 100; i++) {
+            days[i] = 100 - i;
+        }
+        when(cryptoPriceRepository.getPriceSeries("bitcoin", NOW - 100 * DAY, NOW)).thenReturn(daily(days));
+
+        try {
+            BackfillResult result = service.backfill("bitcoin", 100);
+            PriceSeries local = service.localSeries("bitcoin", 100);
+
+            assertTrue(result.isSuccess());
+            assertEquals(0, result.getGapsFound());
+            assertTrue(result.getTicksStored() >= 99, "stored " + result.getTicksStored());
+            assertNotNull(local);
+            assertEquals(NOW - 100 * DAY, local.firstTimestamp());
+            assertEquals(NOW, local.lastTimestamp());
+            verify(cryptoPriceRepository, times(1)).getPriceSeries("bitcoin", NOW - 100 * DAY, NOW);
+            verifyNoInteractions(marketDataSource);
+        } finally {
+            tickStore.close();
+        }
+    }
+}
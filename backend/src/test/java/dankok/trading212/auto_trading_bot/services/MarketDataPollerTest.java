@@ -0,0 +1,71 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.cache.IndicatorCache;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MarketDataPollerTest {
+
+    private CryptoDataService cryptoDataService;
+    private IndicatorCache indicatorCache;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        cryptoDataService = mock(CryptoDataService.class);
+        indicatorCache = mock(IndicatorCache.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private MarketDataPoller poller(Clock clock) {
+        return new MarketDataPoller(cryptoDataService, indicatorCache, List.of("bitcoin", " ethereum ", ""), 50, 100,
+            Duration.ofMinutes(5), meterRegistry, clock);
+    }
+
+    @Test
+    void poll_ShouldFillBuffersForWatchlist() {
+        when(cryptoDataService.fetchHistoricalSeries("bitcoin", 50))
+            .thenReturn(PriceSeries.wrap(new long[] {1, 2, 3}, new double[] {10.0, 11.0, 12.0}));
+        when(cryptoDataService.fetchHistoricalSeries("ethereum", 50)).thenReturn(PriceSeries.empty());
+        MarketDataPoller poller = poller(Clock.fixed(Instant.ofEpochSecond(1_000), ZoneOffset.UTC));
+
+        poller.poll();
+
+        assertEquals(2, poller.getWatchlist().size());
+        assertArrayEquals(new double[] {11.0, 12.0}, poller.recentPrices("bitcoin", 50, 2).toPriceArray());
+        assertNull(poller.recentPrices("ethereum", 50, 2));
+        assertNull(poller.recentPrices("dogecoin", 50, 2));
+        verify(indicatorCache).invalidate("bitcoin");
+        verify(indicatorCache, never()).invalidate("ethereum");
+        assertNull(poller.recentPrices("bitcoin", 90, 2));
+        assertEquals(1.0, meterRegistry.counter("market.data.poller.failures").count());
+    }
+
+    @Test
+    void recentPrices_ShouldIgnoreStaleBuffers() {
+        when(cryptoDataService.fetchHistoricalSeries(anyString(), eq(50)))
+            .thenReturn(PriceSeries.wrap(new long[] {1}, new double[] {10.0}));
+        Instant start = Instant.ofEpochSecond(1_000);
+        MarketDataPoller fresh = poller(Clock.fixed(start, ZoneOffset.UTC));
+        fresh.poll();
+        assertNotNull(fresh.recentPrices("bitcoin", 50, 1));
+
+        when(cryptoDataService.fetchHistoricalSeries(anyString(), eq(50))).thenThrow(new RuntimeException("down"));
+        fresh.poll();
+        assertNotNull(fresh.recentPrices("bitcoin", 50, 1));
+
+        MarketDataPoller neverPolled = poller(Clock.fixed(start.plus(Duration.ofMinutes(6)), ZoneOffset.UTC));
+        assertNull(neverPolled.recentPrices("bitcoin", 50, 1));
+    }
+}
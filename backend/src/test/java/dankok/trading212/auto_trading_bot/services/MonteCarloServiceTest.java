@@ -0,0 +1,112 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.dtos.Distribution;
+import dankok.trading212.auto_trading_bot.dtos.MonteCarloResult;
+import dankok.trading212.auto_trading_bot.indicators.ScalarBatchKernels;
+import dankok.trading212.auto_trading_bot.jobs.JobProgress;
+import dankok.trading212.auto_trading_bot.strategies.SmaCrossoverStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+
+import static dankok.trading212.auto_trading_bot.TestSeries.hourly;
+import static dankok.trading212.auto_trading_bot.TestSeries.randomWalk;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MonteCarloServiceTest {
+
+    private static final int HOURS_PER_YEAR = 8_760;
+
+    private BacktestService backtestService;
+    private MonteCarloService monteCarloService;
+
+    @BeforeEach
+    void setUp() {
+        backtestService = mock(BacktestService.class);
+        monteCarloService = new MonteCarloService(backtestService, new ScalarBatchKernels(), 4, 20_000);
+
+        when(backtestService.loadSeries("bitcoin", 365)).thenReturn(hourly(randomWalk(HOURS_PER_YEAR, 11, 0.02)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        monteCarloService.shutdown();
+    }
+
+    @Test
+    void run_ShouldReportOrderedDistributions() {
+        MonteCarloResult result = monteCarloService.run("bitcoin", 365, 1000.0, new SmaCrossoverStrategy(), 200, 24, 7);
+
+        assertTrue(result.isSuccess(), result.getMessage());
+        assertEquals(200, result.getPaths());
+        assertEquals(HOURS_PER_YEAR, result.getBars());
+        assertTrue(result.getLossProbability() >= 0 && result.getLossProbability() <= 1);
+        assertOrdered(result.getReturnPercentage());
+        assertOrdered(result.getMaxDrawdownPercentage());
+        assertOrdered(result.getTrades());
+        assertTrue(result.getMaxDrawdownPercentage().getMin() >= 0);
+        assertTrue(result.getTrades().getMax() > 0);
+    }
+
+    @Test
+    void run_WithSameSeed_ShouldNotDependOnParallelism() {
+        MonteCarloService single = new MonteCarloService(backtestService, new ScalarBatchKernels(), 1, 20_000);
+        try {
+            MonteCarloResult parallel = monteCarloService.run("bitcoin", 365, 1000.0, new SmaCrossoverStrategy(),
+                100, 24, 99);
+            MonteCarloResult sequential = single.run("bitcoin", 365, 1000.0, new SmaCrossoverStrategy(), 100, 24, 99);
+
+            assertEquals(parallel.getReturnPercentage().getMean(), sequential.getReturnPercentage().getMean());
+            assertEquals(parallel.getMaxDrawdownPercentage().getPercentile95(),
+                sequential.getMaxDrawdownPercentage().getPercentile95());
+            assertEquals(parallel.getLossProbability(), sequential.getLossProbability());
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void run_ShouldSimulateTenThousandYearLongPathsWellUnderAMinute() {
+        long start = System.nanoTime();
+        MonteCarloResult result = monteCarloService.run("bitcoin", 365, 1000.0, new SmaCrossoverStrategy(),
+            10_000, 24, 1);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(result.isSuccess(), result.getMessage());
+        assertTrue(elapsedMillis < 30_000, "10k paths took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void run_WithInvalidArguments_ShouldFail() {
+        SmaCrossoverStrategy strategy = new SmaCrossoverStrategy();
+
+        assertFalse(monteCarloService.run("bitcoin", 365, 1000.0, strategy, 0, 24, 1).isSuccess());
+        assertFalse(monteCarloService.run("bitcoin", 365, 1000.0, strategy, 20_001, 24, 1).isSuccess());
+        assertFalse(monteCarloService.run("bitcoin", 365, 0.0, strategy, 10, 24, 1).isSuccess());
+        assertEquals("Block length must be between 1 and " + (HOURS_PER_YEAR - 1),
+            monteCarloService.run("bitcoin", 365, 1000.0, strategy, 10, HOURS_PER_YEAR, 1).getMessage());
+    }
+
+    @Test
+    void run_WhenCancelled_ShouldStop() {
+        JobProgress cancelled = mock(JobProgress.class);
+        when(cancelled.isCancelled()).thenReturn(true);
+        doCallRealMethod().when(cancelled).checkCancelled();
+
+        assertThrows(CancellationException.class, () -> monteCarloService.run("bitcoin", 365, 1000.0,
+            new SmaCrossoverStrategy(), 1_000, 24, 1, cancelled));
+        verify(cancelled, never()).advance(anyLong());
+    }
+
+    private static void assertOrdered(Distribution distribution) {
+        assertTrue(distribution.getMin() <= distribution.getPercentile5());
+        assertTrue(distribution.getPercentile5() <= distribution.getPercentile25());
+        assertTrue(distribution.getPercentile25() <= distribution.getMedian());
+        assertTrue(distribution.getMedian() <= distribution.getPercentile75());
+        assertTrue(distribution.getPercentile75() <= distribution.getPercentile95());
+        assertTrue(distribution.getPercentile95() <= distribution.getMax());
+    }
+}
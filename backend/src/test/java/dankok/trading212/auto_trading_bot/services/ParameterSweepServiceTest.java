@@ -0,0 +1,164 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.backtest.BacktestEngine;
+import dankok.trading212.auto_trading_bot.dtos.ParameterRange;
+import dankok.trading212.auto_trading_bot.dtos.ParameterSweepRequest;
+import dankok.trading212.auto_trading_bot.dtos.ParameterSweepResult;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.dtos.SweepEntry;
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.IndicatorSet;
+import dankok.trading212.auto_trading_bot.indicators.ScalarBatchKernels;
+import dankok.trading212.auto_trading_bot.strategies.MacdCrossoverStrategy;
+import dankok.trading212.auto_trading_bot.strategies.RsiReversionStrategy;
+import dankok.trading212.auto_trading_bot.strategies.SmaCrossoverStrategy;
+import dankok.trading212.auto_trading_bot.strategies.StrategyRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static dankok.trading212.auto_trading_bot.TestSeries.hourly;
+import static dankok.trading212.auto_trading_bot.TestSeries.randomWalk;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ParameterSweepServiceTest {
+
+    private static final int HOURS_PER_YEAR = 8_760;
+
+    private BacktestService backtestService;
+    private ParameterSweepService sweepService;
+    private PriceSeries series;
+
+    @BeforeEach
+    void setUp() {
+        backtestService = mock(BacktestService.class);
+        StrategyRegistry registry = new StrategyRegistry(List.of(
+            new SmaCrossoverStrategy(), new RsiReversionStrategy(), new MacdCrossoverStrategy()));
+        sweepService = new ParameterSweepService(backtestService, registry, new ScalarBatchKernels(), 4, 10_000);
+
+        series = hourly(randomWalk(HOURS_PER_YEAR, 11, 0.02));
+        when(backtestService.loadSeries("bitcoin", 365)).thenReturn(series);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sweepService.shutdown();
+    }
+
+    private static ParameterSweepRequest request(String strategy, Map<String, ParameterRange> ranges, int limit) {
+        return new ParameterSweepRequest("bitcoin", 365, 1000.0, strategy, ranges, limit);
+    }
+
+    private static Map<String, ParameterRange> ranges(String first, ParameterRange firstRange,
+                                                      String second, ParameterRange secondRange) {
+        Map<String, ParameterRange> ranges = new LinkedHashMap<>();
+        ranges.put(first, firstRange);
+        ranges.put(second, secondRange);
+        return ranges;
+    }
+
+    @Test
+    void sweep_ShouldRankGridAndSkipInvalidCombinations() {
+        ParameterSweepResult result = sweepService.sweep(request(null, ranges(
+            "shortPeriod", new ParameterRange(5, 14, 1), "longPeriod", new ParameterRange(10, 19, 1)), 0));
+
+        assertTrue(result.isSuccess());
+        assertEquals(100, result.getCombinations());
+        // shortPeriod >= longPeriod for 1 + 2 + 3 + 4 + 5 combinations
+        assertEquals(15, result.getSkippedCombinations());
+        assertEquals(85, result.getResults().size());
+        assertEquals(HOURS_PER_YEAR, result.getBars());
+        for (int i = 0; i < result.getResults().size(); i++) {
+            assertEquals(i + 1, result.getResults().get(i).getRank());
+            if (i > 0) {
+                assertTrue(result.getResults().get(i - 1).getTotalReturnPercentage()
+                    >= result.getResults().get(i).getTotalReturnPercentage());
+            }
+        }
+        verify(backtestService, times(1)).loadSeries("bitcoin", 365);
+    }
+
+    @Test
+    void sweep_EntryShouldMatchBarByBarBacktest() {
+        ParameterSweepResult result = sweepService.sweep(request(SmaCrossoverStrategy.NAME, ranges(
+            "shortPeriod", new ParameterRange(5, 25, 5), "longPeriod", new ParameterRange(30, 90, 20)), 1));
+
+        assertEquals(1, result.getResults().size());
+        SweepEntry best = result.getResults().get(0);
+        SmaCrossoverStrategy strategy = new SmaCrossoverStrategy(best.getParameters().get("shortPeriod"),
+            best.getParameters().get("longPeriod"));
+        IndicatorSet indicators = new IndicatorSet();
+        strategy.registerIndicators(indicators);
+        BacktestEngine engine = new BacktestEngine(1000.0, series.size());
+        for (int i = 0; i < series.size(); i++) {
+            indicators.update(series.priceAt(i));
+            TradingSignalEunum signal = strategy.onPrice(series.timestampAt(i), series.priceAt(i), indicators);
+            if (i >= strategy.getWarmupPeriod()) {
+                engine.onBar(i, series.priceAt(i), signal);
+            }
+        }
+
+        assertEquals(engine.finalValue(), best.getFinalBalance(), 1e-6);
+        assertEquals(engine.getTrades().size(), best.getTotalTrades());
+    }
+
+    @Test
+    void sweep_FortyByFortyGridOverYearOfHourlyBars_ShouldFinishInSeconds() {
+        ParameterSweepResult result = sweepService.sweep(request(SmaCrossoverStrategy.NAME, ranges(
+            "shortPeriod", new ParameterRange(5, 44, 1), "longPeriod", new ParameterRange(50, 89, 1)), 10));
+
+        assertTrue(result.isSuccess());
+        assertEquals(1_600, result.getCombinations());
+        assertEquals(0, result.getSkippedCombinations());
+        assertEquals(10, result.getResults().size());
+        assertTrue(result.getElapsedMillis() < 5_000, result.getMessage());
+    }
+
+    @Test
+    void sweep_WithStreamingStrategy_ShouldEvaluateEveryCombination() {
+        ParameterSweepResult result = sweepService.sweep(request(RsiReversionStrategy.NAME, ranges(
+            "period", new ParameterRange(10, 14, 2), "oversold", new ParameterRange(20, 30, 5)), 0));
+
+        assertTrue(result.isSuccess());
+        assertEquals(9, result.getResults().size());
+        assertEquals(70, result.getResults().get(0).getParameters().get("overbought"));
+    }
+
+    @Test
+    void sweep_WithUnknownParameterOrOversizedGrid_ShouldFailWithoutLoading() {
+        ParameterSweepResult unknown = sweepService.sweep(request(null,
+            Map.of("window", new ParameterRange(1, 5, 1)), 0));
+        ParameterSweepResult oversized = sweepService.sweep(request(null, ranges(
+            "shortPeriod", new ParameterRange(1, 200, 1), "longPeriod", new ParameterRange(1, 200, 1)), 0));
+
+        assertFalse(unknown.isSuccess());
+        assertTrue(unknown.getMessage().contains("Unknown parameter 'window'"));
+        assertFalse(oversized.isSuccess());
+        assertTrue(oversized.getMessage().contains("10000 combinations"));
+        verifyNoInteractions(backtestService);
+    }
+
+    @Test
+    void grid_WithRangeEndingAtIntegerMax_ShouldTerminate() {
+        List<Map<String, Integer>> grid = ParameterSweepService.grid(new SmaCrossoverStrategy(),
+            Map.of("shortPeriod", new ParameterRange(2147483640, Integer.MAX_VALUE, 1)), 100);
+
+        assertEquals(8, grid.size());
+        assertEquals(Integer.MAX_VALUE, grid.get(7).get("shortPeriod"));
+    }
+
+    @Test
+    void sweep_WithNonPositivePeriods_ShouldFailBeforeBuildingGrid() {
+        ParameterSweepResult result = sweepService.sweep(request(null,
+            Map.of("shortPeriod", new ParameterRange(-2147483000, 10, 1)), 0));
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getMessage().contains("values must be positive"));
+        verifyNoInteractions(backtestService);
+    }
+}
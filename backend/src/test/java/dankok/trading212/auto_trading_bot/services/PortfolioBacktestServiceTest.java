@@ -0,0 +1,159 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.dtos.PortfolioBacktestResult;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.IndicatorSet;
+import dankok.trading212.auto_trading_bot.indicators.ScalarBatchKernels;
+import dankok.trading212.auto_trading_bot.strategies.SmaCrossoverStrategy;
+import dankok.trading212.auto_trading_bot.strategies.Strategy;
+import dankok.trading212.auto_trading_bot.strategies.StrategyRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PortfolioBacktestServiceTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private BacktestService backtestService;
+    private PortfolioBacktestService portfolioService;
+
+    // Buys below 100 and sells above 200
+    private final Strategy thresholdStrategy = new Strategy() {
+        @Override
+        public String getName() {
+            return "threshold";
+        }
+
+        @Override
+        public int getWarmupPeriod() {
+            return 0;
+        }
+
+        @Override
+        public void registerIndicators(IndicatorSet indicators) {
+        }
+
+        @Override
+        public TradingSignalEunum onPrice(long timestamp, double price, IndicatorSet indicators) {
+            return price < 100 ? TradingSignalEunum.BUY : price > 200 ? TradingSignalEunum.SELL : TradingSignalEunum.HOLD;
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        backtestService = mock(BacktestService.class);
+        portfolioService = new PortfolioBacktestService(backtestService,
+            new StrategyRegistry(List.of(new SmaCrossoverStrategy())), new ScalarBatchKernels(), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolioService.shutdown();
+    }
+
+    private static PriceSeries hourly(long firstTimestamp, double... prices) {
+        long[] timestamps = new long[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            timestamps[i] = firstTimestamp + i * HOUR;
+        }
+        return PriceSeries.wrap(timestamps, prices);
+    }
+
+    private static PriceSeries flat(long firstTimestamp, int size, double price) {
+        double[] prices = new double[size];
+        Arrays.fill(prices, price);
+        return hourly(firstTimestamp, prices);
+    }
+
+    @Test
+    void runBacktest_ShouldLoadAllCoinsConcurrently() {
+        CountDownLatch allLoading = new CountDownLatch(3);
+        for (String coinId : List.of("bitcoin", "ethereum", "solana")) {
+            when(backtestService.loadSeries(coinId, 30)).thenAnswer(invocation -> {
+                allLoading.countDown();
+                if (!allLoading.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Coins were loaded one after another");
+                }
+                return flat(0, 100, 50);
+            });
+        }
+
+        PortfolioBacktestResult result = portfolioService.runBacktest(List.of("bitcoin", "ethereum", "solana"), 30,
+            1000.0, thresholdStrategy);
+
+        assertTrue(result.isSuccess(), result.getSummary());
+        assertEquals(3, result.getCoins().size());
+    }
+
+    @Test
+    void runBacktest_ShouldAlignCoinsOnOverlappingTimeline() {
+        when(backtestService.loadSeries("bitcoin", 30)).thenReturn(flat(0, 100, 150));
+        // Sampled half an hour later and starting ten hours later
+        when(backtestService.loadSeries("ethereum", 30)).thenReturn(flat(10 * HOUR + HOUR / 2, 200, 150));
+
+        PortfolioBacktestResult result = portfolioService.runBacktest(List.of("bitcoin", "ethereum"), 30, 1000.0,
+            thresholdStrategy);
+
+        assertTrue(result.isSuccess());
+        // From 10.5h to bitcoin's last sample at 99h, one bar per hour
+        assertEquals(89, result.getBars());
+    }
+
+    @Test
+    void runBacktest_ShouldShareOneCashBalanceAcrossCoins() {
+        for (String coinId : List.of("bitcoin", "ethereum", "solana")) {
+            when(backtestService.loadSeries(coinId, 30)).thenReturn(flat(0, 10, 50));
+        }
+
+        PortfolioBacktestResult result = portfolioService.runBacktest(List.of("bitcoin", "ethereum", "solana"), 30,
+            150.0, thresholdStrategy);
+
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getTotalTrades());
+        assertEquals(100.0, result.getCoins().get(0).getPositionValue(), 1e-9);
+        assertEquals(50.0, result.getCoins().get(1).getPositionValue(), 1e-9);
+        assertEquals(0, result.getCoins().get(2).getTotalTrades());
+        assertEquals(0.0, result.getCash(), 1e-9);
+        assertEquals(150.0, result.getFinalBalance(), 1e-9);
+    }
+
+    @Test
+    void runBacktest_SellsShouldFundBuysOnTheSameBar() {
+        when(backtestService.loadSeries("bitcoin", 30)).thenReturn(hourly(0, 50, 300));
+        when(backtestService.loadSeries("ethereum", 30)).thenReturn(hourly(0, 150, 50));
+
+        PortfolioBacktestResult result = portfolioService.runBacktest(List.of("ethereum", "bitcoin"), 30, 100.0,
+            thresholdStrategy);
+
+        assertTrue(result.isSuccess());
+        assertEquals(1, result.getCoins().get(0).getTotalTrades());
+        assertEquals("BUY", result.getCoins().get(0).getTrades().get(0).getAction());
+        assertEquals(2, result.getCoins().get(1).getTotalTrades());
+        assertEquals(500.0, result.getCash(), 1e-9);
+        assertEquals(600.0, result.getFinalBalance(), 1e-9);
+        assertEquals(500.0, result.getTotalReturnPercentage(), 1e-9);
+    }
+
+    @Test
+    void runBacktest_WhenOneCoinFailsToLoad_ShouldReturnFailure() {
+        when(backtestService.loadSeries("bitcoin", 30)).thenReturn(flat(0, 100, 50));
+        when(backtestService.loadSeries("ethereum", 30)).thenThrow(new RuntimeException("API Error"));
+
+        PortfolioBacktestResult result = portfolioService.runBacktest(List.of("bitcoin", "ethereum"), 30, 1000.0,
+            thresholdStrategy);
+
+        assertFalse(result.isSuccess());
+        assertEquals("Failed to load price history: API Error", result.getSummary());
+        assertEquals(1000.0, result.getFinalBalance());
+    }
+}
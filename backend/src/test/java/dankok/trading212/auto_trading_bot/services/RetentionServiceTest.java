@@ -0,0 +1,91 @@
+package dankok.trading212.auto_trading_bot.services;
+
+import dankok.trading212.auto_trading_bot.repositories.CryptoPriceRepository;
+import dankok.trading212.auto_trading_bot.repositories.SessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RetentionServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-10T12:00:00Z");
+
+    private CryptoPriceRepository cryptoPriceRepository;
+    private SessionRepository sessionRepository;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        cryptoPriceRepository = mock(CryptoPriceRepository.class);
+        sessionRepository = mock(SessionRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private RetentionService service(boolean partitioned) {
+        return new RetentionService(cryptoPriceRepository, sessionRepository, 30, partitioned, 2, 100, 0,
+            Duration.ofMinutes(5), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void purgePrices_ShouldDeleteChunkByChunkUntilNothingIsLeft() {
+        LocalDateTime cutoff = LocalDateTime.of(2024, 5, 11, 12, 0);
+        when(cryptoPriceRepository.findPurgeChunkEnd(0, cutoff, 100)).thenReturn(150L);
+        when(cryptoPriceRepository.findPurgeChunkEnd(150, cutoff, 100)).thenReturn(260L);
+        when(cryptoPriceRepository.findPurgeChunkEnd(260, cutoff, 100)).thenReturn(null);
+        when(cryptoPriceRepository.deletePriceChunk(0, 150, cutoff)).thenReturn(100);
+        when(cryptoPriceRepository.deletePriceChunk(150, 260, cutoff)).thenReturn(40);
+
+        assertEquals(140, service(false).purgePrices());
+
+        verify(cryptoPriceRepository, never()).getPartitions();
+        assertEquals(140.0, meterRegistry.counter("retention.purged.rows", "table", "crypto_prices").count());
+        assertEquals(1, meterRegistry.timer("retention.purge", "table", "crypto_prices").count());
+    }
+
+    @Test
+    void purgePrices_WhenPartitioned_ShouldDropExpiredPartitionsAndAddUpcomingDays() {
+        long may1 = Instant.parse("2024-05-01T00:00:00Z").getEpochSecond();
+        long june11 = Instant.parse("2024-06-11T00:00:00Z").getEpochSecond();
+        when(cryptoPriceRepository.getPartitions()).thenReturn(List.of(
+            Map.of("name", "p20240430", "bound", String.valueOf(may1)),
+            Map.of("name", "p20240610", "bound", String.valueOf(june11)),
+            Map.of("name", "pmax", "bound", "MAXVALUE")));
+
+        service(true).purgePrices();
+
+        verify(cryptoPriceRepository).dropPartition("p20240430");
+        verify(cryptoPriceRepository, never()).dropPartition("p20240610");
+        verify(cryptoPriceRepository).addPartition("p20240611", Instant.parse("2024-06-12T00:00:00Z").getEpochSecond());
+        verify(cryptoPriceRepository).addPartition("p20240612", Instant.parse("2024-06-13T00:00:00Z").getEpochSecond());
+        verify(cryptoPriceRepository, times(2)).addPartition(anyString(), anyLong());
+        assertEquals(1.0, meterRegistry.counter("retention.partitions.dropped").count());
+    }
+
+    @Test
+    void purge_ShouldPurgeSessionsAndReportTableSizesEvenIfPricesFail() {
+        when(cryptoPriceRepository.findPurgeChunkEnd(anyLong(), any(), anyInt())).thenThrow(new RuntimeException("Lock wait timeout"));
+        when(sessionRepository.findExpiredChunkEnd(0, 100)).thenReturn(7L);
+        when(sessionRepository.findExpiredChunkEnd(7, 100)).thenReturn(null);
+        when(sessionRepository.deleteExpiredChunk(0, 7)).thenReturn(5);
+        when(cryptoPriceRepository.estimateRowCount()).thenReturn(12_000L);
+        when(sessionRepository.estimateRowCount()).thenReturn(40L);
+
+        service(false).purge();
+
+        verify(sessionRepository).deleteExpiredChunk(0, 7);
+        assertEquals(12_000.0, meterRegistry.get("retention.table.rows").tag("table", "crypto_prices").gauge().value());
+        assertEquals(40.0, meterRegistry.get("retention.table.rows").tag("table", "user_sessions").gauge().value());
+    }
+}
@@ -1,11 +1,18 @@
 package dankok.trading212.auto_trading_bot.services;
 
+import dankok.trading212.auto_trading_bot.cache.IndicatorCache;
 import dankok.trading212.auto_trading_bot.dtos.CoinAnalysis;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
 import dankok.trading212.auto_trading_bot.dtos.TradeResult;
 import dankok.trading212.auto_trading_bot.dtos.TradingAnalysisResult;
 import dankok.trading212.auto_trading_bot.enums.TradeActionEnum;
 import dankok.trading212.auto_trading_bot.enums.TradingModeEnum;
 import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.ScalarBatchKernels;
+import dankok.trading212.auto_trading_bot.strategies.SmaCrossoverStrategy;
+import dankok.trading212.auto_trading_bot.strategies.Strategy;
+import dankok.trading212.auto_trading_bot.strategies.StrategyRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -20,6 +27,7 @@ class TradingBotServiceTest {
     private TradeExecutorService tradeExecutorService;
     private BotStateService botStateService;
     private BacktestService backtestService;
+    private MarketDataPoller marketDataPoller;
     private TradingBotService tradingBotService;
 
     @BeforeEach
@@ -28,7 +36,10 @@ class TradingBotServiceTest {
         tradeExecutorService = mock(TradeExecutorService.class);
         botStateService = mock(BotStateService.class);
         backtestService = mock(BacktestService.class);
-        tradingBotService = new TradingBotService(cryptoDataService, tradeExecutorService, botStateService, backtestService);
+        marketDataPoller = mock(MarketDataPoller.class);
+        tradingBotService = new TradingBotService(cryptoDataService, tradeExecutorService, botStateService,
+                backtestService, marketDataPoller, new StrategyRegistry(List.of(new SmaCrossoverStrategy())),
+                new IndicatorCache(100, new ScalarBatchKernels(), new SimpleMeterRegistry()));
     }
 
     @Test
@@ -43,8 +54,8 @@ class TradingBotServiceTest {
     void executeTradingLogic_ShouldAnalyzeCoinsAndReturnResult() {
         when(botStateService.isActive()).thenReturn(true);
         List<Double> prices = new ArrayList<>();
-        for (int i = 0; i < 50; i++) prices.add(100.0 + i);
-        when(cryptoDataService.fetchHistoricalPrices("btc", 50)).thenReturn(prices);
+        for (int i = 0; i < 200; i++) prices.add(100.0 + i);
+        when(cryptoDataService.fetchHistoricalSeries("btc", 30)).thenReturn(PriceSeries.fromPrices(prices));
         when(tradeExecutorService.executeBuyTrade(anyInt(), anyString(), anyDouble(), anyDouble()))
                 .thenReturn(new TradeResult(true, TradeActionEnum.BUY.name(), 1, 150.0, 150.0, "Buy"));
         TradingAnalysisResult result = tradingBotService.executeTradingLogic(List.of("btc"), TradingModeEnum.TRADING);
@@ -54,17 +65,44 @@ class TradingBotServiceTest {
 
     @Test
     void analyzeCoin_ShouldReturnNotEnoughDataIfInsufficient() {
-        when(cryptoDataService.fetchHistoricalPrices("btc", 50)).thenReturn(List.of(1.0, 2.0));
+        when(cryptoDataService.fetchHistoricalSeries("btc", 30)).thenReturn(PriceSeries.fromPrices(List.of(1.0, 2.0)));
         CoinAnalysis analysis = invokeAnalyzeCoin("btc", TradingModeEnum.TRADING);
         assertEquals(TradingSignalEunum.NONE.name(), analysis.getSignal());
         assertTrue(analysis.getStatus().contains("Not enough historical data"));
     }
 
+    @Test
+    void analyzeCoin_ShouldUsePolledPricesWhenAvailable() {
+        List<Double> prices = new ArrayList<>();
+        for (int i = 0; i < 200; i++) prices.add(400.0 - i);
+        when(marketDataPoller.recentPrices("btc", 30, 200)).thenReturn(PriceSeries.fromPrices(prices));
+        CoinAnalysis analysis = invokeAnalyzeCoin("btc", TradingModeEnum.TRAINING);
+        assertEquals(TradingSignalEunum.SELL.name(), analysis.getSignal());
+        verify(cryptoDataService, never()).fetchHistoricalSeries(anyString(), anyInt());
+    }
+
+    @Test
+    void analyzeCoin_ShouldSeeSameWindowFromPollerAndCoinGecko() {
+        List<Double> prices = new ArrayList<>();
+        for (int i = 0; i < 720; i++) prices.add(100.0 + 20 * Math.sin(i / 15.0) + i * 0.01);
+        PriceSeries fetched = PriceSeries.fromPrices(prices);
+        when(cryptoDataService.fetchHistoricalSeries("btc", 30)).thenReturn(fetched);
+        CoinAnalysis fromCoinGecko = invokeAnalyzeCoin("btc", TradingModeEnum.TRAINING);
+
+        when(marketDataPoller.recentPrices("eth", 30, 200)).thenReturn(fetched.last(200));
+        CoinAnalysis fromPoller = invokeAnalyzeCoin("eth", TradingModeEnum.TRAINING);
+
+        assertEquals(fromCoinGecko.getSignal(), fromPoller.getSignal());
+        assertEquals(fromCoinGecko.getShortTermSMA(), fromPoller.getShortTermSMA());
+        assertEquals(fromCoinGecko.getLongTermSMA(), fromPoller.getLongTermSMA());
+    }
+
     private CoinAnalysis invokeAnalyzeCoin(String coinId, TradingModeEnum mode) {
         try {
-            java.lang.reflect.Method method = TradingBotService.class.getDeclaredMethod("analyzeCoin", String.class, TradingModeEnum.class);
+            java.lang.reflect.Method method = TradingBotService.class.getDeclaredMethod("analyzeCoin", String.class, TradingModeEnum.class,
+                Strategy.class);
             method.setAccessible(true);
-            return (CoinAnalysis) method.invoke(tradingBotService, coinId, mode);
+            return (CoinAnalysis) method.invoke(tradingBotService, coinId, mode, new SmaCrossoverStrategy());
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,95 @@
+package dankok.trading212.auto_trading_bot.store;
+
+import dankok.trading212.auto_trading_bot.dtos.Candle;
+import dankok.trading212.auto_trading_bot.dtos.PricePoint;
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.enums.CandleIntervalEnum;
+import dankok.trading212.auto_trading_bot.repositories.CandleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CandleRollupTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    private CandleRepository candleRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CandleRollup candleRollup;
+
+    @BeforeEach
+    void setUp() {
+        candleRepository = mock(CandleRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        candleRollup = new CandleRollup(candleRepository, meterRegistry);
+    }
+
+    @Test
+    void aggregate_ShouldFoldOutOfOrderPointsIntoOneCandlePerBucket() {
+        List<PricePoint> points = List.of(
+            new PricePoint("bitcoin", 105, T0.plusSeconds(30)),
+            new PricePoint("bitcoin", 100, T0.plusSeconds(5)),
+            new PricePoint("bitcoin", 120, T0.plusSeconds(20)),
+            new PricePoint("bitcoin", 90, T0.plusSeconds(50)),
+            new PricePoint("bitcoin", 110, T0.plusMinutes(1)),
+            new PricePoint("ethereum", 3000, T0.plusSeconds(10)));
+
+        List<Candle> minutes = CandleRollup.aggregate(points, CandleIntervalEnum.ONE_MINUTE);
+
+        assertEquals(3, minutes.size());
+        Candle first = minutes.get(0);
+        assertEquals("bitcoin", first.getSymbol());
+        assertEquals(T0, first.getBucketStart());
+        assertEquals(100, first.getOpen());
+        assertEquals(120, first.getHigh());
+        assertEquals(90, first.getLow());
+        assertEquals(90, first.getClose());
+        assertEquals(T0.plusSeconds(5), first.getOpenTime());
+        assertEquals(T0.plusSeconds(50), first.getCloseTime());
+
+        List<Candle> hours = CandleRollup.aggregate(points, CandleIntervalEnum.ONE_HOUR);
+        assertEquals(2, hours.size());
+        assertEquals(110, hours.get(0).getClose());
+        assertEquals(90, hours.get(0).getLow());
+    }
+
+    @Test
+    void rollup_ShouldUpsertEveryIntervalAndCountFailures() {
+        when(candleRepository.upsertCandles(eq(CandleIntervalEnum.ONE_HOUR), anyList()))
+            .thenThrow(new RuntimeException("Deadlock"));
+
+        candleRollup.rollup(List.of(new PricePoint("bitcoin", 100, T0)));
+
+        verify(candleRepository).upsertCandles(eq(CandleIntervalEnum.ONE_MINUTE), anyList());
+        verify(candleRepository).upsertCandles(eq(CandleIntervalEnum.ONE_HOUR), anyList());
+        verify(candleRepository).upsertCandles(eq(CandleIntervalEnum.ONE_DAY), anyList());
+        assertEquals(1.0, meterRegistry.counter("candles.rollup.failures").count());
+    }
+
+    @Test
+    void closeSeries_ShouldStampClosesWithTheirSampleTime() {
+        LocalDateTime day = T0.toLocalDate().atStartOfDay();
+        when(candleRepository.getCandles(eq("bitcoin"), eq(CandleIntervalEnum.ONE_DAY), any(), any())).thenReturn(List.of(
+            new Candle("bitcoin", day, 1, 3, 1, 2, day, day.plusHours(23)),
+            new Candle("bitcoin", day.plusDays(1), 2, 5, 2, 4, day.plusDays(1), day.plusDays(1).plusHours(23))));
+
+        PriceSeries closes = candleRollup.closeSeries("bitcoin", CandleIntervalEnum.ONE_DAY,
+            millis(day), millis(day.plusDays(2)));
+
+        assertEquals(2, closes.size());
+        assertEquals(millis(day.plusHours(23)), closes.timestampAt(0));
+        assertEquals(4, closes.lastPrice());
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,131 @@
+package dankok.trading212.auto_trading_bot.store;
+
+import dankok.trading212.auto_trading_bot.dtos.PricePoint;
+import dankok.trading212.auto_trading_bot.repositories.CryptoPriceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class PriceWriteBehindQueueTest {
+
+    private CryptoPriceRepository cryptoPriceRepository;
+    private CandleRollup candleRollup;
+    private SimpleMeterRegistry meterRegistry;
+    private PriceWriteBehindQueue queue;
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cryptoPriceRepository = mock(CryptoPriceRepository.class);
+        candleRollup = mock(CandleRollup.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(cryptoPriceRepository.savePrices(anyList())).thenAnswer(invocation -> {
+            List<?> batch = invocation.getArgument(0);
+            synchronized (batchSizes) {
+                batchSizes.add(batch.size());
+            }
+            return new int[batch.size()];
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    private static PricePoint point(String symbol, double price) {
+        return new PricePoint(symbol, price, LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+
+    @Test
+    void flusher_ShouldWriteFullBatchesWithoutWaitingForInterval() {
+        queue = new PriceWriteBehindQueue(cryptoPriceRepository, candleRollup, 100, 10, 60_000, 0, meterRegistry);
+        queue.start();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.enqueue(point("bitcoin", i + 1)));
+        }
+
+        verify(cryptoPriceRepository, timeout(5_000)).savePrices(anyList());
+        assertEquals(List.of(10), batchSizes);
+    }
+
+    @Test
+    void flusher_ShouldWritePartialBatchAfterInterval() {
+        queue = new PriceWriteBehindQueue(cryptoPriceRepository, candleRollup, 100, 10, 50, 0, meterRegistry);
+        queue.start();
+
+        queue.enqueue(point("bitcoin", 1));
+        queue.enqueue(point("ethereum", 2));
+
+        verify(cryptoPriceRepository, timeout(5_000)).savePrices(anyList());
+        assertEquals(2, meterRegistry.counter("price.writebehind.points", "result", "written").count());
+    }
+
+    @Test
+    void enqueue_ShouldDropWhenQueueStaysFull() {
+        queue = new PriceWriteBehindQueue(cryptoPriceRepository, candleRollup, 2, 10, 60_000, 1, meterRegistry);
+
+        assertTrue(queue.enqueue(point("bitcoin", 1)));
+        assertTrue(queue.enqueue(point("bitcoin", 2)));
+        assertFalse(queue.enqueue(point("bitcoin", 3)));
+
+        assertEquals(1, meterRegistry.counter("price.writebehind.points", "result", "dropped").count());
+    }
+
+    @Test
+    void stop_ShouldFlushQueuedPoints() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(cryptoPriceRepository.savePrices(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            List<?> batch = invocation.getArgument(0);
+            synchronized (batchSizes) {
+                batchSizes.add(batch.size());
+            }
+            return new int[batch.size()];
+        });
+
+        queue = new PriceWriteBehindQueue(cryptoPriceRepository, candleRollup, 100, 1, 60_000, 0, meterRegistry);
+        queue.start();
+        queue.enqueue(point("bitcoin", 1));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        queue.enqueue(point("bitcoin", 2));
+        queue.enqueue(point("bitcoin", 3));
+        release.countDown();
+
+        queue.stop();
+
+        assertEquals(3, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(0, queue.pending());
+    }
+
+    @Test
+    void failedFlush_ShouldBeCountedAndNotStopFlusher() {
+        when(cryptoPriceRepository.savePrices(anyList()))
+            .thenThrow(new RuntimeException("db down"))
+            .thenReturn(new int[1]);
+        queue = new PriceWriteBehindQueue(cryptoPriceRepository, candleRollup, 100, 1, 60_000, 0, meterRegistry);
+        queue.start();
+
+        queue.enqueue(point("bitcoin", 1));
+        queue.enqueue(point("bitcoin", 2));
+
+        verify(cryptoPriceRepository, timeout(5_000).times(2)).savePrices(anyList());
+        assertEquals(1, meterRegistry.counter("price.writebehind.points", "result", "failed").count());
+    }
+}
@@ -0,0 +1,129 @@
+package dankok.trading212.auto_trading_bot.store;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private TickStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void range_ShouldReturnTicksWithinBoundsAcrossGrowth() {
+        store = new TickStore(directory, 4, true);
+        long[] timestamps = new long[100];
+        double[] prices = new double[100];
+        for (int i = 0; i < 100; i++) {
+            timestamps[i] = 1_000L * i;
+            prices[i] = i;
+        }
+
+        assertEquals(100, store.append("bitcoin", PriceSeries.wrap(timestamps, prices)));
+
+        TickView view = store.range("bitcoin", 10_500, 20_000);
+        assertEquals(10, view.size());
+        assertEquals(11_000, view.firstTimestamp());
+        assertEquals(20.0, view.priceAt(9));
+        assertArrayEquals(new double[] {11.0, 12.0}, store.range("bitcoin", 11_000, 12_000).toPriceSeries().toPriceArray());
+        assertTrue(store.range("bitcoin", 200_000, 300_000).isEmpty());
+        assertTrue(store.range("ethereum", 0, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void append_ShouldMergeOlderTicksAndKeepStoredOnes() {
+        store = new TickStore(directory, 16, true);
+        store.append("bitcoin", 2_000, 2.0);
+
+        assertEquals(2, store.append("bitcoin", PriceSeries.wrap(new long[] {1_000, 2_000, 3_000}, new double[] {1.0, 2.5, 3.0})));
+
+        assertArrayEquals(new double[] {1.0, 2.0, 3.0}, store.range("bitcoin", 0, Long.MAX_VALUE).toPriceSeries().toPriceArray());
+        assertEquals(3_000L, store.lastTimestamp("bitcoin"));
+        assertEquals(0, store.append("bitcoin", PriceSeries.wrap(new long[] {1_000, 2_000}, new double[] {9.0, 9.0})));
+    }
+
+    @Test
+    void append_WithHistoryOlderThanLiveTicks_ShouldMergeItInAndSurviveReopen() {
+        store = new TickStore(directory, 2, true);
+        store.append("bitcoin", 10_000, 10.0);
+        TickView before = store.range("bitcoin", 0, Long.MAX_VALUE);
+        long[] timestamps = new long[9];
+        double[] prices = new double[9];
+        for (int i = 0; i < 9; i++) {
+            timestamps[i] = 1_000L * (i + 1);
+            prices[i] = i + 1;
+        }
+
+        assertEquals(9, store.append("bitcoin", PriceSeries.wrap(timestamps, prices)));
+        store.append("bitcoin", 11_000, 11.0);
+
+        assertEquals(1, before.size());
+        assertEquals(10.0, before.priceAt(0));
+        assertEquals(9, store.range("bitcoin", 1_000, 9_000).size());
+        store.close();
+        store = new TickStore(directory, 2, true);
+        assertArrayEquals(new long[] {1_000, 2_000, 3_000, 4_000, 5_000, 6_000, 7_000, 8_000, 9_000, 10_000, 11_000},
+            store.range("bitcoin", 0, Long.MAX_VALUE).toPriceSeries().toTimestampArray());
+    }
+
+    @Test
+    void reopen_ShouldFinishAMergeInterruptedAfterItsMarkerAndDropOneInterruptedBefore() throws Exception {
+        store = new TickStore(directory, 2, true);
+        store.append("bitcoin", PriceSeries.wrap(new long[] {1, 2}, new double[] {1.0, 2.0}));
+        store.append("ethereum", PriceSeries.wrap(new long[] {5}, new double[] {5.0}));
+        store.close();
+        // A completed merge leaves the same files under the .merge names
+        Files.copy(directory.resolve("bitcoin.ts"), directory.resolve("ethereum.ts.merge"), StandardCopyOption.REPLACE_EXISTING);
+        Files.copy(directory.resolve("bitcoin.px"), directory.resolve("ethereum.px.merge"), StandardCopyOption.REPLACE_EXISTING);
+        Files.createFile(directory.resolve("ethereum.merged"));
+        Files.copy(directory.resolve("ethereum.ts"), directory.resolve("bitcoin.ts.merge"));
+
+        store = new TickStore(directory, 2, true);
+
+        assertArrayEquals(new long[] {1, 2}, store.range("ethereum", 0, Long.MAX_VALUE).toPriceSeries().toTimestampArray());
+        assertArrayEquals(new long[] {1, 2}, store.range("bitcoin", 0, Long.MAX_VALUE).toPriceSeries().toTimestampArray());
+        assertFalse(Files.exists(directory.resolve("ethereum.merged")));
+        assertFalse(Files.exists(directory.resolve("bitcoin.ts.merge")));
+    }
+
+    @Test
+    void reopen_ShouldKeepCommittedTicks() {
+        store = new TickStore(directory, 2, true);
+        store.append("bitcoin", PriceSeries.wrap(new long[] {1, 2, 3}, new double[] {1.0, 2.0, 3.0}));
+        store.close();
+
+        store = new TickStore(directory, 2, true);
+        assertEquals(3, store.size("bitcoin"));
+        store.append("bitcoin", 4, 4.0);
+        assertArrayEquals(new long[] {1, 2, 3, 4}, store.range("bitcoin", 0, Long.MAX_VALUE).toPriceSeries().toTimestampArray());
+    }
+
+    @Test
+    void append_ShouldRejectCoinIdsThatAreNotPlainFileNames() {
+        store = new TickStore(directory, 2, true);
+        assertThrows(IllegalArgumentException.class, () -> store.append("../etc", 1, 1.0));
+    }
+
+    @Test
+    void disabledStore_ShouldIgnoreWrites() {
+        store = new TickStore(directory, 2, false);
+        assertEquals(0, store.append("bitcoin", PriceSeries.wrap(new long[] {1}, new double[] {1.0})));
+        assertNull(store.lastTimestamp("bitcoin"));
+    }
+}
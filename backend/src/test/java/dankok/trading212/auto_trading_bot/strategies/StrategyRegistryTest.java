@@ -0,0 +1,61 @@
+package dankok.trading212.auto_trading_bot.strategies;
+
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.IndicatorSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StrategyRegistryTest {
+
+    private final StrategyRegistry registry = new StrategyRegistry(List.of(
+        new SmaCrossoverStrategy(), new RsiReversionStrategy(), new MacdCrossoverStrategy()));
+
+    @Test
+    void get_ShouldResolveByNameAndFallBackToSmaCrossover() {
+        assertEquals(RsiReversionStrategy.NAME, registry.get(" RSI-Reversion ").getName());
+        assertEquals(SmaCrossoverStrategy.NAME, registry.get(null).getName());
+        assertEquals(SmaCrossoverStrategy.NAME, registry.get("").getName());
+        assertEquals(List.of("macd-crossover", "rsi-reversion", "sma-crossover"), registry.getNames());
+    }
+
+    @Test
+    void get_WithUnknownName_ShouldListAvailableStrategies() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> registry.get("martingale"));
+        assertTrue(e.getMessage().contains("sma-crossover"));
+    }
+
+    @Test
+    void constructor_WithDuplicateNames_ShouldFail() {
+        assertThrows(IllegalStateException.class,
+            () -> new StrategyRegistry(List.of(new SmaCrossoverStrategy(), new SmaCrossoverStrategy(5, 20))));
+    }
+
+    @Test
+    void strategiesOnSameCoin_ShouldShareIndicators() {
+        Strategy crossover = new SmaCrossoverStrategy(2, 4);
+        Strategy slowerCrossover = new SmaCrossoverStrategy(4, 8);
+        IndicatorSet indicators = new IndicatorSet();
+        crossover.registerIndicators(indicators);
+        slowerCrossover.registerIndicators(indicators);
+
+        // sma(4) is needed by both and only computed once
+        assertEquals(3, indicators.size());
+
+        TradingSignalEunum fast = TradingSignalEunum.NONE;
+        TradingSignalEunum slow = TradingSignalEunum.NONE;
+        for (int i = 1; i <= 8; i++) {
+            indicators.update(i);
+            fast = crossover.onPrice(i, i, indicators);
+            slow = slowerCrossover.onPrice(i, i, indicators);
+            if (i == 3) {
+                assertEquals(TradingSignalEunum.NONE, fast);
+            }
+        }
+        assertEquals(TradingSignalEunum.BUY, fast);
+        assertEquals(TradingSignalEunum.BUY, slow);
+        assertThrows(IllegalStateException.class, () -> indicators.ema(3));
+    }
+}
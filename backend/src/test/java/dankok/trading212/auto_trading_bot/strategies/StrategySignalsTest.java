@@ -0,0 +1,45 @@
+package dankok.trading212.auto_trading_bot.strategies;
+
+import dankok.trading212.auto_trading_bot.enums.TradingSignalEunum;
+import dankok.trading212.auto_trading_bot.indicators.BatchKernels;
+import dankok.trading212.auto_trading_bot.indicators.ScalarBatchKernels;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static dankok.trading212.auto_trading_bot.TestSeries.randomWalk;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StrategySignalsTest {
+
+    private final BatchKernels kernels = new ScalarBatchKernels();
+
+    @Test
+    void compute_WithReusedBuffers_ShouldMatchFreshComputation() {
+        int size = 500;
+        long[] timestamps = new long[size];
+        for (int i = 0; i < size; i++) {
+            timestamps[i] = i;
+        }
+
+        for (Strategy strategy : List.of(new SmaCrossoverStrategy(5, 20), new RsiReversionStrategy())) {
+            SignalBuffers buffers = new SignalBuffers(size);
+            for (long seed = 1; seed <= 3; seed++) {
+                double[] prices = randomWalk(size, seed);
+
+                TradingSignalEunum[] reused = StrategySignals.compute(strategy, timestamps, prices, kernels, buffers);
+
+                assertSame(buffers.getSignals(), reused);
+                assertArrayEquals(StrategySignals.compute(strategy, timestamps, prices, kernels), reused,
+                    strategy.getName() + " seed " + seed);
+            }
+        }
+    }
+
+    @Test
+    void compute_WithBuffersOfAnotherLength_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> StrategySignals.compute(new SmaCrossoverStrategy(),
+            new long[10], new double[10], kernels, new SignalBuffers(11)));
+    }
+
+}
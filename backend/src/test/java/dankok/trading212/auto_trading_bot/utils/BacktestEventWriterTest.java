@@ -0,0 +1,51 @@
+package dankok.trading212.auto_trading_bot.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dankok.trading212.auto_trading_bot.dtos.EquityPoint;
+import dankok.trading212.auto_trading_bot.enums.StreamFormatEnum;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BacktestEventWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void ndjson_ShouldWriteOneTypedObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BacktestEventWriter writer = new BacktestEventWriter(out, objectMapper, StreamFormatEnum.NDJSON);
+
+        writer.write("equity", new EquityPoint(3, LocalDateTime.of(2024, 1, 1, 0, 0), 100.5, 1010.0));
+        writer.write("summary", Map.of("success", true));
+        assertEquals(0, out.size());
+        writer.flush();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode equity = objectMapper.readTree(lines[0]);
+        assertEquals("equity", equity.get("type").asText());
+        assertEquals(3, equity.get("data").get("bar").asInt());
+        assertEquals(1010.0, equity.get("data").get("equity").asDouble());
+        assertEquals("{\"type\":\"summary\",\"data\":{\"success\":true}}", lines[1]);
+    }
+
+    @Test
+    void sse_ShouldWriteNamedEvents() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BacktestEventWriter writer = new BacktestEventWriter(out, objectMapper, StreamFormatEnum.SSE);
+
+        writer.write("trade", Map.of("action", "BUY"));
+        writer.write("summary", Map.of("success", true));
+        writer.flush();
+
+        assertEquals("event: trade\ndata: {\"action\":\"BUY\"}\n\nevent: summary\ndata: {\"success\":true}\n\n",
+            out.toString(StandardCharsets.UTF_8));
+    }
+}
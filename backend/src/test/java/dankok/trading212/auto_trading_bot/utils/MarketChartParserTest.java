@@ -0,0 +1,66 @@
+package dankok.trading212.auto_trading_bot.utils;
+
+import dankok.trading212.auto_trading_bot.dtos.PriceSeries;
+import dankok.trading212.auto_trading_bot.utils.MarketChartParser.Series;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketChartParserTest {
+
+    private static final String RESPONSE = """
+        {
+          "prices": [[1700000000000, 35000.5], [1700003600000, 35100], [1700007200000, null], [1700010800000, 35200.25]],
+          "market_caps": [[1700000000000, 6.8E11], [1700003600000, 6.9E11]],
+          "total_volumes": [[1700000000000, 1.2E10]]
+        }
+        """;
+
+    @Test
+    void parsePrices_ShouldReadTimestampsAndPricesIntoPrimitiveArrays() throws IOException {
+        PriceSeries points = MarketChartParser.parsePrices(stream(RESPONSE));
+
+        assertArrayEquals(new long[] {1700000000000L, 1700003600000L, 1700010800000L}, points.toTimestampArray());
+        assertArrayEquals(new double[] {35000.5, 35100.0, 35200.25}, points.toPriceArray());
+    }
+
+    @Test
+    void parse_ShouldSkipSeriesThatWereNotRequested() throws IOException {
+        Map<Series, PriceSeries> result = MarketChartParser.parse(stream(RESPONSE), EnumSet.of(Series.MARKET_CAPS));
+
+        assertEquals(1, result.size());
+        assertEquals(2, result.get(Series.MARKET_CAPS).size());
+        assertEquals(6.9E11, result.get(Series.MARKET_CAPS).toPriceArray()[1]);
+    }
+
+    @Test
+    void parsePrices_WithoutPricesField_ShouldReturnNull() throws IOException {
+        assertNull(MarketChartParser.parsePrices(stream("{\"error\": {\"status\": {\"code\": 429}}}")));
+    }
+
+    @Test
+    void parsePrices_WithLargeSeries_ShouldGrowBuffers() throws IOException {
+        StringBuilder json = new StringBuilder("{\"prices\":[");
+        for (int i = 0; i < 5000; i++) {
+            if (i > 0) json.append(',');
+            json.append('[').append(1700000000000L + i * 3600000L).append(',').append(100 + i).append(']');
+        }
+        json.append("]}");
+
+        PriceSeries points = MarketChartParser.parsePrices(stream(json.toString()));
+
+        assertEquals(5000, points.size());
+        assertEquals(5099.0, points.toPriceArray()[4999]);
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}